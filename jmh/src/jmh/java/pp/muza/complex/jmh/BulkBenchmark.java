@@ -0,0 +1,149 @@
+package pp.muza.complex.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import pp.muza.complex.Complex;
+import pp.muza.complex.bulk.ComplexArray;
+import pp.muza.complex.bulk.FloatComplexArray;
+import pp.muza.complex.impl.BaseComplex;
+import pp.muza.complex.impl.ComplexView;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the bulk operations of {@link ComplexArray}.
+ * The {@code float} benchmarks run the same operations over {@link FloatComplexArray} with the same (rounded) values,
+ * for large sizes they show the effect of half the memory traffic.
+ * The {@code interleaved} benchmarks scan the same values kept vector after vector in one {@code double[]}
+ * with a {@link ComplexView} moved over the array and with a new {@link BaseComplex} copied per vector.
+ * <p>
+ * On Java 17 the build script adds the module {@code jdk.incubator.vector}, so the vector kernels are measured,
+ * add {@code -Dpp.muza.complex.vector=false} to the JVM arguments of the forks or run on Java 11 to measure the scalar kernels.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BulkBenchmark {
+
+    @Param({"2", "3", "16"})
+    int dimension;
+
+    @Param({"1024", "1048576"})
+    int size;
+
+    ComplexArray array;
+    FloatComplexArray floatArray;
+    double[] interleaved;
+    Complex query;
+    double[] out;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        array = new ComplexArray(size, dimension);
+        double[] values = new double[dimension];
+        for (int i = 0; i < size; i++) {
+            for (int d = 0; d < dimension; d++) {
+                values[d] = random.nextDouble() * 2.0 - 1.0;
+            }
+            array.set(i, values);
+        }
+        for (int d = 0; d < dimension; d++) {
+            values[d] = random.nextDouble() * 2.0 - 1.0;
+        }
+        query = Complex.of(values);
+        interleaved = new double[size * dimension];
+        for (int i = 0; i < size; i++) {
+            System.arraycopy(array.get(i), 0, interleaved, i * dimension, dimension);
+        }
+        floatArray = new FloatComplexArray(size, dimension);
+        for (int i = 0; i < size; i++) {
+            floatArray.set(i, array.get(i));
+        }
+        out = new double[size];
+    }
+
+    @Benchmark
+    public double[] dot() {
+        array.dot(query, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] squareModule() {
+        array.squareModule(out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] squareDistance() {
+        array.squareDistance(query, out);
+        return out;
+    }
+
+    @Benchmark
+    public int nearest() {
+        return array.nearest(query);
+    }
+
+    @Benchmark
+    public ComplexArray normalize() {
+        array.normalize();
+        return array;
+    }
+
+    /**
+     * The total square module through the stream of reusable views, compare with {@link #squareModule()}.
+     */
+    @Benchmark
+    public double streamSquareModule() {
+        return array.stream().mapToDouble(Complex::squareModule).sum();
+    }
+
+    @Benchmark
+    public double[] floatDot() {
+        floatArray.dot(query, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] floatSquareDistance() {
+        floatArray.squareDistance(query, out);
+        return out;
+    }
+
+    @Benchmark
+    public int floatNearest() {
+        return floatArray.nearest(query);
+    }
+
+    @Benchmark
+    public double interleavedView() {
+        ComplexView view = new ComplexView(interleaved, 0, dimension);
+        double res = 0.0;
+        for (int offset = 0; offset < interleaved.length; offset += dimension) {
+            view.moveTo(offset);
+            res += view.squareModule();
+        }
+        return res;
+    }
+
+    @Benchmark
+    public double interleavedCopy() {
+        double res = 0.0;
+        for (int offset = 0; offset < interleaved.length; offset += dimension) {
+            Complex complex = new BaseComplex(Arrays.copyOfRange(interleaved, offset, offset + dimension));
+            res += complex.squareModule();
+        }
+        return res;
+    }
+}
@@ -0,0 +1,75 @@
+package pp.muza.complex.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import pp.muza.complex.Complex;
+import pp.muza.complex.concurrent.ComplexCollectors;
+import pp.muza.complex.concurrent.ComplexSummaryStatistics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link ComplexCollectors}: the sum collector against {@code reduce(Complex::add)},
+ * that creates a new complex number for every pair, sequential and parallel.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CollectorsBenchmark {
+
+    @Param({"2", "3"})
+    int dimension;
+
+    @Param({"1024", "1048576"})
+    int size;
+
+    List<Complex> values;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        values = new ArrayList<>(size);
+        double[] v = new double[dimension];
+        for (int i = 0; i < size; i++) {
+            for (int d = 0; d < dimension; d++) {
+                v[d] = random.nextDouble() * 2.0 - 1.0;
+            }
+            values.add(Complex.of(v));
+        }
+    }
+
+    @Benchmark
+    public Complex reduceAdd() {
+        return values.stream().reduce(Complex::add).orElseThrow();
+    }
+
+    @Benchmark
+    public Complex reduceAddParallel() {
+        return values.parallelStream().reduce(Complex::add).orElseThrow();
+    }
+
+    @Benchmark
+    public Complex sum() {
+        return values.stream().collect(ComplexCollectors.sum());
+    }
+
+    @Benchmark
+    public Complex sumParallel() {
+        return values.parallelStream().collect(ComplexCollectors.sum());
+    }
+
+    @Benchmark
+    public ComplexSummaryStatistics summarizingParallel() {
+        return values.parallelStream().collect(ComplexCollectors.summarizing());
+    }
+}
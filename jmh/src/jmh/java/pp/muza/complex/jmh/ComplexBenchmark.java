@@ -0,0 +1,244 @@
+package pp.muza.complex.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import pp.muza.complex.Complex;
+import pp.muza.complex.impl.BaseComplex;
+import pp.muza.complex.impl.MemoizedComplex;
+import pp.muza.complex.transform.Rotation;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link BaseComplex} and the static helpers of {@link Complex}.
+ * <p>
+ * Run with {@code ./gradlew :jmh:jmh}, the GC profiler is enabled in the build script
+ * so every benchmark also reports its allocation rate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ComplexBenchmark {
+
+    private static final long SEED = 42;
+
+    /**
+     * Two random vectors of any dimension.
+     */
+    @State(Scope.Thread)
+    public static class Vectors {
+
+        @Param({"2", "3", "16", "1024"})
+        int dimension;
+
+        Complex a;
+        Complex b;
+        double scale;
+        double angle;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Random random = new Random(SEED);
+            a = random(random, dimension);
+            b = random(random, dimension);
+            scale = random.nextDouble();
+            angle = random.nextDouble() * Complex.ANGLE_360;
+        }
+    }
+
+    /**
+     * Two random vectors of the dimensions supported by the cross-product.
+     */
+    @State(Scope.Thread)
+    public static class CrossVectors {
+
+        @Param({"2", "3"})
+        int crossDimension;
+
+        Complex a;
+        Complex b;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Random random = new Random(SEED);
+            a = random(random, crossDimension);
+            b = random(random, crossDimension);
+        }
+    }
+
+    /**
+     * Random vectors of the dimension supported by the rotation and the complex arithmetic.
+     */
+    @State(Scope.Thread)
+    public static class PlanarVectors {
+
+        @Param({"2"})
+        int planarDimension;
+
+        Complex a;
+        Complex b;
+        Complex out;
+        MemoizedComplex memoized;
+        double angle;
+        Rotation rotation;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Random random = new Random(SEED);
+            a = random(random, planarDimension);
+            b = random(random, planarDimension);
+            out = new BaseComplex(planarDimension);
+            memoized = new MemoizedComplex(a);
+            angle = random.nextDouble() * Complex.ANGLE_360;
+            rotation = Rotation.of(angle);
+        }
+    }
+
+    private static Complex random(Random random, int dimension) {
+        double[] values = new double[dimension];
+        for (int i = 0; i < dimension; i++) {
+            values[i] = random.nextDouble() * 2.0 - 1.0;
+        }
+        return new BaseComplex(values);
+    }
+
+    @Benchmark
+    public Complex add(Vectors v) {
+        return Complex.add(v.a, v.b);
+    }
+
+    @Benchmark
+    public Complex sub(Vectors v) {
+        return Complex.sub(v.a, v.b);
+    }
+
+    @Benchmark
+    public Complex multiple(CrossVectors v) {
+        return Complex.multiple(v.a, v.b);
+    }
+
+    @Benchmark
+    public Complex scale(Vectors v) {
+        return Complex.scale(v.a, v.scale);
+    }
+
+    @Benchmark
+    public double dot(Vectors v) {
+        return Complex.dot(v.a, v.b);
+    }
+
+    @Benchmark
+    public Complex rotate(PlanarVectors v) {
+        return Complex.rotate(v.a, v.angle);
+    }
+
+    @Benchmark
+    public Complex rotateTo(PlanarVectors v) {
+        return Complex.rotate(v.a, v.angle, v.out);
+    }
+
+    @Benchmark
+    public Complex rotation(PlanarVectors v) {
+        return v.rotation.applyTo(v.a, v.out);
+    }
+
+    /**
+     * The module of an unchanged value, calculated every time.
+     */
+    @Benchmark
+    public double module(PlanarVectors v) {
+        return Math.sqrt(v.a.squareModule()) + Math.atan2(v.a.getValue(1), v.a.getValue(0));
+    }
+
+    /**
+     * The module and the argument of an unchanged value, served from the caches of {@link MemoizedComplex}.
+     */
+    @Benchmark
+    public double memoizedModule(PlanarVectors v) {
+        return v.memoized.module() + v.memoized.argument();
+    }
+
+    @Benchmark
+    public Complex mulTo(PlanarVectors v) {
+        return Complex.mul(v.a, v.b, v.out);
+    }
+
+    @Benchmark
+    public Complex divTo(PlanarVectors v) {
+        return Complex.div(v.a, v.b, v.out);
+    }
+
+    @Benchmark
+    public Complex expTo(PlanarVectors v) {
+        return Complex.exp(v.a, v.out);
+    }
+
+    @Benchmark
+    public Complex powTo(PlanarVectors v) {
+        return Complex.pow(v.a, 5, v.out);
+    }
+
+    @Benchmark
+    public double distance(Vectors v) {
+        return Complex.distance(v.a, v.b);
+    }
+
+    @Benchmark
+    public double angle(Vectors v) {
+        return Complex.angle(v.a, v.b);
+    }
+
+    @Benchmark
+    public Complex normalize(Vectors v) {
+        return Complex.normalize(v.a);
+    }
+
+    /**
+     * The square module of an unchanged value, served from the cache.
+     */
+    @Benchmark
+    public double squareModule(Vectors v) {
+        return v.a.squareModule();
+    }
+
+    /**
+     * The square module right after a change, the cache is invalidated by {@code onChange()}.
+     */
+    @Benchmark
+    public double squareModuleAfterChange(Vectors v) {
+        v.a.setValue(0, v.scale);
+        return v.a.squareModule();
+    }
+
+    /**
+     * In-place change, measures the cost of {@code onChange()} bookkeeping.
+     */
+    @Benchmark
+    public Complex change(Vectors v) {
+        v.a.change(v.b);
+        v.a.dec(v.b);
+        return v.a;
+    }
+
+    @Benchmark
+    public boolean equals(Vectors v) {
+        return v.a.equals(v.b);
+    }
+
+    @Benchmark
+    public int hashCode(Vectors v) {
+        return v.a.hashCode();
+    }
+
+    @Benchmark
+    public Complex copy(Vectors v) {
+        return v.a.copy();
+    }
+}
@@ -0,0 +1,89 @@
+package pp.muza.complex.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import pp.muza.complex.Complex;
+import pp.muza.complex.bulk.ComplexArray;
+import pp.muza.complex.expr.Expr;
+import pp.muza.complex.expr.Program;
+import pp.muza.complex.impl.BaseComplex;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@code add(scale(a, 2), sub(b, c))}: the static methods of {@link Complex},
+ * which create a complex number per operation, against a compiled {@link Program}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ExprBenchmark {
+
+    private static final int SIZE = 1024;
+
+    @Param({"2", "3"})
+    int dimension;
+
+    Complex a;
+    Complex b;
+    Complex c;
+    Complex out;
+    Complex[] inputs;
+    Program program;
+    ComplexArray as;
+    ComplexArray bs;
+    ComplexArray cs;
+    ComplexArray outs;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        a = random(random);
+        b = random(random);
+        c = random(random);
+        out = new BaseComplex(dimension);
+        inputs = new Complex[]{a, b, c};
+        program = Expr.add(Expr.scale(Expr.input(0), 2), Expr.sub(Expr.input(1), Expr.input(2))).compile(dimension);
+        as = new ComplexArray(SIZE, dimension);
+        bs = new ComplexArray(SIZE, dimension);
+        cs = new ComplexArray(SIZE, dimension);
+        outs = new ComplexArray(SIZE, dimension);
+        for (int i = 0; i < SIZE; i++) {
+            as.set(i, random(random));
+            bs.set(i, random(random));
+            cs.set(i, random(random));
+        }
+    }
+
+    private Complex random(Random random) {
+        double[] values = new double[dimension];
+        for (int d = 0; d < dimension; d++) {
+            values[d] = random.nextDouble() * 2.0 - 1.0;
+        }
+        return new BaseComplex(values);
+    }
+
+    @Benchmark
+    public Complex eager() {
+        return Complex.add(Complex.scale(a, 2), Complex.sub(b, c));
+    }
+
+    @Benchmark
+    public Complex program() {
+        return program.evaluate(out, inputs);
+    }
+
+    @Benchmark
+    public ComplexArray programElementWise() {
+        program.evaluate(outs, as, bs, cs);
+        return outs;
+    }
+}
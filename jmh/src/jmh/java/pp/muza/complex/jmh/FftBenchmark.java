@@ -0,0 +1,63 @@
+package pp.muza.complex.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import pp.muza.complex.fft.Fft;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link Fft}, the sizes cover the radix-2, the Bluestein and the parallel transforms.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FftBenchmark {
+
+    @Param({"1024", "1000", "1048576"})
+    int size;
+
+    Fft fft;
+    double[] re;
+    double[] im;
+    double[] samples;
+    double[] spectrumRe;
+    double[] spectrumIm;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        fft = Fft.of(size);
+        re = new double[size];
+        im = new double[size];
+        samples = new double[size];
+        for (int i = 0; i < size; i++) {
+            re[i] = random.nextDouble();
+            im[i] = random.nextDouble();
+            samples[i] = random.nextDouble();
+        }
+        spectrumRe = new double[size / 2 + 1];
+        spectrumIm = new double[size / 2 + 1];
+    }
+
+    @Benchmark
+    public double[] forwardInverse() {
+        fft.forward(re, im);
+        fft.inverse(re, im);
+        return re;
+    }
+
+    @Benchmark
+    public double[] realForward() {
+        fft.realForward(samples, spectrumRe, spectrumIm);
+        return spectrumRe;
+    }
+}
@@ -0,0 +1,66 @@
+package pp.muza.complex.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import pp.muza.complex.Complex;
+import pp.muza.complex.impl.BaseComplex;
+import pp.muza.complex.transform.AffineTransform3;
+import pp.muza.complex.transform.Quaternion;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for a chain of 3D rotations: composed as quaternions against composed as matrices,
+ * the composed rotation is applied to one vector.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class QuaternionBenchmark {
+
+    private static final int CHAIN = 8;
+
+    Quaternion[] quaternions;
+    AffineTransform3[] matrices;
+    Complex vector;
+    Complex out;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        quaternions = new Quaternion[CHAIN];
+        matrices = new AffineTransform3[CHAIN];
+        for (int i = 0; i < CHAIN; i++) {
+            quaternions[i] = Quaternion.fromAxisAngle(random.nextDouble(), random.nextDouble(), random.nextDouble(),
+                    random.nextDouble() * Complex.ANGLE_360);
+            matrices[i] = quaternions[i].toAffineTransform();
+        }
+        vector = new BaseComplex(random.nextDouble(), random.nextDouble(), random.nextDouble());
+        out = new BaseComplex(3);
+    }
+
+    @Benchmark
+    public Complex quaternionChain() {
+        Quaternion q = Quaternion.IDENTITY;
+        for (Quaternion next : quaternions) {
+            q = q.then(next);
+        }
+        return q.applyTo(vector, out);
+    }
+
+    @Benchmark
+    public Complex matrixChain() {
+        AffineTransform3 m = AffineTransform3.IDENTITY;
+        for (AffineTransform3 next : matrices) {
+            m = m.then(next);
+        }
+        return m.applyTo(vector, out);
+    }
+}
@@ -0,0 +1,91 @@
+package pp.muza.complex.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import pp.muza.complex.Complex;
+import pp.muza.complex.bulk.ComplexArray;
+import pp.muza.complex.impl.BaseComplex;
+import pp.muza.complex.transform.AffineTransform2;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for a chain of rotate, scale and translate applied to 2D points:
+ * three passes of {@link Complex} methods against one fused pass of {@link AffineTransform2}.
+ * <p>
+ * The chain is followed by its inverse, so the points stay in place between invocations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TransformBenchmark {
+
+    private static final double ANGLE = 0.3;
+    private static final double SCALE = 1.5;
+
+    @Param({"1024", "1048576"})
+    int size;
+
+    Complex[] values;
+    ComplexArray array;
+    AffineTransform2 transform;
+    AffineTransform2 inverse;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        values = new Complex[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = new BaseComplex(random.nextDouble() * 2.0 - 1.0, random.nextDouble() * 2.0 - 1.0);
+        }
+        array = ComplexArray.of(2, values);
+        transform = AffineTransform2.rotation(ANGLE)
+                .then(AffineTransform2.scaling(SCALE))
+                .then(AffineTransform2.translation(1, -1));
+        inverse = transform.inverse();
+    }
+
+    @Benchmark
+    public Complex[] chain() {
+        for (Complex value : values) {
+            value.rotate(ANGLE);
+            value.scale(SCALE);
+            value.change(1, -1);
+        }
+        for (Complex value : values) {
+            value.change(-1, 1);
+            value.scale(1 / SCALE);
+            value.rotate(-ANGLE);
+        }
+        return values;
+    }
+
+    @Benchmark
+    public Complex[] fused() {
+        transform.applyTo(values);
+        inverse.applyTo(values);
+        return values;
+    }
+
+    @Benchmark
+    public ComplexArray fusedArray() {
+        transform.applyTo(array);
+        inverse.applyTo(array);
+        return array;
+    }
+
+    @Benchmark
+    public ComplexArray fusedArrayParallel() {
+        transform.applyToParallel(array);
+        inverse.applyToParallel(array);
+        return array;
+    }
+}
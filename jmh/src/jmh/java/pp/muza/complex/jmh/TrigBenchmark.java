@@ -0,0 +1,78 @@
+package pp.muza.complex.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import pp.muza.complex.Complex;
+import pp.muza.complex.impl.BaseComplex;
+import pp.muza.complex.trig.Trig;
+import pp.muza.complex.trig.TrigProvider;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the {@link TrigProvider} implementations and the operations that use them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TrigBenchmark {
+
+    @Param({"STRICT", "TABLE", "POLYNOMIAL"})
+    String provider;
+
+    double angle;
+    double ratio;
+    Complex a;
+    Complex b;
+    Complex out;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        Trig.setProvider((TrigProvider) TrigProvider.class.getField(provider).get(null));
+        Random random = new Random(42);
+        angle = random.nextDouble() * Complex.ANGLE_360;
+        ratio = random.nextDouble() * 2.0 - 1.0;
+        a = new BaseComplex(random.nextDouble(), random.nextDouble());
+        b = new BaseComplex(random.nextDouble(), random.nextDouble());
+        out = new BaseComplex(2);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Trig.setProvider(TrigProvider.STRICT);
+    }
+
+    @Benchmark
+    public double sinCos() {
+        return Trig.sin(angle) + Trig.cos(angle);
+    }
+
+    @Benchmark
+    public double acos() {
+        return Trig.acos(ratio);
+    }
+
+    @Benchmark
+    public Complex rotate() {
+        return Complex.rotate(a, angle, out);
+    }
+
+    @Benchmark
+    public Complex fromPolar() {
+        return Complex.fromPolar(1.0, angle);
+    }
+
+    @Benchmark
+    public double angle() {
+        return Complex.angle(a, b);
+    }
+}
@@ -1,6 +1,9 @@
 package pp.muza.complex;
 
 import pp.muza.complex.impl.ComplexUtils;
+import pp.muza.complex.metrics.Metrics;
+import pp.muza.complex.metrics.Operation;
+import pp.muza.complex.trig.Trig;
 
 import java.beans.Transient;
 
@@ -11,6 +14,9 @@ import java.beans.Transient;
  * It is used to represent a vector in a 2D or 3D space or a complex number.
  * Most methods change the state of the object.
  * Use static methods for mathematical operations that return a new object.
+ * <p>
+ * Implementations are compared by value: two complex numbers are equal
+ * if they have the same dimension and the same values.
  */
 @SuppressWarnings("unused")
 public interface Complex {
@@ -35,6 +41,10 @@ public interface Complex {
      * The zero vector
      */
     Complex ZERO = Complex.immutableOf(0.0, 0.0);
+    /**
+     * The complex one
+     */
+    Complex ONE = Complex.immutableOf(1.0, 0.0);
 
     /**
      * The X dimension index
@@ -208,14 +218,15 @@ public interface Complex {
     }
 
     /**
-     * Create a new complex number from polar coordinates in 2D
+     * Create a new complex number from polar coordinates in 2D,
+     * the cosine and the sine are calculated with the current {@link Trig} provider
      *
      * @param r   the radius
      * @param phi the angle
      * @return a new complex number
      */
     static Complex fromPolar(double r, double phi) {
-        return ComplexUtils.of(r * Math.cos(phi), r * Math.sin(phi));
+        return ComplexUtils.of(r * Trig.cos(phi), r * Trig.sin(phi));
     }
 
     /**
@@ -229,9 +240,31 @@ public interface Complex {
         if (B.getDimension() > A.getDimension()) {
             throw new IllegalArgumentException("Illegal dimension");
         }
-        Complex res = A.copy();
-        res.change(B);
-        return res;
+        return add(A, B, ComplexUtils.newInstance(A.getDimension()));
+    }
+
+    /**
+     * Add two complex numbers and store the result in the destination
+     *
+     * @param A   the first complex number
+     * @param B   the second complex number
+     * @param out the destination, it may be the same object as A or B
+     * @return the destination
+     */
+    static Complex add(Complex A, Complex B, Complex out) {
+        if (Metrics.ENABLED) {
+            Metrics.increment(Operation.ADD);
+        }
+        checkDestination(A, B, out);
+        if (out == A) {
+            out.change(B);
+        } else if (out == B) {
+            out.change(A);
+        } else {
+            out.set(A);
+            out.change(B);
+        }
+        return out;
     }
 
     /**
@@ -245,9 +278,32 @@ public interface Complex {
         if (B.getDimension() > A.getDimension()) {
             throw new IllegalArgumentException("Illegal dimension");
         }
-        Complex res = A.copy();
-        res.dec(B);
-        return res;
+        return sub(A, B, ComplexUtils.newInstance(A.getDimension()));
+    }
+
+    /**
+     * Subtract two complex numbers and store the result in the destination
+     *
+     * @param A   the subtracted complex number
+     * @param B   the subtracting complex number
+     * @param out the destination, it may be the same object as A or B
+     * @return the destination
+     */
+    static Complex sub(Complex A, Complex B, Complex out) {
+        if (Metrics.ENABLED) {
+            Metrics.increment(Operation.SUB);
+        }
+        checkDestination(A, B, out);
+        if (out == A) {
+            out.dec(B);
+        } else if (out == B) {
+            out.scale(-1.0);
+            out.change(A);
+        } else {
+            out.set(A);
+            out.dec(B);
+        }
+        return out;
     }
 
     /**
@@ -263,22 +319,420 @@ public interface Complex {
             throw new IllegalArgumentException("dimensions are not equal");
         }
         int dim = A.getDimension();
-        Complex res;
+        if (dim < 1 || dim > 3) {
+            throw new IllegalArgumentException("not implemented");
+        }
+        return multiple(A, B, ComplexUtils.newInstance(dim == 3 ? 3 : 1));
+    }
 
+    /**
+     * It is a cross-product of two complex numbers, the result is stored in the destination
+     * Supported dimensions: 2, 3
+     *
+     * @param A   the first complex number
+     * @param B   the second complex number
+     * @param out the destination, its dimension is 3 for 3D complex numbers and 1 otherwise,
+     *            it may be the same object as A or B
+     * @return the destination
+     */
+    static Complex multiple(Complex A, Complex B, Complex out) {
+        if (Metrics.ENABLED) {
+            Metrics.increment(Operation.MULTIPLE);
+        }
+        if (A.getDimension() != B.getDimension()) {
+            throw new IllegalArgumentException("dimensions are not equal");
+        }
+        int dim = A.getDimension();
         switch (dim) {
             case 1:
-                res = ComplexUtils.of(A.getValue(0) * B.getValue(0));
-                break;
-            case 2:
-                res = ComplexUtils.of(A.getValue(0) * B.getValue(1) - A.getValue(1) * B.getValue(0));
+            case 2: {
+                if (out.getDimension() != 1) {
+                    throw new IllegalArgumentException("Illegal dimension");
+                }
+                double v = dim == 1
+                        ? A.getValue(0) * B.getValue(0)
+                        : A.getValue(0) * B.getValue(1) - A.getValue(1) * B.getValue(0);
+                out.setValue(0, v);
                 break;
-            case 3:
-                res = ComplexUtils.of(A.getValue(1) * B.getValue(2) - A.getValue(2) * B.getValue(1), A.getValue(2) * B.getValue(0) - A.getValue(0) * B.getValue(2), A.getValue(0) * B.getValue(1) - A.getValue(1) * B.getValue(0));
+            }
+            case 3: {
+                if (out.getDimension() != 3) {
+                    throw new IllegalArgumentException("Illegal dimension");
+                }
+                double ax = A.getValue(0), ay = A.getValue(1), az = A.getValue(2);
+                double bx = B.getValue(0), by = B.getValue(1), bz = B.getValue(2);
+                out.setValue(0, ay * bz - az * by);
+                out.setValue(1, az * bx - ax * bz);
+                out.setValue(2, ax * by - ay * bx);
                 break;
+            }
             default:
                 throw new IllegalArgumentException("not implemented");
         }
-        return res;
+        return out;
+    }
+
+    /**
+     * Create a new complex number by multiplying two complex numbers:
+     * (a + bi)(c + di) = (ac - bd) + (ad + bc)i
+     *
+     * @param A the first complex number (only for 2D)
+     * @param B the second complex number (only for 2D)
+     * @return a new complex number
+     * @throws IllegalArgumentException if the dimension is not 2
+     */
+    static Complex mul(Complex A, Complex B) {
+        checkComplex(A);
+        return mul(A, B, ComplexUtils.newInstance(2));
+    }
+
+    /**
+     * Multiply two complex numbers and store the result in the destination.
+     * If the products overflow although the result is finite, the operands are scaled by powers of two.
+     *
+     * @param A   the first complex number (only for 2D)
+     * @param B   the second complex number (only for 2D)
+     * @param out the destination (only for 2D), it may be the same object as A or B
+     * @return the destination
+     * @throws IllegalArgumentException if the dimension is not 2
+     */
+    static Complex mul(Complex A, Complex B, Complex out) {
+        if (Metrics.ENABLED) {
+            Metrics.increment(Operation.ARITHMETIC);
+        }
+        checkComplex(A, B, out);
+        double a = A.getValue(0);
+        double b = A.getValue(1);
+        double c = B.getValue(0);
+        double d = B.getValue(1);
+        double x = a * c - b * d;
+        double y = a * d + b * c;
+        if (!Double.isFinite(x) || !Double.isFinite(y)) {
+            int ea = Math.getExponent(Math.max(Math.abs(a), Math.abs(b)));
+            int ec = Math.getExponent(Math.max(Math.abs(c), Math.abs(d)));
+            if (ea <= Double.MAX_EXPONENT && ec <= Double.MAX_EXPONENT) {
+                a = Math.scalb(a, -ea);
+                b = Math.scalb(b, -ea);
+                c = Math.scalb(c, -ec);
+                d = Math.scalb(d, -ec);
+                x = Math.scalb(a * c - b * d, ea + ec);
+                y = Math.scalb(a * d + b * c, ea + ec);
+            }
+        }
+        out.set(x, y);
+        return out;
+    }
+
+    /**
+     * Create a new complex number by dividing two complex numbers
+     *
+     * @param A the dividend (only for 2D)
+     * @param B the divisor (only for 2D)
+     * @return a new complex number
+     * @throws IllegalArgumentException if the dimension is not 2
+     */
+    static Complex div(Complex A, Complex B) {
+        checkComplex(A);
+        return div(A, B, ComplexUtils.newInstance(2));
+    }
+
+    /**
+     * Divide two complex numbers and store the result in the destination.
+     * The dividend and the divisor are scaled by powers of two before the products, a subnormal divisor is first
+     * brought to the normal range, so the division overflows or underflows only when the exact quotient does.
+     * A finite dividend divided by an infinite divisor gives zero.
+     * A nonzero dividend divided by zero gives infinities with the signs of the parts of the dividend
+     * (and of the real part of the divisor), a zero part of the dividend stays zero; zero divided by zero is NaN.
+     *
+     * @param A   the dividend (only for 2D)
+     * @param B   the divisor (only for 2D)
+     * @param out the destination (only for 2D), it may be the same object as A or B
+     * @return the destination
+     * @throws IllegalArgumentException if the dimension is not 2
+     */
+    static Complex div(Complex A, Complex B, Complex out) {
+        if (Metrics.ENABLED) {
+            Metrics.increment(Operation.ARITHMETIC);
+        }
+        checkComplex(A, B, out);
+        double a = A.getValue(0);
+        double b = A.getValue(1);
+        double c = B.getValue(0);
+        double d = B.getValue(1);
+        double m = Math.max(Math.abs(c), Math.abs(d));
+        if (Double.isInfinite(m)) {
+            // the infinite parts of the divisor are taken as one and the finite as zero,
+            // an infinite or NaN dividend gives NaN
+            c = Math.copySign(Double.isInfinite(c) ? 1.0 : 0.0, c);
+            d = Math.copySign(Double.isInfinite(d) ? 1.0 : 0.0, d);
+            out.set(0.0 * (a * c + b * d), 0.0 * (b * c - a * d));
+            return out;
+        }
+        if (m == 0.0) {
+            if (a == 0.0 && b == 0.0) {
+                out.set(Double.NaN, Double.NaN);
+            } else {
+                double inf = Math.copySign(Double.POSITIVE_INFINITY, c);
+                out.set(a == 0.0 ? 0.0 : a * inf, b == 0.0 ? 0.0 : b * inf);
+            }
+            return out;
+        }
+        // the exponent of a subnormal is clamped, so a subnormal divisor is scaled to the normal range first
+        int scale = 0;
+        if (m < Double.MIN_NORMAL) {
+            c *= 0x1p54;
+            d *= 0x1p54;
+            m *= 0x1p54;
+            scale = 54;
+        }
+        // the scaling by powers of two is exact, so the larger part of the divisor is in [1, 2)
+        // and the larger part of a finite nonzero dividend is in (0, 2), the products cannot overflow
+        int ec = Math.getExponent(m);
+        c = Math.scalb(c, -ec);
+        d = Math.scalb(d, -ec);
+        scale -= ec;
+        double n = Math.max(Math.abs(a), Math.abs(b));
+        if (n > 0.0 && n <= Double.MAX_VALUE) {
+            int ea = Math.getExponent(n);
+            a = Math.scalb(a, -ea);
+            b = Math.scalb(b, -ea);
+            scale += ea;
+        }
+        double q = c * c + d * d;
+        out.set(Math.scalb((a * c + b * d) / q, scale), Math.scalb((b * c - a * d) / q, scale));
+        return out;
+    }
+
+    /**
+     * Create a new complex number by conjugating a complex number: a - bi
+     *
+     * @param complex the complex number (only for 2D)
+     * @return a new complex number
+     * @throws IllegalArgumentException if the dimension is not 2
+     */
+    static Complex conj(Complex complex) {
+        checkComplex(complex);
+        return conj(complex, ComplexUtils.newInstance(2));
+    }
+
+    /**
+     * Conjugate a complex number and store the result in the destination
+     *
+     * @param complex the complex number (only for 2D)
+     * @param out     the destination (only for 2D), it may be the same object as complex
+     * @return the destination
+     * @throws IllegalArgumentException if the dimension is not 2
+     */
+    static Complex conj(Complex complex, Complex out) {
+        if (Metrics.ENABLED) {
+            Metrics.increment(Operation.ARITHMETIC);
+        }
+        checkComplex(complex, out);
+        out.set(complex.getValue(0), -complex.getValue(1));
+        return out;
+    }
+
+    /**
+     * Create a new complex number by raising e to the power of a complex number
+     *
+     * @param complex the exponent (only for 2D)
+     * @return a new complex number
+     * @throws IllegalArgumentException if the dimension is not 2
+     */
+    static Complex exp(Complex complex) {
+        checkComplex(complex);
+        return exp(complex, ComplexUtils.newInstance(2));
+    }
+
+    /**
+     * Raise e to the power of a complex number and store the result in the destination:
+     * exp(a + bi) = exp(a) * (cos(b) + sin(b)i),
+     * the cosine and the sine are calculated with {@link Math}, not with the {@link Trig} provider
+     *
+     * @param complex the exponent (only for 2D)
+     * @param out     the destination (only for 2D), it may be the same object as complex
+     * @return the destination
+     * @throws IllegalArgumentException if the dimension is not 2
+     */
+    static Complex exp(Complex complex, Complex out) {
+        if (Metrics.ENABLED) {
+            Metrics.increment(Operation.ARITHMETIC);
+        }
+        checkComplex(complex, out);
+        double r = Math.exp(complex.getValue(0));
+        double phi = complex.getValue(1);
+        // exp(a) may overflow, a real exponent must still give a real result
+        out.set(r * Math.cos(phi), phi == 0.0 ? phi : r * Math.sin(phi));
+        return out;
+    }
+
+    /**
+     * Create a new complex number as the principal natural logarithm of a complex number
+     *
+     * @param complex the complex number (only for 2D)
+     * @return a new complex number
+     * @throws IllegalArgumentException if the dimension is not 2
+     */
+    static Complex log(Complex complex) {
+        checkComplex(complex);
+        return log(complex, ComplexUtils.newInstance(2));
+    }
+
+    /**
+     * Calculate the principal natural logarithm of a complex number and store the result in the destination:
+     * log(z) = log(|z|) + arg(z)i, the argument is in the range (-pi, pi]
+     *
+     * @param complex the complex number (only for 2D)
+     * @param out     the destination (only for 2D), it may be the same object as complex
+     * @return the destination
+     * @throws IllegalArgumentException if the dimension is not 2
+     */
+    static Complex log(Complex complex, Complex out) {
+        if (Metrics.ENABLED) {
+            Metrics.increment(Operation.ARITHMETIC);
+        }
+        checkComplex(complex, out);
+        double a = complex.getValue(0);
+        double b = complex.getValue(1);
+        out.set(logModule(a, b), Math.atan2(b, a));
+        return out;
+    }
+
+    /**
+     * Create a new complex number by raising a complex number to a real power
+     *
+     * @param complex the base (only for 2D)
+     * @param power   the exponent
+     * @return a new complex number
+     * @throws IllegalArgumentException if the dimension is not 2
+     */
+    static Complex pow(Complex complex, double power) {
+        checkComplex(complex);
+        return pow(complex, power, ComplexUtils.newInstance(2));
+    }
+
+    /**
+     * Raise a complex number to a real power and store the result in the destination.
+     * Integer powers from -64 to 64 are calculated by repeated squaring, so small powers of exact values are exact:
+     * a real base is raised by {@link Math#pow(double, double)}, another base is scaled by a power of two
+     * before the squaring and the result is scaled back, so it overflows or underflows only when the exact result does.
+     * Other powers are calculated from the polar form: |z|^p * (cos(p * arg(z)) + sin(p * arg(z))i)
+     * with {@link Math}, not with the {@link Trig} provider.
+     *
+     * @param complex the base (only for 2D)
+     * @param power   the exponent
+     * @param out     the destination (only for 2D), it may be the same object as complex
+     * @return the destination
+     * @throws IllegalArgumentException if the dimension is not 2
+     */
+    static Complex pow(Complex complex, double power, Complex out) {
+        if (Metrics.ENABLED) {
+            Metrics.increment(Operation.ARITHMETIC);
+        }
+        checkComplex(complex, out);
+        double a = complex.getValue(0);
+        double b = complex.getValue(1);
+        if (power == (int) power && Math.abs(power) <= 64) {
+            if (b == 0.0) {
+                out.set(Math.pow(a, power), 0.0);
+                return out;
+            }
+            // z = 2^e * (a + bi) with max(|a|, |b|) in [1, 2), z^n = 2^(e * n) * (a + bi)^n
+            double m = Math.max(Math.abs(a), Math.abs(b));
+            int e = 0;
+            if (Double.isFinite(m)) {
+                // the exponent of a subnormal is clamped
+                e = m < Double.MIN_NORMAL ? Math.getExponent(m * 0x1p54) - 54 : Math.getExponent(m);
+                a = Math.scalb(a, -e);
+                b = Math.scalb(b, -e);
+            }
+            int n = Math.abs((int) power);
+            double x = 1.0;
+            double y = 0.0;
+            while (n != 0) {
+                if ((n & 1) != 0) {
+                    double x1 = x * a - y * b;
+                    y = x * b + y * a;
+                    x = x1;
+                }
+                double a1 = a * a - b * b;
+                b = 2.0 * a * b;
+                a = a1;
+                n >>>= 1;
+            }
+            // |(a + bi)^n| is in [1, 2^96], the reciprocal does not overflow
+            int k = e * (int) power;
+            if (power < 0) {
+                double t = 1.0 / (x * x + y * y);
+                x *= t;
+                y *= -t;
+            }
+            out.set(Math.scalb(x, k), Math.scalb(y, k));
+            return out;
+        }
+        if (a == 0.0 && b == 0.0) {
+            // as for an integer power, the argument of zero must not turn an infinite module into NaN
+            out.set(Math.pow(a, power), 0.0);
+            return out;
+        }
+        double r = Math.exp(power * logModule(a, b));
+        double phi = power * Math.atan2(b, a);
+        out.set(r * Math.cos(phi), r * Math.sin(phi));
+        return out;
+    }
+
+    /**
+     * Create a new complex number by raising a complex number to a complex power
+     *
+     * @param A the base (only for 2D)
+     * @param B the exponent (only for 2D)
+     * @return a new complex number
+     * @throws IllegalArgumentException if the dimension is not 2
+     */
+    static Complex pow(Complex A, Complex B) {
+        checkComplex(A);
+        return pow(A, B, ComplexUtils.newInstance(2));
+    }
+
+    /**
+     * Raise a complex number to a complex power and store the result in the destination:
+     * pow(A, B) = exp(B * log(A)) with the principal logarithm.
+     * pow(0, B) is the same as {@link #pow(Complex, double, Complex)} for a real B, otherwise it is 0 if the real part
+     * of B is positive, infinity if it is negative and NaN if it is zero.
+     * The cosine and the sine are calculated with {@link Math}, not with the {@link Trig} provider.
+     *
+     * @param A   the base (only for 2D)
+     * @param B   the exponent (only for 2D)
+     * @param out the destination (only for 2D), it may be the same object as A or B
+     * @return the destination
+     * @throws IllegalArgumentException if the dimension is not 2
+     */
+    static Complex pow(Complex A, Complex B, Complex out) {
+        if (Metrics.ENABLED) {
+            Metrics.increment(Operation.ARITHMETIC);
+        }
+        checkComplex(A, B, out);
+        double a = A.getValue(0);
+        double b = A.getValue(1);
+        double c = B.getValue(0);
+        double d = B.getValue(1);
+        if (a == 0.0 && b == 0.0) {
+            double x;
+            if (d == 0.0) {
+                // the same as the real power
+                x = Math.pow(a, c);
+            } else {
+                x = c > 0.0 ? 0.0 : c < 0.0 ? Double.POSITIVE_INFINITY : Double.NaN;
+            }
+            out.set(x, 0.0);
+            return out;
+        }
+        double lr = logModule(a, b);
+        double li = Math.atan2(b, a);
+        double r = Math.exp(lr * c - li * d);
+        double phi = lr * d + li * c;
+        out.set(r * Math.cos(phi), r * Math.sin(phi));
+        return out;
     }
 
     /**
@@ -289,9 +743,27 @@ public interface Complex {
      * @return a new complex number
      */
     static Complex scale(Complex A, double d) {
-        Complex res = A.copy();
-        res.scale(d);
-        return res;
+        return scale(A, d, ComplexUtils.newInstance(A.getDimension()));
+    }
+
+    /**
+     * Scale a complex number and store the result in the destination
+     *
+     * @param A   the scaled complex number
+     * @param d   the scale
+     * @param out the destination, it may be the same object as A
+     * @return the destination
+     */
+    static Complex scale(Complex A, double d, Complex out) {
+        if (Metrics.ENABLED) {
+            Metrics.increment(Operation.SCALE);
+        }
+        checkDestination(A, out);
+        if (out != A) {
+            out.set(A);
+        }
+        out.scale(d);
+        return out;
     }
 
     /**
@@ -302,6 +774,9 @@ public interface Complex {
      * @return dot product of two complex numbers
      */
     static double dot(Complex A, Complex B) {
+        if (Metrics.ENABLED) {
+            Metrics.increment(Operation.DOT);
+        }
         int dim = Math.min(A.getDimension(), B.getDimension());
         double res = 0.0;
         for (int i = 0; i < dim; i++) {
@@ -319,9 +794,28 @@ public interface Complex {
      * @throws IllegalArgumentException if the dimension is not 2
      */
     static Complex rotate(Complex complex, double angle) {
-        Complex res = complex.copy();
-        res.rotate(angle);
-        return res;
+        return rotate(complex, angle, ComplexUtils.newInstance(complex.getDimension()));
+    }
+
+    /**
+     * Rotate the complex number by the angle and store the result in the destination
+     *
+     * @param complex the complex number (only for 2D)
+     * @param angle   the angle in radians
+     * @param out     the destination, it may be the same object as complex
+     * @return the destination
+     * @throws IllegalArgumentException if the dimension is not 2
+     */
+    static Complex rotate(Complex complex, double angle, Complex out) {
+        if (Metrics.ENABLED) {
+            Metrics.increment(Operation.ROTATE);
+        }
+        checkDestination(complex, out);
+        if (out != complex) {
+            out.set(complex);
+        }
+        out.rotate(angle);
+        return out;
     }
 
     /**
@@ -332,7 +826,7 @@ public interface Complex {
      * @return distance between two complex numbers
      */
     static double distance(Complex A, Complex B) {
-        return Math.sqrt(sub(A, B).squareModule());
+        return Math.sqrt(squareDistance(A, B));
     }
 
     /**
@@ -343,24 +837,39 @@ public interface Complex {
      * @return square distance
      */
     static double squareDistance(Complex A, Complex B) {
-        return sub(A, B).squareModule();
+        if (Metrics.ENABLED) {
+            Metrics.increment(Operation.SQUARE_DISTANCE);
+        }
+        if (B.getDimension() > A.getDimension()) {
+            throw new IllegalArgumentException("Illegal dimension");
+        }
+        int dim = A.getDimension();
+        double res = 0.0;
+        for (int i = 0; i < dim; i++) {
+            double d = A.getValue(i) - B.getValue(i);
+            res += d * d;
+        }
+        return res;
     }
 
     /**
-     * Angle between two complex numbers
+     * Angle between two complex numbers, the arc cosine is calculated with the current {@link Trig} provider
      *
      * @param A the first complex number
      * @param B the second complex number
      * @return angle between two complex numbers
      */
     static double angle(Complex A, Complex B) {
+        if (Metrics.ENABLED) {
+            Metrics.increment(Operation.ANGLE);
+        }
         if (A.getDimension() != B.getDimension()) {
             throw new IllegalArgumentException("dimensions are not equal");
         }
         if (A.isNormalized() && B.isNormalized()) {
-            return Math.acos(dot(A, B));
+            return Trig.acos(dot(A, B));
         } else {
-            return Math.acos(dot(A, B) / Math.sqrt(A.squareModule() * B.squareModule()));
+            return Trig.acos(dot(A, B) / Math.sqrt(A.squareModule() * B.squareModule()));
         }
     }
 
@@ -371,9 +880,67 @@ public interface Complex {
      * @return normalized complex number
      */
     static Complex normalize(Complex complex) {
-        Complex result = complex.copy();
-        result.normalize();
-        return result;
+        return normalize(complex, ComplexUtils.newInstance(complex.getDimension()));
+    }
+
+    /**
+     * Normalize the complex number and store the result in the destination
+     *
+     * @param complex the complex number
+     * @param out     the destination, it may be the same object as complex
+     * @return the destination
+     */
+    static Complex normalize(Complex complex, Complex out) {
+        if (Metrics.ENABLED) {
+            Metrics.increment(Operation.NORMALIZE);
+        }
+        checkDestination(complex, out);
+        if (out != complex) {
+            out.set(complex);
+        }
+        out.normalize();
+        return out;
+    }
+
+    private static void checkDestination(Complex A, Complex out) {
+        if (out.getDimension() != A.getDimension()) {
+            throw new IllegalArgumentException("Illegal dimension");
+        }
+    }
+
+    private static void checkDestination(Complex A, Complex B, Complex out) {
+        if (B.getDimension() > A.getDimension()) {
+            throw new IllegalArgumentException("Illegal dimension");
+        }
+        checkDestination(A, out);
+    }
+
+    private static void checkComplex(Complex complex) {
+        if (complex.getDimension() != 2) {
+            throw new IllegalArgumentException("Complex arithmetic is only supported for 2D complex numbers");
+        }
+    }
+
+    private static void checkComplex(Complex A, Complex out) {
+        checkComplex(A);
+        checkComplex(out);
+    }
+
+    private static void checkComplex(Complex A, Complex B, Complex out) {
+        checkComplex(A);
+        checkComplex(B);
+        checkComplex(out);
+    }
+
+    /**
+     * Natural logarithm of the module of a + bi, the square module is used unless it overflows or underflows
+     */
+    private static double logModule(double a, double b) {
+        double s = a * a + b * b;
+        if (s >= Double.MIN_NORMAL && s <= Double.MAX_VALUE) {
+            return 0.5 * Math.log(s);
+        }
+        return Math.log(Math.hypot(a, b));
     }
 
     /**
@@ -478,12 +1045,80 @@ public interface Complex {
     void scale(double scale);
 
     /**
-     * Rotate the vector by the angle, only for two dimensions complex
+     * Rotate the vector by the angle, only for two dimensions complex.
+     * The cosine and the sine are calculated with the current {@link Trig} provider.
      *
      * @param angle the angle in radians
      */
     void rotate(double angle);
 
+    /**
+     * Multiply the value by a complex number, only for two dimensions complex.
+     * V = V * complex
+     *
+     * @param complex the multiplier
+     * @see Complex#mul(Complex, Complex, Complex)
+     */
+    default void mul(Complex complex) {
+        Complex.mul(this, complex, this);
+    }
+
+    /**
+     * Divide the value by a complex number, only for two dimensions complex.
+     * V = V / complex
+     *
+     * @param complex the divisor
+     * @see Complex#div(Complex, Complex, Complex)
+     */
+    default void div(Complex complex) {
+        Complex.div(this, complex, this);
+    }
+
+    /**
+     * Conjugate the value, only for two dimensions complex.
+     */
+    default void conj() {
+        Complex.conj(this, this);
+    }
+
+    /**
+     * Replace the value by e raised to the power of the value, only for two dimensions complex.
+     *
+     * @see Complex#exp(Complex, Complex)
+     */
+    default void exp() {
+        Complex.exp(this, this);
+    }
+
+    /**
+     * Replace the value by its principal natural logarithm, only for two dimensions complex.
+     *
+     * @see Complex#log(Complex, Complex)
+     */
+    default void log() {
+        Complex.log(this, this);
+    }
+
+    /**
+     * Raise the value to a real power, only for two dimensions complex.
+     *
+     * @param power the exponent
+     * @see Complex#pow(Complex, double, Complex)
+     */
+    default void pow(double power) {
+        Complex.pow(this, power, this);
+    }
+
+    /**
+     * Raise the value to a complex power, only for two dimensions complex.
+     *
+     * @param power the exponent
+     * @see Complex#pow(Complex, Complex, Complex)
+     */
+    default void pow(Complex power) {
+        Complex.pow(this, power, this);
+    }
+
     /**
      * Return the square module of the value
      * S = X*X + Y*Y + Z*Z ...
@@ -523,6 +1158,31 @@ public interface Complex {
      */
     void set(double... values);
 
+    /**
+     * Set the first two values, the other values are zero.
+     * It is the same as {@link #set(double...)} with two values, the implementations write the values
+     * in one change without an intermediate array.
+     *
+     * @param x the first value
+     * @param y the second value
+     */
+    default void set(double x, double y) {
+        set(new double[]{x, y});
+    }
+
+    /**
+     * Set the first three values, the other values are zero.
+     * It is the same as {@link #set(double...)} with three values, the implementations write the values
+     * in one change without an intermediate array.
+     *
+     * @param x the first value
+     * @param y the second value
+     * @param z the third value
+     */
+    default void set(double x, double y, double z) {
+        set(new double[]{x, y, z});
+    }
+
     /**
      * Set values from another complex
      *
@@ -539,7 +1199,8 @@ public interface Complex {
     int getDimension();
 
     /**
-     * Create a copy of the value
+     * Create a copy of the value.
+     * An immutable value may return itself.
      *
      * @return copy of the value
      */
@@ -0,0 +1,43 @@
+package pp.muza.complex.bulk;
+
+import java.util.stream.IntStream;
+
+
+/**
+ * Split of the vectors of a storage into blocks for parallel bulk operations.
+ */
+final class Blocks {
+
+    /**
+     * The number of vectors of one block.
+     */
+    static final int BLOCK_SIZE = 1 << 13;
+
+    private Blocks() {
+    }
+
+    /**
+     * Operation on the vectors from (inclusive) to (exclusive).
+     */
+    @FunctionalInterface
+    interface Range {
+        void apply(int from, int to);
+    }
+
+    /**
+     * Run the operation on all vectors, in one call or on blocks in parallel
+     *
+     * @param size     the number of vectors
+     * @param parallel true to run blocks in parallel
+     * @param range    the operation
+     */
+    static void forEach(int size, boolean parallel, Range range) {
+        if (!parallel || size <= BLOCK_SIZE) {
+            range.apply(0, size);
+            return;
+        }
+        int blocks = (int) ((size + (long) BLOCK_SIZE - 1) / BLOCK_SIZE);
+        IntStream.range(0, blocks).parallel()
+                .forEach(b -> range.apply(b * BLOCK_SIZE, (int) Math.min(size, (long) (b + 1) * BLOCK_SIZE)));
+    }
+}
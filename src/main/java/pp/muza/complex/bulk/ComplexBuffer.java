@@ -0,0 +1,728 @@
+package pp.muza.complex.bulk;
+
+import pp.muza.complex.Complex;
+import pp.muza.complex.impl.ComplexUtils;
+import pp.muza.complex.metrics.BulkOperationEvent;
+import pp.muza.complex.metrics.Metrics;
+import pp.muza.complex.metrics.Operation;
+import pp.muza.complex.transform.AffineTransform2;
+import pp.muza.complex.transform.AffineTransform3;
+import pp.muza.complex.transform.Rotation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+
+/**
+ * Off-heap storage for a fixed number of vectors of the same dimension.
+ * <p>
+ * The values are kept outside the heap in direct or memory-mapped buffers, vector after vector,
+ * as doubles or as floats (see {@link Type}), the values are always read and written as doubles.
+ * A buffer is limited to 2GB, so the storage is split into chunks of up to 1GB,
+ * each chunk holds a power of two vectors.
+ * A mapped file is a plain sequence of doubles with no header, a dataset is opened without parsing.
+ * The memory is released when the storage is garbage collected.
+ * <p>
+ * This class is mutable and not thread safe.
+ */
+public class ComplexBuffer implements ComplexStorage {
+
+    /**
+     * The maximum number of bytes of one chunk.
+     */
+    private static final int MAX_CHUNK_BYTES = 1 << 30;
+
+    /**
+     * The type of the stored values
+     */
+    public enum Type {
+        /**
+         * 64-bit double values
+         */
+        FLOAT64(Double.BYTES),
+        /**
+         * 32-bit float values, values are rounded to float when written
+         */
+        FLOAT32(Float.BYTES);
+
+        private final int bytes;
+
+        Type(int bytes) {
+            this.bytes = bytes;
+        }
+
+        /**
+         * Return the number of bytes of a value
+         *
+         * @return number of bytes
+         */
+        public int getBytes() {
+            return bytes;
+        }
+    }
+
+    private final int size;
+    private final int dimension;
+    private final Type type;
+    /**
+     * The number of bytes of one value.
+     */
+    private final int bytes;
+    /**
+     * The number of bytes of one vector.
+     */
+    private final int stride;
+    /**
+     * The vector index is split into the chunk index {@code index >>> shift} and the index in the chunk {@code index & mask}.
+     */
+    private final int shift;
+    private final int mask;
+    private final ByteBuffer[] chunks;
+    private int version = 0;
+
+    private ComplexBuffer(int size, int dimension, Type type, ByteBuffer[] chunks) {
+        this.size = size;
+        this.dimension = dimension;
+        this.type = type;
+        this.bytes = type.bytes;
+        this.stride = dimension * bytes;
+        this.shift = chunkShift(dimension, type);
+        this.mask = (1 << shift) - 1;
+        this.chunks = chunks;
+    }
+
+    private static int chunkShift(int dimension, Type type) {
+        return 31 - Integer.numberOfLeadingZeros(MAX_CHUNK_BYTES / (dimension * type.bytes));
+    }
+
+    private static void checkArguments(int size, int dimension, Type type) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Size must be positive");
+        }
+        if (dimension <= 0 || dimension > MAX_CHUNK_BYTES / type.bytes) {
+            throw new IllegalArgumentException("Illegal dimension");
+        }
+    }
+
+    private static int chunkCount(int size, int shift) {
+        return (int) ((size + (1L << shift) - 1) >>> shift);
+    }
+
+    /**
+     * Create a new storage of zero vectors of doubles in direct memory
+     *
+     * @param size      the number of vectors
+     * @param dimension the dimension of the vectors
+     * @return a new storage
+     */
+    public static ComplexBuffer allocateDirect(int size, int dimension) {
+        return allocateDirect(size, dimension, Type.FLOAT64);
+    }
+
+    /**
+     * Create a new storage of zero vectors in direct memory
+     *
+     * @param size      the number of vectors
+     * @param dimension the dimension of the vectors
+     * @param type      the type of the stored values
+     * @return a new storage
+     */
+    public static ComplexBuffer allocateDirect(int size, int dimension, Type type) {
+        checkArguments(size, dimension, type);
+        int shift = chunkShift(dimension, type);
+        ByteBuffer[] chunks = new ByteBuffer[chunkCount(size, shift)];
+        for (int c = 0; c < chunks.length; c++) {
+            int slots = Math.min(1 << shift, size - (c << shift));
+            chunks[c] = ByteBuffer.allocateDirect(slots * dimension * type.bytes).order(ByteOrder.nativeOrder());
+        }
+        return new ComplexBuffer(size, dimension, type, chunks);
+    }
+
+    /**
+     * Map a file of little-endian doubles, the number of vectors is calculated from the file size
+     *
+     * @param file      the file
+     * @param dimension the dimension of the vectors
+     * @param mode      the map mode, changes are written to the file only in {@link FileChannel.MapMode#READ_WRITE} mode
+     * @return a new storage
+     * @throws IOException if the file cannot be mapped
+     */
+    public static ComplexBuffer map(Path file, int dimension, FileChannel.MapMode mode) throws IOException {
+        checkArguments(0, dimension, Type.FLOAT64);
+        try (FileChannel channel = open(file, mode)) {
+            long size = channel.size() / ((long) dimension * Double.BYTES);
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Too many vectors: " + size);
+            }
+            return map(channel, 0, (int) size, dimension, mode, ByteOrder.LITTLE_ENDIAN, Type.FLOAT64);
+        }
+    }
+
+    /**
+     * Create a new file of zero vectors and map it in {@link FileChannel.MapMode#READ_WRITE} mode.
+     * An existing file is truncated.
+     *
+     * @param file      the file
+     * @param size      the number of vectors
+     * @param dimension the dimension of the vectors
+     * @return a new storage
+     * @throws IOException if the file cannot be created
+     */
+    public static ComplexBuffer create(Path file, int size, int dimension) throws IOException {
+        checkArguments(size, dimension, Type.FLOAT64);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return map(channel, 0, size, dimension, FileChannel.MapMode.READ_WRITE, ByteOrder.LITTLE_ENDIAN, Type.FLOAT64);
+        }
+    }
+
+    /**
+     * Map a region of a file channel. The channel may be closed after the mapping.
+     *
+     * @param channel   the file channel
+     * @param position  the position of the first vector in the file
+     * @param size      the number of vectors
+     * @param dimension the dimension of the vectors
+     * @param mode      the map mode
+     * @param order     the byte order of the values
+     * @param type      the type of the stored values
+     * @return a new storage
+     * @throws IOException if the region cannot be mapped
+     */
+    public static ComplexBuffer map(FileChannel channel, long position, int size, int dimension,
+                                    FileChannel.MapMode mode, ByteOrder order, Type type) throws IOException {
+        checkArguments(size, dimension, type);
+        int shift = chunkShift(dimension, type);
+        ByteBuffer[] chunks = new ByteBuffer[chunkCount(size, shift)];
+        long chunkBytes = (long) dimension * type.bytes << shift;
+        for (int c = 0; c < chunks.length; c++) {
+            int slots = Math.min(1 << shift, size - (c << shift));
+            chunks[c] = channel.map(mode, position + c * chunkBytes, (long) slots * dimension * type.bytes).order(order);
+        }
+        return new ComplexBuffer(size, dimension, type, chunks);
+    }
+
+    /**
+     * Open a file to map, a private mapping needs a writable channel as well
+     */
+    private static FileChannel open(Path file, FileChannel.MapMode mode) throws IOException {
+        if (mode != FileChannel.MapMode.READ_ONLY) {
+            return FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+        return FileChannel.open(file, StandardOpenOption.READ);
+    }
+
+    /**
+     * Write the changes of a mapped storage to the file, it does nothing for a direct storage
+     */
+    public void force() {
+        for (ByteBuffer chunk : chunks) {
+            if (chunk instanceof MappedByteBuffer) {
+                ((MappedByteBuffer) chunk).force();
+            }
+        }
+    }
+
+    private static void checkIndex(int index) {
+        if (index < 0) {
+            throw new IllegalArgumentException("Index must be positive");
+        }
+    }
+
+    private void checkIndexBounds(int index) {
+        checkIndex(index);
+        if (index >= dimension) {
+            throw new IllegalArgumentException("Index must be less than dimension");
+        }
+    }
+
+    private void checkOut(double[] out) {
+        if (out.length < size) {
+            throw new IllegalArgumentException("Output array is too small");
+        }
+    }
+
+    private void onChange() {
+        version++;
+    }
+
+    private ByteBuffer chunk(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index out of range: " + index);
+        }
+        return chunks[index >>> shift];
+    }
+
+    private int offset(int index) {
+        return (index & mask) * stride;
+    }
+
+    private double read(ByteBuffer chunk, int position) {
+        return type == Type.FLOAT64 ? chunk.getDouble(position) : chunk.getFloat(position);
+    }
+
+    private void write(ByteBuffer chunk, int position, double value) {
+        if (type == Type.FLOAT64) {
+            chunk.putDouble(position, value);
+        } else {
+            chunk.putFloat(position, (float) value);
+        }
+    }
+
+    private double[] values(Complex complex) {
+        double[] res = new double[dimension];
+        for (int d = 0; d < dimension; d++) {
+            res[d] = complex.getValue(d);
+        }
+        return res;
+    }
+
+    /**
+     * Return the type of the stored values
+     *
+     * @return type
+     */
+    public Type getType() {
+        return type;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int getDimension() {
+        return dimension;
+    }
+
+    @Override
+    public int getVersion() {
+        return version;
+    }
+
+    @Override
+    public double getValue(int index, int d) {
+        checkIndex(d);
+        if (d >= dimension) {
+            return 0.0;
+        }
+        return read(chunk(index), offset(index) + d * bytes);
+    }
+
+    @Override
+    public void setValue(int index, int d, double value) {
+        checkIndexBounds(d);
+        onChange();
+        write(chunk(index), offset(index) + d * bytes, value);
+    }
+
+    @Override
+    public double[] get(int index) {
+        ByteBuffer chunk = chunk(index);
+        int offset = offset(index);
+        double[] res = new double[dimension];
+        for (int d = 0; d < dimension; d++) {
+            res[d] = read(chunk, offset + d * bytes);
+        }
+        return res;
+    }
+
+    @Override
+    public void set(int index, double... values) {
+        if (values.length > dimension) {
+            throw new IllegalArgumentException("Dimension mismatch");
+        }
+        ByteBuffer chunk = chunk(index);
+        int offset = offset(index);
+        onChange();
+        for (int d = 0; d < dimension; d++) {
+            write(chunk, offset + d * bytes, d < values.length ? values[d] : 0.0);
+        }
+    }
+
+    @Override
+    public void set(int index, double x, double y) {
+        if (dimension < 2) {
+            throw new IllegalArgumentException("Dimension mismatch");
+        }
+        ByteBuffer chunk = chunk(index);
+        int offset = offset(index);
+        onChange();
+        write(chunk, offset, x);
+        write(chunk, offset + bytes, y);
+        for (int d = 2; d < dimension; d++) {
+            write(chunk, offset + d * bytes, 0.0);
+        }
+    }
+
+    @Override
+    public void set(int index, double x, double y, double z) {
+        if (dimension < 3) {
+            throw new IllegalArgumentException("Dimension mismatch");
+        }
+        ByteBuffer chunk = chunk(index);
+        int offset = offset(index);
+        onChange();
+        write(chunk, offset, x);
+        write(chunk, offset + bytes, y);
+        write(chunk, offset + 2 * bytes, z);
+        for (int d = 3; d < dimension; d++) {
+            write(chunk, offset + d * bytes, 0.0);
+        }
+    }
+
+    @Override
+    public void set(int index, Complex source) {
+        if (source.getDimension() > dimension) {
+            throw new IllegalArgumentException("Dimension mismatch");
+        }
+        ByteBuffer chunk = chunk(index);
+        int offset = offset(index);
+        onChange();
+        for (int d = 0; d < dimension; d++) {
+            write(chunk, offset + d * bytes, source.getValue(d));
+        }
+    }
+
+    @Override
+    public Complex view(int index) {
+        return new StorageView(this, index);
+    }
+
+    @Override
+    public Complex copy(int index) {
+        return ComplexUtils.of(get(index));
+    }
+
+    private void add(int index, double[] values, double sign) {
+        ByteBuffer chunk = chunk(index);
+        int offset = offset(index);
+        onChange();
+        for (int d = 0; d < dimension; d++) {
+            int position = offset + d * bytes;
+            write(chunk, position, read(chunk, position) + sign * values[d]);
+        }
+    }
+
+    private void addAll(double[] values, double sign) {
+        onChange();
+        for (ByteBuffer chunk : chunks) {
+            int limit = chunk.capacity();
+            for (int offset = 0; offset < limit; offset += stride) {
+                for (int d = 0; d < dimension; d++) {
+                    int position = offset + d * bytes;
+                    write(chunk, position, read(chunk, position) + sign * values[d]);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void change(Complex complex) {
+        addAll(values(complex), 1.0);
+    }
+
+    @Override
+    public void change(int index, Complex complex) {
+        add(index, values(complex), 1.0);
+    }
+
+    @Override
+    public void change(int index, double... values) {
+        add(index, values, 1.0);
+    }
+
+    @Override
+    public void dec(Complex complex) {
+        addAll(values(complex), -1.0);
+    }
+
+    @Override
+    public void dec(int index, Complex complex) {
+        add(index, values(complex), -1.0);
+    }
+
+    @Override
+    public void dec(int index, double... values) {
+        add(index, values, -1.0);
+    }
+
+    @Override
+    public void scale(double scale) {
+        onChange();
+        BulkOperationEvent event = Metrics.ENABLED ? Metrics.beginBulk(Operation.BULK_SCALE, size, dimension) : null;
+        for (ByteBuffer chunk : chunks) {
+            int limit = chunk.capacity();
+            for (int position = 0; position < limit; position += bytes) {
+                write(chunk, position, read(chunk, position) * scale);
+            }
+        }
+        if (event != null) {
+            Metrics.endBulk(event);
+        }
+    }
+
+    @Override
+    public void scale(int index, double scale) {
+        ByteBuffer chunk = chunk(index);
+        int offset = offset(index);
+        onChange();
+        for (int d = 0; d < dimension; d++) {
+            int position = offset + d * bytes;
+            write(chunk, position, read(chunk, position) * scale);
+        }
+    }
+
+    @Override
+    public void normalize() {
+        onChange();
+        BulkOperationEvent event = Metrics.ENABLED ? Metrics.beginBulk(Operation.BULK_NORMALIZE, size, dimension) : null;
+        for (ByteBuffer chunk : chunks) {
+            int limit = chunk.capacity();
+            for (int offset = 0; offset < limit; offset += stride) {
+                normalize(chunk, offset);
+            }
+        }
+        if (event != null) {
+            Metrics.endBulk(event);
+        }
+    }
+
+    @Override
+    public void normalize(int index) {
+        ByteBuffer chunk = chunk(index);
+        onChange();
+        normalize(chunk, offset(index));
+    }
+
+    private void normalize(ByteBuffer chunk, int offset) {
+        double m = Math.sqrt(squareModule(chunk, offset));
+        if (m > 0.0) {
+            for (int d = 0; d < dimension; d++) {
+                int position = offset + d * bytes;
+                write(chunk, position, read(chunk, position) / m);
+            }
+        }
+    }
+
+    @Override
+    public void rotate(Rotation rotation) {
+        if (dimension != 2) {
+            throw new IllegalArgumentException("Rotation is only supported for 2D complex numbers");
+        }
+        onChange();
+        BulkOperationEvent event = Metrics.ENABLED ? Metrics.beginBulk(Operation.BULK_ROTATE, size, dimension) : null;
+        double cos = rotation.getCos();
+        double sin = rotation.getSin();
+        for (ByteBuffer chunk : chunks) {
+            int limit = chunk.capacity();
+            for (int offset = 0; offset < limit; offset += stride) {
+                double x = read(chunk, offset);
+                double y = read(chunk, offset + bytes);
+                write(chunk, offset, x * cos - y * sin);
+                write(chunk, offset + bytes, x * sin + y * cos);
+            }
+        }
+        if (event != null) {
+            Metrics.endBulk(event);
+        }
+    }
+
+    @Override
+    public void transform(AffineTransform2 transform, boolean parallel) {
+        if (dimension != 2) {
+            throw new IllegalArgumentException("Dimension mismatch");
+        }
+        onChange();
+        BulkOperationEvent event = Metrics.ENABLED ? Metrics.beginBulk(Operation.BULK_TRANSFORM, size, dimension) : null;
+        double m00 = transform.getValue(0, 0);
+        double m01 = transform.getValue(0, 1);
+        double m02 = transform.getValue(0, 2);
+        double m10 = transform.getValue(1, 0);
+        double m11 = transform.getValue(1, 1);
+        double m12 = transform.getValue(1, 2);
+        Blocks.forEach(size, parallel, (from, to) -> {
+            for (int i = from; i < to; ) {
+                ByteBuffer chunk = chunks[i >>> shift];
+                int end = (int) Math.min(to, ((long) (i >>> shift) + 1) << shift);
+                for (int offset = offset(i); i < end; i++, offset += stride) {
+                    double x = read(chunk, offset);
+                    double y = read(chunk, offset + bytes);
+                    write(chunk, offset, m00 * x + m01 * y + m02);
+                    write(chunk, offset + bytes, m10 * x + m11 * y + m12);
+                }
+            }
+        });
+        if (event != null) {
+            Metrics.endBulk(event);
+        }
+    }
+
+    @Override
+    public void transform(AffineTransform3 transform, boolean parallel) {
+        if (dimension != 3) {
+            throw new IllegalArgumentException("Dimension mismatch");
+        }
+        onChange();
+        BulkOperationEvent event = Metrics.ENABLED ? Metrics.beginBulk(Operation.BULK_TRANSFORM, size, dimension) : null;
+        double[] m = new double[12];
+        for (int r = 0; r < 3; r++) {
+            for (int c = 0; c < 4; c++) {
+                m[r * 4 + c] = transform.getValue(r, c);
+            }
+        }
+        Blocks.forEach(size, parallel, (from, to) -> {
+            for (int i = from; i < to; ) {
+                ByteBuffer chunk = chunks[i >>> shift];
+                int end = (int) Math.min(to, ((long) (i >>> shift) + 1) << shift);
+                for (int offset = offset(i); i < end; i++, offset += stride) {
+                    double x = read(chunk, offset);
+                    double y = read(chunk, offset + bytes);
+                    double z = read(chunk, offset + 2 * bytes);
+                    write(chunk, offset, m[0] * x + m[1] * y + m[2] * z + m[3]);
+                    write(chunk, offset + bytes, m[4] * x + m[5] * y + m[6] * z + m[7]);
+                    write(chunk, offset + 2 * bytes, m[8] * x + m[9] * y + m[10] * z + m[11]);
+                }
+            }
+        });
+        if (event != null) {
+            Metrics.endBulk(event);
+        }
+    }
+
+    private double squareModule(ByteBuffer chunk, int offset) {
+        double res = 0.0;
+        for (int d = 0; d < dimension; d++) {
+            double v = read(chunk, offset + d * bytes);
+            res += v * v;
+        }
+        return res;
+    }
+
+    @Override
+    public double squareModule(int index) {
+        return squareModule(chunk(index), offset(index));
+    }
+
+    @Override
+    public void squareModule(double[] out) {
+        checkOut(out);
+        BulkOperationEvent event = Metrics.ENABLED ? Metrics.beginBulk(Operation.BULK_SQUARE_MODULE, size, dimension) : null;
+        int i = 0;
+        for (ByteBuffer chunk : chunks) {
+            int limit = chunk.capacity();
+            for (int offset = 0; offset < limit; offset += stride) {
+                out[i++] = squareModule(chunk, offset);
+            }
+        }
+        if (event != null) {
+            Metrics.endBulk(event);
+        }
+    }
+
+    private double dot(ByteBuffer chunk, int offset, double[] values, int dim) {
+        double res = 0.0;
+        for (int d = 0; d < dim; d++) {
+            res += read(chunk, offset + d * bytes) * values[d];
+        }
+        return res;
+    }
+
+    @Override
+    public double dot(int index, Complex complex) {
+        int dim = Math.min(dimension, complex.getDimension());
+        ByteBuffer chunk = chunk(index);
+        int offset = offset(index);
+        double res = 0.0;
+        for (int d = 0; d < dim; d++) {
+            res += read(chunk, offset + d * bytes) * complex.getValue(d);
+        }
+        return res;
+    }
+
+    @Override
+    public void dot(Complex complex, double[] out) {
+        checkOut(out);
+        BulkOperationEvent event = Metrics.ENABLED ? Metrics.beginBulk(Operation.BULK_DOT, size, dimension) : null;
+        int dim = Math.min(dimension, complex.getDimension());
+        double[] values = values(complex);
+        int i = 0;
+        for (ByteBuffer chunk : chunks) {
+            int limit = chunk.capacity();
+            for (int offset = 0; offset < limit; offset += stride) {
+                out[i++] = dot(chunk, offset, values, dim);
+            }
+        }
+        if (event != null) {
+            Metrics.endBulk(event);
+        }
+    }
+
+    private double[] query(Complex complex) {
+        if (complex.getDimension() > dimension) {
+            throw new IllegalArgumentException("Illegal dimension");
+        }
+        return values(complex);
+    }
+
+    private double squareDistance(ByteBuffer chunk, int offset, double[] values) {
+        double res = 0.0;
+        for (int d = 0; d < dimension; d++) {
+            double v = read(chunk, offset + d * bytes) - values[d];
+            res += v * v;
+        }
+        return res;
+    }
+
+    @Override
+    public double squareDistance(int index, Complex complex) {
+        return squareDistance(chunk(index), offset(index), query(complex));
+    }
+
+    @Override
+    public void squareDistance(Complex complex, double[] out) {
+        checkOut(out);
+        BulkOperationEvent event = Metrics.ENABLED ? Metrics.beginBulk(Operation.BULK_SQUARE_DISTANCE, size, dimension) : null;
+        double[] values = query(complex);
+        int i = 0;
+        for (ByteBuffer chunk : chunks) {
+            int limit = chunk.capacity();
+            for (int offset = 0; offset < limit; offset += stride) {
+                out[i++] = squareDistance(chunk, offset, values);
+            }
+        }
+        if (event != null) {
+            Metrics.endBulk(event);
+        }
+    }
+
+    @Override
+    public int nearest(Complex complex) {
+        double[] values = query(complex);
+        BulkOperationEvent event = Metrics.ENABLED ? Metrics.beginBulk(Operation.BULK_NEAREST, size, dimension) : null;
+        double best = Double.POSITIVE_INFINITY;
+        int res = -1;
+        int i = 0;
+        for (ByteBuffer chunk : chunks) {
+            int limit = chunk.capacity();
+            for (int offset = 0; offset < limit; offset += stride) {
+                double v = squareDistance(chunk, offset, values);
+                if (v < best) {
+                    best = v;
+                    res = i;
+                }
+                i++;
+            }
+        }
+        if (event != null) {
+            Metrics.endBulk(event);
+        }
+        return res;
+    }
+}
@@ -0,0 +1,324 @@
+package pp.muza.complex.bulk;
+
+import pp.muza.complex.Complex;
+import pp.muza.complex.transform.AffineTransform2;
+import pp.muza.complex.transform.AffineTransform3;
+import pp.muza.complex.transform.Rotation;
+
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+
+/**
+ * Storage for a fixed number of vectors of the same dimension.
+ * <p>
+ * The bulk operations have the same semantics as the corresponding methods of
+ * {@link pp.muza.complex.impl.BaseComplex} applied to every vector.
+ * Vector indexes are checked by the underlying storage.
+ */
+public interface ComplexStorage {
+
+    /**
+     * Return the number of vectors
+     *
+     * @return size
+     */
+    int size();
+
+    /**
+     * Return the dimension of the vectors
+     *
+     * @return dimension
+     */
+    int getDimension();
+
+    /**
+     * The method returns the current version. When a setter is called on the storage or on any of its views,
+     * the version increases by one.
+     *
+     * @return version
+     */
+    int getVersion();
+
+    /**
+     * Return value of the dimension index of the vector
+     *
+     * @param index the vector index
+     * @param d     dimension index
+     * @return value, 0.0 if the dimension index is not less than the dimension
+     */
+    double getValue(int index, int d);
+
+    /**
+     * Set value of the dimension index of the vector
+     *
+     * @param index the vector index
+     * @param d     dimension index
+     * @param value value
+     */
+    void setValue(int index, int d, double value);
+
+    /**
+     * Return values of the vector as array
+     *
+     * @param index the vector index
+     * @return array of values
+     */
+    double[] get(int index);
+
+    /**
+     * Set values of the vector from array, missing values are set to zero
+     *
+     * @param index  the vector index
+     * @param values array of values
+     */
+    void set(int index, double... values);
+
+    /**
+     * Set the first two values of the vector, the other values are zero.
+     * It is the same as {@link #set(int, double...)} with two values, the implementations write the values
+     * in one change without an intermediate array.
+     *
+     * @param index the vector index
+     * @param x     the first value
+     * @param y     the second value
+     */
+    default void set(int index, double x, double y) {
+        set(index, new double[]{x, y});
+    }
+
+    /**
+     * Set the first three values of the vector, the other values are zero.
+     * It is the same as {@link #set(int, double...)} with three values, the implementations write the values
+     * in one change without an intermediate array.
+     *
+     * @param index the vector index
+     * @param x     the first value
+     * @param y     the second value
+     * @param z     the third value
+     */
+    default void set(int index, double x, double y, double z) {
+        set(index, new double[]{x, y, z});
+    }
+
+    /**
+     * Set values of the vector from a complex number
+     *
+     * @param index  the vector index
+     * @param source source complex
+     */
+    void set(int index, Complex source);
+
+    /**
+     * Return a view of the vector. The view reads and writes the values of this storage.
+     * Use {@link Complex#copy()} of the view to get a detached complex number.
+     *
+     * @param index the vector index
+     * @return a view of the vector
+     */
+    Complex view(int index);
+
+    /**
+     * Create a new complex number with the values of the vector
+     *
+     * @param index the vector index
+     * @return a new complex number
+     */
+    Complex copy(int index);
+
+    /**
+     * Return a spliterator over the vectors. The spliterator creates no complex number per vector:
+     * it passes one reusable view that is moved to every vector in turn, a vector that is kept
+     * after the action returns must be detached with {@link Complex#copy()}.
+     * The spliterator is SIZED, SUBSIZED and ORDERED, it splits the range of the vectors in halves.
+     *
+     * @return a new spliterator
+     */
+    default Spliterator<Complex> spliterator() {
+        return new StorageSpliterator(this, 0, size());
+    }
+
+    /**
+     * Return a sequential stream of the vectors, see {@link #spliterator()}
+     *
+     * @return a new stream of reusable views
+     */
+    default Stream<Complex> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Return a parallel stream of the vectors, see {@link #spliterator()}
+     *
+     * @return a new stream of reusable views
+     */
+    default Stream<Complex> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Add the complex number to every vector
+     * V[i] = V[i] + complex
+     *
+     * @param complex change value
+     */
+    void change(Complex complex);
+
+    /**
+     * Add the value to the vector
+     * V[index] = V[index] + complex
+     *
+     * @param index   the vector index
+     * @param complex change value
+     */
+    void change(int index, Complex complex);
+
+    /**
+     * Add the values to the vector
+     * V[index] = V[index] + values
+     *
+     * @param index  the vector index
+     * @param values change values
+     */
+    void change(int index, double... values);
+
+    /**
+     * Subtract the complex number from every vector
+     * V[i] = V[i] - complex
+     *
+     * @param complex decrement value
+     */
+    void dec(Complex complex);
+
+    /**
+     * Subtract the value from the vector
+     * V[index] = V[index] - complex
+     *
+     * @param index   the vector index
+     * @param complex decrement value
+     */
+    void dec(int index, Complex complex);
+
+    /**
+     * Subtract the values from the vector
+     * V[index] = V[index] - values
+     *
+     * @param index  the vector index
+     * @param values decrement values
+     */
+    void dec(int index, double... values);
+
+    /**
+     * Scale every vector
+     * V[i] = V[i] * scale
+     *
+     * @param scale scale factor
+     */
+    void scale(double scale);
+
+    /**
+     * Scale the vector
+     * V[index] = V[index] * scale
+     *
+     * @param index the vector index
+     * @param scale scale factor
+     */
+    void scale(int index, double scale);
+
+    /**
+     * Normalize every vector, zero vectors are left unchanged
+     */
+    void normalize();
+
+    /**
+     * Normalize the vector, a zero vector is left unchanged
+     *
+     * @param index the vector index
+     */
+    void normalize(int index);
+
+    /**
+     * Rotate every vector, it is the same as {@link Complex#rotate(double)}
+     *
+     * @param rotation the rotation
+     * @throws IllegalArgumentException if the dimension is not 2
+     */
+    void rotate(Rotation rotation);
+
+    /**
+     * Transform every vector in one pass, the version is changed once
+     *
+     * @param transform the transform
+     * @param parallel  true to transform blocks of vectors in parallel
+     * @throws IllegalArgumentException if the dimension is not 2
+     */
+    void transform(AffineTransform2 transform, boolean parallel);
+
+    /**
+     * Transform every vector in one pass, the version is changed once
+     *
+     * @param transform the transform
+     * @param parallel  true to transform blocks of vectors in parallel
+     * @throws IllegalArgumentException if the dimension is not 3
+     */
+    void transform(AffineTransform3 transform, boolean parallel);
+
+    /**
+     * Return the square module of the vector
+     * S = X*X + Y*Y + Z*Z ...
+     *
+     * @param index the vector index
+     * @return square module
+     */
+    double squareModule(int index);
+
+    /**
+     * Calculate the square module of every vector
+     *
+     * @param out the array of at least {@link #size()} elements to store the results
+     */
+    void squareModule(double[] out);
+
+    /**
+     * Dot product of the vector and a complex number, it is the same as {@link Complex#dot(Complex, Complex)}
+     *
+     * @param index   the vector index
+     * @param complex the complex number
+     * @return dot product
+     */
+    double dot(int index, Complex complex);
+
+    /**
+     * Dot product of every vector and a complex number
+     *
+     * @param complex the complex number
+     * @param out     the array of at least {@link #size()} elements to store the results
+     */
+    void dot(Complex complex, double[] out);
+
+    /**
+     * Square distance between the vector and a complex number, it is the same as {@link Complex#squareDistance(Complex, Complex)}
+     *
+     * @param index   the vector index
+     * @param complex the complex number, its dimension must not be greater than the dimension of the storage
+     * @return square distance
+     */
+    double squareDistance(int index, Complex complex);
+
+    /**
+     * Square distance between every vector and a complex number
+     *
+     * @param complex the complex number, its dimension must not be greater than the dimension of the storage
+     * @param out     the array of at least {@link #size()} elements to store the results
+     */
+    void squareDistance(Complex complex, double[] out);
+
+    /**
+     * Find the vector nearest to a complex number, the lowest index is returned if there are several
+     *
+     * @param complex the complex number, its dimension must not be greater than the dimension of the storage
+     * @return index of the nearest vector, or -1 if the storage is empty or no distance is finite
+     */
+    int nearest(Complex complex);
+}
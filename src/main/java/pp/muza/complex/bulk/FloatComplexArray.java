@@ -0,0 +1,509 @@
+package pp.muza.complex.bulk;
+
+import pp.muza.complex.Complex;
+import pp.muza.complex.impl.ComplexUtils;
+import pp.muza.complex.metrics.BulkOperationEvent;
+import pp.muza.complex.metrics.Metrics;
+import pp.muza.complex.metrics.Operation;
+import pp.muza.complex.transform.AffineTransform2;
+import pp.muza.complex.transform.AffineTransform3;
+import pp.muza.complex.transform.Rotation;
+
+import java.util.Collection;
+
+
+/**
+ * Storage for a fixed number of vectors of the same dimension with single precision values.
+ * <p>
+ * The layout is the same as of {@link ComplexArray}: one float array per dimension,
+ * so the storage takes half the memory and the bulk operations read half the bytes.
+ * The values are rounded to float when written and read as doubles.
+ * Every operation is calculated in double, the sums of the square module, the dot product
+ * and the square distance are accumulated in double, only the stored results are rounded.
+ * For off-heap float storage see {@link ComplexBuffer.Type#FLOAT32}.
+ * <p>
+ * This class is mutable and not thread safe.
+ */
+public class FloatComplexArray implements ComplexStorage {
+
+    final int size;
+    final int dimension;
+    /**
+     * The values, {@code values[d][i]} is the value of the dimension {@code d} of the vector {@code i}.
+     */
+    final float[][] values;
+    private int version = 0;
+
+    /**
+     * Create a new storage of zero vectors
+     *
+     * @param size      the number of vectors
+     * @param dimension the dimension of the vectors
+     */
+    public FloatComplexArray(int size, int dimension) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Size must be positive");
+        }
+        if (dimension < 0) {
+            throw new IllegalArgumentException("Dimension must be positive");
+        }
+        this.size = size;
+        this.dimension = dimension;
+        this.values = new float[dimension][size];
+    }
+
+    /**
+     * Create a new storage from complex numbers, the values are rounded to float
+     *
+     * @param dimension the dimension of the vectors
+     * @param values    the complex numbers
+     * @return a new storage
+     */
+    public static FloatComplexArray of(int dimension, Complex... values) {
+        FloatComplexArray res = new FloatComplexArray(values.length, dimension);
+        for (int i = 0; i < values.length; i++) {
+            res.set(i, values[i]);
+        }
+        return res;
+    }
+
+    /**
+     * Create a new storage from a collection of complex numbers, the values are rounded to float
+     *
+     * @param dimension the dimension of the vectors
+     * @param values    the complex numbers
+     * @return a new storage
+     */
+    public static FloatComplexArray of(int dimension, Collection<? extends Complex> values) {
+        FloatComplexArray res = new FloatComplexArray(values.size(), dimension);
+        int i = 0;
+        for (Complex value : values) {
+            res.set(i++, value);
+        }
+        return res;
+    }
+
+    private static void checkIndex(int index) {
+        if (index < 0) {
+            throw new IllegalArgumentException("Index must be positive");
+        }
+    }
+
+    private void checkIndexBounds(int index) {
+        checkIndex(index);
+        if (index >= dimension) {
+            throw new IllegalArgumentException("Index must be less than dimension");
+        }
+    }
+
+    private void onChange() {
+        version++;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int getDimension() {
+        return dimension;
+    }
+
+    @Override
+    public int getVersion() {
+        return version;
+    }
+
+    @Override
+    public double getValue(int index, int d) {
+        checkIndex(d);
+        if (d >= dimension) {
+            return 0.0;
+        }
+        return values[d][index];
+    }
+
+    @Override
+    public void setValue(int index, int d, double value) {
+        checkIndexBounds(d);
+        onChange();
+        values[d][index] = (float) value;
+    }
+
+    @Override
+    public double[] get(int index) {
+        double[] res = new double[dimension];
+        for (int d = 0; d < dimension; d++) {
+            res[d] = values[d][index];
+        }
+        return res;
+    }
+
+    @Override
+    public void set(int index, double... values) {
+        if (values.length > dimension) {
+            throw new IllegalArgumentException("Dimension mismatch");
+        }
+        onChange();
+        for (int d = 0; d < dimension; d++) {
+            this.values[d][index] = d < values.length ? (float) values[d] : 0.0f;
+        }
+    }
+
+    @Override
+    public void set(int index, double x, double y) {
+        if (dimension < 2) {
+            throw new IllegalArgumentException("Dimension mismatch");
+        }
+        onChange();
+        values[0][index] = (float) x;
+        values[1][index] = (float) y;
+        for (int d = 2; d < dimension; d++) {
+            values[d][index] = 0.0f;
+        }
+    }
+
+    @Override
+    public void set(int index, double x, double y, double z) {
+        if (dimension < 3) {
+            throw new IllegalArgumentException("Dimension mismatch");
+        }
+        onChange();
+        values[0][index] = (float) x;
+        values[1][index] = (float) y;
+        values[2][index] = (float) z;
+        for (int d = 3; d < dimension; d++) {
+            values[d][index] = 0.0f;
+        }
+    }
+
+    @Override
+    public void set(int index, Complex source) {
+        if (source.getDimension() > dimension) {
+            throw new IllegalArgumentException("Dimension mismatch");
+        }
+        onChange();
+        for (int d = 0; d < dimension; d++) {
+            values[d][index] = (float) source.getValue(d);
+        }
+    }
+
+    @Override
+    public Complex view(int index) {
+        return new StorageView(this, index);
+    }
+
+    @Override
+    public Complex copy(int index) {
+        return ComplexUtils.of(get(index));
+    }
+
+    @Override
+    public void change(Complex complex) {
+        onChange();
+        for (int d = 0; d < dimension; d++) {
+            double v = complex.getValue(d);
+            float[] column = values[d];
+            for (int i = 0; i < size; i++) {
+                column[i] = (float) (column[i] + v);
+            }
+        }
+    }
+
+    @Override
+    public void change(int index, Complex complex) {
+        onChange();
+        for (int d = 0; d < dimension; d++) {
+            values[d][index] = (float) (values[d][index] + complex.getValue(d));
+        }
+    }
+
+    @Override
+    public void change(int index, double... values) {
+        onChange();
+        for (int d = 0; d < dimension; d++) {
+            this.values[d][index] = (float) (this.values[d][index] + values[d]);
+        }
+    }
+
+    @Override
+    public void dec(Complex complex) {
+        onChange();
+        for (int d = 0; d < dimension; d++) {
+            double v = complex.getValue(d);
+            float[] column = values[d];
+            for (int i = 0; i < size; i++) {
+                column[i] = (float) (column[i] - v);
+            }
+        }
+    }
+
+    @Override
+    public void dec(int index, Complex complex) {
+        onChange();
+        for (int d = 0; d < dimension; d++) {
+            values[d][index] = (float) (values[d][index] - complex.getValue(d));
+        }
+    }
+
+    @Override
+    public void dec(int index, double... values) {
+        onChange();
+        for (int d = 0; d < dimension; d++) {
+            this.values[d][index] = (float) (this.values[d][index] - values[d]);
+        }
+    }
+
+    @Override
+    public void scale(double scale) {
+        onChange();
+        BulkOperationEvent event = Metrics.ENABLED ? Metrics.beginBulk(Operation.BULK_SCALE, size, dimension) : null;
+        for (int d = 0; d < dimension; d++) {
+            float[] column = values[d];
+            for (int i = 0; i < size; i++) {
+                column[i] = (float) (column[i] * scale);
+            }
+        }
+        if (event != null) {
+            Metrics.endBulk(event);
+        }
+    }
+
+    @Override
+    public void scale(int index, double scale) {
+        onChange();
+        for (int d = 0; d < dimension; d++) {
+            values[d][index] = (float) (values[d][index] * scale);
+        }
+    }
+
+    private void normalizeAt(int index) {
+        double m = Math.sqrt(squareModule(index));
+        if (m > 0.0) {
+            for (int d = 0; d < dimension; d++) {
+                values[d][index] = (float) (values[d][index] / m);
+            }
+        }
+    }
+
+    @Override
+    public void normalize() {
+        onChange();
+        BulkOperationEvent event = Metrics.ENABLED ? Metrics.beginBulk(Operation.BULK_NORMALIZE, size, dimension) : null;
+        for (int i = 0; i < size; i++) {
+            normalizeAt(i);
+        }
+        if (event != null) {
+            Metrics.endBulk(event);
+        }
+    }
+
+    @Override
+    public void normalize(int index) {
+        onChange();
+        normalizeAt(index);
+    }
+
+    @Override
+    public void rotate(Rotation rotation) {
+        if (dimension != 2) {
+            throw new IllegalArgumentException("Rotation is only supported for 2D complex numbers");
+        }
+        onChange();
+        BulkOperationEvent event = Metrics.ENABLED ? Metrics.beginBulk(Operation.BULK_ROTATE, size, dimension) : null;
+        double cos = rotation.getCos();
+        double sin = rotation.getSin();
+        float[] xs = values[0];
+        float[] ys = values[1];
+        for (int i = 0; i < size; i++) {
+            double x = xs[i];
+            double y = ys[i];
+            xs[i] = (float) (x * cos - y * sin);
+            ys[i] = (float) (x * sin + y * cos);
+        }
+        if (event != null) {
+            Metrics.endBulk(event);
+        }
+    }
+
+    @Override
+    public void transform(AffineTransform2 transform, boolean parallel) {
+        if (dimension != 2) {
+            throw new IllegalArgumentException("Dimension mismatch");
+        }
+        onChange();
+        BulkOperationEvent event = Metrics.ENABLED ? Metrics.beginBulk(Operation.BULK_TRANSFORM, size, dimension) : null;
+        double m00 = transform.getValue(0, 0);
+        double m01 = transform.getValue(0, 1);
+        double m02 = transform.getValue(0, 2);
+        double m10 = transform.getValue(1, 0);
+        double m11 = transform.getValue(1, 1);
+        double m12 = transform.getValue(1, 2);
+        float[] xs = values[0];
+        float[] ys = values[1];
+        Blocks.forEach(size, parallel, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                double x = xs[i];
+                double y = ys[i];
+                xs[i] = (float) (m00 * x + m01 * y + m02);
+                ys[i] = (float) (m10 * x + m11 * y + m12);
+            }
+        });
+        if (event != null) {
+            Metrics.endBulk(event);
+        }
+    }
+
+    @Override
+    public void transform(AffineTransform3 transform, boolean parallel) {
+        if (dimension != 3) {
+            throw new IllegalArgumentException("Dimension mismatch");
+        }
+        onChange();
+        BulkOperationEvent event = Metrics.ENABLED ? Metrics.beginBulk(Operation.BULK_TRANSFORM, size, dimension) : null;
+        double[] m = new double[12];
+        for (int r = 0; r < 3; r++) {
+            for (int c = 0; c < 4; c++) {
+                m[r * 4 + c] = transform.getValue(r, c);
+            }
+        }
+        float[] xs = values[0];
+        float[] ys = values[1];
+        float[] zs = values[2];
+        Blocks.forEach(size, parallel, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                double x = xs[i];
+                double y = ys[i];
+                double z = zs[i];
+                xs[i] = (float) (m[0] * x + m[1] * y + m[2] * z + m[3]);
+                ys[i] = (float) (m[4] * x + m[5] * y + m[6] * z + m[7]);
+                zs[i] = (float) (m[8] * x + m[9] * y + m[10] * z + m[11]);
+            }
+        });
+        if (event != null) {
+            Metrics.endBulk(event);
+        }
+    }
+
+    @Override
+    public double squareModule(int index) {
+        double res = 0.0;
+        for (int d = 0; d < dimension; d++) {
+            double v = values[d][index];
+            res += v * v;
+        }
+        return res;
+    }
+
+    @Override
+    public void squareModule(double[] out) {
+        checkOut(out);
+        BulkOperationEvent event = Metrics.ENABLED ? Metrics.beginBulk(Operation.BULK_SQUARE_MODULE, size, dimension) : null;
+        for (int i = 0; i < size; i++) {
+            out[i] = squareModule(i);
+        }
+        if (event != null) {
+            Metrics.endBulk(event);
+        }
+    }
+
+    private double dot(int index, double[] query, int dim) {
+        double res = 0.0;
+        for (int d = 0; d < dim; d++) {
+            res += values[d][index] * query[d];
+        }
+        return res;
+    }
+
+    @Override
+    public double dot(int index, Complex complex) {
+        int dim = Math.min(dimension, complex.getDimension());
+        double res = 0.0;
+        for (int d = 0; d < dim; d++) {
+            res += values[d][index] * complex.getValue(d);
+        }
+        return res;
+    }
+
+    @Override
+    public void dot(Complex complex, double[] out) {
+        checkOut(out);
+        BulkOperationEvent event = Metrics.ENABLED ? Metrics.beginBulk(Operation.BULK_DOT, size, dimension) : null;
+        int dim = Math.min(dimension, complex.getDimension());
+        double[] query = values(complex, dim);
+        for (int i = 0; i < size; i++) {
+            out[i] = dot(i, query, dim);
+        }
+        if (event != null) {
+            Metrics.endBulk(event);
+        }
+    }
+
+    private double squareDistance(int index, double[] query) {
+        double res = 0.0;
+        for (int d = 0; d < dimension; d++) {
+            double v = values[d][index] - query[d];
+            res += v * v;
+        }
+        return res;
+    }
+
+    @Override
+    public double squareDistance(int index, Complex complex) {
+        return squareDistance(index, query(complex));
+    }
+
+    @Override
+    public void squareDistance(Complex complex, double[] out) {
+        checkOut(out);
+        BulkOperationEvent event = Metrics.ENABLED ? Metrics.beginBulk(Operation.BULK_SQUARE_DISTANCE, size, dimension) : null;
+        double[] query = query(complex);
+        for (int i = 0; i < size; i++) {
+            out[i] = squareDistance(i, query);
+        }
+        if (event != null) {
+            Metrics.endBulk(event);
+        }
+    }
+
+    @Override
+    public int nearest(Complex complex) {
+        double[] query = query(complex);
+        BulkOperationEvent event = Metrics.ENABLED ? Metrics.beginBulk(Operation.BULK_NEAREST, size, dimension) : null;
+        double best = Double.POSITIVE_INFINITY;
+        int res = -1;
+        for (int i = 0; i < size; i++) {
+            double v = squareDistance(i, query);
+            if (v < best) {
+                best = v;
+                res = i;
+            }
+        }
+        if (event != null) {
+            Metrics.endBulk(event);
+        }
+        return res;
+    }
+
+    private static double[] values(Complex complex, int dim) {
+        double[] res = new double[dim];
+        for (int d = 0; d < dim; d++) {
+            res[d] = complex.getValue(d);
+        }
+        return res;
+    }
+
+    private double[] query(Complex complex) {
+        if (complex.getDimension() > dimension) {
+            throw new IllegalArgumentException("Illegal dimension");
+        }
+        return values(complex, dimension);
+    }
+
+    private void checkOut(double[] out) {
+        if (out.length < size) {
+            throw new IllegalArgumentException("Output array is too small");
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package pp.muza.complex.bulk;
+
+
+/**
+ * Loops of the bulk operations of {@link ComplexArray} over its columns.
+ * <p>
+ * The Java 17 part of the multi-release jar contains an implementation based on the incubating Vector API,
+ * it is used when the module {@code jdk.incubator.vector} is added to the runtime
+ * ({@code --add-modules jdk.incubator.vector}) and can be disabled with {@code -Dpp.muza.complex.vector=false}.
+ * Otherwise the scalar implementation is used. Both implementations give the same results.
+ */
+interface Kernels {
+
+    /**
+     * The kernels used by the storages.
+     */
+    Kernels INSTANCE = load();
+
+    private static Kernels load() {
+        if (Boolean.parseBoolean(System.getProperty("pp.muza.complex.vector", "true"))) {
+            try {
+                return (Kernels) Class.forName("pp.muza.complex.bulk.VectorKernels").getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Java 11, the module is not added or the hardware has no vector registers
+            }
+        }
+        return new ScalarKernels();
+    }
+
+    /**
+     * out[i] = sum(columns[d][i] * columns[d][i])
+     */
+    void squareModule(double[][] columns, int dimension, int size, double[] out);
+
+    /**
+     * out[i] = sum(columns[d][i] * values[d]), d &lt; dimension
+     */
+    void dot(double[][] columns, int dimension, int size, double[] values, double[] out);
+
+    /**
+     * out[i] = sum(columns[d][i] * other[d][i]), d &lt; dimension
+     */
+    void dot(double[][] columns, double[][] other, int dimension, int size, double[] out);
+
+    /**
+     * out[i] = sum((columns[d][i] - values[d])^2)
+     */
+    void squareDistance(double[][] columns, int dimension, int size, double[] values, double[] out);
+
+    /**
+     * Divide every vector with a positive module by its module
+     */
+    void normalize(double[][] columns, int dimension, int size);
+
+    /**
+     * Return the lowest index of the minimal square distance to the values, or -1 if there is no distance less than infinity
+     */
+    int nearest(double[][] columns, int dimension, int size, double[] values);
+}
@@ -0,0 +1,100 @@
+package pp.muza.complex.bulk;
+
+
+/**
+ * Scalar kernels, the loops are left to the JIT compiler.
+ */
+final class ScalarKernels implements Kernels {
+
+    static double squareModule(double[][] columns, int dimension, int i) {
+        double res = 0.0;
+        for (int d = 0; d < dimension; d++) {
+            double v = columns[d][i];
+            res += v * v;
+        }
+        return res;
+    }
+
+    static double dot(double[][] columns, int dimension, int i, double[] values) {
+        double res = 0.0;
+        for (int d = 0; d < dimension; d++) {
+            res += columns[d][i] * values[d];
+        }
+        return res;
+    }
+
+    static double dot(double[][] columns, double[][] other, int dimension, int i) {
+        double res = 0.0;
+        for (int d = 0; d < dimension; d++) {
+            res += columns[d][i] * other[d][i];
+        }
+        return res;
+    }
+
+    static double squareDistance(double[][] columns, int dimension, int i, double[] values) {
+        double res = 0.0;
+        for (int d = 0; d < dimension; d++) {
+            double v = columns[d][i] - values[d];
+            res += v * v;
+        }
+        return res;
+    }
+
+    static void normalizeAt(double[][] columns, int dimension, int i) {
+        double m = Math.sqrt(squareModule(columns, dimension, i));
+        if (m > 0.0) {
+            for (int d = 0; d < dimension; d++) {
+                columns[d][i] = columns[d][i] / m;
+            }
+        }
+    }
+
+    @Override
+    public void squareModule(double[][] columns, int dimension, int size, double[] out) {
+        for (int i = 0; i < size; i++) {
+            out[i] = squareModule(columns, dimension, i);
+        }
+    }
+
+    @Override
+    public void dot(double[][] columns, int dimension, int size, double[] values, double[] out) {
+        for (int i = 0; i < size; i++) {
+            out[i] = dot(columns, dimension, i, values);
+        }
+    }
+
+    @Override
+    public void dot(double[][] columns, double[][] other, int dimension, int size, double[] out) {
+        for (int i = 0; i < size; i++) {
+            out[i] = dot(columns, other, dimension, i);
+        }
+    }
+
+    @Override
+    public void squareDistance(double[][] columns, int dimension, int size, double[] values, double[] out) {
+        for (int i = 0; i < size; i++) {
+            out[i] = squareDistance(columns, dimension, i, values);
+        }
+    }
+
+    @Override
+    public void normalize(double[][] columns, int dimension, int size) {
+        for (int i = 0; i < size; i++) {
+            normalizeAt(columns, dimension, i);
+        }
+    }
+
+    @Override
+    public int nearest(double[][] columns, int dimension, int size, double[] values) {
+        double best = Double.POSITIVE_INFINITY;
+        int res = -1;
+        for (int i = 0; i < size; i++) {
+            double v = squareDistance(columns, dimension, i, values);
+            if (v < best) {
+                best = v;
+                res = i;
+            }
+        }
+        return res;
+    }
+}
@@ -0,0 +1,76 @@
+package pp.muza.complex.bulk;
+
+import pp.muza.complex.Complex;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+
+/**
+ * A spliterator over a range of the vectors of a storage.
+ * <p>
+ * Every vector is passed as the same {@link StorageView}, moved to the vector before the action,
+ * so traversal creates no objects. A split creates one view for the new spliterator.
+ * The range is split in halves, so the parts of a parallel stream are of equal size.
+ */
+final class StorageSpliterator implements Spliterator<Complex> {
+
+    private final ComplexStorage storage;
+    private int index;
+    private final int end;
+    private StorageView cursor;
+
+    StorageSpliterator(ComplexStorage storage, int from, int to) {
+        this.storage = storage;
+        this.index = from;
+        this.end = to;
+    }
+
+    private StorageView cursor(int index) {
+        if (cursor == null) {
+            cursor = new StorageView(storage, index);
+        } else {
+            cursor.moveTo(index);
+        }
+        return cursor;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Complex> action) {
+        if (index >= end) {
+            return false;
+        }
+        action.accept(cursor(index++));
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super Complex> action) {
+        int i = index;
+        index = end;
+        for (; i < end; i++) {
+            action.accept(cursor(i));
+        }
+    }
+
+    @Override
+    public Spliterator<Complex> trySplit() {
+        int mid = (index + end) >>> 1;
+        if (mid <= index) {
+            return null;
+        }
+        Spliterator<Complex> res = new StorageSpliterator(storage, index, mid);
+        index = mid;
+        return res;
+    }
+
+    @Override
+    public long estimateSize() {
+        return end - index;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED | NONNULL;
+    }
+}
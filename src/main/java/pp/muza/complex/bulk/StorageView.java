@@ -0,0 +1,243 @@
+package pp.muza.complex.bulk;
+
+import pp.muza.complex.Complex;
+import pp.muza.complex.impl.BaseComplex;
+import pp.muza.complex.impl.ComplexUtils;
+import pp.muza.complex.trig.Trig;
+
+import java.util.Arrays;
+
+
+/**
+ * A complex number view of a vector of a storage.
+ * <p>
+ * The view has no own state except the null flag, derived values are calculated on every call
+ * and the version is the version of the storage.
+ * The view of a {@link StorageSpliterator} is a cursor: it is moved to every vector in turn with {@link #moveTo(int)}.
+ */
+final class StorageView implements Complex {
+
+    private final ComplexStorage storage;
+    private final int dimension;
+    private int index;
+    private int nullVersion;
+
+    StorageView(ComplexStorage storage, int index) {
+        this.storage = storage;
+        this.dimension = storage.getDimension();
+        moveTo(index);
+    }
+
+    /**
+     * Move the view to another vector of the storage, the null flag is cleared
+     *
+     * @param index the index of the vector
+     */
+    void moveTo(int index) {
+        if (index < 0 || index >= storage.size()) {
+            throw new IndexOutOfBoundsException("Index out of range: " + index);
+        }
+        this.index = index;
+        this.nullVersion = storage.getVersion() - 1;
+    }
+
+    @Override
+    public void setNull() {
+        storage.set(index);
+        nullVersion = storage.getVersion();
+    }
+
+    @Override
+    public void setUnassigned() {
+        double[] values = new double[dimension];
+        Arrays.fill(values, Double.NaN);
+        storage.set(index, values);
+    }
+
+    @Override
+    public void normalize() {
+        if (!isNormalized()) {
+            storage.normalize(index);
+        }
+    }
+
+    @Override
+    public boolean isNull() {
+        return nullVersion == storage.getVersion();
+    }
+
+    @Override
+    public boolean isZero() {
+        for (int d = 0; d < dimension; d++) {
+            if (storage.getValue(index, d) != 0.0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isInfinity() {
+        for (int d = 0; d < dimension; d++) {
+            if (Double.isInfinite(storage.getValue(index, d))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isNaN() {
+        for (int d = 0; d < dimension; d++) {
+            if (Double.isNaN(storage.getValue(index, d))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isUnassigned() {
+        return isNaN();
+    }
+
+    @Override
+    public boolean isNormalized() {
+        return !(Math.abs(squareModule() - 1.0) > BaseComplex.EPSILON);
+    }
+
+    @Override
+    public void dec(Complex complex) {
+        storage.dec(index, complex);
+    }
+
+    @Override
+    public void dec(double... values) {
+        storage.dec(index, values);
+    }
+
+    @Override
+    public void change(Complex complex) {
+        storage.change(index, complex);
+    }
+
+    @Override
+    public void change(double... values) {
+        storage.change(index, values);
+    }
+
+    @Override
+    public void scale(double scale) {
+        storage.scale(index, scale);
+    }
+
+    @Override
+    public void rotate(double angle) {
+        if (dimension != 2) {
+            throw new IllegalArgumentException("Rotation is only supported for 2D complex numbers");
+        }
+        double cos = Trig.cos(angle);
+        double sin = Trig.sin(angle);
+        double x0 = storage.getValue(index, 0);
+        double y0 = storage.getValue(index, 1);
+        set(x0 * cos - y0 * sin, x0 * sin + y0 * cos);
+    }
+
+    @Override
+    public double squareModule() {
+        return storage.squareModule(index);
+    }
+
+    @Override
+    public double getValue(int index) {
+        return storage.getValue(this.index, index);
+    }
+
+    @Override
+    public void setValue(int index, double value) {
+        storage.setValue(this.index, index, value);
+    }
+
+    @Override
+    public double[] get() {
+        return storage.get(index);
+    }
+
+    @Override
+    public void set(double... values) {
+        storage.set(index, values);
+    }
+
+    @Override
+    public void set(double x, double y) {
+        storage.set(index, x, y);
+    }
+
+    @Override
+    public void set(double x, double y, double z) {
+        storage.set(index, x, y, z);
+    }
+
+    @Override
+    public void set(Complex source) {
+        storage.set(index, source);
+    }
+
+    @Override
+    public int getDimension() {
+        return dimension;
+    }
+
+    @Override
+    public Complex copy() {
+        return storage.copy(index);
+    }
+
+    @Override
+    public boolean equals(Complex complex, double epsilon) {
+        if (complex.getDimension() != dimension) {
+            throw new IllegalArgumentException("dimensions are not equal");
+        }
+        for (int d = 0; d < dimension; d++) {
+            if (Math.abs(storage.getValue(index, d) - complex.getValue(d)) > epsilon) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int getVersion() {
+        return storage.getVersion();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Complex)) {
+            return false;
+        }
+        return ComplexUtils.valueEquals(this, (Complex) o);
+    }
+
+    @Override
+    public int hashCode() {
+        return ComplexUtils.valueHashCode(this);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("(");
+        for (int d = 0; d < dimension; d++) {
+            sb.append(storage.getValue(index, d));
+            if (d < dimension - 1) {
+                sb.append(", ");
+            }
+        }
+        sb.append(")");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,628 @@
+package pp.muza.complex.concurrent;
+
+import pp.muza.complex.Complex;
+import pp.muza.complex.impl.BaseComplex;
+import pp.muza.complex.impl.ComplexUtils;
+import pp.muza.complex.metrics.Metrics;
+import pp.muza.complex.metrics.Operation;
+import pp.muza.complex.trig.Trig;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.function.UnaryOperator;
+
+
+/**
+ * A complex number that may be updated and read by many threads.
+ * <p>
+ * It is a sequence lock: the version is the sequence number, writers serialize on it
+ * and increase it, readers never block writers, they read the values optimistically
+ * and retry until the version is the same before and after the read.
+ * Every method that reads more than one value sees a consistent state.
+ * The values of the arguments are copied before the write begins, so no code of another class runs
+ * while the write is in progress and a failing argument cannot leave the lock held.
+ * It is intended for few writers and many readers.
+ * <p>
+ * This class is thread safe.
+ */
+public class AtomicComplex implements Complex {
+
+    private static final VarHandle SEQUENCE;
+    private static final VarHandle VALUES = MethodHandles.arrayElementVarHandle(double[].class);
+
+    static {
+        try {
+            SEQUENCE = MethodHandles.lookup().findVarHandle(AtomicComplex.class, "sequence", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final int dimension;
+    private final double[] value;
+    /**
+     * Twice the version, it is odd while a write is in progress.
+     */
+    private volatile int sequence = 0;
+    private boolean _null;
+
+    /**
+     * Create a new complex number with specified dimension
+     *
+     * @param dimension the dimension
+     */
+    public AtomicComplex(int dimension) {
+        this.dimension = dimension;
+        this.value = new double[dimension];
+    }
+
+    /**
+     * Create a new complex number from array of values
+     *
+     * @param values the values
+     */
+    public AtomicComplex(double... values) {
+        this.dimension = values.length;
+        this.value = values.clone();
+    }
+
+    /**
+     * Create a new complex number from another complex number
+     *
+     * @param complex the complex number
+     */
+    public AtomicComplex(Complex complex) {
+        this(complex.get());
+    }
+
+    private static void checkIndex(int index) {
+        if (index < 0) {
+            throw new IllegalArgumentException("Index must be positive");
+        }
+    }
+
+    private void checkIndexBounds(int index) {
+        checkIndex(index);
+        if (index >= dimension) {
+            throw new IllegalArgumentException("Index must be less than dimension");
+        }
+    }
+
+    private void checkDimension(Complex complex) {
+        if (complex.getDimension() > dimension) {
+            throw new IllegalArgumentException("Dimension mismatch");
+        }
+    }
+
+    private double read(int index) {
+        return (double) VALUES.getOpaque(value, index);
+    }
+
+    private void write(int index, double v) {
+        VALUES.setOpaque(value, index, v);
+    }
+
+    /**
+     * Wait for the end of a write in progress and return the sequence number.
+     */
+    private int beginRead() {
+        int s;
+        while (((s = sequence) & 1) != 0) {
+            Thread.onSpinWait();
+        }
+        return s;
+    }
+
+    /**
+     * Check that no write happened since the read began.
+     */
+    private boolean validate(int s) {
+        VarHandle.loadLoadFence();
+        return sequence == s;
+    }
+
+    /**
+     * Acquire the write lock and return the odd sequence number.
+     * The fence keeps the writes of the values after the odd sequence number, as {@code StampedLock} does.
+     */
+    private int beginWrite() {
+        for (; ; ) {
+            int s = sequence;
+            if ((s & 1) == 0 && SEQUENCE.compareAndSet(this, s, s + 1)) {
+                VarHandle.storeStoreFence();
+                return s + 1;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Release the write lock, the version increases by one.
+     */
+    private void endWrite(int s) {
+        endWrite(s, false);
+    }
+
+    private void endWrite(int s, boolean nul) {
+        _null = nul;
+        SEQUENCE.setRelease(this, s + 1);
+    }
+
+    /**
+     * Release the write lock when nothing was written, the version is not changed.
+     */
+    private void abortWrite(int s) {
+        SEQUENCE.setRelease(this, s - 1);
+    }
+
+    /**
+     * Copy the values of a complex number, it is called before a write begins.
+     */
+    private double[] valuesOf(Complex complex) {
+        double[] res = new double[dimension];
+        for (int i = 0; i < dimension; i++) {
+            res[i] = complex.getValue(i);
+        }
+        return res;
+    }
+
+    private void writeValues(double[] values) {
+        for (int i = 0; i < dimension; i++) {
+            write(i, values[i]);
+        }
+    }
+
+    private boolean valuesEqual(double[] values) {
+        for (int i = 0; i < dimension; i++) {
+            if (Double.doubleToLongBits(read(i)) != Double.doubleToLongBits(values[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Atomically set the value to {@code update} if the current value is equal to {@code expect}.
+     * The values are compared as {@link #equals(Object)} does.
+     *
+     * @param expect the expected value
+     * @param update the new value
+     * @return true if the value was set
+     */
+    public boolean compareAndSet(Complex expect, Complex update) {
+        if (expect.getDimension() != dimension) {
+            throw new IllegalArgumentException("dimensions are not equal");
+        }
+        checkDimension(update);
+        double[] expected = valuesOf(expect);
+        double[] updated = valuesOf(update);
+        int s = beginRead();
+        boolean equal = valuesEqual(expected);
+        if (validate(s) && !equal) {
+            return false;
+        }
+        s = beginWrite();
+        if (!valuesEqual(expected)) {
+            abortWrite(s);
+            return false;
+        }
+        writeValues(updated);
+        endWrite(s);
+        return true;
+    }
+
+    /**
+     * Atomically update the value with the results of the function.
+     * The function is applied to a consistent copy of the current value,
+     * it may be applied several times when other threads update the value at the same time,
+     * so it should be side effect free.
+     *
+     * @param function the update function
+     * @return the new value returned by the function
+     */
+    public Complex updateAndGet(UnaryOperator<Complex> function) {
+        for (; ; ) {
+            int s = beginRead();
+            Complex current = copy();
+            if (!validate(s)) {
+                continue;
+            }
+            Complex next = function.apply(current);
+            checkDimension(next);
+            double[] values = valuesOf(next);
+            if (SEQUENCE.compareAndSet(this, s, s + 1)) {
+                VarHandle.storeStoreFence();
+                writeValues(values);
+                endWrite(s + 1);
+                return next;
+            }
+        }
+    }
+
+    @Override
+    public void setNull() {
+        int s = beginWrite();
+        for (int i = 0; i < dimension; i++) {
+            write(i, 0.0);
+        }
+        endWrite(s, true);
+    }
+
+    @Override
+    public void setUnassigned() {
+        int s = beginWrite();
+        for (int i = 0; i < dimension; i++) {
+            write(i, Double.NaN);
+        }
+        endWrite(s);
+    }
+
+    @Override
+    public void normalize() {
+        int s = beginWrite();
+        double res = 0.0;
+        for (int i = 0; i < dimension; i++) {
+            res += value[i] * value[i];
+        }
+        double m = Math.sqrt(res);
+        if (m > 0.0) {
+            for (int i = 0; i < dimension; i++) {
+                write(i, value[i] / m);
+            }
+        }
+        endWrite(s);
+    }
+
+    @Override
+    public boolean isNull() {
+        for (; ; ) {
+            int s = beginRead();
+            boolean res = _null;
+            if (validate(s)) {
+                return res;
+            }
+        }
+    }
+
+    @Override
+    public boolean isZero() {
+        for (; ; ) {
+            int s = beginRead();
+            boolean res = true;
+            for (int i = 0; i < dimension; i++) {
+                if (read(i) != 0.0) {
+                    res = false;
+                    break;
+                }
+            }
+            if (validate(s)) {
+                return res;
+            }
+        }
+    }
+
+    @Override
+    public boolean isInfinity() {
+        for (; ; ) {
+            int s = beginRead();
+            boolean res = false;
+            for (int i = 0; i < dimension; i++) {
+                if (Double.isInfinite(read(i))) {
+                    res = true;
+                    break;
+                }
+            }
+            if (validate(s)) {
+                return res;
+            }
+        }
+    }
+
+    @Override
+    public boolean isNaN() {
+        for (; ; ) {
+            int s = beginRead();
+            boolean res = false;
+            for (int i = 0; i < dimension; i++) {
+                if (Double.isNaN(read(i))) {
+                    res = true;
+                    break;
+                }
+            }
+            if (validate(s)) {
+                return res;
+            }
+        }
+    }
+
+    @Override
+    public boolean isUnassigned() {
+        return isNaN();
+    }
+
+    @Override
+    public boolean isNormalized() {
+        return !(Math.abs(squareModule() - 1.0) > BaseComplex.EPSILON);
+    }
+
+    @Override
+    public void dec(Complex complex) {
+        dec(valuesOf(complex));
+    }
+
+    @Override
+    public void dec(double... values) {
+        if (values.length < dimension) {
+            throw new IllegalArgumentException("Dimension mismatch");
+        }
+        int s = beginWrite();
+        for (int i = 0; i < dimension; i++) {
+            write(i, value[i] - values[i]);
+        }
+        endWrite(s);
+    }
+
+    @Override
+    public void change(Complex complex) {
+        change(valuesOf(complex));
+    }
+
+    @Override
+    public void change(double... values) {
+        if (values.length < dimension) {
+            throw new IllegalArgumentException("Dimension mismatch");
+        }
+        int s = beginWrite();
+        for (int i = 0; i < dimension; i++) {
+            write(i, value[i] + values[i]);
+        }
+        endWrite(s);
+    }
+
+    @Override
+    public void scale(double scale) {
+        int s = beginWrite();
+        for (int i = 0; i < dimension; i++) {
+            write(i, value[i] * scale);
+        }
+        endWrite(s);
+    }
+
+    @Override
+    public void rotate(double angle) {
+        if (dimension != 2) {
+            throw new IllegalArgumentException("Rotation is only supported for 2D complex numbers");
+        }
+        double cos = Trig.cos(angle);
+        double sin = Trig.sin(angle);
+        int s = beginWrite();
+        double x = value[0] * cos - value[1] * sin;
+        double y = value[0] * sin + value[1] * cos;
+        write(0, x);
+        write(1, y);
+        endWrite(s);
+    }
+
+    /**
+     * The operation is applied to a consistent copy and the result is written in one change,
+     * see {@link #updateAndGet(UnaryOperator)}.
+     */
+    @Override
+    public void mul(Complex complex) {
+        updateAndGet(c -> Complex.mul(c, complex == this ? c : complex, c));
+    }
+
+    /**
+     * The operation is applied to a consistent copy and the result is written in one change,
+     * see {@link #updateAndGet(UnaryOperator)}.
+     */
+    @Override
+    public void div(Complex complex) {
+        updateAndGet(c -> Complex.div(c, complex == this ? c : complex, c));
+    }
+
+    @Override
+    public void conj() {
+        updateAndGet(c -> Complex.conj(c, c));
+    }
+
+    @Override
+    public void exp() {
+        updateAndGet(c -> Complex.exp(c, c));
+    }
+
+    @Override
+    public void log() {
+        updateAndGet(c -> Complex.log(c, c));
+    }
+
+    @Override
+    public void pow(double power) {
+        updateAndGet(c -> Complex.pow(c, power, c));
+    }
+
+    @Override
+    public void pow(Complex power) {
+        updateAndGet(c -> Complex.pow(c, power == this ? c : power, c));
+    }
+
+    @Override
+    public double squareModule() {
+        for (; ; ) {
+            int s = beginRead();
+            double res = 0.0;
+            for (int i = 0; i < dimension; i++) {
+                double v = read(i);
+                res += v * v;
+            }
+            if (validate(s)) {
+                return res;
+            }
+        }
+    }
+
+    @Override
+    public double getValue(int index) {
+        checkIndex(index);
+        if (index >= dimension) {
+            return 0.0;
+        }
+        return read(index);
+    }
+
+    @Override
+    public void setValue(int index, double value) {
+        checkIndexBounds(index);
+        int s = beginWrite();
+        write(index, value);
+        endWrite(s);
+    }
+
+    @Override
+    public double[] get() {
+        double[] res = new double[dimension];
+        for (; ; ) {
+            int s = beginRead();
+            for (int i = 0; i < dimension; i++) {
+                res[i] = read(i);
+            }
+            if (validate(s)) {
+                return res;
+            }
+        }
+    }
+
+    @Override
+    public void set(double... values) {
+        if (values.length > dimension) {
+            throw new IllegalArgumentException("Dimension mismatch");
+        }
+        int s = beginWrite();
+        for (int i = 0; i < dimension; i++) {
+            write(i, i < values.length ? values[i] : 0.0);
+        }
+        endWrite(s);
+    }
+
+    @Override
+    public void set(double x, double y) {
+        if (dimension < 2) {
+            throw new IllegalArgumentException("Dimension mismatch");
+        }
+        int s = beginWrite();
+        write(0, x);
+        write(1, y);
+        for (int i = 2; i < dimension; i++) {
+            write(i, 0.0);
+        }
+        endWrite(s);
+    }
+
+    @Override
+    public void set(double x, double y, double z) {
+        if (dimension < 3) {
+            throw new IllegalArgumentException("Dimension mismatch");
+        }
+        int s = beginWrite();
+        write(0, x);
+        write(1, y);
+        write(2, z);
+        for (int i = 3; i < dimension; i++) {
+            write(i, 0.0);
+        }
+        endWrite(s);
+    }
+
+    @Override
+    public void set(Complex source) {
+        checkDimension(source);
+        double[] values = valuesOf(source);
+        int s = beginWrite();
+        writeValues(values);
+        endWrite(s);
+    }
+
+    @Override
+    public int getDimension() {
+        return dimension;
+    }
+
+    /**
+     * Create a consistent copy of the value, the copy is not atomic.
+     *
+     * @return copy of the value
+     */
+    @Override
+    public Complex copy() {
+        if (Metrics.ENABLED) {
+            Metrics.increment(Operation.COPY);
+        }
+        return ComplexUtils.of(get());
+    }
+
+    @Override
+    public boolean equals(Complex complex, double epsilon) {
+        if (complex.getDimension() != dimension) {
+            throw new IllegalArgumentException("dimensions are not equal");
+        }
+        double[] values = get();
+        for (int i = 0; i < dimension; i++) {
+            if (Math.abs(values[i] - complex.getValue(i)) > epsilon) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The method returns the current version, it is the number of completed writes.
+     *
+     * @return version
+     */
+    @Override
+    public int getVersion() {
+        return sequence >>> 1;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Complex)) {
+            return false;
+        }
+        Complex complex = (Complex) o;
+        if (complex.getDimension() != dimension) {
+            return false;
+        }
+        double[] values = get();
+        for (int i = 0; i < dimension; i++) {
+            if (Double.doubleToLongBits(values[i]) != Double.doubleToLongBits(complex.getValue(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(get());
+    }
+
+    @Override
+    public String toString() {
+        double[] values = get();
+        StringBuilder sb = new StringBuilder();
+        sb.append("(");
+        for (int i = 0; i < dimension; i++) {
+            sb.append(values[i]);
+            if (i < dimension - 1) {
+                sb.append(", ");
+            }
+        }
+        sb.append(")");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,247 @@
+package pp.muza.complex.concurrent;
+
+import pp.muza.complex.Complex;
+import pp.muza.complex.impl.ComplexUtils;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * A sum of vectors updated concurrently by many threads.
+ * <p>
+ * It works like {@link java.util.concurrent.atomic.DoubleAdder} for vectors of any dimension:
+ * the sum is spread over striped cells, a thread updates one of them without any lock,
+ * and the number of cells grows up to the number of processors when threads contend.
+ * <p>
+ * The {@link #sum()} is not an atomic snapshot: updates that happen while the sum is
+ * calculated may or may not be included. The order of floating point additions is not defined,
+ * so the result can differ in the last bits from a sequential sum.
+ * <p>
+ * This class is thread safe.
+ */
+public class ComplexAccumulator {
+
+    private static final int NCPU = Runtime.getRuntime().availableProcessors();
+    /**
+     * The maximum number of cells, the smallest power of two not less than the number of processors.
+     */
+    private static final int MAX_CELLS = Integer.highestOneBit(Math.max(1, NCPU - 1)) << 1;
+    /**
+     * The number of longs around the values of a cell, it keeps the cells on different cache lines.
+     */
+    private static final int PAD = 8;
+
+    private static final VarHandle CELLS;
+    private static final ThreadLocal<int[]> PROBE = ThreadLocal.withInitial(
+            () -> new int[]{ThreadLocalRandom.current().nextInt() | 1});
+
+    static {
+        try {
+            CELLS = MethodHandles.lookup().findVarHandle(ComplexAccumulator.class, "cells", Cell[].class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final int dimension;
+    private volatile Cell[] cells;
+
+    /**
+     * Create a new accumulator with a zero sum
+     *
+     * @param dimension the dimension of the vectors
+     */
+    public ComplexAccumulator(int dimension) {
+        if (dimension < 0) {
+            throw new IllegalArgumentException("Dimension must be positive");
+        }
+        this.dimension = dimension;
+        this.cells = new Cell[]{new Cell(dimension)};
+    }
+
+    /**
+     * Return the dimension of the sum
+     *
+     * @return dimension
+     */
+    public int getDimension() {
+        return dimension;
+    }
+
+    /**
+     * Add the complex number to the sum
+     *
+     * @param complex the complex number
+     */
+    public void add(Complex complex) {
+        int dim = complex.getDimension();
+        if (dim > dimension) {
+            throw new IllegalArgumentException("Illegal dimension");
+        }
+        int[] probe = PROBE.get();
+        Cell[] cs = cells;
+        Cell cell = cs[probe[0] & (cs.length - 1)];
+        boolean contended = false;
+        for (int i = 0; i < dim; i++) {
+            contended |= cell.add(i, complex.getValue(i));
+        }
+        if (contended) {
+            onContention(cs, probe);
+        }
+    }
+
+    /**
+     * Add the values to the sum
+     *
+     * @param values the values
+     */
+    public void add(double... values) {
+        if (values.length > dimension) {
+            throw new IllegalArgumentException("Illegal dimension");
+        }
+        int[] probe = PROBE.get();
+        Cell[] cs = cells;
+        Cell cell = cs[probe[0] & (cs.length - 1)];
+        boolean contended = false;
+        for (int i = 0; i < values.length; i++) {
+            contended |= cell.add(i, values[i]);
+        }
+        if (contended) {
+            onContention(cs, probe);
+        }
+    }
+
+    /**
+     * Move the thread to another cell and add more cells if there are less than the processors.
+     */
+    private void onContention(Cell[] cs, int[] probe) {
+        int h = probe[0];
+        h ^= h << 13;
+        h ^= h >>> 17;
+        h ^= h << 5;
+        probe[0] = h;
+        int n = cs.length;
+        if (n < MAX_CELLS && cells == cs) {
+            Cell[] grown = new Cell[n << 1];
+            System.arraycopy(cs, 0, grown, 0, n);
+            for (int i = n; i < grown.length; i++) {
+                grown[i] = new Cell(dimension);
+            }
+            CELLS.compareAndSet(this, cs, grown);
+        }
+    }
+
+    /**
+     * Return the current sum as a new complex number
+     *
+     * @return the sum
+     */
+    public Complex sum() {
+        return sum(ComplexUtils.newInstance(dimension));
+    }
+
+    /**
+     * Store the current sum in the destination
+     *
+     * @param out the destination
+     * @return the destination
+     */
+    public Complex sum(Complex out) {
+        checkDestination(out);
+        Cell[] cs = cells;
+        for (int i = 0; i < dimension; i++) {
+            double sum = 0.0;
+            for (Cell cell : cs) {
+                sum += cell.get(i);
+            }
+            out.setValue(i, sum);
+        }
+        return out;
+    }
+
+    /**
+     * Return the current sum as a new complex number and reset the sum to zero.
+     * Updates that happen concurrently are either included in the result or kept for the next sum.
+     *
+     * @return the sum
+     */
+    public Complex sumThenReset() {
+        Complex out = ComplexUtils.newInstance(dimension);
+        Cell[] cs = cells;
+        for (int i = 0; i < dimension; i++) {
+            double sum = 0.0;
+            for (Cell cell : cs) {
+                sum += cell.getAndReset(i);
+            }
+            out.setValue(i, sum);
+        }
+        return out;
+    }
+
+    /**
+     * Reset the sum to zero.
+     * The method is only effective when there are no concurrent updates.
+     */
+    public void reset() {
+        for (Cell cell : cells) {
+            for (int i = 0; i < dimension; i++) {
+                cell.getAndReset(i);
+            }
+        }
+    }
+
+    private void checkDestination(Complex out) {
+        if (out.getDimension() != dimension) {
+            throw new IllegalArgumentException("Illegal dimension");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return sum().toString();
+    }
+
+    /**
+     * A part of the sum, the values are kept as raw bits of doubles.
+     */
+    private static final class Cell {
+
+        private final AtomicLongArray values;
+
+        Cell(int dimension) {
+            this.values = new AtomicLongArray(dimension + 2 * PAD);
+        }
+
+        double get(int index) {
+            return Double.longBitsToDouble(values.get(PAD + index));
+        }
+
+        double getAndReset(int index) {
+            return Double.longBitsToDouble(values.getAndSet(PAD + index, 0L));
+        }
+
+        /**
+         * Add the value to the dimension index
+         *
+         * @return true if another thread updated the cell at the same time
+         */
+        boolean add(int index, double value) {
+            int i = PAD + index;
+            long current = values.get(i);
+            if (values.compareAndSet(i, current, next(current, value))) {
+                return false;
+            }
+            do {
+                current = values.get(i);
+            } while (!values.compareAndSet(i, current, next(current, value)));
+            return true;
+        }
+
+        private static long next(long current, double value) {
+            return Double.doubleToRawLongBits(Double.longBitsToDouble(current) + value);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package pp.muza.complex.concurrent;
+
+import pp.muza.complex.Complex;
+import pp.muza.complex.impl.BoundingBox;
+import pp.muza.complex.impl.ComplexUtils;
+
+import java.util.Arrays;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collector;
+
+
+/**
+ * Collectors of streams of vectors: sum, centroid, weighted mean, bounding box and summary statistics.
+ * <p>
+ * Every collector accumulates into one mutable array per thread, the vectors are read with
+ * {@link Complex#getValue(int)} and no intermediate complex numbers are created,
+ * unlike {@code reduce(Complex::add)} that creates a new complex number for every pair.
+ * The partial results of a parallel stream are merged by the combiners, so the work scales with the threads,
+ * the floating point sums can differ in the last bits from a sequential loop.
+ * <p>
+ * Vectors of different dimensions may be mixed, missing values are zero, as in {@link ComplexReductions}.
+ * The results of the finishers are new complex numbers of the maximal dimension of the vectors.
+ * <p>
+ * This class is immutable and thread safe.
+ */
+public final class ComplexCollectors {
+
+    private ComplexCollectors() {
+    }
+
+    /**
+     * Sum of the vectors
+     *
+     * @return collector, the finisher throws IllegalArgumentException if there are no vectors
+     */
+    public static Collector<Complex, ?, Complex> sum() {
+        return Collector.of(WeightedSum::new, WeightedSum::add, WeightedSum::combine, WeightedSum::sum,
+                Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * Centroid (the arithmetic mean) of the vectors
+     *
+     * @return collector, the finisher throws IllegalArgumentException if there are no vectors
+     */
+    public static Collector<Complex, ?, Complex> centroid() {
+        return Collector.of(WeightedSum::new, WeightedSum::add, WeightedSum::combine, WeightedSum::mean,
+                Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * Weighted mean of the vectors: the sum of {@code weight(v) * v} divided by the sum of the weights
+     *
+     * @param weight the weight of a vector
+     * @return collector, the finisher throws IllegalArgumentException if there are no vectors
+     * or the sum of the weights is zero
+     */
+    public static Collector<Complex, ?, Complex> weightedMean(ToDoubleFunction<? super Complex> weight) {
+        return Collector.of(WeightedSum::new, (sum, complex) -> sum.add(complex, weight.applyAsDouble(complex)),
+                WeightedSum::combine, WeightedSum::mean, Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * Bounding box of the vectors
+     *
+     * @return collector, the finisher throws IllegalArgumentException if there are no vectors
+     */
+    public static Collector<Complex, ?, BoundingBox> boundingBox() {
+        return Collector.of(Bounds::new, Bounds::add, Bounds::combine, Bounds::toBoundingBox,
+                Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * Summary statistics of the vectors in one pass
+     *
+     * @return collector
+     */
+    public static Collector<Complex, ?, ComplexSummaryStatistics> summarizing() {
+        return Collector.of(ComplexSummaryStatistics::new, ComplexSummaryStatistics::accept, (a, b) -> {
+            a.combine(b);
+            return a;
+        }, Collector.Characteristics.UNORDERED, Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    /**
+     * The weighted sum of the vectors and the sum of the weights.
+     */
+    private static final class WeightedSum {
+        private double[] values = new double[0];
+        private double weight;
+        private long count;
+
+        void add(Complex complex) {
+            add(complex, 1.0);
+        }
+
+        void add(Complex complex, double w) {
+            int dim = complex.getDimension();
+            if (dim > values.length) {
+                values = Arrays.copyOf(values, dim);
+            }
+            for (int d = 0; d < dim; d++) {
+                values[d] += w * complex.getValue(d);
+            }
+            weight += w;
+            count++;
+        }
+
+        WeightedSum combine(WeightedSum other) {
+            if (other.values.length > values.length) {
+                return other.combine(this);
+            }
+            for (int d = 0; d < other.values.length; d++) {
+                values[d] += other.values[d];
+            }
+            weight += other.weight;
+            count += other.count;
+            return this;
+        }
+
+        Complex sum() {
+            if (count == 0) {
+                throw new IllegalArgumentException("No vectors");
+            }
+            return ComplexUtils.of(values);
+        }
+
+        Complex mean() {
+            if (count == 0) {
+                throw new IllegalArgumentException("No vectors");
+            }
+            if (weight == 0.0) {
+                throw new IllegalArgumentException("Total weight must not be zero");
+            }
+            for (int d = 0; d < values.length; d++) {
+                values[d] /= weight;
+            }
+            return ComplexUtils.of(values);
+        }
+    }
+
+    /**
+     * The minimal and the maximal values of every dimension.
+     */
+    private static final class Bounds {
+        private double[] min = new double[0];
+        private double[] max = new double[0];
+        private long count;
+
+        /**
+         * The values of the new dimensions are zero for the vectors already added.
+         */
+        private void ensureDimension(int dimension) {
+            if (dimension > min.length) {
+                int from = min.length;
+                min = Arrays.copyOf(min, dimension);
+                max = Arrays.copyOf(max, dimension);
+                if (count == 0) {
+                    Arrays.fill(min, from, dimension, Double.POSITIVE_INFINITY);
+                    Arrays.fill(max, from, dimension, Double.NEGATIVE_INFINITY);
+                }
+            }
+        }
+
+        void add(Complex complex) {
+            ensureDimension(complex.getDimension());
+            for (int d = 0; d < min.length; d++) {
+                double v = complex.getValue(d);
+                min[d] = Math.min(min[d], v);
+                max[d] = Math.max(max[d], v);
+            }
+            count++;
+        }
+
+        Bounds combine(Bounds other) {
+            if (other.count == 0) {
+                return this;
+            }
+            if (count == 0) {
+                return other;
+            }
+            ensureDimension(other.min.length);
+            for (int d = 0; d < min.length; d++) {
+                min[d] = Math.min(min[d], d < other.min.length ? other.min[d] : 0.0);
+                max[d] = Math.max(max[d], d < other.max.length ? other.max[d] : 0.0);
+            }
+            count += other.count;
+            return this;
+        }
+
+        BoundingBox toBoundingBox() {
+            if (count == 0) {
+                throw new IllegalArgumentException("No vectors");
+            }
+            return new BoundingBox(min, max);
+        }
+    }
+}
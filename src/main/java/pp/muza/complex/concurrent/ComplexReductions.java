@@ -0,0 +1,497 @@
+package pp.muza.complex.concurrent;
+
+import pp.muza.complex.Complex;
+import pp.muza.complex.bulk.ComplexStorage;
+import pp.muza.complex.impl.BoundingBox;
+import pp.muza.complex.impl.ComplexUtils;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+
+
+/**
+ * Reductions of many vectors: sum, centroid, bounding box, maximal module and total square module.
+ * <p>
+ * The vectors are read with {@link Complex#getValue(int)}, nothing is changed and no intermediate complex numbers are created.
+ * Inputs of up to {@link #getThreshold()} vectors are reduced in the calling thread,
+ * larger inputs are split in halves down to the threshold and reduced in a {@link ForkJoinPool}.
+ * The split does not depend on the number of threads, so the result is the same on every run,
+ * but the floating point sums can differ in the last bits from a sequential loop.
+ * <p>
+ * Vectors of different dimensions may be mixed, missing values are zero.
+ * <p>
+ * This class is immutable and thread safe.
+ */
+public final class ComplexReductions {
+
+    /**
+     * The default number of vectors reduced by one task.
+     */
+    public static final int DEFAULT_THRESHOLD = 1 << 13;
+
+    private static final ComplexReductions DEFAULT = new ComplexReductions(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    /**
+     * Create new reductions
+     *
+     * @param pool      the pool that runs the tasks
+     * @param threshold the number of vectors reduced by one task
+     */
+    public ComplexReductions(ForkJoinPool pool, int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Threshold must be positive");
+        }
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Create new reductions in the common pool
+     *
+     * @param threshold the number of vectors reduced by one task
+     */
+    public ComplexReductions(int threshold) {
+        this(ForkJoinPool.commonPool(), threshold);
+    }
+
+    /**
+     * Return the reductions in the common pool with the default threshold
+     *
+     * @return reductions
+     */
+    public static ComplexReductions getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Return the number of vectors reduced by one task
+     *
+     * @return threshold
+     */
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Sum of the vectors
+     *
+     * @param values the complex numbers
+     * @return a new complex number of the maximal dimension of the vectors
+     * @throws IllegalArgumentException if there are no vectors
+     */
+    public Complex sum(Collection<? extends Complex> values) {
+        return sum(source(values));
+    }
+
+    /**
+     * Sum of the vectors
+     *
+     * @param values the complex numbers
+     * @return a new complex number of the maximal dimension of the vectors
+     * @throws IllegalArgumentException if there are no vectors
+     */
+    public Complex sum(Complex[] values) {
+        return sum(new ArraySource(values));
+    }
+
+    /**
+     * Sum of the vectors
+     *
+     * @param storage the vectors
+     * @return a new complex number of the dimension of the storage
+     * @throws IllegalArgumentException if there are no vectors
+     */
+    public Complex sum(ComplexStorage storage) {
+        return sum(new StorageSource(storage));
+    }
+
+    /**
+     * Centroid (the arithmetic mean) of the vectors
+     *
+     * @param values the complex numbers
+     * @return a new complex number of the maximal dimension of the vectors
+     * @throws IllegalArgumentException if there are no vectors
+     */
+    public Complex centroid(Collection<? extends Complex> values) {
+        return centroid(source(values));
+    }
+
+    /**
+     * Centroid (the arithmetic mean) of the vectors
+     *
+     * @param values the complex numbers
+     * @return a new complex number of the maximal dimension of the vectors
+     * @throws IllegalArgumentException if there are no vectors
+     */
+    public Complex centroid(Complex[] values) {
+        return centroid(new ArraySource(values));
+    }
+
+    /**
+     * Centroid (the arithmetic mean) of the vectors
+     *
+     * @param storage the vectors
+     * @return a new complex number of the dimension of the storage
+     * @throws IllegalArgumentException if there are no vectors
+     */
+    public Complex centroid(ComplexStorage storage) {
+        return centroid(new StorageSource(storage));
+    }
+
+    /**
+     * Bounding box of the vectors
+     *
+     * @param values the complex numbers
+     * @return bounding box of the maximal dimension of the vectors
+     * @throws IllegalArgumentException if there are no vectors
+     */
+    public BoundingBox boundingBox(Collection<? extends Complex> values) {
+        return boundingBox(source(values));
+    }
+
+    /**
+     * Bounding box of the vectors
+     *
+     * @param values the complex numbers
+     * @return bounding box of the maximal dimension of the vectors
+     * @throws IllegalArgumentException if there are no vectors
+     */
+    public BoundingBox boundingBox(Complex[] values) {
+        return boundingBox(new ArraySource(values));
+    }
+
+    /**
+     * Bounding box of the vectors
+     *
+     * @param storage the vectors
+     * @return bounding box of the dimension of the storage
+     * @throws IllegalArgumentException if there are no vectors
+     */
+    public BoundingBox boundingBox(ComplexStorage storage) {
+        return boundingBox(new StorageSource(storage));
+    }
+
+    /**
+     * Maximal module of the vectors
+     *
+     * @param values the complex numbers
+     * @return maximal module, or zero if there are no vectors
+     */
+    public double maxModule(Collection<? extends Complex> values) {
+        return maxModule(source(values));
+    }
+
+    /**
+     * Maximal module of the vectors
+     *
+     * @param values the complex numbers
+     * @return maximal module, or zero if there are no vectors
+     */
+    public double maxModule(Complex[] values) {
+        return maxModule(new ArraySource(values));
+    }
+
+    /**
+     * Maximal module of the vectors
+     *
+     * @param storage the vectors
+     * @return maximal module, or zero if there are no vectors
+     */
+    public double maxModule(ComplexStorage storage) {
+        return maxModule(new StorageSource(storage));
+    }
+
+    /**
+     * Sum of the square modules of the vectors
+     *
+     * @param values the complex numbers
+     * @return total square module
+     */
+    public double squareModule(Collection<? extends Complex> values) {
+        return squareModule(source(values));
+    }
+
+    /**
+     * Sum of the square modules of the vectors
+     *
+     * @param values the complex numbers
+     * @return total square module
+     */
+    public double squareModule(Complex[] values) {
+        return squareModule(new ArraySource(values));
+    }
+
+    /**
+     * Sum of the square modules of the vectors
+     *
+     * @param storage the vectors
+     * @return total square module
+     */
+    public double squareModule(ComplexStorage storage) {
+        return squareModule(new StorageSource(storage));
+    }
+
+    private static Source source(Collection<? extends Complex> values) {
+        if (values instanceof List && values instanceof RandomAccess) {
+            return new ListSource((List<? extends Complex>) values);
+        }
+        return new ArraySource(values.toArray(new Complex[0]));
+    }
+
+    private static void checkNotEmpty(Source source) {
+        if (source.size() == 0) {
+            throw new IllegalArgumentException("No vectors");
+        }
+    }
+
+    private <R> R reduce(Source source, Leaf<R> leaf, BinaryOperator<R> combiner) {
+        int size = source.size();
+        if (size <= threshold) {
+            return leaf.reduce(source, 0, size);
+        }
+        return pool.invoke(new Task<>(source, 0, size, threshold, leaf, combiner));
+    }
+
+    private Complex sum(Source source) {
+        checkNotEmpty(source);
+        return ComplexUtils.of(reduce(source, ComplexReductions::sum, ComplexReductions::add));
+    }
+
+    private Complex centroid(Source source) {
+        checkNotEmpty(source);
+        double[] sum = reduce(source, ComplexReductions::sum, ComplexReductions::add);
+        for (int d = 0; d < sum.length; d++) {
+            sum[d] /= source.size();
+        }
+        return ComplexUtils.of(sum);
+    }
+
+    private BoundingBox boundingBox(Source source) {
+        checkNotEmpty(source);
+        return reduce(source, ComplexReductions::boundingBox, BoundingBox::union);
+    }
+
+    private double maxModule(Source source) {
+        return Math.sqrt(reduce(source, ComplexReductions::maxSquareModule, Math::max));
+    }
+
+    private double squareModule(Source source) {
+        return reduce(source, ComplexReductions::squareModule, Double::sum);
+    }
+
+    private static double[] sum(Source source, int from, int to) {
+        double[] res = new double[0];
+        for (int i = from; i < to; i++) {
+            int dim = source.getDimension(i);
+            if (dim > res.length) {
+                res = Arrays.copyOf(res, dim);
+            }
+            for (int d = 0; d < dim; d++) {
+                res[d] += source.getValue(i, d);
+            }
+        }
+        return res;
+    }
+
+    private static double[] add(double[] a, double[] b) {
+        if (b.length > a.length) {
+            return add(b, a);
+        }
+        for (int d = 0; d < b.length; d++) {
+            a[d] += b[d];
+        }
+        return a;
+    }
+
+    private static BoundingBox boundingBox(Source source, int from, int to) {
+        int dim = 0;
+        for (int i = from; i < to; i++) {
+            dim = Math.max(dim, source.getDimension(i));
+        }
+        double[] min = new double[dim];
+        double[] max = new double[dim];
+        Arrays.fill(min, Double.POSITIVE_INFINITY);
+        Arrays.fill(max, Double.NEGATIVE_INFINITY);
+        for (int i = from; i < to; i++) {
+            for (int d = 0; d < dim; d++) {
+                double v = source.getValue(i, d);
+                min[d] = Math.min(min[d], v);
+                max[d] = Math.max(max[d], v);
+            }
+        }
+        return new BoundingBox(min, max);
+    }
+
+    private static Double maxSquareModule(Source source, int from, int to) {
+        double res = 0.0;
+        for (int i = from; i < to; i++) {
+            res = Math.max(res, source.squareModule(i));
+        }
+        return res;
+    }
+
+    private static Double squareModule(Source source, int from, int to) {
+        double res = 0.0;
+        for (int i = from; i < to; i++) {
+            res += source.squareModule(i);
+        }
+        return res;
+    }
+
+    /**
+     * Reduction of a range of vectors in one thread.
+     */
+    @FunctionalInterface
+    private interface Leaf<R> {
+        R reduce(Source source, int from, int to);
+    }
+
+    /**
+     * The square module from the values, {@link Complex#squareModule()} may update the cache of a complex number
+     */
+    private static double squareModuleOf(Complex complex) {
+        double res = 0.0;
+        for (int d = 0, dimension = complex.getDimension(); d < dimension; d++) {
+            double v = complex.getValue(d);
+            res += v * v;
+        }
+        return res;
+    }
+
+    /**
+     * Indexed access to the reduced vectors.
+     */
+    private interface Source {
+        int size();
+
+        int getDimension(int index);
+
+        double getValue(int index, int d);
+
+        double squareModule(int index);
+    }
+
+    private static final class ArraySource implements Source {
+        private final Complex[] values;
+
+        ArraySource(Complex[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+
+        @Override
+        public int getDimension(int index) {
+            return values[index].getDimension();
+        }
+
+        @Override
+        public double getValue(int index, int d) {
+            return values[index].getValue(d);
+        }
+
+        @Override
+        public double squareModule(int index) {
+            return squareModuleOf(values[index]);
+        }
+    }
+
+    private static final class ListSource implements Source {
+        private final List<? extends Complex> values;
+
+        ListSource(List<? extends Complex> values) {
+            this.values = values;
+        }
+
+        @Override
+        public int size() {
+            return values.size();
+        }
+
+        @Override
+        public int getDimension(int index) {
+            return values.get(index).getDimension();
+        }
+
+        @Override
+        public double getValue(int index, int d) {
+            return values.get(index).getValue(d);
+        }
+
+        @Override
+        public double squareModule(int index) {
+            return squareModuleOf(values.get(index));
+        }
+    }
+
+    private static final class StorageSource implements Source {
+        private final ComplexStorage storage;
+
+        StorageSource(ComplexStorage storage) {
+            this.storage = storage;
+        }
+
+        @Override
+        public int size() {
+            return storage.size();
+        }
+
+        @Override
+        public int getDimension(int index) {
+            return storage.getDimension();
+        }
+
+        @Override
+        public double getValue(int index, int d) {
+            return storage.getValue(index, d);
+        }
+
+        @Override
+        public double squareModule(int index) {
+            return storage.squareModule(index);
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class Task<R> extends RecursiveTask<R> {
+        private final Source source;
+        private final int from;
+        private final int to;
+        private final int threshold;
+        private final Leaf<R> leaf;
+        private final BinaryOperator<R> combiner;
+
+        Task(Source source, int from, int to, int threshold, Leaf<R> leaf, BinaryOperator<R> combiner) {
+            this.source = source;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+            this.leaf = leaf;
+            this.combiner = combiner;
+        }
+
+        @Override
+        protected R compute() {
+            if (to - from <= threshold) {
+                return leaf.reduce(source, from, to);
+            }
+            int mid = (from + to) >>> 1;
+            Task<R> left = new Task<>(source, from, mid, threshold, leaf, combiner);
+            Task<R> right = new Task<>(source, mid, to, threshold, leaf, combiner);
+            left.fork();
+            R res = right.compute();
+            return combiner.apply(left.join(), res);
+        }
+    }
+}
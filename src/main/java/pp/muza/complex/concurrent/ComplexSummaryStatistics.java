@@ -0,0 +1,199 @@
+package pp.muza.complex.concurrent;
+
+import pp.muza.complex.Complex;
+import pp.muza.complex.impl.ComplexUtils;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+
+/**
+ * Statistics of vectors in one pass: the count, the sum, the mean and the variance of every axis,
+ * the minimal and the maximal module.
+ * <p>
+ * The mean and the variance are updated with the Welford algorithm, two statistics are merged with
+ * {@link #combine(ComplexSummaryStatistics)} (the Chan formula), so the statistics of a parallel stream
+ * are the same as of a sequential loop up to the rounding.
+ * Vectors of different dimensions may be mixed, missing values are zero.
+ * <p>
+ * This class is mutable and not thread safe, it is designed for {@link ComplexCollectors#summarizing()}.
+ */
+public class ComplexSummaryStatistics implements Consumer<Complex> {
+
+    private long count;
+    private double[] sum = new double[0];
+    private double[] mean = new double[0];
+    /**
+     * The sums of the squares of the differences from the mean.
+     */
+    private double[] m2 = new double[0];
+    private double minSquareModule = Double.POSITIVE_INFINITY;
+    private double maxSquareModule = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Create new empty statistics
+     */
+    public ComplexSummaryStatistics() {
+    }
+
+    /**
+     * The values of the new dimensions are zero for the vectors already counted,
+     * so the new sums, means and squares are zero.
+     */
+    private void ensureDimension(int dimension) {
+        if (dimension > sum.length) {
+            sum = Arrays.copyOf(sum, dimension);
+            mean = Arrays.copyOf(mean, dimension);
+            m2 = Arrays.copyOf(m2, dimension);
+        }
+    }
+
+    /**
+     * Add the vector to the statistics
+     *
+     * @param complex the complex number
+     */
+    @Override
+    public void accept(Complex complex) {
+        ensureDimension(complex.getDimension());
+        count++;
+        for (int d = 0; d < sum.length; d++) {
+            double v = complex.getValue(d);
+            sum[d] += v;
+            double delta = v - mean[d];
+            mean[d] += delta / count;
+            m2[d] += delta * (v - mean[d]);
+        }
+        double squareModule = complex.squareModule();
+        minSquareModule = Math.min(minSquareModule, squareModule);
+        maxSquareModule = Math.max(maxSquareModule, squareModule);
+    }
+
+    /**
+     * Add the other statistics to these statistics
+     *
+     * @param other the other statistics
+     */
+    public void combine(ComplexSummaryStatistics other) {
+        if (other.count == 0) {
+            return;
+        }
+        ensureDimension(other.sum.length);
+        long n = count + other.count;
+        for (int d = 0; d < sum.length; d++) {
+            double otherSum = d < other.sum.length ? other.sum[d] : 0.0;
+            double otherMean = d < other.mean.length ? other.mean[d] : 0.0;
+            double otherM2 = d < other.m2.length ? other.m2[d] : 0.0;
+            double delta = otherMean - mean[d];
+            sum[d] += otherSum;
+            mean[d] += delta * other.count / n;
+            m2[d] += otherM2 + delta * delta * ((double) count * other.count / n);
+        }
+        count = n;
+        minSquareModule = Math.min(minSquareModule, other.minSquareModule);
+        maxSquareModule = Math.max(maxSquareModule, other.maxSquareModule);
+    }
+
+    private void checkNotEmpty() {
+        if (count == 0) {
+            throw new IllegalArgumentException("No vectors");
+        }
+    }
+
+    /**
+     * Return the number of vectors
+     *
+     * @return count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Return the maximal dimension of the vectors
+     *
+     * @return dimension
+     */
+    public int getDimension() {
+        return sum.length;
+    }
+
+    /**
+     * Return the sum of the vectors
+     *
+     * @return a new complex number of the maximal dimension of the vectors
+     * @throws IllegalArgumentException if there are no vectors
+     */
+    public Complex getSum() {
+        checkNotEmpty();
+        return ComplexUtils.of(sum.clone());
+    }
+
+    /**
+     * Return the mean (the centroid) of the vectors
+     *
+     * @return a new complex number of the maximal dimension of the vectors
+     * @throws IllegalArgumentException if there are no vectors
+     */
+    public Complex getMean() {
+        checkNotEmpty();
+        return ComplexUtils.of(mean.clone());
+    }
+
+    /**
+     * Return the population variance of the values of the dimension
+     *
+     * @param d the dimension index
+     * @return variance, zero if the index is not less than the dimension
+     * @throws IllegalArgumentException if there are no vectors
+     */
+    public double getVariance(int d) {
+        checkNotEmpty();
+        if (d < 0) {
+            throw new IllegalArgumentException("Index must be positive");
+        }
+        return d < m2.length ? m2[d] / count : 0.0;
+    }
+
+    /**
+     * Return the population variances of all dimensions
+     *
+     * @return a new complex number of the maximal dimension of the vectors
+     * @throws IllegalArgumentException if there are no vectors
+     */
+    public Complex getVariance() {
+        checkNotEmpty();
+        double[] res = new double[m2.length];
+        for (int d = 0; d < res.length; d++) {
+            res[d] = m2[d] / count;
+        }
+        return ComplexUtils.of(res);
+    }
+
+    /**
+     * Return the minimal module of the vectors
+     *
+     * @return minimal module, or positive infinity if there are no vectors
+     */
+    public double getMinModule() {
+        return Math.sqrt(minSquareModule);
+    }
+
+    /**
+     * Return the maximal module of the vectors
+     *
+     * @return maximal module, or negative infinity if there are no vectors
+     */
+    public double getMaxModule() {
+        return count == 0 ? Double.NEGATIVE_INFINITY : Math.sqrt(maxSquareModule);
+    }
+
+    @Override
+    public String toString() {
+        return "ComplexSummaryStatistics(count=" + count
+                + ", sum=" + Arrays.toString(sum)
+                + ", mean=" + Arrays.toString(mean)
+                + ", minModule=" + getMinModule()
+                + ", maxModule=" + getMaxModule() + ")";
+    }
+}
@@ -0,0 +1,353 @@
+package pp.muza.complex.expr;
+
+import pp.muza.complex.Complex;
+import pp.muza.complex.transform.Rotation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+
+/**
+ * A lazy expression over complex numbers.
+ * <p>
+ * Building an expression only records the tree of operations, nothing is calculated and no intermediate
+ * complex numbers are created. The tree is compiled with {@link #compile(int)} into a {@link Program}
+ * that evaluates it in one pass into a destination, for single values or element-wise over storages:
+ * <pre>
+ * Expr a = Expr.input(0), b = Expr.input(1), c = Expr.input(2);
+ * Program program = Expr.add(Expr.scale(a, 2), Expr.sub(b, c)).compile(2);
+ * program.evaluate(out, x, y, z);
+ * </pre>
+ * Expressions are compared by structure, equal subexpressions are evaluated once by the program.
+ * The comparison walks the two trees with an explicit stack and compares every pair of nodes once,
+ * so deep chains and shared subexpressions are compared in linear time.
+ * {@link #toString()} also walks the tree with a stack, an operation node that is the same object in several places
+ * is printed once as {@code t<n>}: {@code add(t0, t0) where t0 = mul(x0, x1)}.
+ * The operations have the same semantics as the static methods of {@link Complex} with the same names.
+ * <p>
+ * This class is immutable and thread safe.
+ */
+public final class Expr {
+
+    /**
+     * The operation of a node.
+     */
+    enum Op {
+        INPUT, CONSTANT, ADD, SUB, SCALE, MUL, DIV, CONJ, ROTATE
+    }
+
+    final Op op;
+    final Expr a;
+    final Expr b;
+    /**
+     * The input index of {@link Op#INPUT}.
+     */
+    final int index;
+    /**
+     * The scale of {@link Op#SCALE} or the angle of {@link Op#ROTATE}.
+     */
+    final double scalar;
+    final Complex constant;
+    final Rotation rotation;
+    private final int hash;
+
+    private Expr(Op op, Expr a, Expr b, int index, double scalar, Complex constant) {
+        this.op = op;
+        this.a = a;
+        this.b = b;
+        this.index = index;
+        this.scalar = scalar;
+        this.constant = constant;
+        this.rotation = op == Op.ROTATE ? Rotation.of(scalar) : null;
+        int res = op.hashCode();
+        res = 31 * res + Objects.hashCode(a);
+        res = 31 * res + Objects.hashCode(b);
+        res = 31 * res + index;
+        res = 31 * res + Double.hashCode(scalar);
+        res = 31 * res + Objects.hashCode(constant);
+        this.hash = res;
+    }
+
+    private static Expr node(Op op, Expr a, Expr b) {
+        return new Expr(op, Objects.requireNonNull(a), b, 0, 0.0, null);
+    }
+
+    /**
+     * Create the input of the expression, the inputs are given to the program on evaluation
+     *
+     * @param index the input index
+     * @return a new expression
+     */
+    public static Expr input(int index) {
+        if (index < 0) {
+            throw new IllegalArgumentException("Index must be positive");
+        }
+        return new Expr(Op.INPUT, null, null, index, 0.0, null);
+    }
+
+    /**
+     * Create a constant, the value is copied
+     *
+     * @param value the value
+     * @return a new expression
+     */
+    public static Expr constant(Complex value) {
+        return new Expr(Op.CONSTANT, null, null, 0, 0.0, Complex.immutableOf(value));
+    }
+
+    /**
+     * A + B, see {@link Complex#add(Complex, Complex)}
+     *
+     * @param A the first expression
+     * @param B the second expression
+     * @return a new expression
+     */
+    public static Expr add(Expr A, Expr B) {
+        return node(Op.ADD, A, Objects.requireNonNull(B));
+    }
+
+    /**
+     * A - B, see {@link Complex#sub(Complex, Complex)}
+     *
+     * @param A the subtracted expression
+     * @param B the subtracting expression
+     * @return a new expression
+     */
+    public static Expr sub(Expr A, Expr B) {
+        return node(Op.SUB, A, Objects.requireNonNull(B));
+    }
+
+    /**
+     * A * d, see {@link Complex#scale(Complex, double)}
+     *
+     * @param A the scaled expression
+     * @param d the scale
+     * @return a new expression
+     */
+    public static Expr scale(Expr A, double d) {
+        return new Expr(Op.SCALE, Objects.requireNonNull(A), null, 0, d, null);
+    }
+
+    /**
+     * Complex product, only for 2D, see {@link Complex#mul(Complex, Complex)}
+     *
+     * @param A the first expression
+     * @param B the second expression
+     * @return a new expression
+     */
+    public static Expr mul(Expr A, Expr B) {
+        return node(Op.MUL, A, Objects.requireNonNull(B));
+    }
+
+    /**
+     * Complex quotient, only for 2D, see {@link Complex#div(Complex, Complex)}
+     *
+     * @param A the dividend
+     * @param B the divisor
+     * @return a new expression
+     */
+    public static Expr div(Expr A, Expr B) {
+        return node(Op.DIV, A, Objects.requireNonNull(B));
+    }
+
+    /**
+     * Complex conjugate, only for 2D, see {@link Complex#conj(Complex)}
+     *
+     * @param A the expression
+     * @return a new expression
+     */
+    public static Expr conj(Expr A) {
+        return node(Op.CONJ, A, null);
+    }
+
+    /**
+     * Rotation by the angle, only for 2D, see {@link Rotation}
+     *
+     * @param A     the expression
+     * @param angle the angle in radians
+     * @return a new expression
+     */
+    public static Expr rotate(Expr A, double angle) {
+        return new Expr(Op.ROTATE, Objects.requireNonNull(A), null, 0, angle, null);
+    }
+
+    /**
+     * Compile the expression for values of the dimension
+     *
+     * @param dimension the dimension of the inputs and the result
+     * @return a new program
+     * @throws IllegalArgumentException if an operation or a constant does not support the dimension
+     */
+    public Program compile(int dimension) {
+        return new Program(this, dimension);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        Set<Pair> compared = new HashSet<>();
+        Deque<Pair> stack = new ArrayDeque<>();
+        stack.push(new Pair(this, (Expr) o));
+        while (!stack.isEmpty()) {
+            Pair pair = stack.pop();
+            Expr x = pair.x;
+            Expr y = pair.y;
+            if (x == y || !compared.add(pair)) {
+                continue;
+            }
+            if (x == null || y == null || !x.equalsNode(y)) {
+                return false;
+            }
+            stack.push(new Pair(x.b, y.b));
+            stack.push(new Pair(x.a, y.a));
+        }
+        return true;
+    }
+
+    /**
+     * Compare the node without the operands
+     */
+    private boolean equalsNode(Expr that) {
+        return hash == that.hash && op == that.op && index == that.index
+                && Double.compare(scalar, that.scalar) == 0
+                && Objects.equals(constant, that.constant);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    /**
+     * Two nodes compared by identity.
+     */
+    private static final class Pair {
+        private final Expr x;
+        private final Expr y;
+
+        Pair(Expr x, Expr y) {
+            this.x = x;
+            this.y = y;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Pair && ((Pair) o).x == x && ((Pair) o).y == y;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(x) + System.identityHashCode(y);
+        }
+    }
+
+    @Override
+    public String toString() {
+        // the number of parents of every distinct node, the nodes in post-order
+        Map<Expr, Integer> parents = new IdentityHashMap<>();
+        List<Expr> order = new ArrayList<>();
+        Deque<Expr> stack = new ArrayDeque<>();
+        parents.put(this, 0);
+        stack.push(this);
+        while (!stack.isEmpty()) {
+            Expr node = stack.peek();
+            boolean ready = true;
+            for (Expr operand : new Expr[]{node.b, node.a}) {
+                if (operand != null && !parents.containsKey(operand)) {
+                    parents.put(operand, 0);
+                    stack.push(operand);
+                    ready = false;
+                }
+            }
+            if (ready) {
+                stack.pop();
+                order.add(node);
+                if (node.a != null) {
+                    parents.merge(node.a, 1, Integer::sum);
+                }
+                if (node.b != null) {
+                    parents.merge(node.b, 1, Integer::sum);
+                }
+            }
+        }
+        // the shared operation nodes are named in post-order, so a name is defined before it is used
+        Map<Expr, String> names = new IdentityHashMap<>();
+        List<Expr> shared = new ArrayList<>();
+        for (Expr node : order) {
+            if (node.a != null && parents.get(node) > 1) {
+                names.put(node, "t" + shared.size());
+                shared.add(node);
+            }
+        }
+        StringBuilder sb = new StringBuilder();
+        append(sb, this, names);
+        String separator = " where ";
+        for (Expr node : shared) {
+            sb.append(separator).append(names.get(node)).append(" = ");
+            append(sb, node, names);
+            separator = ", ";
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Append the expression, the named nodes below the root are appended by name
+     */
+    private static void append(StringBuilder sb, Expr root, Map<Expr, String> names) {
+        // the stack holds the nodes to append and the text between them
+        Deque<Object> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Object item = stack.pop();
+            if (item instanceof String) {
+                sb.append((String) item);
+                continue;
+            }
+            Expr node = (Expr) item;
+            String name = names.get(node);
+            if (node != root && name != null) {
+                sb.append(name);
+                continue;
+            }
+            switch (node.op) {
+                case INPUT:
+                    sb.append('x').append(node.index);
+                    break;
+                case CONSTANT:
+                    sb.append(node.constant);
+                    break;
+                case SCALE:
+                case ROTATE:
+                    sb.append(node.op.name().toLowerCase(Locale.ROOT)).append('(');
+                    stack.push(", " + node.scalar + ")");
+                    stack.push(node.a);
+                    break;
+                case CONJ:
+                    sb.append("conj(");
+                    stack.push(")");
+                    stack.push(node.a);
+                    break;
+                default:
+                    sb.append(node.op.name().toLowerCase(Locale.ROOT)).append('(');
+                    stack.push(")");
+                    stack.push(node.b);
+                    stack.push(", ");
+                    stack.push(node.a);
+                    break;
+            }
+        }
+    }
+}
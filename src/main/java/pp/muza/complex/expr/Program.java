@@ -0,0 +1,320 @@
+package pp.muza.complex.expr;
+
+import pp.muza.complex.Complex;
+import pp.muza.complex.bulk.ComplexStorage;
+import pp.muza.complex.impl.ComplexUtils;
+import pp.muza.complex.transform.Rotation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * A compiled {@link Expr}: a linear list of instructions over registers.
+ * <p>
+ * Every distinct subexpression gets one register and one instruction, so a common subexpression is evaluated once.
+ * The first registers are the inputs, the constants are set once on compilation.
+ * The registers are reused by every evaluation, an evaluation creates no complex numbers.
+ * The tree is walked with an explicit stack, so the depth of the expression is not limited by the call stack.
+ * <p>
+ * This class is mutable and not thread safe: the registers are shared by the evaluations,
+ * compile the expression once per thread.
+ */
+public final class Program {
+
+    private final int dimension;
+    private final int inputCount;
+    private final Expr.Op[] ops;
+    private final int[] targets;
+    private final int[] first;
+    private final int[] second;
+    private final double[] scalars;
+    private final Rotation[] rotations;
+    private final Complex[] registers;
+    /**
+     * The input registers of the element-wise evaluation.
+     */
+    private final Complex[] rows;
+    private final int result;
+
+    Program(Expr expr, int dimension) {
+        if (dimension < 1) {
+            throw new IllegalArgumentException("Illegal dimension");
+        }
+        this.dimension = dimension;
+        this.inputCount = inputCount(expr);
+        Compiler compiler = new Compiler(dimension, inputCount);
+        this.result = compiler.emit(expr);
+        int size = compiler.ops.size();
+        this.ops = compiler.ops.toArray(new Expr.Op[0]);
+        this.targets = new int[size];
+        this.first = new int[size];
+        this.second = new int[size];
+        this.scalars = new double[size];
+        this.rotations = new Rotation[size];
+        for (int p = 0; p < size; p++) {
+            Expr node = compiler.nodes.get(p);
+            targets[p] = compiler.registers.get(node);
+            first[p] = compiler.registers.get(node.a);
+            second[p] = node.b == null ? -1 : compiler.registers.get(node.b);
+            scalars[p] = node.scalar;
+            rotations[p] = node.rotation;
+        }
+        this.registers = compiler.values.toArray(new Complex[0]);
+        this.rows = new Complex[inputCount];
+        for (int i = 0; i < inputCount; i++) {
+            rows[i] = ComplexUtils.newInstance(dimension);
+        }
+    }
+
+    private static int inputCount(Expr expr) {
+        int res = 0;
+        Set<Expr> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Expr> stack = new ArrayDeque<>();
+        stack.push(expr);
+        while (!stack.isEmpty()) {
+            Expr node = stack.pop();
+            if (!visited.add(node)) {
+                continue;
+            }
+            if (node.op == Expr.Op.INPUT) {
+                res = Math.max(res, node.index + 1);
+            }
+            if (node.a != null) {
+                stack.push(node.a);
+            }
+            if (node.b != null) {
+                stack.push(node.b);
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Return the dimension of the inputs and the result
+     *
+     * @return dimension
+     */
+    public int getDimension() {
+        return dimension;
+    }
+
+    /**
+     * Return the number of inputs, it is the maximal input index plus one
+     *
+     * @return number of inputs
+     */
+    public int getInputCount() {
+        return inputCount;
+    }
+
+    /**
+     * Return the number of instructions, every distinct operation of the expression is one instruction
+     *
+     * @return number of instructions
+     */
+    public int getInstructionCount() {
+        return ops.length;
+    }
+
+    private void check(Complex complex) {
+        if (complex.getDimension() != dimension) {
+            throw new IllegalArgumentException("Dimension mismatch");
+        }
+    }
+
+    private void checkInputCount(int count) {
+        if (count < inputCount) {
+            throw new IllegalArgumentException("Array is too small");
+        }
+    }
+
+    /**
+     * Evaluate the expression and store the result in the destination,
+     * the destination may be one of the inputs
+     *
+     * @param out    the destination
+     * @param inputs the inputs, at least {@link #getInputCount()}
+     * @return the destination
+     * @throws IllegalArgumentException if a dimension is not the dimension of the program
+     */
+    public Complex evaluate(Complex out, Complex... inputs) {
+        checkInputCount(inputs.length);
+        check(out);
+        for (int i = 0; i < inputCount; i++) {
+            check(inputs[i]);
+            registers[i] = inputs[i];
+        }
+        try {
+            run();
+            out.set(registers[result]);
+        } finally {
+            for (int i = 0; i < inputCount; i++) {
+                registers[i] = null;
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Evaluate the expression element-wise: the vector {@code i} of the destination is the result
+     * for the vectors {@code i} of the inputs. The destination may be one of the inputs.
+     *
+     * @param out    the destination
+     * @param inputs the inputs, at least {@link #getInputCount()}, of the size of the destination
+     * @throws IllegalArgumentException if a dimension is not the dimension of the program or the sizes differ
+     */
+    public void evaluate(ComplexStorage out, ComplexStorage... inputs) {
+        checkInputCount(inputs.length);
+        if (out.getDimension() != dimension) {
+            throw new IllegalArgumentException("Dimension mismatch");
+        }
+        for (int i = 0; i < inputCount; i++) {
+            if (inputs[i].getDimension() != dimension) {
+                throw new IllegalArgumentException("Dimension mismatch");
+            }
+            if (inputs[i].size() != out.size()) {
+                throw new IllegalArgumentException("Size mismatch");
+            }
+        }
+        System.arraycopy(rows, 0, registers, 0, inputCount);
+        try {
+            int size = out.size();
+            for (int index = 0; index < size; index++) {
+                for (int i = 0; i < inputCount; i++) {
+                    Complex row = rows[i];
+                    ComplexStorage input = inputs[i];
+                    for (int d = 0; d < dimension; d++) {
+                        row.setValue(d, input.getValue(index, d));
+                    }
+                }
+                run();
+                out.set(index, registers[result]);
+            }
+        } finally {
+            for (int i = 0; i < inputCount; i++) {
+                registers[i] = null;
+            }
+        }
+    }
+
+    private void run() {
+        Complex[] r = registers;
+        for (int p = 0; p < ops.length; p++) {
+            Complex target = r[targets[p]];
+            Complex a = r[first[p]];
+            switch (ops[p]) {
+                case ADD:
+                    Complex.add(a, r[second[p]], target);
+                    break;
+                case SUB:
+                    Complex.sub(a, r[second[p]], target);
+                    break;
+                case SCALE:
+                    Complex.scale(a, scalars[p], target);
+                    break;
+                case MUL:
+                    Complex.mul(a, r[second[p]], target);
+                    break;
+                case DIV:
+                    Complex.div(a, r[second[p]], target);
+                    break;
+                case CONJ:
+                    Complex.conj(a, target);
+                    break;
+                case ROTATE:
+                    rotations[p].applyTo(a, target);
+                    break;
+                default:
+                    throw new IllegalStateException("Unexpected operation: " + ops[p]);
+            }
+        }
+    }
+
+    /**
+     * Numbering of the distinct subexpressions.
+     */
+    private static final class Compiler {
+        private final int dimension;
+        private final Map<Expr, Integer> registers = new HashMap<>();
+        private final List<Complex> values = new ArrayList<>();
+        /**
+         * The operation nodes in the order of evaluation, the operands before the node.
+         */
+        private final List<Expr> nodes = new ArrayList<>();
+        private final List<Expr.Op> ops = new ArrayList<>();
+
+        Compiler(int dimension, int inputCount) {
+            this.dimension = dimension;
+            for (int i = 0; i < inputCount; i++) {
+                values.add(null);
+            }
+        }
+
+        /**
+         * Number the subexpressions in post-order, the operands before the node
+         */
+        int emit(Expr root) {
+            Deque<Expr> stack = new ArrayDeque<>();
+            stack.push(root);
+            while (!stack.isEmpty()) {
+                Expr expr = stack.peek();
+                if (registers.containsKey(expr)) {
+                    stack.pop();
+                    continue;
+                }
+                // the first operand is pushed last, so it is numbered first
+                boolean ready = true;
+                if (expr.b != null && !registers.containsKey(expr.b)) {
+                    stack.push(expr.b);
+                    ready = false;
+                }
+                if (expr.a != null && !registers.containsKey(expr.a)) {
+                    stack.push(expr.a);
+                    ready = false;
+                }
+                if (ready) {
+                    stack.pop();
+                    registers.put(expr, register(expr));
+                }
+            }
+            return registers.get(root);
+        }
+
+        /**
+         * Allocate the register of a node whose operands have registers
+         */
+        private int register(Expr expr) {
+            int res;
+            switch (expr.op) {
+                case INPUT:
+                    res = expr.index;
+                    break;
+                case CONSTANT:
+                    if (expr.constant.getDimension() != dimension) {
+                        throw new IllegalArgumentException("Dimension mismatch");
+                    }
+                    res = values.size();
+                    values.add(Complex.of(expr.constant));
+                    break;
+                default:
+                    if (expr.op != Expr.Op.ADD && expr.op != Expr.Op.SUB && expr.op != Expr.Op.SCALE && dimension != 2) {
+                        throw new IllegalArgumentException("Complex arithmetic is only supported for 2D complex numbers");
+                    }
+                    res = values.size();
+                    values.add(ComplexUtils.newInstance(dimension));
+                    nodes.add(expr);
+                    ops.add(expr.op);
+                    break;
+            }
+            return res;
+        }
+    }
+}
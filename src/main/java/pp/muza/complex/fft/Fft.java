@@ -0,0 +1,501 @@
+package pp.muza.complex.fft;
+
+import pp.muza.complex.Complex;
+import pp.muza.complex.impl.Complex2;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.IntStream;
+
+
+/**
+ * Fast Fourier transform of a fixed size.
+ * <p>
+ * Sizes that are powers of two are transformed in place by the iterative radix-2 algorithm,
+ * other sizes by the Bluestein algorithm on top of a power of two transform.
+ * The twiddle factors are calculated once per size with {@link Math}, the transforms of up to
+ * {@link #CACHE_SIZE} sizes are cached, {@link #clearCache()} drops them.
+ * Stages of large transforms are split between the threads of the common fork/join pool.
+ * <p>
+ * The samples are kept in primitive arrays: split (separate arrays of the real and the imaginary parts)
+ * or interleaved (real and imaginary parts of a sample one after another).
+ * The forward transform is {@code X[k] = sum(x[j] * exp(-2 * pi * i * j * k / n))},
+ * the inverse transform has the opposite sign and is scaled by {@code 1 / n}.
+ * <p>
+ * This class is immutable and thread safe.
+ */
+public final class Fft {
+
+    /**
+     * The minimal size transformed in parallel.
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+    /**
+     * The number of butterflies of a stage calculated by one task.
+     */
+    private static final int PARALLEL_CHUNK = 1 << 13;
+    /**
+     * The maximal number of cached sizes, a transform of another size is created on every call.
+     * A transform keeps about {@code 2 * n} doubles and {@code n} ints, a Bluestein transform
+     * adds its power of two convolution.
+     */
+    public static final int CACHE_SIZE = 64;
+
+    private static final ConcurrentMap<Integer, Fft> CACHE = new ConcurrentHashMap<>();
+
+    private final int n;
+    /**
+     * {@code cos[k] = cos(2 * pi * k / n)} and {@code sin[k] = sin(2 * pi * k / n)} for k up to n / 2.
+     */
+    private final double[] cos;
+    private final double[] sin;
+    /**
+     * The bit reversal permutation of a power of two size.
+     */
+    private final int[] reverse;
+    /**
+     * The transform of the convolution of the Bluestein algorithm, null for a power of two size.
+     */
+    private final Fft convolution;
+    /**
+     * The chirp {@code exp(-pi * i * k * k / n)} of the Bluestein algorithm.
+     */
+    private final double[] chirpRe;
+    private final double[] chirpIm;
+    /**
+     * The transformed conjugate chirp of the Bluestein algorithm.
+     */
+    private final double[] filterRe;
+    private final double[] filterIm;
+
+    private Fft(int n) {
+        this.n = n;
+        int half = n / 2 + 1;
+        this.cos = new double[half];
+        this.sin = new double[half];
+        for (int k = 0; k < half; k++) {
+            double angle = 2 * Math.PI * k / n;
+            cos[k] = Math.cos(angle);
+            sin[k] = Math.sin(angle);
+        }
+        if (isPowerOfTwo(n)) {
+            this.reverse = new int[n];
+            int bits = Integer.numberOfTrailingZeros(n);
+            for (int i = 0; i < n; i++) {
+                reverse[i] = bits == 0 ? 0 : Integer.reverse(i) >>> (32 - bits);
+            }
+            this.convolution = null;
+            this.chirpRe = null;
+            this.chirpIm = null;
+            this.filterRe = null;
+            this.filterIm = null;
+        } else {
+            this.reverse = null;
+            int m = Integer.highestOneBit(2 * n - 1) << 1;
+            this.convolution = of(m);
+            this.chirpRe = new double[n];
+            this.chirpIm = new double[n];
+            this.filterRe = new double[m];
+            this.filterIm = new double[m];
+            for (int k = 0; k < n; k++) {
+                // k * k modulo 2n keeps the angle small and exact
+                double angle = Math.PI * ((long) k * k % (2L * n)) / n;
+                chirpRe[k] = Math.cos(angle);
+                chirpIm[k] = -Math.sin(angle);
+            }
+            filterRe[0] = chirpRe[0];
+            filterIm[0] = -chirpIm[0];
+            for (int k = 1; k < n; k++) {
+                filterRe[k] = filterRe[m - k] = chirpRe[k];
+                filterIm[k] = filterIm[m - k] = -chirpIm[k];
+            }
+            convolution.forward(filterRe, filterIm);
+        }
+    }
+
+    /**
+     * Return the transform of the size, cached while the cache has less than {@link #CACHE_SIZE} sizes
+     *
+     * @param n the number of samples
+     * @return the transform
+     */
+    public static Fft of(int n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("Size must be positive");
+        }
+        Fft res = CACHE.get(n);
+        if (res == null) {
+            // not computeIfAbsent: a Bluestein transform creates the transform of its convolution
+            res = new Fft(n);
+            if (CACHE.size() < CACHE_SIZE) {
+                Fft prev = CACHE.putIfAbsent(n, res);
+                if (prev != null) {
+                    res = prev;
+                }
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Drop the cached transforms, the transforms already returned stay valid
+     */
+    public static void clearCache() {
+        CACHE.clear();
+    }
+
+    private static boolean isPowerOfTwo(int n) {
+        return (n & (n - 1)) == 0;
+    }
+
+    /**
+     * Return the number of samples
+     *
+     * @return size
+     */
+    public int size() {
+        return n;
+    }
+
+    private void checkLength(int length, int required) {
+        if (length < required) {
+            throw new IllegalArgumentException("Array is too small");
+        }
+    }
+
+    /**
+     * Forward transform in place of split samples
+     *
+     * @param re the real parts of at least {@link #size()} samples
+     * @param im the imaginary parts of at least {@link #size()} samples
+     */
+    public void forward(double[] re, double[] im) {
+        checkLength(re.length, n);
+        checkLength(im.length, n);
+        transform(re, 0, im, 0, 1);
+    }
+
+    /**
+     * Inverse transform in place of split samples
+     *
+     * @param re the real parts of at least {@link #size()} samples
+     * @param im the imaginary parts of at least {@link #size()} samples
+     */
+    public void inverse(double[] re, double[] im) {
+        checkLength(re.length, n);
+        checkLength(im.length, n);
+        inverse(re, 0, im, 0, 1);
+    }
+
+    /**
+     * Forward transform in place of interleaved samples
+     *
+     * @param samples the real and imaginary parts of at least {@link #size()} samples
+     */
+    public void forward(double[] samples) {
+        checkLength(samples.length, 2 * n);
+        transform(samples, 0, samples, 1, 2);
+    }
+
+    /**
+     * Inverse transform in place of interleaved samples
+     *
+     * @param samples the real and imaginary parts of at least {@link #size()} samples
+     */
+    public void inverse(double[] samples) {
+        checkLength(samples.length, 2 * n);
+        inverse(samples, 0, samples, 1, 2);
+    }
+
+    /**
+     * Forward transform in place of 2D complex numbers, the real part is the first value
+     *
+     * @param values at least {@link #size()} complex numbers
+     */
+    public void forward(Complex[] values) {
+        checkLength(values.length, n);
+        double[] re = new double[n];
+        double[] im = new double[n];
+        split(values, re, im);
+        forward(re, im);
+        set(re, im, values);
+    }
+
+    /**
+     * Inverse transform in place of 2D complex numbers, the real part is the first value
+     *
+     * @param values at least {@link #size()} complex numbers
+     */
+    public void inverse(Complex[] values) {
+        checkLength(values.length, n);
+        double[] re = new double[n];
+        double[] im = new double[n];
+        split(values, re, im);
+        inverse(re, im);
+        set(re, im, values);
+    }
+
+    /**
+     * Forward transform of real samples. The spectrum of real samples is symmetric,
+     * so only the first {@code n / 2 + 1} values are calculated, for an even size with a transform of a half size.
+     *
+     * @param samples at least {@link #size()} real samples
+     * @param re      the real parts of at least {@code n / 2 + 1} values of the spectrum
+     * @param im      the imaginary parts of at least {@code n / 2 + 1} values of the spectrum
+     */
+    public void realForward(double[] samples, double[] re, double[] im) {
+        checkLength(samples.length, n);
+        int half = n / 2;
+        checkLength(re.length, half + 1);
+        checkLength(im.length, half + 1);
+        if (n % 2 != 0) {
+            double[] xr = new double[n];
+            double[] xi = new double[n];
+            System.arraycopy(samples, 0, xr, 0, n);
+            transform(xr, 0, xi, 0, 1);
+            System.arraycopy(xr, 0, re, 0, half + 1);
+            System.arraycopy(xi, 0, im, 0, half + 1);
+            return;
+        }
+        // even samples as the real parts and odd samples as the imaginary parts
+        double[] zr = new double[half];
+        double[] zi = new double[half];
+        for (int j = 0; j < half; j++) {
+            zr[j] = samples[2 * j];
+            zi[j] = samples[2 * j + 1];
+        }
+        of(half).forward(zr, zi);
+        for (int k = 0; k <= half; k++) {
+            int k1 = k % half;
+            int k2 = (half - k) % half;
+            double er = (zr[k1] + zr[k2]) / 2;
+            double ei = (zi[k1] - zi[k2]) / 2;
+            double or = (zi[k1] + zi[k2]) / 2;
+            double oi = -(zr[k1] - zr[k2]) / 2;
+            // X[k] = E[k] + exp(-2 * pi * i * k / n) * O[k]
+            double wr = cos[k];
+            double wi = -sin[k];
+            re[k] = er + (or * wr - oi * wi);
+            im[k] = ei + (or * wi + oi * wr);
+        }
+    }
+
+    /**
+     * Inverse of {@link #realForward(double[], double[], double[])}
+     *
+     * @param re      the real parts of at least {@code n / 2 + 1} values of the spectrum
+     * @param im      the imaginary parts of at least {@code n / 2 + 1} values of the spectrum
+     * @param samples at least {@link #size()} real samples
+     */
+    public void realInverse(double[] re, double[] im, double[] samples) {
+        checkLength(samples.length, n);
+        int half = n / 2;
+        checkLength(re.length, half + 1);
+        checkLength(im.length, half + 1);
+        if (n % 2 != 0) {
+            double[] xr = new double[n];
+            double[] xi = new double[n];
+            for (int k = 0; k <= half; k++) {
+                xr[k] = re[k];
+                xi[k] = im[k];
+            }
+            for (int k = half + 1; k < n; k++) {
+                xr[k] = re[n - k];
+                xi[k] = -im[n - k];
+            }
+            inverse(xr, 0, xi, 0, 1);
+            System.arraycopy(xr, 0, samples, 0, n);
+            return;
+        }
+        double[] zr = new double[half];
+        double[] zi = new double[half];
+        for (int k = 0; k < half; k++) {
+            int k2 = half - k;
+            double er = (re[k] + re[k2]) / 2;
+            double ei = (im[k] - im[k2]) / 2;
+            double dr = (re[k] - re[k2]) / 2;
+            double di = (im[k] + im[k2]) / 2;
+            // O[k] = D[k] * exp(2 * pi * i * k / n)
+            double or = dr * cos[k] - di * sin[k];
+            double oi = dr * sin[k] + di * cos[k];
+            // Z[k] = E[k] + i * O[k]
+            zr[k] = er - oi;
+            zi[k] = ei + or;
+        }
+        of(half).inverse(zr, zi);
+        for (int j = 0; j < half; j++) {
+            samples[2 * j] = zr[j];
+            samples[2 * j + 1] = zi[j];
+        }
+    }
+
+    private static void checkComplex(Complex complex) {
+        if (complex.getDimension() != 2) {
+            throw new IllegalArgumentException("Dimension mismatch");
+        }
+    }
+
+    private static void checkSplit(double[] re, double[] im) {
+        if (re.length != im.length) {
+            throw new IllegalArgumentException("Size mismatch");
+        }
+    }
+
+    /**
+     * Copy 2D complex numbers to split arrays, the real part is the first value
+     *
+     * @param values the complex numbers (only for 2D)
+     * @param re     the real parts, at least as many as the complex numbers
+     * @param im     the imaginary parts, at least as many as the complex numbers
+     * @throws IllegalArgumentException if a dimension is not 2 or an array is too small
+     */
+    public static void split(Complex[] values, double[] re, double[] im) {
+        if (re.length < values.length || im.length < values.length) {
+            throw new IllegalArgumentException("Output array is too small");
+        }
+        for (int i = 0; i < values.length; i++) {
+            checkComplex(values[i]);
+            re[i] = values[i].getValue(0);
+            im[i] = values[i].getValue(1);
+        }
+    }
+
+    /**
+     * Copy split arrays to existing 2D complex numbers
+     *
+     * @param re     the real parts
+     * @param im     the imaginary parts, as many as the real parts
+     * @param values the complex numbers (only for 2D), at least as many as the real parts
+     * @throws IllegalArgumentException if a dimension is not 2 or the lengths do not match
+     */
+    public static void set(double[] re, double[] im, Complex[] values) {
+        checkSplit(re, im);
+        if (values.length < re.length) {
+            throw new IllegalArgumentException("Output array is too small");
+        }
+        for (int i = 0; i < re.length; i++) {
+            checkComplex(values[i]);
+            values[i].set(re[i], im[i]);
+        }
+    }
+
+    /**
+     * Create 2D complex numbers from split arrays
+     *
+     * @param re the real parts
+     * @param im the imaginary parts, as many as the real parts
+     * @return new complex numbers
+     * @throws IllegalArgumentException if the lengths do not match
+     */
+    public static Complex[] toComplex(double[] re, double[] im) {
+        checkSplit(re, im);
+        Complex[] res = new Complex[re.length];
+        for (int i = 0; i < res.length; i++) {
+            res[i] = new Complex2(re[i], im[i]);
+        }
+        return res;
+    }
+
+    /**
+     * Inverse transform by the forward transform of the conjugate samples
+     */
+    private void inverse(double[] re, int ro, double[] im, int io, int s) {
+        for (int i = 0; i < n; i++) {
+            im[io + i * s] = -im[io + i * s];
+        }
+        transform(re, ro, im, io, s);
+        double scale = 1.0 / n;
+        for (int i = 0; i < n; i++) {
+            re[ro + i * s] *= scale;
+            im[io + i * s] = -im[io + i * s] * scale;
+        }
+    }
+
+    /**
+     * Forward transform, the sample i is {@code (re[ro + i * s], im[io + i * s])}
+     */
+    private void transform(double[] re, int ro, double[] im, int io, int s) {
+        if (reverse != null) {
+            radix2(re, ro, im, io, s);
+        } else {
+            bluestein(re, ro, im, io, s);
+        }
+    }
+
+    private void radix2(double[] re, int ro, double[] im, int io, int s) {
+        for (int i = 0; i < n; i++) {
+            int j = reverse[i];
+            if (i < j) {
+                int a = i * s;
+                int b = j * s;
+                double t = re[ro + a];
+                re[ro + a] = re[ro + b];
+                re[ro + b] = t;
+                t = im[io + a];
+                im[io + a] = im[io + b];
+                im[io + b] = t;
+            }
+        }
+        int butterflies = n / 2;
+        for (int len = 2; len <= n; len <<= 1) {
+            int half = len >>> 1;
+            int step = n / len;
+            if (n >= PARALLEL_THRESHOLD) {
+                IntStream.range(0, (butterflies + PARALLEL_CHUNK - 1) / PARALLEL_CHUNK).parallel().forEach(c ->
+                        stage(re, ro, im, io, s, half, step, c * PARALLEL_CHUNK, Math.min(butterflies, (c + 1) * PARALLEL_CHUNK)));
+            } else {
+                stage(re, ro, im, io, s, half, step, 0, butterflies);
+            }
+        }
+    }
+
+    /**
+     * Butterflies of a stage, the butterflies of a stage do not share samples
+     */
+    private void stage(double[] re, int ro, double[] im, int io, int s, int half, int step, int from, int to) {
+        for (int b = from; b < to; b++) {
+            int j = b & (half - 1);
+            int i = ((b - j) << 1) + j;
+            int p = (i * s);
+            int q = (i + half) * s;
+            double wr = cos[j * step];
+            double wi = -sin[j * step];
+            double xr = re[ro + q];
+            double xi = im[io + q];
+            double tr = xr * wr - xi * wi;
+            double ti = xr * wi + xi * wr;
+            double ur = re[ro + p];
+            double ui = im[io + p];
+            re[ro + p] = ur + tr;
+            im[io + p] = ui + ti;
+            re[ro + q] = ur - tr;
+            im[io + q] = ui - ti;
+        }
+    }
+
+    private void bluestein(double[] re, int ro, double[] im, int io, int s) {
+        int m = convolution.n;
+        double[] ar = new double[m];
+        double[] ai = new double[m];
+        for (int k = 0; k < n; k++) {
+            double xr = re[ro + k * s];
+            double xi = im[io + k * s];
+            ar[k] = xr * chirpRe[k] - xi * chirpIm[k];
+            ai[k] = xr * chirpIm[k] + xi * chirpRe[k];
+        }
+        convolution.forward(ar, ai);
+        for (int k = 0; k < m; k++) {
+            double xr = ar[k];
+            double xi = ai[k];
+            ar[k] = xr * filterRe[k] - xi * filterIm[k];
+            ai[k] = xr * filterIm[k] + xi * filterRe[k];
+        }
+        convolution.inverse(ar, ai);
+        for (int k = 0; k < n; k++) {
+            double xr = ar[k];
+            double xi = ai[k];
+            re[ro + k * s] = xr * chirpRe[k] - xi * chirpIm[k];
+            im[io + k * s] = xr * chirpIm[k] + xi * chirpRe[k];
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package pp.muza.complex.impl;
 
 import pp.muza.complex.Complex;
+import pp.muza.complex.metrics.Metrics;
+import pp.muza.complex.metrics.Operation;
+import pp.muza.complex.trig.Trig;
 
 import java.util.Arrays;
 
@@ -74,6 +77,9 @@ public class BaseComplex implements Complex {
      * This method is called when the complex number is changed.
      */
     protected void onChange() {
+        if (Metrics.ENABLED) {
+            Metrics.increment(Operation.ON_CHANGE);
+        }
         _squareModule = Double.NaN;
         _normalized = false;
         _null = false;
@@ -172,6 +178,9 @@ public class BaseComplex implements Complex {
 
     @Override
     public boolean isNormalized() {
+        if (Metrics.ENABLED) {
+            Metrics.increment(_changed ? Operation.NORMALIZED_MISS : Operation.NORMALIZED_HIT);
+        }
         if (_changed) {
             _normalized = !(Math.abs(squareModule() - 1.0) > EPSILON);
         }
@@ -231,8 +240,8 @@ public class BaseComplex implements Complex {
             throw new IllegalArgumentException("Rotation is only supported for 2D complex numbers");
         }
         onChange();
-        double cos = Math.cos(angle);
-        double sin = Math.sin(angle);
+        double cos = Trig.cos(angle);
+        double sin = Trig.sin(angle);
         double x = value[0] * cos - value[1] * sin;
         double y = value[0] * sin + value[1] * cos;
         value[0] = x;
@@ -242,6 +251,9 @@ public class BaseComplex implements Complex {
     @Override
     public double squareModule() {
         double res = 0.0;
+        if (Metrics.ENABLED) {
+            Metrics.increment(Double.isNaN(_squareModule) ? Operation.SQUARE_MODULE_MISS : Operation.SQUARE_MODULE_HIT);
+        }
         if (Double.isNaN(_squareModule)) {
             for (int i = 0; i < dimension; i++) {
                 res += (this.value[i] * this.value[i]);
@@ -298,6 +310,33 @@ public class BaseComplex implements Complex {
         }
     }
 
+    @Override
+    public void set(double x, double y) {
+        if (dimension < 2) {
+            throw new IllegalArgumentException("Dimension mismatch");
+        }
+        onChange();
+        value[0] = x;
+        value[1] = y;
+        for (int i = 2; i < dimension; i++) {
+            value[i] = 0.0;
+        }
+    }
+
+    @Override
+    public void set(double x, double y, double z) {
+        if (dimension < 3) {
+            throw new IllegalArgumentException("Dimension mismatch");
+        }
+        onChange();
+        value[0] = x;
+        value[1] = y;
+        value[2] = z;
+        for (int i = 3; i < dimension; i++) {
+            value[i] = 0.0;
+        }
+    }
+
     @Override
     public void set(Complex source) {
         if (source.getDimension() > dimension) {
@@ -319,11 +358,10 @@ public class BaseComplex implements Complex {
         if (this == o) {
             return true;
         }
-        if (o == null || getClass() != o.getClass()) {
-            return false;
+        if (o instanceof BaseComplex) {
+            return Arrays.equals(value, ((BaseComplex) o).value);
         }
-        Complex complex = (Complex) o;
-        return Arrays.equals(value, complex.get());
+        return o instanceof Complex && ComplexUtils.valueEquals(this, (Complex) o);
     }
 
     @Override
@@ -333,6 +371,9 @@ public class BaseComplex implements Complex {
 
     @Override
     public Complex copy() {
+        if (Metrics.ENABLED) {
+            Metrics.increment(Operation.COPY);
+        }
         return new BaseComplex(this);
     }
 
@@ -0,0 +1,158 @@
+package pp.muza.complex.impl;
+
+import pp.muza.complex.Complex;
+
+import java.util.Arrays;
+
+
+/**
+ * Axis-aligned bounding box of vectors: the minimal and the maximal value of every dimension.
+ * <p>
+ * This class is immutable.
+ */
+public final class BoundingBox {
+
+    private final double[] min;
+    private final double[] max;
+
+    /**
+     * Create a new bounding box, the arrays are copied
+     *
+     * @param min the minimal values
+     * @param max the maximal values
+     */
+    public BoundingBox(double[] min, double[] max) {
+        if (min.length != max.length) {
+            throw new IllegalArgumentException("Dimension mismatch");
+        }
+        this.min = min.clone();
+        this.max = max.clone();
+    }
+
+    /**
+     * Create a new bounding box of one vector
+     *
+     * @param complex the complex number
+     * @return a new bounding box
+     */
+    public static BoundingBox of(Complex complex) {
+        double[] values = complex.get();
+        return new BoundingBox(values, values);
+    }
+
+    /**
+     * Return the dimension of the box
+     *
+     * @return dimension
+     */
+    public int getDimension() {
+        return min.length;
+    }
+
+    /**
+     * Return the minimal value of the dimension
+     *
+     * @param d the dimension index
+     * @return minimal value, or zero if the index is not less than the dimension of the box
+     */
+    public double getMinValue(int d) {
+        return d < min.length ? min[d] : 0.0;
+    }
+
+    /**
+     * Return the maximal value of the dimension
+     *
+     * @param d the dimension index
+     * @return maximal value, or zero if the index is not less than the dimension of the box
+     */
+    public double getMaxValue(int d) {
+        return d < max.length ? max[d] : 0.0;
+    }
+
+    /**
+     * Return the corner with the minimal values
+     *
+     * @return immutable complex number
+     */
+    public Complex getMin() {
+        return ComplexUtils.immutableOf(min);
+    }
+
+    /**
+     * Return the corner with the maximal values
+     *
+     * @return immutable complex number
+     */
+    public Complex getMax() {
+        return ComplexUtils.immutableOf(max);
+    }
+
+    /**
+     * Return the center of the box
+     *
+     * @return a new complex number
+     */
+    public Complex getCenter() {
+        double[] res = new double[min.length];
+        for (int d = 0; d < res.length; d++) {
+            res[d] = min[d] + (max[d] - min[d]) / 2.0;
+        }
+        return ComplexUtils.of(res);
+    }
+
+    /**
+     * Check if the complex number is inside the box or on its border
+     *
+     * @param complex the complex number
+     * @return true if the complex number is inside the box
+     */
+    public boolean contains(Complex complex) {
+        int dim = Math.max(min.length, complex.getDimension());
+        for (int d = 0; d < dim; d++) {
+            double v = complex.getValue(d);
+            if (!(v >= getMinValue(d) && v <= getMaxValue(d))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Return the smallest box that contains both boxes
+     *
+     * @param other the other box
+     * @return a new bounding box
+     */
+    public BoundingBox union(BoundingBox other) {
+        int dim = Math.max(min.length, other.min.length);
+        double[] resMin = new double[dim];
+        double[] resMax = new double[dim];
+        for (int d = 0; d < dim; d++) {
+            resMin[d] = Math.min(getMinValue(d), other.getMinValue(d));
+            resMax[d] = Math.max(getMaxValue(d), other.getMaxValue(d));
+        }
+        return new BoundingBox(resMin, resMax);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        BoundingBox that = (BoundingBox) o;
+        return Arrays.equals(min, that.min) && Arrays.equals(max, that.max);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(min) + Arrays.hashCode(max);
+    }
+
+    @Override
+    public String toString() {
+        return "[" + getMin() + ", " + getMax() + "]";
+    }
+}
@@ -0,0 +1,335 @@
+package pp.muza.complex.impl;
+
+import pp.muza.complex.Complex;
+import pp.muza.complex.metrics.Metrics;
+import pp.muza.complex.metrics.Operation;
+import pp.muza.complex.trig.Trig;
+
+
+/**
+ * Implementation of the Complex interface for two dimensions.
+ * <p>
+ * The values are kept in fields and every operation is unrolled,
+ * the behaviour is the same as of {@link BaseComplex} with dimension 2.
+ * <p>
+ * This class is mutable and not thread safe.
+ */
+public class Complex2 implements Complex {
+
+    private static final int DIMENSION = 2;
+
+    double x;
+    double y;
+    private int version = 0;
+
+    private double _squareModule;
+    private boolean _normalized;
+    private boolean _null;
+    private boolean _changed = false;
+
+    /**
+     * Create a new zero complex number
+     */
+    public Complex2() {
+    }
+
+    /**
+     * Create a new complex number
+     *
+     * @param x the first value
+     * @param y the second value
+     */
+    public Complex2(double x, double y) {
+        onChange();
+        this.x = x;
+        this.y = y;
+    }
+
+    /**
+     * Create a new complex number from another complex number
+     *
+     * @param complex the complex number
+     */
+    public Complex2(Complex complex) {
+        set(complex);
+        if (complex instanceof Complex2) {
+            Complex2 complex2 = (Complex2) complex;
+            _squareModule = complex2._squareModule;
+            _normalized = complex2._normalized;
+            _null = complex2._null;
+            _changed = complex2._changed;
+        }
+    }
+
+    private static void checkIndex(int index) {
+        if (index < 0) {
+            throw new IllegalArgumentException("Index must be positive");
+        }
+    }
+
+    /**
+     * This method is called when the complex number is changed.
+     */
+    protected void onChange() {
+        if (Metrics.ENABLED) {
+            Metrics.increment(Operation.ON_CHANGE);
+        }
+        _squareModule = Double.NaN;
+        _normalized = false;
+        _null = false;
+        _changed = true;
+        version++;
+    }
+
+    @Override
+    public void setNull() {
+        if (!_changed && _null) {
+            return;
+        }
+        onChange();
+        x = 0.0;
+        y = 0.0;
+        _squareModule = 0.0;
+        _null = true;
+        _changed = false;
+    }
+
+    @Override
+    public void setUnassigned() {
+        onChange();
+        x = Double.NaN;
+        y = Double.NaN;
+        _squareModule = Double.NaN;
+        _changed = false;
+    }
+
+    @Override
+    public void normalize() {
+        if (!_normalized) {
+            onChange();
+            double m = Math.sqrt(squareModule());
+            if (m > 0.0) {
+                x = x / m;
+                y = y / m;
+            }
+            _normalized = true;
+            _squareModule = 1.0;
+            _changed = false;
+        }
+    }
+
+    @Override
+    public boolean isNull() {
+        return _null;
+    }
+
+    @Override
+    public boolean isZero() {
+        return x == 0.0 && y == 0.0;
+    }
+
+    @Override
+    public boolean isInfinity() {
+        return Double.isInfinite(x) || Double.isInfinite(y);
+    }
+
+    @Override
+    public boolean isNaN() {
+        return Double.isNaN(x) || Double.isNaN(y);
+    }
+
+    @Override
+    public boolean isUnassigned() {
+        if (_changed && isNaN()) {
+            _squareModule = Double.NaN;
+            _changed = false;
+        }
+        return !_changed && Double.isNaN(_squareModule);
+    }
+
+    @Override
+    public boolean isNormalized() {
+        if (Metrics.ENABLED) {
+            Metrics.increment(_changed ? Operation.NORMALIZED_MISS : Operation.NORMALIZED_HIT);
+        }
+        if (_changed) {
+            _normalized = !(Math.abs(squareModule() - 1.0) > BaseComplex.EPSILON);
+        }
+        return _normalized;
+    }
+
+    @Override
+    public void dec(Complex complex) {
+        onChange();
+        x -= complex.getValue(X);
+        y -= complex.getValue(Y);
+    }
+
+    @Override
+    public void dec(double... values) {
+        onChange();
+        x -= values[X];
+        y -= values[Y];
+    }
+
+    @Override
+    public void change(Complex complex) {
+        onChange();
+        x += complex.getValue(X);
+        y += complex.getValue(Y);
+        assert Double.isFinite(x) && Double.isFinite(y);
+    }
+
+    @Override
+    public void change(double... values) {
+        onChange();
+        x += values[X];
+        y += values[Y];
+        assert Double.isFinite(x) && Double.isFinite(y);
+    }
+
+    @Override
+    public void scale(double scale) {
+        assert Double.isFinite(scale);
+        onChange();
+        x *= scale;
+        y *= scale;
+        assert Double.isFinite(x) && Double.isFinite(y);
+    }
+
+    @Override
+    public void rotate(double angle) {
+        onChange();
+        double cos = Trig.cos(angle);
+        double sin = Trig.sin(angle);
+        double x1 = x * cos - y * sin;
+        double y1 = x * sin + y * cos;
+        x = x1;
+        y = y1;
+    }
+
+    @Override
+    public double squareModule() {
+        if (Metrics.ENABLED) {
+            Metrics.increment(Double.isNaN(_squareModule) ? Operation.SQUARE_MODULE_MISS : Operation.SQUARE_MODULE_HIT);
+        }
+        if (Double.isNaN(_squareModule)) {
+            double res = x * x + y * y;
+            assert Double.isFinite(res);
+            _squareModule = res;
+        }
+        return _squareModule;
+    }
+
+    @Override
+    public double getValue(int index) {
+        switch (index) {
+            case X:
+                return x;
+            case Y:
+                return y;
+            default:
+                checkIndex(index);
+                return 0.0;
+        }
+    }
+
+    @Override
+    public void setValue(int index, double value) {
+        switch (index) {
+            case X:
+                onChange();
+                x = value;
+                break;
+            case Y:
+                onChange();
+                y = value;
+                break;
+            default:
+                checkIndex(index);
+                throw new IllegalArgumentException("Index must be less than dimension");
+        }
+    }
+
+    @Override
+    public double[] get() {
+        return new double[]{x, y};
+    }
+
+    @Override
+    public void set(double... values) {
+        if (values.length > DIMENSION) {
+            throw new IllegalArgumentException("Dimension mismatch");
+        }
+        onChange();
+        x = values.length > X ? values[X] : 0.0;
+        y = values.length > Y ? values[Y] : 0.0;
+    }
+
+    @Override
+    public void set(double x, double y) {
+        onChange();
+        this.x = x;
+        this.y = y;
+    }
+
+    @Override
+    public void set(Complex source) {
+        if (source.getDimension() > DIMENSION) {
+            throw new IllegalArgumentException("Dimension mismatch");
+        }
+        onChange();
+        x = source.getValue(X);
+        y = source.getValue(Y);
+    }
+
+    @Override
+    public int getDimension() {
+        return DIMENSION;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o instanceof Complex2) {
+            Complex2 complex = (Complex2) o;
+            return Double.doubleToLongBits(x) == Double.doubleToLongBits(complex.x)
+                    && Double.doubleToLongBits(y) == Double.doubleToLongBits(complex.y);
+        }
+        return o instanceof Complex && ComplexUtils.valueEquals(this, (Complex) o);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 + Double.hashCode(x)) + Double.hashCode(y);
+    }
+
+    @Override
+    public Complex copy() {
+        if (Metrics.ENABLED) {
+            Metrics.increment(Operation.COPY);
+        }
+        return new Complex2(this);
+    }
+
+    @Override
+    public boolean equals(Complex complex, double epsilon) {
+        if (complex.getDimension() != DIMENSION) {
+            throw new IllegalArgumentException("dimensions are not equal");
+        }
+        return !(Math.abs(x - complex.getValue(X)) > epsilon)
+                && !(Math.abs(y - complex.getValue(Y)) > epsilon);
+    }
+
+    @Override
+    public int getVersion() {
+        return version;
+    }
+
+    @Override
+    public String toString() {
+        return "(" + x + ", " + y + ")";
+    }
+}
@@ -0,0 +1,358 @@
+package pp.muza.complex.impl;
+
+import pp.muza.complex.Complex;
+import pp.muza.complex.metrics.Metrics;
+import pp.muza.complex.metrics.Operation;
+
+
+/**
+ * Implementation of the Complex interface for three dimensions.
+ * <p>
+ * The values are kept in fields and every operation is unrolled,
+ * the behaviour is the same as of {@link BaseComplex} with dimension 3.
+ * <p>
+ * This class is mutable and not thread safe.
+ */
+public class Complex3 implements Complex {
+
+    private static final int DIMENSION = 3;
+
+    double x;
+    double y;
+    double z;
+    private int version = 0;
+
+    private double _squareModule;
+    private boolean _normalized;
+    private boolean _null;
+    private boolean _changed = false;
+
+    /**
+     * Create a new zero complex number
+     */
+    public Complex3() {
+    }
+
+    /**
+     * Create a new complex number
+     *
+     * @param x the first value
+     * @param y the second value
+     * @param z the third value
+     */
+    public Complex3(double x, double y, double z) {
+        onChange();
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    /**
+     * Create a new complex number from another complex number
+     *
+     * @param complex the complex number
+     */
+    public Complex3(Complex complex) {
+        set(complex);
+        if (complex instanceof Complex3) {
+            Complex3 complex3 = (Complex3) complex;
+            _squareModule = complex3._squareModule;
+            _normalized = complex3._normalized;
+            _null = complex3._null;
+            _changed = complex3._changed;
+        }
+    }
+
+    private static void checkIndex(int index) {
+        if (index < 0) {
+            throw new IllegalArgumentException("Index must be positive");
+        }
+    }
+
+    /**
+     * This method is called when the complex number is changed.
+     */
+    protected void onChange() {
+        if (Metrics.ENABLED) {
+            Metrics.increment(Operation.ON_CHANGE);
+        }
+        _squareModule = Double.NaN;
+        _normalized = false;
+        _null = false;
+        _changed = true;
+        version++;
+    }
+
+    @Override
+    public void setNull() {
+        if (!_changed && _null) {
+            return;
+        }
+        onChange();
+        x = 0.0;
+        y = 0.0;
+        z = 0.0;
+        _squareModule = 0.0;
+        _null = true;
+        _changed = false;
+    }
+
+    @Override
+    public void setUnassigned() {
+        onChange();
+        x = Double.NaN;
+        y = Double.NaN;
+        z = Double.NaN;
+        _squareModule = Double.NaN;
+        _changed = false;
+    }
+
+    @Override
+    public void normalize() {
+        if (!_normalized) {
+            onChange();
+            double m = Math.sqrt(squareModule());
+            if (m > 0.0) {
+                x = x / m;
+                y = y / m;
+                z = z / m;
+            }
+            _normalized = true;
+            _squareModule = 1.0;
+            _changed = false;
+        }
+    }
+
+    @Override
+    public boolean isNull() {
+        return _null;
+    }
+
+    @Override
+    public boolean isZero() {
+        return x == 0.0 && y == 0.0 && z == 0.0;
+    }
+
+    @Override
+    public boolean isInfinity() {
+        return Double.isInfinite(x) || Double.isInfinite(y) || Double.isInfinite(z);
+    }
+
+    @Override
+    public boolean isNaN() {
+        return Double.isNaN(x) || Double.isNaN(y) || Double.isNaN(z);
+    }
+
+    @Override
+    public boolean isUnassigned() {
+        if (_changed && isNaN()) {
+            _squareModule = Double.NaN;
+            _changed = false;
+        }
+        return !_changed && Double.isNaN(_squareModule);
+    }
+
+    @Override
+    public boolean isNormalized() {
+        if (Metrics.ENABLED) {
+            Metrics.increment(_changed ? Operation.NORMALIZED_MISS : Operation.NORMALIZED_HIT);
+        }
+        if (_changed) {
+            _normalized = !(Math.abs(squareModule() - 1.0) > BaseComplex.EPSILON);
+        }
+        return _normalized;
+    }
+
+    @Override
+    public void dec(Complex complex) {
+        onChange();
+        x -= complex.getValue(X);
+        y -= complex.getValue(Y);
+        z -= complex.getValue(Z);
+    }
+
+    @Override
+    public void dec(double... values) {
+        onChange();
+        x -= values[X];
+        y -= values[Y];
+        z -= values[Z];
+    }
+
+    @Override
+    public void change(Complex complex) {
+        onChange();
+        x += complex.getValue(X);
+        y += complex.getValue(Y);
+        z += complex.getValue(Z);
+        assert Double.isFinite(x) && Double.isFinite(y) && Double.isFinite(z);
+    }
+
+    @Override
+    public void change(double... values) {
+        onChange();
+        x += values[X];
+        y += values[Y];
+        z += values[Z];
+        assert Double.isFinite(x) && Double.isFinite(y) && Double.isFinite(z);
+    }
+
+    @Override
+    public void scale(double scale) {
+        assert Double.isFinite(scale);
+        onChange();
+        x *= scale;
+        y *= scale;
+        z *= scale;
+        assert Double.isFinite(x) && Double.isFinite(y) && Double.isFinite(z);
+    }
+
+    @Override
+    public void rotate(double angle) {
+        throw new IllegalArgumentException("Rotation is only supported for 2D complex numbers");
+    }
+
+    @Override
+    public double squareModule() {
+        if (Metrics.ENABLED) {
+            Metrics.increment(Double.isNaN(_squareModule) ? Operation.SQUARE_MODULE_MISS : Operation.SQUARE_MODULE_HIT);
+        }
+        if (Double.isNaN(_squareModule)) {
+            double res = x * x + y * y + z * z;
+            assert Double.isFinite(res);
+            _squareModule = res;
+        }
+        return _squareModule;
+    }
+
+    @Override
+    public double getValue(int index) {
+        switch (index) {
+            case X:
+                return x;
+            case Y:
+                return y;
+            case Z:
+                return z;
+            default:
+                checkIndex(index);
+                return 0.0;
+        }
+    }
+
+    @Override
+    public void setValue(int index, double value) {
+        switch (index) {
+            case X:
+                onChange();
+                x = value;
+                break;
+            case Y:
+                onChange();
+                y = value;
+                break;
+            case Z:
+                onChange();
+                z = value;
+                break;
+            default:
+                checkIndex(index);
+                throw new IllegalArgumentException("Index must be less than dimension");
+        }
+    }
+
+    @Override
+    public double[] get() {
+        return new double[]{x, y, z};
+    }
+
+    @Override
+    public void set(double... values) {
+        if (values.length > DIMENSION) {
+            throw new IllegalArgumentException("Dimension mismatch");
+        }
+        onChange();
+        x = values.length > X ? values[X] : 0.0;
+        y = values.length > Y ? values[Y] : 0.0;
+        z = values.length > Z ? values[Z] : 0.0;
+    }
+
+    @Override
+    public void set(double x, double y) {
+        onChange();
+        this.x = x;
+        this.y = y;
+        this.z = 0.0;
+    }
+
+    @Override
+    public void set(double x, double y, double z) {
+        onChange();
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    @Override
+    public void set(Complex source) {
+        if (source.getDimension() > DIMENSION) {
+            throw new IllegalArgumentException("Dimension mismatch");
+        }
+        onChange();
+        x = source.getValue(X);
+        y = source.getValue(Y);
+        z = source.getValue(Z);
+    }
+
+    @Override
+    public int getDimension() {
+        return DIMENSION;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o instanceof Complex3) {
+            Complex3 complex = (Complex3) o;
+            return Double.doubleToLongBits(x) == Double.doubleToLongBits(complex.x)
+                    && Double.doubleToLongBits(y) == Double.doubleToLongBits(complex.y)
+                    && Double.doubleToLongBits(z) == Double.doubleToLongBits(complex.z);
+        }
+        return o instanceof Complex && ComplexUtils.valueEquals(this, (Complex) o);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * (31 + Double.hashCode(x)) + Double.hashCode(y)) + Double.hashCode(z);
+    }
+
+    @Override
+    public Complex copy() {
+        if (Metrics.ENABLED) {
+            Metrics.increment(Operation.COPY);
+        }
+        return new Complex3(this);
+    }
+
+    @Override
+    public boolean equals(Complex complex, double epsilon) {
+        if (complex.getDimension() != DIMENSION) {
+            throw new IllegalArgumentException("dimensions are not equal");
+        }
+        return !(Math.abs(x - complex.getValue(X)) > epsilon)
+                && !(Math.abs(y - complex.getValue(Y)) > epsilon)
+                && !(Math.abs(z - complex.getValue(Z)) > epsilon);
+    }
+
+    @Override
+    public int getVersion() {
+        return version;
+    }
+
+    @Override
+    public String toString() {
+        return "(" + x + ", " + y + ", " + z + ")";
+    }
+}
@@ -1,6 +1,8 @@
 package pp.muza.complex.impl;
 
 import pp.muza.complex.Complex;
+import pp.muza.complex.metrics.Metrics;
+import pp.muza.complex.metrics.Operation;
 
 /**
  * Some useful static methods for Complex.
@@ -15,7 +17,7 @@ public final class ComplexUtils {
      * @return a new complex number
      */
     public static Complex of(double x, double y) {
-        return new BaseComplex(x, y);
+        return new Complex2(x, y);
     }
 
     /**
@@ -27,7 +29,27 @@ public final class ComplexUtils {
      * @return a new complex number
      */
     public static Complex of(double x, double y, double z) {
-        return new BaseComplex(x, y, z);
+        return new Complex3(x, y, z);
+    }
+
+    /**
+     * Create a new zero complex number with specified dimension
+     *
+     * @param dimension the dimension
+     * @return a new complex number
+     */
+    public static Complex newInstance(int dimension) {
+        if (Metrics.ENABLED) {
+            Metrics.increment(Operation.NEW_INSTANCE);
+        }
+        switch (dimension) {
+            case 2:
+                return new Complex2();
+            case 3:
+                return new Complex3();
+            default:
+                return new BaseComplex(dimension);
+        }
     }
 
     /**
@@ -37,7 +59,14 @@ public final class ComplexUtils {
      * @return a new complex number
      */
     public static Complex of(double... values) {
-        return new BaseComplex(values);
+        switch (values.length) {
+            case 2:
+                return new Complex2(values[0], values[1]);
+            case 3:
+                return new Complex3(values[0], values[1], values[2]);
+            default:
+                return new BaseComplex(values);
+        }
     }
 
     /**
@@ -47,7 +76,14 @@ public final class ComplexUtils {
      * @return a new complex number
      */
     public static Complex of(Complex value) {
-        return new BaseComplex(value);
+        switch (value.getDimension()) {
+            case 2:
+                return new Complex2(value);
+            case 3:
+                return new Complex3(value);
+            default:
+                return new BaseComplex(value);
+        }
     }
 
     /**
@@ -57,38 +93,57 @@ public final class ComplexUtils {
      * @return a new immutable complex number
      */
     public static Complex immutableOf(double... values) {
-        return new BaseComplex(values) {
-            private boolean _protected = false;
-
-            @Override
-            protected void onChange() {
-                if (_protected) {
-                    throw new UnsupportedOperationException("Immutable complex");
-                }
-                _protected = true;
-                super.onChange();
-            }
-        };
+        return new ImmutableComplex(values);
     }
 
     /**
      * Create a new immutable complex number from an existing complex number
      *
      * @param complex the complex v
-     * @return a new immutable complex number
+     * @return an immutable complex number, the same object if it is already immutable
      */
     public static Complex immutableOf(Complex complex) {
-        return new BaseComplex(complex) {
-            private boolean _protected = false;
+        if (complex instanceof ImmutableComplex) {
+            return complex;
+        }
+        return new ImmutableComplex(complex);
+    }
 
-            @Override
-            protected void onChange() {
-                if (_protected) {
-                    throw new UnsupportedOperationException("Immutable complex");
-                }
-                _protected = true;
-                super.onChange();
+    /**
+     * Compare the values of two complex numbers.
+     * The complex numbers are equal if they have the same dimension and the same values,
+     * the values are compared as {@link java.util.Arrays#equals(double[], double[])} does.
+     *
+     * @param a the first complex number
+     * @param b the second complex number
+     * @return true if the values are equal
+     */
+    public static boolean valueEquals(Complex a, Complex b) {
+        int dimension = a.getDimension();
+        if (dimension != b.getDimension()) {
+            return false;
+        }
+        for (int i = 0; i < dimension; i++) {
+            if (Double.doubleToLongBits(a.getValue(i)) != Double.doubleToLongBits(b.getValue(i))) {
+                return false;
             }
-        };
+        }
+        return true;
+    }
+
+    /**
+     * Calculate the hash code of the values of a complex number,
+     * the result is the same as {@link java.util.Arrays#hashCode(double[])} of the values.
+     *
+     * @param complex the complex number
+     * @return hash code
+     */
+    public static int valueHashCode(Complex complex) {
+        int dimension = complex.getDimension();
+        int result = 1;
+        for (int i = 0; i < dimension; i++) {
+            result = 31 * result + Double.hashCode(complex.getValue(i));
+        }
+        return result;
     }
 }
@@ -0,0 +1,468 @@
+package pp.muza.complex.impl;
+
+import pp.muza.complex.Complex;
+import pp.muza.complex.metrics.Metrics;
+import pp.muza.complex.metrics.Operation;
+import pp.muza.complex.trig.Trig;
+
+
+/**
+ * A complex number over a slice of an existing array: the values are
+ * {@code backing[offset]} to {@code backing[offset + dimension - 1]}, they are read and written in place.
+ * <p>
+ * The view is created once and moved over the vectors of a buffer with {@link #moveTo(int)},
+ * for example over interleaved coordinates {@code x0, y0, x1, y1, ...}:
+ * <pre>
+ * ComplexView view = new ComplexView(buffer, 0, 2);
+ * for (int offset = 0; offset &lt; buffer.length; offset += 2) {
+ *     view.moveTo(offset);
+ *     view.rotate(angle);
+ * }
+ * </pre>
+ * The null and normalized flags and the square module are cached as in {@link BaseComplex},
+ * the cache is dropped when the view is moved. A change of the backing array made not through the view
+ * is not seen by the cache, move the view to the same offset after such a change.
+ * {@link #copy()} returns a detached complex number.
+ * <p>
+ * {@link #set(Complex)}, {@link #change(Complex)} and {@link #dec(Complex)} accept a view over an overlapping
+ * slice of the same array, the values are copied in the order of {@link System#arraycopy}.
+ * The static helpers of {@link Complex} write the destination before they read all operands,
+ * so a destination view must not overlap an operand view unless it is the same object, pass a {@link #copy()}.
+ * <p>
+ * This class is mutable and not thread safe.
+ */
+public class ComplexView implements Complex {
+
+    private final int dimension;
+    private double[] backing;
+    private int offset;
+    private int version = 0;
+
+    private double _squareModule;
+    private boolean _normalized;
+    private boolean _null;
+    private boolean _changed = false;
+
+    /**
+     * Create a new view of the values of the array
+     *
+     * @param backing   the array
+     * @param offset    the index of the first value in the array
+     * @param dimension the dimension
+     * @throws IndexOutOfBoundsException if the slice is out of the array
+     */
+    public ComplexView(double[] backing, int offset, int dimension) {
+        if (dimension < 0) {
+            throw new IllegalArgumentException("Dimension must be positive");
+        }
+        this.dimension = dimension;
+        moveTo(backing, offset);
+    }
+
+    private static void checkIndex(int index) {
+        if (index < 0) {
+            throw new IllegalArgumentException("Index must be positive");
+        }
+    }
+
+    /**
+     * Move the view to another slice of the same array
+     *
+     * @param offset the index of the first value in the array
+     * @throws IndexOutOfBoundsException if the slice is out of the array
+     */
+    public void moveTo(int offset) {
+        moveTo(backing, offset);
+    }
+
+    /**
+     * Move the view to a slice of another array
+     *
+     * @param backing the array
+     * @param offset  the index of the first value in the array
+     * @throws IndexOutOfBoundsException if the slice is out of the array
+     */
+    public void moveTo(double[] backing, int offset) {
+        if (offset < 0 || offset > backing.length - dimension) {
+            throw new IndexOutOfBoundsException("Index out of range: " + offset);
+        }
+        this.backing = backing;
+        this.offset = offset;
+        _squareModule = Double.NaN;
+        _normalized = false;
+        _null = false;
+        _changed = true;
+        version++;
+    }
+
+    /**
+     * Return the backing array
+     *
+     * @return the array, not a copy
+     */
+    public double[] getBacking() {
+        return backing;
+    }
+
+    /**
+     * Return the index of the first value in the backing array
+     *
+     * @return offset
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * This method is called when the complex number is changed.
+     */
+    protected void onChange() {
+        if (Metrics.ENABLED) {
+            Metrics.increment(Operation.ON_CHANGE);
+        }
+        _squareModule = Double.NaN;
+        _normalized = false;
+        _null = false;
+        _changed = true;
+        version++;
+    }
+
+    @Override
+    public void setNull() {
+        if (!_changed && _null) {
+            return;
+        }
+        onChange();
+        for (int i = 0; i < dimension; i++) {
+            backing[offset + i] = 0.0;
+        }
+        _squareModule = 0.0;
+        _null = true;
+        _changed = false;
+    }
+
+    @Override
+    public void setUnassigned() {
+        onChange();
+        for (int i = 0; i < dimension; i++) {
+            backing[offset + i] = Double.NaN;
+        }
+        _squareModule = Double.NaN;
+        _changed = false;
+    }
+
+    @Override
+    public void normalize() {
+        if (!_normalized) {
+            onChange();
+            double m = Math.sqrt(squareModule());
+            if (m > 0.0) {
+                for (int i = 0; i < dimension; i++) {
+                    backing[offset + i] = backing[offset + i] / m;
+                }
+            }
+            _normalized = true;
+            _squareModule = 1.0;
+            _changed = false;
+        }
+    }
+
+    @Override
+    public boolean isNull() {
+        return _null;
+    }
+
+    @Override
+    public boolean isZero() {
+        for (int i = 0; i < dimension; i++) {
+            if (backing[offset + i] != 0.0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isInfinity() {
+        for (int i = 0; i < dimension; i++) {
+            if (Double.isInfinite(backing[offset + i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isNaN() {
+        for (int i = 0; i < dimension; i++) {
+            if (Double.isNaN(backing[offset + i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isUnassigned() {
+        if (_changed && isNaN()) {
+            _squareModule = Double.NaN;
+            _changed = false;
+        }
+        return !_changed && Double.isNaN(_squareModule);
+    }
+
+    @Override
+    public boolean isNormalized() {
+        if (Metrics.ENABLED) {
+            Metrics.increment(_changed ? Operation.NORMALIZED_MISS : Operation.NORMALIZED_HIT);
+        }
+        if (_changed) {
+            _normalized = !(Math.abs(squareModule() - 1.0) > BaseComplex.EPSILON);
+        }
+        return _normalized;
+    }
+
+    /**
+     * Check if the complex number is a view over a slice of the same array that starts before this view
+     * and overlaps it, its values must be read from the last to the first
+     */
+    private boolean overlapsBefore(Complex complex) {
+        if (!(complex instanceof ComplexView)) {
+            return false;
+        }
+        ComplexView view = (ComplexView) complex;
+        return view.backing == backing && view.offset < offset && view.offset + view.dimension > offset;
+    }
+
+    @Override
+    public void dec(Complex complex) {
+        onChange();
+        if (overlapsBefore(complex)) {
+            for (int i = dimension - 1; i >= 0; i--) {
+                backing[offset + i] -= complex.getValue(i);
+            }
+        } else {
+            for (int i = 0; i < dimension; i++) {
+                backing[offset + i] -= complex.getValue(i);
+            }
+        }
+    }
+
+    @Override
+    public void dec(double... values) {
+        onChange();
+        for (int i = 0; i < dimension; i++) {
+            backing[offset + i] -= values[i];
+        }
+    }
+
+    @Override
+    public void change(Complex complex) {
+        onChange();
+        if (overlapsBefore(complex)) {
+            for (int i = dimension - 1; i >= 0; i--) {
+                backing[offset + i] += complex.getValue(i);
+            }
+        } else {
+            for (int i = 0; i < dimension; i++) {
+                backing[offset + i] += complex.getValue(i);
+            }
+        }
+    }
+
+    @Override
+    public void change(double... values) {
+        onChange();
+        for (int i = 0; i < dimension; i++) {
+            backing[offset + i] += values[i];
+        }
+    }
+
+    @Override
+    public void scale(double scale) {
+        assert Double.isFinite(scale);
+        onChange();
+        for (int i = 0; i < dimension; i++) {
+            backing[offset + i] *= scale;
+        }
+    }
+
+    @Override
+    public void rotate(double angle) {
+        if (dimension != 2) {
+            throw new IllegalArgumentException("Rotation is only supported for 2D complex numbers");
+        }
+        onChange();
+        double cos = Trig.cos(angle);
+        double sin = Trig.sin(angle);
+        double x = backing[offset];
+        double y = backing[offset + 1];
+        backing[offset] = x * cos - y * sin;
+        backing[offset + 1] = x * sin + y * cos;
+    }
+
+    @Override
+    public double squareModule() {
+        if (Metrics.ENABLED) {
+            Metrics.increment(Double.isNaN(_squareModule) ? Operation.SQUARE_MODULE_MISS : Operation.SQUARE_MODULE_HIT);
+        }
+        if (Double.isNaN(_squareModule)) {
+            double res = 0.0;
+            for (int i = 0; i < dimension; i++) {
+                double v = backing[offset + i];
+                res += v * v;
+            }
+            _squareModule = res;
+        }
+        return _squareModule;
+    }
+
+    @Override
+    public double getValue(int index) {
+        checkIndex(index);
+        if (index >= dimension) {
+            return 0.0;
+        }
+        return backing[offset + index];
+    }
+
+    @Override
+    public void setValue(int index, double value) {
+        checkIndexBounds(index);
+        onChange();
+        backing[offset + index] = value;
+    }
+
+    private void checkIndexBounds(int index) {
+        checkIndex(index);
+        if (index >= dimension) {
+            throw new IllegalArgumentException("Index must be less than dimension");
+        }
+    }
+
+    @Override
+    public double[] get() {
+        double[] copy = new double[dimension];
+        System.arraycopy(backing, offset, copy, 0, dimension);
+        return copy;
+    }
+
+    @Override
+    public void set(double... values) {
+        if (values.length > dimension) {
+            throw new IllegalArgumentException("Dimension mismatch");
+        }
+        onChange();
+        for (int i = 0; i < dimension; i++) {
+            backing[offset + i] = i < values.length ? values[i] : 0.0;
+        }
+    }
+
+    @Override
+    public void set(double x, double y) {
+        if (dimension < 2) {
+            throw new IllegalArgumentException("Dimension mismatch");
+        }
+        onChange();
+        backing[offset] = x;
+        backing[offset + 1] = y;
+        for (int i = 2; i < dimension; i++) {
+            backing[offset + i] = 0.0;
+        }
+    }
+
+    @Override
+    public void set(double x, double y, double z) {
+        if (dimension < 3) {
+            throw new IllegalArgumentException("Dimension mismatch");
+        }
+        onChange();
+        backing[offset] = x;
+        backing[offset + 1] = y;
+        backing[offset + 2] = z;
+        for (int i = 3; i < dimension; i++) {
+            backing[offset + i] = 0.0;
+        }
+    }
+
+    @Override
+    public void set(Complex source) {
+        if (source.getDimension() > dimension) {
+            throw new IllegalArgumentException("Dimension mismatch");
+        }
+        onChange();
+        if (overlapsBefore(source)) {
+            for (int i = dimension - 1; i >= 0; i--) {
+                backing[offset + i] = source.getValue(i);
+            }
+        } else {
+            for (int i = 0; i < dimension; i++) {
+                backing[offset + i] = source.getValue(i);
+            }
+        }
+    }
+
+    @Override
+    public int getDimension() {
+        return dimension;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof Complex && ComplexUtils.valueEquals(this, (Complex) o);
+    }
+
+    @Override
+    public int hashCode() {
+        return ComplexUtils.valueHashCode(this);
+    }
+
+    /**
+     * Create a new complex number with the values of the view, it does not share the backing array
+     *
+     * @return a new complex number
+     */
+    @Override
+    public Complex copy() {
+        if (Metrics.ENABLED) {
+            Metrics.increment(Operation.COPY);
+        }
+        return ComplexUtils.of(get());
+    }
+
+    @Override
+    public boolean equals(Complex complex, double epsilon) {
+        if (complex.getDimension() != dimension) {
+            throw new IllegalArgumentException("dimensions are not equal");
+        }
+        for (int i = 0; i < dimension; i++) {
+            double d = Math.abs(backing[offset + i] - complex.getValue(i));
+            if (d > epsilon) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int getVersion() {
+        return version;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("(");
+        for (int i = 0; i < dimension; i++) {
+            sb.append(backing[offset + i]);
+            if (i < dimension - 1) {
+                sb.append(", ");
+            }
+        }
+        sb.append(")");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,396 @@
+package pp.muza.complex.impl;
+
+import pp.muza.complex.Complex;
+import pp.muza.complex.metrics.Metrics;
+import pp.muza.complex.metrics.Operation;
+import pp.muza.complex.trig.Trig;
+
+import java.util.Arrays;
+
+
+/**
+ * Implementation of the Complex interface with single precision values.
+ * <p>
+ * The values are kept as floats, half the memory of {@link BaseComplex}, and are rounded to float when written.
+ * Every operation is calculated in double and the result is rounded once, the module and the comparisons
+ * are calculated from the widened values, so the results are the same as of {@link BaseComplex}
+ * holding the same (rounded) values.
+ * A value is normalized when its square module differs from one by at most {@link #EPSILON}.
+ * <p>
+ * This class is mutable and not thread safe.
+ */
+public class FloatComplex implements Complex {
+
+    /**
+     * The error tolerance of the square module of a normalized value, a few ulps of float.
+     */
+    public static final double EPSILON = 1e-6;
+
+    final transient int dimension;
+    final float[] value;
+    private int version = 0;
+
+    private double _squareModule;
+    private boolean _normalized;
+    private boolean _null;
+    private boolean _changed = false;
+
+    /**
+     * Create a new complex number with specified dimension
+     *
+     * @param dimension the dimension
+     */
+    public FloatComplex(int dimension) {
+        this.dimension = dimension;
+        this.value = new float[dimension];
+    }
+
+    /**
+     * Create a new complex number from another complex number, the values are rounded to float
+     *
+     * @param complex the complex number
+     */
+    public FloatComplex(Complex complex) {
+        this(complex.getDimension());
+        set(complex);
+        if (complex instanceof FloatComplex) {
+            FloatComplex floatComplex = (FloatComplex) complex;
+            _squareModule = floatComplex._squareModule;
+            _normalized = floatComplex._normalized;
+            _null = floatComplex._null;
+            _changed = floatComplex._changed;
+        }
+    }
+
+    /**
+     * Create a new complex number from array of values, the values are rounded to float
+     *
+     * @param values the values
+     */
+    public FloatComplex(double... values) {
+        this(values.length);
+        set(values);
+    }
+
+    private static void checkIndex(int index) {
+        if (index < 0) {
+            throw new IllegalArgumentException("Index must be positive");
+        }
+    }
+
+    /**
+     * This method is called when the complex number is changed.
+     */
+    protected void onChange() {
+        if (Metrics.ENABLED) {
+            Metrics.increment(Operation.ON_CHANGE);
+        }
+        _squareModule = Double.NaN;
+        _normalized = false;
+        _null = false;
+        _changed = true;
+        version++;
+    }
+
+    @Override
+    public void setNull() {
+        if (!_changed && _null) {
+            return;
+        }
+        onChange();
+        Arrays.fill(value, 0.0f);
+        _squareModule = 0.0;
+        _null = true;
+        _changed = false;
+    }
+
+    @Override
+    public void setUnassigned() {
+        onChange();
+        Arrays.fill(value, Float.NaN);
+        _squareModule = Double.NaN;
+        _changed = false;
+    }
+
+    @Override
+    public void normalize() {
+        if (!_normalized) {
+            onChange();
+            double m = Math.sqrt(squareModule());
+            if (m > 0.0) {
+                for (int i = 0; i < dimension; i++) {
+                    value[i] = (float) (value[i] / m);
+                }
+            }
+            _normalized = true;
+            _squareModule = 1.0;
+            _changed = false;
+        }
+    }
+
+    @Override
+    public boolean isNull() {
+        return _null;
+    }
+
+    @Override
+    public boolean isZero() {
+        for (int i = 0; i < dimension; i++) {
+            if (value[i] != 0.0f) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isInfinity() {
+        for (int i = 0; i < dimension; i++) {
+            if (Float.isInfinite(value[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isNaN() {
+        for (int i = 0; i < dimension; i++) {
+            if (Float.isNaN(value[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isUnassigned() {
+        if (_changed && isNaN()) {
+            _squareModule = Double.NaN;
+            _changed = false;
+        }
+        return !_changed && Double.isNaN(_squareModule);
+    }
+
+    @Override
+    public boolean isNormalized() {
+        if (Metrics.ENABLED) {
+            Metrics.increment(_changed ? Operation.NORMALIZED_MISS : Operation.NORMALIZED_HIT);
+        }
+        if (_changed) {
+            _normalized = !(Math.abs(squareModule() - 1.0) > EPSILON);
+        }
+        return _normalized;
+    }
+
+    @Override
+    public void dec(Complex complex) {
+        onChange();
+        for (int i = 0; i < dimension; i++) {
+            value[i] = (float) (value[i] - complex.getValue(i));
+        }
+    }
+
+    @Override
+    public void dec(double... values) {
+        onChange();
+        for (int i = 0; i < dimension; i++) {
+            value[i] = (float) (value[i] - values[i]);
+        }
+    }
+
+    @Override
+    public void change(Complex complex) {
+        onChange();
+        for (int i = 0; i < dimension; i++) {
+            value[i] = (float) (value[i] + complex.getValue(i));
+        }
+    }
+
+    @Override
+    public void change(double... values) {
+        onChange();
+        for (int i = 0; i < dimension; i++) {
+            value[i] = (float) (value[i] + values[i]);
+        }
+    }
+
+    @Override
+    public void scale(double scale) {
+        assert Double.isFinite(scale);
+        onChange();
+        for (int i = 0; i < dimension; i++) {
+            value[i] = (float) (value[i] * scale);
+        }
+    }
+
+    @Override
+    public void rotate(double angle) {
+        if (dimension != 2) {
+            throw new IllegalArgumentException("Rotation is only supported for 2D complex numbers");
+        }
+        onChange();
+        double cos = Trig.cos(angle);
+        double sin = Trig.sin(angle);
+        double x = value[0];
+        double y = value[1];
+        value[0] = (float) (x * cos - y * sin);
+        value[1] = (float) (x * sin + y * cos);
+    }
+
+    @Override
+    public double squareModule() {
+        if (Metrics.ENABLED) {
+            Metrics.increment(Double.isNaN(_squareModule) ? Operation.SQUARE_MODULE_MISS : Operation.SQUARE_MODULE_HIT);
+        }
+        if (Double.isNaN(_squareModule)) {
+            double res = 0.0;
+            for (int i = 0; i < dimension; i++) {
+                double v = value[i];
+                res += v * v;
+            }
+            _squareModule = res;
+        }
+        return _squareModule;
+    }
+
+    @Override
+    public double getValue(int index) {
+        checkIndex(index);
+        if (index >= dimension) {
+            return 0.0;
+        }
+        return value[index];
+    }
+
+    @Override
+    public void setValue(int index, double value) {
+        checkIndexBounds(index);
+        onChange();
+        this.value[index] = (float) value;
+    }
+
+    private void checkIndexBounds(int index) {
+        checkIndex(index);
+        if (index >= dimension) {
+            throw new IllegalArgumentException("Index must be less than dimension");
+        }
+    }
+
+    @Override
+    public double[] get() {
+        double[] copy = new double[dimension];
+        for (int i = 0; i < dimension; i++) {
+            copy[i] = value[i];
+        }
+        return copy;
+    }
+
+    @Override
+    public void set(double... values) {
+        if (values.length > dimension) {
+            throw new IllegalArgumentException("Dimension mismatch");
+        }
+        onChange();
+        for (int i = 0; i < dimension; i++) {
+            value[i] = i < values.length ? (float) values[i] : 0.0f;
+        }
+    }
+
+    @Override
+    public void set(double x, double y) {
+        if (dimension < 2) {
+            throw new IllegalArgumentException("Dimension mismatch");
+        }
+        onChange();
+        value[0] = (float) x;
+        value[1] = (float) y;
+        for (int i = 2; i < dimension; i++) {
+            value[i] = 0.0f;
+        }
+    }
+
+    @Override
+    public void set(double x, double y, double z) {
+        if (dimension < 3) {
+            throw new IllegalArgumentException("Dimension mismatch");
+        }
+        onChange();
+        value[0] = (float) x;
+        value[1] = (float) y;
+        value[2] = (float) z;
+        for (int i = 3; i < dimension; i++) {
+            value[i] = 0.0f;
+        }
+    }
+
+    @Override
+    public void set(Complex source) {
+        if (source.getDimension() > dimension) {
+            throw new IllegalArgumentException("Dimension mismatch");
+        }
+        onChange();
+        for (int i = 0; i < dimension; i++) {
+            value[i] = (float) source.getValue(i);
+        }
+    }
+
+    @Override
+    public int getDimension() {
+        return dimension;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof Complex && ComplexUtils.valueEquals(this, (Complex) o);
+    }
+
+    @Override
+    public int hashCode() {
+        return ComplexUtils.valueHashCode(this);
+    }
+
+    @Override
+    public Complex copy() {
+        if (Metrics.ENABLED) {
+            Metrics.increment(Operation.COPY);
+        }
+        return new FloatComplex(this);
+    }
+
+    @Override
+    public boolean equals(Complex complex, double epsilon) {
+        if (complex.getDimension() != dimension) {
+            throw new IllegalArgumentException("dimensions are not equal");
+        }
+        for (int i = 0; i < dimension; i++) {
+            double d = Math.abs(value[i] - complex.getValue(i));
+            if (d > epsilon) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int getVersion() {
+        return version;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("(");
+        for (int i = 0; i < dimension; i++) {
+            sb.append(value[i]);
+            if (i < dimension - 1) {
+                sb.append(", ");
+            }
+        }
+        sb.append(")");
+        return sb.toString();
+    }
+}
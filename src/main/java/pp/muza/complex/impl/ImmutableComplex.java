@@ -0,0 +1,245 @@
+package pp.muza.complex.impl;
+
+import pp.muza.complex.Complex;
+
+import java.util.Arrays;
+
+
+/**
+ * Immutable implementation of the Complex interface.
+ * <p>
+ * The square module, the normalized state and the hash code are calculated at construction.
+ * All methods that change the value throw {@link UnsupportedOperationException},
+ * {@link #copy()} returns the same object.
+ * <p>
+ * This class is thread safe.
+ */
+public final class ImmutableComplex implements Complex {
+
+    private final double[] value;
+    private final double squareModule;
+    private final boolean normalized;
+    private final boolean nul;
+    private final boolean unassigned;
+    private final int hash;
+
+    /**
+     * Create a new immutable complex number from array of values
+     *
+     * @param values the values
+     */
+    public ImmutableComplex(double... values) {
+        this(values.clone(), false);
+    }
+
+    /**
+     * Create a new immutable complex number from another complex number
+     *
+     * @param complex the complex number
+     */
+    public ImmutableComplex(Complex complex) {
+        this(complex.get(), complex.isNull());
+    }
+
+    private ImmutableComplex(double[] value, boolean nul) {
+        this.value = value;
+        this.nul = nul;
+        double res = 0.0;
+        boolean nan = false;
+        for (double v : value) {
+            res += v * v;
+            nan |= Double.isNaN(v);
+        }
+        this.squareModule = res;
+        this.normalized = !(Math.abs(res - 1.0) > BaseComplex.EPSILON);
+        this.unassigned = nan;
+        this.hash = Arrays.hashCode(value);
+    }
+
+    private static UnsupportedOperationException immutable() {
+        return new UnsupportedOperationException("Immutable complex");
+    }
+
+    @Override
+    public void setNull() {
+        throw immutable();
+    }
+
+    @Override
+    public void setUnassigned() {
+        throw immutable();
+    }
+
+    @Override
+    public void normalize() {
+        if (!normalized) {
+            throw immutable();
+        }
+    }
+
+    @Override
+    public boolean isNull() {
+        return nul;
+    }
+
+    @Override
+    public boolean isZero() {
+        for (double v : value) {
+            if (v != 0.0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isInfinity() {
+        for (double v : value) {
+            if (Double.isInfinite(v)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isNaN() {
+        return unassigned;
+    }
+
+    @Override
+    public boolean isUnassigned() {
+        return unassigned;
+    }
+
+    @Override
+    public boolean isNormalized() {
+        return normalized;
+    }
+
+    @Override
+    public void dec(Complex complex) {
+        throw immutable();
+    }
+
+    @Override
+    public void dec(double... values) {
+        throw immutable();
+    }
+
+    @Override
+    public void change(Complex complex) {
+        throw immutable();
+    }
+
+    @Override
+    public void change(double... values) {
+        throw immutable();
+    }
+
+    @Override
+    public void scale(double scale) {
+        throw immutable();
+    }
+
+    @Override
+    public void rotate(double angle) {
+        throw immutable();
+    }
+
+    @Override
+    public double squareModule() {
+        return squareModule;
+    }
+
+    @Override
+    public double getValue(int index) {
+        if (index < 0) {
+            throw new IllegalArgumentException("Index must be positive");
+        }
+        if (index >= value.length) {
+            return 0.0;
+        }
+        return value[index];
+    }
+
+    @Override
+    public void setValue(int index, double value) {
+        throw immutable();
+    }
+
+    @Override
+    public double[] get() {
+        return value.clone();
+    }
+
+    @Override
+    public void set(double... values) {
+        throw immutable();
+    }
+
+    @Override
+    public void set(Complex source) {
+        throw immutable();
+    }
+
+    @Override
+    public int getDimension() {
+        return value.length;
+    }
+
+    @Override
+    public Complex copy() {
+        return this;
+    }
+
+    @Override
+    public boolean equals(Complex complex, double epsilon) {
+        if (complex.getDimension() != value.length) {
+            throw new IllegalArgumentException("dimensions are not equal");
+        }
+        for (int i = 0; i < value.length; i++) {
+            double d = Math.abs(value[i] - complex.getValue(i));
+            if (d > epsilon) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int getVersion() {
+        return 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o instanceof ImmutableComplex) {
+            ImmutableComplex complex = (ImmutableComplex) o;
+            return hash == complex.hash && Arrays.equals(value, complex.value);
+        }
+        return o instanceof Complex && ComplexUtils.valueEquals(this, (Complex) o);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("(");
+        for (int i = 0; i < value.length; i++) {
+            sb.append(value[i]);
+            if (i < value.length - 1) {
+                sb.append(", ");
+            }
+        }
+        sb.append(")");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,150 @@
+package pp.muza.complex.impl;
+
+import pp.muza.complex.Complex;
+import pp.muza.complex.metrics.Metrics;
+import pp.muza.complex.metrics.Operation;
+
+
+/**
+ * A complex number that caches the values derived from it: the module, the argument and the direction.
+ * <p>
+ * A cached value is kept with the {@link #getVersion()} it was calculated for, it is valid while the version
+ * is the same, so every change of the value invalidates it without extra work in the setters.
+ * The caches cost memory only for the instances of this class, use it for values that are read much more often
+ * than they are changed. The numbers of cache hits and misses are counted for every instance.
+ * <p>
+ * This class is mutable and not thread safe.
+ */
+public class MemoizedComplex extends BaseComplex {
+
+    private static final int NONE = -1;
+
+    private int moduleVersion = NONE;
+    private double module;
+    private int argumentVersion = NONE;
+    private double argument;
+    private int directionVersion = NONE;
+    private Complex direction;
+
+    private long hits;
+    private long misses;
+
+    /**
+     * Create a new complex number with specified dimension
+     *
+     * @param dimension the dimension
+     */
+    public MemoizedComplex(int dimension) {
+        super(dimension);
+    }
+
+    /**
+     * Create a new complex number from another complex number
+     *
+     * @param complex the complex number
+     */
+    public MemoizedComplex(Complex complex) {
+        super(complex);
+    }
+
+    /**
+     * Create a new complex number from array of values
+     *
+     * @param values the values
+     */
+    public MemoizedComplex(double... values) {
+        super(values);
+    }
+
+    /**
+     * Return the module of the value, the cached value if the value is not changed
+     *
+     * @return module
+     */
+    public double module() {
+        int version = getVersion();
+        if (moduleVersion == version) {
+            hits++;
+        } else {
+            misses++;
+            module = Math.sqrt(squareModule());
+            moduleVersion = version;
+        }
+        return module;
+    }
+
+    /**
+     * Return the argument (the angle of the polar form), the cached value if the value is not changed
+     *
+     * @return argument in radians, from -pi to pi
+     * @throws IllegalArgumentException if the dimension is not 2
+     */
+    public double argument() {
+        if (dimension != 2) {
+            throw new IllegalArgumentException("Argument is only supported for 2D complex numbers");
+        }
+        int version = getVersion();
+        if (argumentVersion == version) {
+            hits++;
+        } else {
+            misses++;
+            argument = Math.atan2(value[1], value[0]);
+            argumentVersion = version;
+        }
+        return argument;
+    }
+
+    /**
+     * Return the normalized copy of the value, the cached copy if the value is not changed.
+     * A zero vector is returned unchanged, as by {@link #normalize()}.
+     *
+     * @return immutable normalized value
+     */
+    public Complex direction() {
+        int version = getVersion();
+        if (directionVersion == version) {
+            hits++;
+        } else {
+            misses++;
+            Complex res = new BaseComplex(this);
+            res.normalize();
+            direction = Complex.immutableOf(res);
+            directionVersion = version;
+        }
+        return direction;
+    }
+
+    /**
+     * Return the number of derived values returned from the caches
+     *
+     * @return number of hits
+     */
+    public long getHitCount() {
+        return hits;
+    }
+
+    /**
+     * Return the number of derived values calculated because the cache was empty or outdated
+     *
+     * @return number of misses
+     */
+    public long getMissCount() {
+        return misses;
+    }
+
+    /**
+     * Reset the hit and miss counters, the cached values are kept
+     */
+    public void resetCounters() {
+        hits = 0;
+        misses = 0;
+    }
+
+    @Override
+    public Complex copy() {
+        if (Metrics.ENABLED) {
+            Metrics.increment(Operation.COPY);
+        }
+        return new MemoizedComplex(this);
+    }
+}
@@ -0,0 +1,501 @@
+package pp.muza.complex.index;
+
+import pp.muza.complex.Complex;
+import pp.muza.complex.bulk.ComplexStorage;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.IntStream;
+
+
+/**
+ * Static KD-tree for nearest neighbour and radius queries over vectors of a low dimension.
+ * <p>
+ * The tree has no node objects: the points are reordered so that every subtree is a range of the arrays,
+ * the median of a range is the node and it splits the range by the dimension of the widest spread.
+ * Small ranges are leaves scanned linearly. The tree is built in a {@link ForkJoinPool}.
+ * <p>
+ * Distances have the same semantics as {@link Complex#squareDistance(Complex, Complex)}: a query may have
+ * a lower dimension than the tree, its missing values are zero. Results are indexes of the points in the order
+ * they were given, equal distances are ordered by index.
+ * <p>
+ * This class is immutable and thread safe.
+ */
+public final class KdTree {
+
+    /**
+     * The maximal number of points of a leaf.
+     */
+    private static final int LEAF_SIZE = 8;
+    /**
+     * The minimal number of points of a subtree built by a separate task.
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 13;
+
+    private final int size;
+    private final int dimension;
+    /**
+     * The coordinates in the tree order, {@code coords[d][i]} is the value of the dimension {@code d} of the point {@code i}.
+     */
+    private final double[][] coords;
+    /**
+     * The original indexes of the points in the tree order.
+     */
+    private final int[] ids;
+    /**
+     * The split dimension of the node at the median of a range.
+     */
+    private final int[] axes;
+
+    private KdTree(double[][] points, int size) {
+        if (points.length == 0 && size > 0) {
+            // there is no axis to split the points
+            throw new IllegalArgumentException("Illegal dimension");
+        }
+        this.size = size;
+        this.dimension = points.length;
+        this.ids = new int[size];
+        this.axes = new int[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = i;
+        }
+        Build build = new Build(points, 0, size);
+        if (size > PARALLEL_THRESHOLD) {
+            ForkJoinPool.commonPool().invoke(build);
+        } else {
+            build.compute();
+        }
+        this.coords = new double[dimension][size];
+        for (int d = 0; d < dimension; d++) {
+            for (int i = 0; i < size; i++) {
+                coords[d][i] = points[d][ids[i]];
+            }
+        }
+    }
+
+    /**
+     * Build a tree of the complex numbers
+     *
+     * @param values the complex numbers, the dimension of the tree is the maximal dimension of them
+     * @return a new tree
+     * @throws IllegalArgumentException if there are complex numbers and all of them have the dimension 0
+     */
+    public static KdTree of(Collection<? extends Complex> values) {
+        return of(values.toArray(new Complex[0]));
+    }
+
+    /**
+     * Build a tree of the complex numbers
+     *
+     * @param values the complex numbers, the dimension of the tree is the maximal dimension of them
+     * @return a new tree
+     * @throws IllegalArgumentException if there are complex numbers and all of them have the dimension 0
+     */
+    public static KdTree of(Complex... values) {
+        int dimension = 0;
+        for (Complex value : values) {
+            dimension = Math.max(dimension, value.getDimension());
+        }
+        double[][] points = new double[dimension][values.length];
+        for (int i = 0; i < values.length; i++) {
+            Complex value = values[i];
+            for (int d = 0; d < value.getDimension(); d++) {
+                points[d][i] = value.getValue(d);
+            }
+        }
+        return new KdTree(points, values.length);
+    }
+
+    /**
+     * Build a tree of the vectors of a storage
+     *
+     * @param storage the vectors
+     * @return a new tree
+     * @throws IllegalArgumentException if the storage is not empty and has the dimension 0
+     */
+    public static KdTree of(ComplexStorage storage) {
+        double[][] points = new double[storage.getDimension()][storage.size()];
+        for (int d = 0; d < points.length; d++) {
+            for (int i = 0; i < storage.size(); i++) {
+                points[d][i] = storage.getValue(i, d);
+            }
+        }
+        return new KdTree(points, storage.size());
+    }
+
+    /**
+     * Return the number of points
+     *
+     * @return size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Return the dimension of the points
+     *
+     * @return dimension
+     */
+    public int getDimension() {
+        return dimension;
+    }
+
+    /**
+     * Find the nearest point
+     *
+     * @param complex the query
+     * @return index of the nearest point, or -1 if the tree is empty
+     */
+    public int nearest(Complex complex) {
+        int[] res = nearest(complex, 1);
+        return res.length == 0 ? -1 : res[0];
+    }
+
+    /**
+     * Find the k nearest points
+     *
+     * @param complex the query
+     * @param k       the number of points
+     * @return indexes of up to k nearest points, the nearest first
+     */
+    public int[] nearest(Complex complex, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must be positive");
+        }
+        return nearest(query(complex), k);
+    }
+
+    /**
+     * Find the points within the radius, the points on the border are included
+     *
+     * @param complex the query
+     * @param radius  the radius
+     * @return indexes of the points in ascending order
+     * @throws IllegalArgumentException if the radius is negative or NaN
+     */
+    public int[] withinRadius(Complex complex, double radius) {
+        checkRadius(radius);
+        return withinRadius(query(complex), radius);
+    }
+
+    /**
+     * Find the k nearest points of every query, the queries are processed in parallel
+     *
+     * @param queries the queries
+     * @param k       the number of points
+     * @return indexes of up to k nearest points of every query, the nearest first
+     */
+    public int[][] nearest(ComplexStorage queries, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must be positive");
+        }
+        checkQuery(queries.getDimension());
+        return IntStream.range(0, queries.size()).parallel()
+                .mapToObj(i -> nearest(query(queries, i), k))
+                .toArray(int[][]::new);
+    }
+
+    /**
+     * Find the points within the radius of every query, the queries are processed in parallel
+     *
+     * @param queries the queries
+     * @param radius  the radius
+     * @return indexes of the points of every query in ascending order
+     * @throws IllegalArgumentException if the radius is negative or NaN
+     */
+    public int[][] withinRadius(ComplexStorage queries, double radius) {
+        checkRadius(radius);
+        checkQuery(queries.getDimension());
+        return IntStream.range(0, queries.size()).parallel()
+                .mapToObj(i -> withinRadius(query(queries, i), radius))
+                .toArray(int[][]::new);
+    }
+
+    private void checkQuery(int dim) {
+        // an empty tree built of complex numbers has no dimension, any query is allowed
+        if (dim > dimension && size > 0) {
+            throw new IllegalArgumentException("Illegal dimension");
+        }
+    }
+
+    private double[] query(Complex complex) {
+        checkQuery(complex.getDimension());
+        double[] res = new double[dimension];
+        for (int d = 0; d < Math.min(dimension, complex.getDimension()); d++) {
+            res[d] = complex.getValue(d);
+        }
+        return res;
+    }
+
+    private double[] query(ComplexStorage queries, int index) {
+        double[] res = new double[dimension];
+        for (int d = 0; d < Math.min(dimension, queries.getDimension()); d++) {
+            res[d] = queries.getValue(index, d);
+        }
+        return res;
+    }
+
+    private double squareDistance(int i, double[] q) {
+        double res = 0.0;
+        for (int d = 0; d < dimension; d++) {
+            double v = coords[d][i] - q[d];
+            res += v * v;
+        }
+        return res;
+    }
+
+    private int[] nearest(double[] q, int k) {
+        Neighbours neighbours = new Neighbours(Math.min(k, size));
+        if (neighbours.capacity > 0) {
+            nearest(q, 0, size, neighbours);
+        }
+        return neighbours.toArray();
+    }
+
+    private void nearest(double[] q, int from, int to, Neighbours neighbours) {
+        if (to - from <= LEAF_SIZE) {
+            for (int i = from; i < to; i++) {
+                neighbours.offer(squareDistance(i, q), ids[i]);
+            }
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        int axis = axes[mid];
+        double diff = q[axis] - coords[axis][mid];
+        neighbours.offer(squareDistance(mid, q), ids[mid]);
+        if (diff < 0) {
+            nearest(q, from, mid, neighbours);
+            if (diff * diff <= neighbours.worst()) {
+                nearest(q, mid + 1, to, neighbours);
+            }
+        } else {
+            nearest(q, mid + 1, to, neighbours);
+            if (diff * diff <= neighbours.worst()) {
+                nearest(q, from, mid, neighbours);
+            }
+        }
+    }
+
+    private static void checkRadius(double radius) {
+        if (!(radius >= 0)) {
+            throw new IllegalArgumentException("Radius must not be negative");
+        }
+    }
+
+    private int[] withinRadius(double[] q, double radius) {
+        int[] res = new int[16];
+        int count = withinRadius(q, radius * radius, 0, size, res, 0);
+        if (count > res.length) {
+            res = new int[count];
+            withinRadius(q, radius * radius, 0, size, res, 0);
+        }
+        res = Arrays.copyOf(res, count);
+        Arrays.sort(res);
+        return res;
+    }
+
+    /**
+     * Collect the points within the radius, the points that do not fit are only counted
+     *
+     * @return the number of points
+     */
+    private int withinRadius(double[] q, double r2, int from, int to, int[] res, int count) {
+        if (to - from <= LEAF_SIZE) {
+            for (int i = from; i < to; i++) {
+                if (squareDistance(i, q) <= r2) {
+                    if (count < res.length) {
+                        res[count] = ids[i];
+                    }
+                    count++;
+                }
+            }
+            return count;
+        }
+        int mid = (from + to) >>> 1;
+        int axis = axes[mid];
+        double diff = q[axis] - coords[axis][mid];
+        if (squareDistance(mid, q) <= r2) {
+            if (count < res.length) {
+                res[count] = ids[mid];
+            }
+            count++;
+        }
+        if (diff <= 0 || diff * diff <= r2) {
+            count = withinRadius(q, r2, from, mid, res, count);
+        }
+        if (diff >= 0 || diff * diff <= r2) {
+            count = withinRadius(q, r2, mid + 1, to, res, count);
+        }
+        return count;
+    }
+
+    /**
+     * The k best candidates of a query: a max-heap by distance and index.
+     */
+    private static final class Neighbours {
+        final int capacity;
+        final double[] distances;
+        final int[] indexes;
+        int size = 0;
+
+        Neighbours(int capacity) {
+            this.capacity = capacity;
+            this.distances = new double[capacity];
+            this.indexes = new int[capacity];
+        }
+
+        double worst() {
+            return size < capacity ? Double.POSITIVE_INFINITY : distances[0];
+        }
+
+        private boolean greater(int i, int j) {
+            return distances[i] > distances[j] || distances[i] == distances[j] && indexes[i] > indexes[j];
+        }
+
+        private void swap(int i, int j) {
+            double d = distances[i];
+            distances[i] = distances[j];
+            distances[j] = d;
+            int index = indexes[i];
+            indexes[i] = indexes[j];
+            indexes[j] = index;
+        }
+
+        void offer(double distance, int index) {
+            if (size < capacity) {
+                distances[size] = distance;
+                indexes[size] = index;
+                int i = size++;
+                while (i > 0 && greater(i, (i - 1) / 2)) {
+                    swap(i, (i - 1) / 2);
+                    i = (i - 1) / 2;
+                }
+            } else if (distance < distances[0] || distance == distances[0] && index < indexes[0]) {
+                distances[0] = distance;
+                indexes[0] = index;
+                siftDown(0, size);
+            }
+        }
+
+        private void siftDown(int i, int n) {
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= n) {
+                    return;
+                }
+                if (child + 1 < n && greater(child + 1, child)) {
+                    child++;
+                }
+                if (!greater(child, i)) {
+                    return;
+                }
+                swap(i, child);
+                i = child;
+            }
+        }
+
+        /**
+         * Sort the heap in place, the nearest first
+         */
+        int[] toArray() {
+            for (int n = size - 1; n > 0; n--) {
+                swap(0, n);
+                siftDown(0, n);
+            }
+            return Arrays.copyOf(indexes, size);
+        }
+    }
+
+    /**
+     * Build of the subtree of a range.
+     */
+    @SuppressWarnings("serial")
+    private final class Build extends RecursiveAction {
+        private final double[][] points;
+        private final int from;
+        private final int to;
+
+        Build(double[][] points, int from, int to) {
+            this.points = points;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                return;
+            }
+            int axis = widestAxis();
+            int mid = (from + to) >>> 1;
+            select(points[axis], mid);
+            axes[mid] = axis;
+            Build left = new Build(points, from, mid);
+            Build right = new Build(points, mid + 1, to);
+            if (to - from > PARALLEL_THRESHOLD) {
+                invokeAll(left, right);
+            } else {
+                left.compute();
+                right.compute();
+            }
+        }
+
+        private int widestAxis() {
+            int res = 0;
+            double widest = -1.0;
+            for (int d = 0; d < dimension; d++) {
+                double[] column = points[d];
+                double min = Double.POSITIVE_INFINITY;
+                double max = Double.NEGATIVE_INFINITY;
+                for (int i = from; i < to; i++) {
+                    double v = column[ids[i]];
+                    min = Math.min(min, v);
+                    max = Math.max(max, v);
+                }
+                if (max - min > widest) {
+                    widest = max - min;
+                    res = d;
+                }
+            }
+            return res;
+        }
+
+        /**
+         * Reorder the range so that the point at k has the k-th value and it splits the range by the value
+         */
+        private void select(double[] key, int k) {
+            int lo = from;
+            int hi = to - 1;
+            while (hi > lo) {
+                double pivot = key[ids[(lo + hi) >>> 1]];
+                int i = lo;
+                int j = hi;
+                while (i <= j) {
+                    while (key[ids[i]] < pivot) {
+                        i++;
+                    }
+                    while (key[ids[j]] > pivot) {
+                        j--;
+                    }
+                    if (i <= j) {
+                        int t = ids[i];
+                        ids[i] = ids[j];
+                        ids[j] = t;
+                        i++;
+                        j--;
+                    }
+                }
+                if (k <= j) {
+                    hi = j;
+                } else if (k >= i) {
+                    lo = i;
+                } else {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package pp.muza.complex.io;
+
+import pp.muza.complex.Complex;
+import pp.muza.complex.bulk.ComplexBuffer;
+import pp.muza.complex.bulk.ComplexStorage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Read and write vectors in the NumPy {@code .npy} format.
+ * <p>
+ * A file holds an array of shape (N, d) of float64 or float32 values in C order,
+ * one vector per row. A one-dimensional array of shape (N) is read as N vectors of dimension 1.
+ **/
+public final class Npy {
+
+    static final byte[] MAGIC = {(byte) 0x93, 'N', 'U', 'M', 'P', 'Y'};
+    /**
+     * The size of the magic string, the version and the header length of the version 1.0.
+     */
+    static final int PREAMBLE = MAGIC.length + 2 + 2;
+
+    private static final Pattern DESCR = Pattern.compile("'descr'\\s*:\\s*'([^']*)'");
+    private static final Pattern FORTRAN_ORDER = Pattern.compile("'fortran_order'\\s*:\\s*(True|False)");
+    private static final Pattern SHAPE = Pattern.compile("'shape'\\s*:\\s*\\(([^)]*)\\)");
+
+    private Npy() {
+    }
+
+    /**
+     * Map a {@code .npy} file in read-only mode, the values are not copied
+     *
+     * @param file the file
+     * @return the vectors of the file
+     * @throws IOException if the file cannot be read or its format is not supported
+     */
+    public static ComplexBuffer map(Path file) throws IOException {
+        return map(file, FileChannel.MapMode.READ_ONLY);
+    }
+
+    /**
+     * Map a {@code .npy} file, the values are not copied
+     *
+     * @param file the file
+     * @param mode the map mode, changes are written to the file only in {@link FileChannel.MapMode#READ_WRITE} mode
+     * @return the vectors of the file
+     * @throws IOException if the file cannot be read or its format is not supported
+     */
+    public static ComplexBuffer map(Path file, FileChannel.MapMode mode) throws IOException {
+        // a private mapping needs a writable channel as well
+        try (FileChannel channel = mode != FileChannel.MapMode.READ_ONLY
+                ? FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(file, StandardOpenOption.READ)) {
+            Header header = readHeader(channel);
+            long bytes = (long) header.size * header.dimension * header.type.getBytes();
+            if (header.offset + bytes > channel.size()) {
+                throw new IOException("File is too short");
+            }
+            return ComplexBuffer.map(channel, header.offset, header.size, header.dimension, mode, header.order, header.type);
+        }
+    }
+
+    /**
+     * Write the vectors to a {@code .npy} file of float64 values
+     *
+     * @param file    the file
+     * @param storage the vectors
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path file, ComplexStorage storage) throws IOException {
+        try (NpyWriter writer = new NpyWriter(file, storage.getDimension())) {
+            writer.write(storage);
+        }
+    }
+
+    /**
+     * Write the complex numbers to a {@code .npy} file of float64 values
+     *
+     * @param file      the file
+     * @param dimension the dimension of the vectors, missing values are written as zero
+     * @param values    the complex numbers
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path file, int dimension, Iterable<? extends Complex> values) throws IOException {
+        try (NpyWriter writer = new NpyWriter(file, dimension)) {
+            writer.writeAll(values);
+        }
+    }
+
+    private static Header readHeader(FileChannel channel) throws IOException {
+        ByteBuffer preamble = ByteBuffer.allocate(PREAMBLE + 2).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(channel, preamble, 0);
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (preamble.get(i) != MAGIC[i]) {
+                throw new IOException("Not a npy file");
+            }
+        }
+        int major = preamble.get(MAGIC.length);
+        long length;
+        int start;
+        if (major == 1) {
+            length = preamble.getShort(MAGIC.length + 2) & 0xffff;
+            start = PREAMBLE;
+        } else if (major == 2 || major == 3) {
+            length = preamble.getInt(MAGIC.length + 2) & 0xffffffffL;
+            start = PREAMBLE + 2;
+        } else {
+            throw new IOException("Unsupported npy version: " + major);
+        }
+        if (length > Integer.MAX_VALUE - start) {
+            throw new IOException("Header is too long");
+        }
+        ByteBuffer text = ByteBuffer.allocate((int) length);
+        readFully(channel, text, start);
+        String header = new String(text.array(), major == 3 ? StandardCharsets.UTF_8 : StandardCharsets.ISO_8859_1);
+        return parseHeader(header, start + length);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, position + buffer.position());
+            if (n < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+        }
+    }
+
+    private static Header parseHeader(String header, long offset) throws IOException {
+        Matcher descr = DESCR.matcher(header);
+        Matcher fortranOrder = FORTRAN_ORDER.matcher(header);
+        Matcher shape = SHAPE.matcher(header);
+        if (!descr.find() || !fortranOrder.find() || !shape.find()) {
+            throw new IOException("Illegal npy header: " + header);
+        }
+        if (fortranOrder.group(1).equals("True")) {
+            throw new IOException("Fortran order is not supported");
+        }
+
+        String type = descr.group(1);
+        if (type.length() != 3) {
+            throw new IOException("Unsupported type: " + type);
+        }
+        ByteOrder order;
+        switch (type.charAt(0)) {
+            case '<':
+                order = ByteOrder.LITTLE_ENDIAN;
+                break;
+            case '>':
+                order = ByteOrder.BIG_ENDIAN;
+                break;
+            case '=':
+                order = ByteOrder.nativeOrder();
+                break;
+            default:
+                throw new IOException("Unsupported type: " + type);
+        }
+        ComplexBuffer.Type valueType;
+        switch (type.substring(1)) {
+            case "f8":
+                valueType = ComplexBuffer.Type.FLOAT64;
+                break;
+            case "f4":
+                valueType = ComplexBuffer.Type.FLOAT32;
+                break;
+            default:
+                throw new IOException("Unsupported type: " + type);
+        }
+
+        String[] dimensions = shape.group(1).split(",");
+        if (dimensions.length > 2) {
+            throw new IOException("Unsupported shape: (" + shape.group(1) + ")");
+        }
+        long size;
+        long dimension;
+        try {
+            size = Long.parseLong(dimensions[0].trim());
+            dimension = dimensions.length == 1 ? 1 : Long.parseLong(dimensions[1].trim());
+        } catch (NumberFormatException e) {
+            throw new IOException("Illegal shape: (" + shape.group(1) + ")", e);
+        }
+        if (size > Integer.MAX_VALUE || dimension > Integer.MAX_VALUE || dimension < 1) {
+            throw new IOException("Unsupported shape: (" + shape.group(1) + ")");
+        }
+        return new Header(offset, (int) size, (int) dimension, order, valueType);
+    }
+
+    /**
+     * The parsed header of a npy file.
+     */
+    private static final class Header {
+        final long offset;
+        final int size;
+        final int dimension;
+        final ByteOrder order;
+        final ComplexBuffer.Type type;
+
+        Header(long offset, int size, int dimension, ByteOrder order, ComplexBuffer.Type type) {
+            this.offset = offset;
+            this.size = size;
+            this.dimension = dimension;
+            this.order = order;
+            this.type = type;
+        }
+    }
+}
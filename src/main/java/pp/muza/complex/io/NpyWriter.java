@@ -0,0 +1,215 @@
+package pp.muza.complex.io;
+
+import pp.muza.complex.Complex;
+import pp.muza.complex.bulk.ComplexBuffer;
+import pp.muza.complex.bulk.ComplexStorage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Streaming writer of vectors to a NumPy {@code .npy} file.
+ * <p>
+ * The values are read with {@link Complex#getValue(int)} and written through a small buffer,
+ * the number of vectors does not have to be known in advance, the header is completed on {@link #close()}.
+ * <p>
+ * This class is not thread safe.
+ */
+public class NpyWriter implements Closeable {
+
+    /**
+     * The size of the header, it is enough for any shape.
+     */
+    private static final int HEADER_SIZE = 128;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final int dimension;
+    private final ComplexBuffer.Type type;
+    private final ByteBuffer buffer;
+    private long count = 0;
+    private boolean closed = false;
+
+    /**
+     * Create a new writer of float64 values, an existing file is truncated
+     *
+     * @param file      the file
+     * @param dimension the dimension of the vectors
+     * @throws IOException if the file cannot be created
+     */
+    public NpyWriter(Path file, int dimension) throws IOException {
+        this(file, dimension, ComplexBuffer.Type.FLOAT64);
+    }
+
+    /**
+     * Create a new writer, an existing file is truncated
+     *
+     * @param file      the file
+     * @param dimension the dimension of the vectors
+     * @param type      the type of the written values
+     * @throws IOException if the file cannot be created
+     */
+    public NpyWriter(Path file, int dimension, ComplexBuffer.Type type) throws IOException {
+        if (dimension < 1) {
+            throw new IllegalArgumentException("Dimension must be positive");
+        }
+        this.dimension = dimension;
+        this.type = type;
+        this.buffer = ByteBuffer.allocate(Math.max(BUFFER_SIZE, dimension * type.getBytes())).order(ByteOrder.LITTLE_ENDIAN);
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        this.channel.position(HEADER_SIZE);
+    }
+
+    /**
+     * Return the number of written vectors
+     *
+     * @return number of vectors
+     */
+    public long getCount() {
+        return count;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Writer is closed");
+        }
+    }
+
+    private void reserve() throws IOException {
+        ensureOpen();
+        if (buffer.remaining() < dimension * type.getBytes()) {
+            flush();
+        }
+    }
+
+    private void put(double value) {
+        if (type == ComplexBuffer.Type.FLOAT64) {
+            buffer.putDouble(value);
+        } else {
+            buffer.putFloat((float) value);
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Write a vector, missing values are written as zero
+     *
+     * @param value the complex number
+     * @throws IOException if the vector cannot be written
+     */
+    public void write(Complex value) throws IOException {
+        if (value.getDimension() > dimension) {
+            throw new IllegalArgumentException("Illegal dimension");
+        }
+        reserve();
+        for (int d = 0; d < dimension; d++) {
+            put(value.getValue(d));
+        }
+        count++;
+    }
+
+    /**
+     * Write a vector, missing values are written as zero
+     *
+     * @param values the values
+     * @throws IOException if the vector cannot be written
+     */
+    public void write(double... values) throws IOException {
+        if (values.length > dimension) {
+            throw new IllegalArgumentException("Illegal dimension");
+        }
+        reserve();
+        for (int d = 0; d < dimension; d++) {
+            put(d < values.length ? values[d] : 0.0);
+        }
+        count++;
+    }
+
+    /**
+     * Write all vectors of the storage
+     *
+     * @param storage the vectors
+     * @throws IOException if the vectors cannot be written
+     */
+    public void write(ComplexStorage storage) throws IOException {
+        if (storage.getDimension() > dimension) {
+            throw new IllegalArgumentException("Illegal dimension");
+        }
+        for (int i = 0; i < storage.size(); i++) {
+            reserve();
+            for (int d = 0; d < dimension; d++) {
+                put(storage.getValue(i, d));
+            }
+            count++;
+        }
+    }
+
+    /**
+     * Write all complex numbers
+     *
+     * @param values the complex numbers
+     * @throws IOException if the vectors cannot be written
+     */
+    public void writeAll(Iterable<? extends Complex> values) throws IOException {
+        for (Complex value : values) {
+            write(value);
+        }
+    }
+
+    private ByteBuffer header() {
+        String descr = type == ComplexBuffer.Type.FLOAT64 ? "<f8" : "<f4";
+        String dict = "{'descr': '" + descr + "', 'fortran_order': False, 'shape': (" + count + ", " + dimension + "), }";
+        byte[] text = new byte[HEADER_SIZE - Npy.PREAMBLE];
+        Arrays.fill(text, (byte) ' ');
+        byte[] bytes = dict.getBytes(StandardCharsets.ISO_8859_1);
+        System.arraycopy(bytes, 0, text, 0, bytes.length);
+        text[text.length - 1] = '\n';
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.put(Npy.MAGIC);
+        header.put((byte) 1);
+        header.put((byte) 0);
+        header.putShort((short) text.length);
+        header.put(text);
+        header.flip();
+        return header;
+    }
+
+    /**
+     * Write the buffered vectors and the header, then close the file
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flush();
+            ByteBuffer header = header();
+            long position = 0;
+            while (header.hasRemaining()) {
+                position += channel.write(header, position);
+            }
+        } finally {
+            channel.close();
+        }
+    }
+}
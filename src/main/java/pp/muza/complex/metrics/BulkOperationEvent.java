@@ -0,0 +1,48 @@
+package pp.muza.complex.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+
+/**
+ * The JFR event of a slow bulk operation over a storage.
+ * <p>
+ * The event is recorded when the metrics are enabled and the operation takes longer than the threshold,
+ * 10 ms by default, it can be changed in the recording settings of {@code pp.muza.complex.BulkOperation}.
+ */
+@Name("pp.muza.complex.BulkOperation")
+@Label("Complex Bulk Operation")
+@Category("ComplexMath")
+@Description("A bulk operation over the vectors of a storage")
+@StackTrace(false)
+@Threshold("10 ms")
+public final class BulkOperationEvent extends Event {
+
+    @Label("Operation")
+    final String operation;
+
+    @Label("Size")
+    @Description("The number of vectors")
+    final int size;
+
+    @Label("Dimension")
+    final int dimension;
+
+    /**
+     * The operation of the registry, the JFR does not record transient fields.
+     */
+    final transient Operation type;
+    transient long start;
+
+    BulkOperationEvent(Operation type, int size, int dimension) {
+        this.type = type;
+        this.operation = type.name();
+        this.size = size;
+        this.dimension = dimension;
+    }
+}
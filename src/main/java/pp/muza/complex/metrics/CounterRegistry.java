@@ -0,0 +1,97 @@
+package pp.muza.complex.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * The default registry: counters of the operations in memory.
+ * <p>
+ * A bulk operation is counted and its duration is added to the total duration of the operation.
+ * <p>
+ * This class is thread safe.
+ */
+public class CounterRegistry implements MetricsRegistry {
+
+    private static final Operation[] OPERATIONS = Operation.values();
+
+    private final LongAdder[] counts = new LongAdder[OPERATIONS.length];
+    private final LongAdder[] nanos = new LongAdder[OPERATIONS.length];
+
+    /**
+     * Create a new registry with zero counters
+     */
+    public CounterRegistry() {
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            counts[i] = new LongAdder();
+            nanos[i] = new LongAdder();
+        }
+    }
+
+    @Override
+    public void increment(Operation operation) {
+        counts[operation.ordinal()].increment();
+    }
+
+    @Override
+    public void bulkOperation(Operation operation, int size, long nanos) {
+        counts[operation.ordinal()].increment();
+        this.nanos[operation.ordinal()].add(nanos);
+    }
+
+    /**
+     * Return the number of the operations
+     *
+     * @param operation the operation
+     * @return count
+     */
+    public long getCount(Operation operation) {
+        return counts[operation.ordinal()].sum();
+    }
+
+    /**
+     * Return the total duration of the bulk operations
+     *
+     * @param operation the bulk operation
+     * @return duration in nanoseconds
+     */
+    public long getNanos(Operation operation) {
+        return nanos[operation.ordinal()].sum();
+    }
+
+    /**
+     * Return the share of the cache hits
+     *
+     * @param hit  the hit operation
+     * @param miss the miss operation
+     * @return hit rate from 0 to 1, NaN if there were no calls
+     */
+    public double getHitRate(Operation hit, Operation miss) {
+        long hits = getCount(hit);
+        long total = hits + getCount(miss);
+        return total == 0 ? Double.NaN : (double) hits / total;
+    }
+
+    /**
+     * Reset all counters to zero
+     */
+    public void reset() {
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            counts[i].reset();
+            nanos[i].reset();
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("CounterRegistry{");
+        String separator = "";
+        for (Operation operation : OPERATIONS) {
+            long count = getCount(operation);
+            if (count != 0) {
+                sb.append(separator).append(operation).append('=').append(count);
+                separator = ", ";
+            }
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -0,0 +1,89 @@
+package pp.muza.complex.metrics;
+
+
+/**
+ * The opt-in metrics of the library.
+ * <p>
+ * The metrics are enabled with {@code -Dpp.muza.complex.metrics=true}. The flag is a static final constant,
+ * every instrumented place checks it first, so the JIT removes the instrumentation when the metrics are disabled.
+ * When enabled, the operations are counted by the {@link MetricsRegistry} ({@link CounterRegistry} by default)
+ * and bulk operations over storages are recorded as {@link BulkOperationEvent} JFR events.
+ * <p>
+ * This class is thread safe.
+ */
+public final class Metrics {
+
+    /**
+     * The system property that enables the metrics.
+     */
+    public static final String PROPERTY = "pp.muza.complex.metrics";
+
+    /**
+     * True if the metrics are enabled, it is read once when the class is loaded.
+     */
+    public static final boolean ENABLED = Boolean.getBoolean(PROPERTY);
+
+    private static volatile MetricsRegistry registry = new CounterRegistry();
+
+    private Metrics() {
+    }
+
+    /**
+     * Return the current registry
+     *
+     * @return registry
+     */
+    public static MetricsRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Set the registry
+     *
+     * @param registry the registry
+     */
+    public static void setRegistry(MetricsRegistry registry) {
+        if (registry == null) {
+            throw new IllegalArgumentException("Registry must not be null");
+        }
+        Metrics.registry = registry;
+    }
+
+    /**
+     * Count the operation, callers check {@link #ENABLED} first
+     *
+     * @param operation the operation
+     */
+    public static void increment(Operation operation) {
+        registry.increment(operation);
+    }
+
+    /**
+     * Start a bulk operation, callers check {@link #ENABLED} first
+     *
+     * @param operation the operation
+     * @param size      the number of vectors
+     * @param dimension the dimension of the vectors
+     * @return the event to pass to {@link #endBulk(BulkOperationEvent)}
+     */
+    public static BulkOperationEvent beginBulk(Operation operation, int size, int dimension) {
+        BulkOperationEvent event = new BulkOperationEvent(operation, size, dimension);
+        event.begin();
+        event.start = System.nanoTime();
+        return event;
+    }
+
+    /**
+     * End a bulk operation: record it in the registry and commit the JFR event if it is slow
+     *
+     * @param event the event of {@link #beginBulk(Operation, int, int)}
+     */
+    public static void endBulk(BulkOperationEvent event) {
+        long nanos = System.nanoTime() - event.start;
+        event.end();
+        registry.bulkOperation(event.type, event.size, nanos);
+        if (event.shouldCommit()) {
+            event.commit();
+        }
+    }
+}
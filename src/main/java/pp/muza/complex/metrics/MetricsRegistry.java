@@ -0,0 +1,26 @@
+package pp.muza.complex.metrics;
+
+
+/**
+ * The receiver of the metrics, it is called only when the metrics are enabled (see {@link Metrics#ENABLED}).
+ * <p>
+ * Implementations must be thread safe, they are called from every thread that uses the library.
+ */
+public interface MetricsRegistry {
+
+    /**
+     * Count the operation
+     *
+     * @param operation the operation
+     */
+    void increment(Operation operation);
+
+    /**
+     * Record a bulk operation over a storage
+     *
+     * @param operation the operation
+     * @param size      the number of vectors
+     * @param nanos     the duration in nanoseconds
+     */
+    void bulkOperation(Operation operation, int size, long nanos);
+}
@@ -0,0 +1,109 @@
+package pp.muza.complex.metrics;
+
+
+/**
+ * The operations counted by the {@link MetricsRegistry}.
+ */
+public enum Operation {
+    /**
+     * {@link pp.muza.complex.Complex#add(pp.muza.complex.Complex, pp.muza.complex.Complex, pp.muza.complex.Complex)}
+     */
+    ADD,
+    /**
+     * {@link pp.muza.complex.Complex#sub(pp.muza.complex.Complex, pp.muza.complex.Complex, pp.muza.complex.Complex)}
+     */
+    SUB,
+    /**
+     * The cross product, {@link pp.muza.complex.Complex#multiple(pp.muza.complex.Complex, pp.muza.complex.Complex, pp.muza.complex.Complex)}
+     */
+    MULTIPLE,
+    /**
+     * {@link pp.muza.complex.Complex#scale(pp.muza.complex.Complex, double, pp.muza.complex.Complex)}
+     */
+    SCALE,
+    /**
+     * {@link pp.muza.complex.Complex#rotate(pp.muza.complex.Complex, double, pp.muza.complex.Complex)}
+     */
+    ROTATE,
+    /**
+     * {@link pp.muza.complex.Complex#normalize(pp.muza.complex.Complex, pp.muza.complex.Complex)}
+     */
+    NORMALIZE,
+    /**
+     * {@link pp.muza.complex.Complex#dot(pp.muza.complex.Complex, pp.muza.complex.Complex)}
+     */
+    DOT,
+    /**
+     * {@link pp.muza.complex.Complex#squareDistance(pp.muza.complex.Complex, pp.muza.complex.Complex)}
+     */
+    SQUARE_DISTANCE,
+    /**
+     * {@link pp.muza.complex.Complex#angle(pp.muza.complex.Complex, pp.muza.complex.Complex)}
+     */
+    ANGLE,
+    /**
+     * The complex arithmetic: mul, div, conj, exp, log and pow of {@link pp.muza.complex.Complex}
+     */
+    ARITHMETIC,
+    /**
+     * A complex number created by {@link pp.muza.complex.impl.ComplexUtils#newInstance(int)},
+     * the static methods of {@link pp.muza.complex.Complex} create their results with it
+     */
+    NEW_INSTANCE,
+    /**
+     * A call of {@link pp.muza.complex.Complex#copy()} that created a new complex number
+     */
+    COPY,
+    /**
+     * A change of a complex number that invalidated its cached values
+     */
+    ON_CHANGE,
+    /**
+     * {@link pp.muza.complex.Complex#squareModule()} returned the cached value
+     */
+    SQUARE_MODULE_HIT,
+    /**
+     * {@link pp.muza.complex.Complex#squareModule()} calculated the value
+     */
+    SQUARE_MODULE_MISS,
+    /**
+     * {@link pp.muza.complex.Complex#isNormalized()} returned the cached value
+     */
+    NORMALIZED_HIT,
+    /**
+     * {@link pp.muza.complex.Complex#isNormalized()} calculated the value
+     */
+    NORMALIZED_MISS,
+    /**
+     * The square modules of all vectors of a storage
+     */
+    BULK_SQUARE_MODULE,
+    /**
+     * The dot products of all vectors of a storage
+     */
+    BULK_DOT,
+    /**
+     * The square distances of all vectors of a storage
+     */
+    BULK_SQUARE_DISTANCE,
+    /**
+     * The nearest vector of a storage
+     */
+    BULK_NEAREST,
+    /**
+     * Normalization of all vectors of a storage
+     */
+    BULK_NORMALIZE,
+    /**
+     * Scaling of all vectors of a storage
+     */
+    BULK_SCALE,
+    /**
+     * Rotation of all vectors of a storage
+     */
+    BULK_ROTATE,
+    /**
+     * Affine transform of all vectors of a storage
+     */
+    BULK_TRANSFORM
+}
@@ -0,0 +1,321 @@
+package pp.muza.complex.transform;
+
+import pp.muza.complex.Complex;
+import pp.muza.complex.bulk.ComplexStorage;
+import pp.muza.complex.trig.Trig;
+
+import java.util.stream.IntStream;
+
+
+/**
+ * An affine transform in 2D: the 3x3 matrix
+ * <pre>
+ * | m00 m01 m02 |
+ * | m10 m11 m12 |
+ * |  0   0   1  |
+ * </pre>
+ * maps (x, y) to (m00 * x + m01 * y + m02, m10 * x + m11 * y + m12).
+ * <p>
+ * A chain of rotations, scalings and translations is composed once with {@link #then(AffineTransform2)},
+ * then every complex number is transformed in one pass with one change of its value.
+ * <p>
+ * This class is immutable and thread safe.
+ */
+public final class AffineTransform2 {
+
+    /**
+     * The identity transform
+     */
+    public static final AffineTransform2 IDENTITY = new AffineTransform2(1, 0, 0, 0, 1, 0);
+
+    private final double m00;
+    private final double m01;
+    private final double m02;
+    private final double m10;
+    private final double m11;
+    private final double m12;
+
+    private AffineTransform2(double m00, double m01, double m02, double m10, double m11, double m12) {
+        this.m00 = m00;
+        this.m01 = m01;
+        this.m02 = m02;
+        this.m10 = m10;
+        this.m11 = m11;
+        this.m12 = m12;
+    }
+
+    /**
+     * Create a new transform from the first two rows of the matrix
+     *
+     * @param m00 the x factor of x
+     * @param m01 the y factor of x
+     * @param m02 the translation of x
+     * @param m10 the x factor of y
+     * @param m11 the y factor of y
+     * @param m12 the translation of y
+     * @return a new transform
+     */
+    public static AffineTransform2 of(double m00, double m01, double m02, double m10, double m11, double m12) {
+        return new AffineTransform2(m00, m01, m02, m10, m11, m12);
+    }
+
+    /**
+     * Create a new transform that translates by the vector
+     *
+     * @param dx the translation of x
+     * @param dy the translation of y
+     * @return a new transform
+     */
+    public static AffineTransform2 translation(double dx, double dy) {
+        return new AffineTransform2(1, 0, dx, 0, 1, dy);
+    }
+
+    /**
+     * Create a new transform that scales by the factor, it is the same as {@link Complex#scale(double)}
+     *
+     * @param scale the scale factor
+     * @return a new transform
+     */
+    public static AffineTransform2 scaling(double scale) {
+        return scaling(scale, scale);
+    }
+
+    /**
+     * Create a new transform that scales every axis by its own factor
+     *
+     * @param sx the scale factor of x
+     * @param sy the scale factor of y
+     * @return a new transform
+     */
+    public static AffineTransform2 scaling(double sx, double sy) {
+        return new AffineTransform2(sx, 0, 0, 0, sy, 0);
+    }
+
+    /**
+     * Create a new transform that rotates by the angle, it is the same as {@link Complex#rotate(double)}
+     *
+     * @param angle the angle in radians
+     * @return a new transform
+     */
+    public static AffineTransform2 rotation(double angle) {
+        double cos = Trig.cos(angle);
+        double sin = Trig.sin(angle);
+        return new AffineTransform2(cos, -sin, 0, sin, cos, 0);
+    }
+
+    /**
+     * Create a new transform from the rotation
+     *
+     * @param rotation the rotation
+     * @return a new transform
+     */
+    public static AffineTransform2 of(Rotation rotation) {
+        return new AffineTransform2(rotation.getCos(), -rotation.getSin(), 0, rotation.getSin(), rotation.getCos(), 0);
+    }
+
+    /**
+     * Return the value of the matrix
+     *
+     * @param row    the row, 0 or 1
+     * @param column the column, 0, 1 or 2 for the translation
+     * @return value
+     */
+    public double getValue(int row, int column) {
+        switch (row * 3 + column) {
+            case 0:
+                return m00;
+            case 1:
+                return m01;
+            case 2:
+                return m02;
+            case 3:
+                return m10;
+            case 4:
+                return m11;
+            case 5:
+                return m12;
+            default:
+                throw new IndexOutOfBoundsException("Index out of range: " + row + ", " + column);
+        }
+    }
+
+    /**
+     * Return the determinant of the linear part
+     *
+     * @return determinant
+     */
+    public double getDeterminant() {
+        return m00 * m11 - m01 * m10;
+    }
+
+    /**
+     * Return the transform that applies this transform and then the other transform
+     *
+     * @param next the transform applied after this one
+     * @return a new transform
+     */
+    public AffineTransform2 then(AffineTransform2 next) {
+        return new AffineTransform2(
+                next.m00 * m00 + next.m01 * m10,
+                next.m00 * m01 + next.m01 * m11,
+                next.m00 * m02 + next.m01 * m12 + next.m02,
+                next.m10 * m00 + next.m11 * m10,
+                next.m10 * m01 + next.m11 * m11,
+                next.m10 * m02 + next.m11 * m12 + next.m12);
+    }
+
+    /**
+     * Return the inverse transform
+     *
+     * @return a new transform
+     * @throws IllegalArgumentException if the transform is not invertible
+     */
+    public AffineTransform2 inverse() {
+        double det = getDeterminant();
+        if (det == 0.0 || !Double.isFinite(det)) {
+            throw new IllegalArgumentException("Transform is not invertible");
+        }
+        double i00 = m11 / det;
+        double i01 = -m01 / det;
+        double i10 = -m10 / det;
+        double i11 = m00 / det;
+        return new AffineTransform2(
+                i00, i01, -(i00 * m02 + i01 * m12),
+                i10, i11, -(i10 * m02 + i11 * m12));
+    }
+
+    private static void check(Complex complex) {
+        if (complex.getDimension() != 2) {
+            throw new IllegalArgumentException("Dimension mismatch");
+        }
+    }
+
+    /**
+     * Transform the complex number in place
+     *
+     * @param complex the complex number (only for 2D)
+     * @return the complex number
+     * @throws IllegalArgumentException if the dimension is not 2
+     */
+    public Complex applyTo(Complex complex) {
+        return applyTo(complex, complex);
+    }
+
+    /**
+     * Transform the complex number and store the result in the destination
+     *
+     * @param complex the complex number (only for 2D)
+     * @param out     the destination (only for 2D), it may be the same object as complex
+     * @return the destination
+     * @throws IllegalArgumentException if the dimension is not 2
+     */
+    public Complex applyTo(Complex complex, Complex out) {
+        check(complex);
+        check(out);
+        double x = complex.getValue(0);
+        double y = complex.getValue(1);
+        out.set(m00 * x + m01 * y + m02, m10 * x + m11 * y + m12);
+        return out;
+    }
+
+    /**
+     * Transform the complex numbers in place
+     *
+     * @param values the complex numbers (only for 2D)
+     * @throws IllegalArgumentException if the dimension is not 2
+     */
+    public void applyTo(Complex[] values) {
+        for (Complex value : values) {
+            applyTo(value, value);
+        }
+    }
+
+    /**
+     * Transform the complex numbers and store the results in the destinations
+     *
+     * @param values the complex numbers (only for 2D)
+     * @param out    the destinations, at least as many as the complex numbers
+     * @throws IllegalArgumentException if the dimension is not 2
+     */
+    public void applyTo(Complex[] values, Complex[] out) {
+        if (out.length < values.length) {
+            throw new IllegalArgumentException("Output array is too small");
+        }
+        for (int i = 0; i < values.length; i++) {
+            applyTo(values[i], out[i]);
+        }
+    }
+
+    /**
+     * Transform the complex numbers in place
+     *
+     * @param values the complex numbers (only for 2D)
+     * @throws IllegalArgumentException if the dimension is not 2
+     */
+    public void applyTo(Iterable<? extends Complex> values) {
+        for (Complex value : values) {
+            applyTo(value, value);
+        }
+    }
+
+    /**
+     * Transform every vector of the storage in place
+     *
+     * @param storage the vectors (only for 2D)
+     * @throws IllegalArgumentException if the dimension is not 2
+     */
+    public void applyTo(ComplexStorage storage) {
+        storage.transform(this, false);
+    }
+
+    /**
+     * Transform the complex numbers in place in parallel,
+     * every element of the array must be a distinct object
+     *
+     * @param values the complex numbers (only for 2D)
+     * @throws IllegalArgumentException if the dimension is not 2
+     */
+    public void applyToParallel(Complex[] values) {
+        IntStream.range(0, values.length).parallel().forEach(i -> applyTo(values[i], values[i]));
+    }
+
+    /**
+     * Transform every vector of the storage in place in parallel
+     *
+     * @param storage the vectors (only for 2D)
+     * @throws IllegalArgumentException if the dimension is not 2
+     */
+    public void applyToParallel(ComplexStorage storage) {
+        storage.transform(this, true);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        AffineTransform2 that = (AffineTransform2) o;
+        return Double.compare(m00, that.m00) == 0 && Double.compare(m01, that.m01) == 0
+                && Double.compare(m02, that.m02) == 0 && Double.compare(m10, that.m10) == 0
+                && Double.compare(m11, that.m11) == 0 && Double.compare(m12, that.m12) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int res = Double.hashCode(m00);
+        res = 31 * res + Double.hashCode(m01);
+        res = 31 * res + Double.hashCode(m02);
+        res = 31 * res + Double.hashCode(m10);
+        res = 31 * res + Double.hashCode(m11);
+        res = 31 * res + Double.hashCode(m12);
+        return res;
+    }
+
+    @Override
+    public String toString() {
+        return "AffineTransform2([" + m00 + ", " + m01 + ", " + m02 + "], [" + m10 + ", " + m11 + ", " + m12 + "])";
+    }
+}
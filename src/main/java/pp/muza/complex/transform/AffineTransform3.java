@@ -0,0 +1,345 @@
+package pp.muza.complex.transform;
+
+import pp.muza.complex.Complex;
+import pp.muza.complex.bulk.ComplexStorage;
+import pp.muza.complex.trig.Trig;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+
+/**
+ * An affine transform in 3D: the 4x4 matrix
+ * <pre>
+ * | m00 m01 m02 m03 |
+ * | m10 m11 m12 m13 |
+ * | m20 m21 m22 m23 |
+ * |  0   0   0   1  |
+ * </pre>
+ * maps (x, y, z) to (m00 * x + m01 * y + m02 * z + m03, ...).
+ * <p>
+ * A chain of rotations, scalings and translations is composed once with {@link #then(AffineTransform3)},
+ * then every complex number is transformed in one pass with one change of its value.
+ * <p>
+ * This class is immutable and thread safe.
+ */
+public final class AffineTransform3 {
+
+    /**
+     * The identity transform
+     */
+    public static final AffineTransform3 IDENTITY = new AffineTransform3(new double[]{
+            1, 0, 0, 0,
+            0, 1, 0, 0,
+            0, 0, 1, 0});
+
+    /**
+     * The first three rows of the matrix, row after row.
+     */
+    private final double[] m;
+
+    private AffineTransform3(double[] m) {
+        this.m = m;
+    }
+
+    /**
+     * Create a new transform from the first three rows of the matrix
+     *
+     * @param values 12 values, row after row, the last value of a row is the translation
+     * @return a new transform
+     */
+    public static AffineTransform3 of(double... values) {
+        if (values.length != 12) {
+            throw new IllegalArgumentException("Dimension mismatch");
+        }
+        return new AffineTransform3(values.clone());
+    }
+
+    /**
+     * Create a new transform that translates by the vector
+     *
+     * @param dx the translation of x
+     * @param dy the translation of y
+     * @param dz the translation of z
+     * @return a new transform
+     */
+    public static AffineTransform3 translation(double dx, double dy, double dz) {
+        return new AffineTransform3(new double[]{
+                1, 0, 0, dx,
+                0, 1, 0, dy,
+                0, 0, 1, dz});
+    }
+
+    /**
+     * Create a new transform that scales by the factor, it is the same as {@link Complex#scale(double)}
+     *
+     * @param scale the scale factor
+     * @return a new transform
+     */
+    public static AffineTransform3 scaling(double scale) {
+        return scaling(scale, scale, scale);
+    }
+
+    /**
+     * Create a new transform that scales every axis by its own factor
+     *
+     * @param sx the scale factor of x
+     * @param sy the scale factor of y
+     * @param sz the scale factor of z
+     * @return a new transform
+     */
+    public static AffineTransform3 scaling(double sx, double sy, double sz) {
+        return new AffineTransform3(new double[]{
+                sx, 0, 0, 0,
+                0, sy, 0, 0,
+                0, 0, sz, 0});
+    }
+
+    /**
+     * Create a new transform that rotates around the x axis, from y towards z
+     *
+     * @param angle the angle in radians
+     * @return a new transform
+     */
+    public static AffineTransform3 rotationX(double angle) {
+        double cos = Trig.cos(angle);
+        double sin = Trig.sin(angle);
+        return new AffineTransform3(new double[]{
+                1, 0, 0, 0,
+                0, cos, -sin, 0,
+                0, sin, cos, 0});
+    }
+
+    /**
+     * Create a new transform that rotates around the y axis, from z towards x
+     *
+     * @param angle the angle in radians
+     * @return a new transform
+     */
+    public static AffineTransform3 rotationY(double angle) {
+        double cos = Trig.cos(angle);
+        double sin = Trig.sin(angle);
+        return new AffineTransform3(new double[]{
+                cos, 0, sin, 0,
+                0, 1, 0, 0,
+                -sin, 0, cos, 0});
+    }
+
+    /**
+     * Create a new transform that rotates around the z axis, from x towards y,
+     * it is the same as {@link Complex#rotate(double)} of the first two values
+     *
+     * @param angle the angle in radians
+     * @return a new transform
+     */
+    public static AffineTransform3 rotationZ(double angle) {
+        double cos = Trig.cos(angle);
+        double sin = Trig.sin(angle);
+        return new AffineTransform3(new double[]{
+                cos, -sin, 0, 0,
+                sin, cos, 0, 0,
+                0, 0, 1, 0});
+    }
+
+    /**
+     * Return the value of the matrix
+     *
+     * @param row    the row, from 0 to 2
+     * @param column the column, from 0 to 2 or 3 for the translation
+     * @return value
+     */
+    public double getValue(int row, int column) {
+        if (row < 0 || row > 2 || column < 0 || column > 3) {
+            throw new IndexOutOfBoundsException("Index out of range: " + row + ", " + column);
+        }
+        return m[row * 4 + column];
+    }
+
+    /**
+     * Return the determinant of the linear part
+     *
+     * @return determinant
+     */
+    public double getDeterminant() {
+        return m[0] * (m[5] * m[10] - m[6] * m[9])
+                - m[1] * (m[4] * m[10] - m[6] * m[8])
+                + m[2] * (m[4] * m[9] - m[5] * m[8]);
+    }
+
+    /**
+     * Return the transform that applies this transform and then the other transform
+     *
+     * @param next the transform applied after this one
+     * @return a new transform
+     */
+    public AffineTransform3 then(AffineTransform3 next) {
+        double[] n = next.m;
+        double[] res = new double[12];
+        for (int r = 0; r < 3; r++) {
+            for (int c = 0; c < 4; c++) {
+                res[r * 4 + c] = n[r * 4] * m[c] + n[r * 4 + 1] * m[4 + c] + n[r * 4 + 2] * m[8 + c];
+            }
+            res[r * 4 + 3] += n[r * 4 + 3];
+        }
+        return new AffineTransform3(res);
+    }
+
+    /**
+     * Return the inverse transform
+     *
+     * @return a new transform
+     * @throws IllegalArgumentException if the transform is not invertible
+     */
+    public AffineTransform3 inverse() {
+        double det = getDeterminant();
+        if (det == 0.0 || !Double.isFinite(det)) {
+            throw new IllegalArgumentException("Transform is not invertible");
+        }
+        double[] res = new double[12];
+        // the inverse of the linear part is the transposed matrix of cofactors divided by the determinant
+        res[0] = (m[5] * m[10] - m[6] * m[9]) / det;
+        res[1] = (m[2] * m[9] - m[1] * m[10]) / det;
+        res[2] = (m[1] * m[6] - m[2] * m[5]) / det;
+        res[4] = (m[6] * m[8] - m[4] * m[10]) / det;
+        res[5] = (m[0] * m[10] - m[2] * m[8]) / det;
+        res[6] = (m[2] * m[4] - m[0] * m[6]) / det;
+        res[8] = (m[4] * m[9] - m[5] * m[8]) / det;
+        res[9] = (m[1] * m[8] - m[0] * m[9]) / det;
+        res[10] = (m[0] * m[5] - m[1] * m[4]) / det;
+        for (int r = 0; r < 3; r++) {
+            res[r * 4 + 3] = -(res[r * 4] * m[3] + res[r * 4 + 1] * m[7] + res[r * 4 + 2] * m[11]);
+        }
+        return new AffineTransform3(res);
+    }
+
+    private static void check(Complex complex) {
+        if (complex.getDimension() != 3) {
+            throw new IllegalArgumentException("Dimension mismatch");
+        }
+    }
+
+    /**
+     * Transform the complex number in place
+     *
+     * @param complex the complex number (only for 3D)
+     * @return the complex number
+     * @throws IllegalArgumentException if the dimension is not 3
+     */
+    public Complex applyTo(Complex complex) {
+        return applyTo(complex, complex);
+    }
+
+    /**
+     * Transform the complex number and store the result in the destination
+     *
+     * @param complex the complex number (only for 3D)
+     * @param out     the destination (only for 3D), it may be the same object as complex
+     * @return the destination
+     * @throws IllegalArgumentException if the dimension is not 3
+     */
+    public Complex applyTo(Complex complex, Complex out) {
+        check(complex);
+        check(out);
+        double x = complex.getValue(0);
+        double y = complex.getValue(1);
+        double z = complex.getValue(2);
+        out.set(m[0] * x + m[1] * y + m[2] * z + m[3],
+                m[4] * x + m[5] * y + m[6] * z + m[7],
+                m[8] * x + m[9] * y + m[10] * z + m[11]);
+        return out;
+    }
+
+    /**
+     * Transform the complex numbers in place
+     *
+     * @param values the complex numbers (only for 3D)
+     * @throws IllegalArgumentException if the dimension is not 3
+     */
+    public void applyTo(Complex[] values) {
+        for (Complex value : values) {
+            applyTo(value, value);
+        }
+    }
+
+    /**
+     * Transform the complex numbers and store the results in the destinations
+     *
+     * @param values the complex numbers (only for 3D)
+     * @param out    the destinations, at least as many as the complex numbers
+     * @throws IllegalArgumentException if the dimension is not 3
+     */
+    public void applyTo(Complex[] values, Complex[] out) {
+        if (out.length < values.length) {
+            throw new IllegalArgumentException("Output array is too small");
+        }
+        for (int i = 0; i < values.length; i++) {
+            applyTo(values[i], out[i]);
+        }
+    }
+
+    /**
+     * Transform the complex numbers in place
+     *
+     * @param values the complex numbers (only for 3D)
+     * @throws IllegalArgumentException if the dimension is not 3
+     */
+    public void applyTo(Iterable<? extends Complex> values) {
+        for (Complex value : values) {
+            applyTo(value, value);
+        }
+    }
+
+    /**
+     * Transform every vector of the storage in place
+     *
+     * @param storage the vectors (only for 3D)
+     * @throws IllegalArgumentException if the dimension is not 3
+     */
+    public void applyTo(ComplexStorage storage) {
+        storage.transform(this, false);
+    }
+
+    /**
+     * Transform the complex numbers in place in parallel,
+     * every element of the array must be a distinct object
+     *
+     * @param values the complex numbers (only for 3D)
+     * @throws IllegalArgumentException if the dimension is not 3
+     */
+    public void applyToParallel(Complex[] values) {
+        IntStream.range(0, values.length).parallel().forEach(i -> applyTo(values[i], values[i]));
+    }
+
+    /**
+     * Transform every vector of the storage in place in parallel
+     *
+     * @param storage the vectors (only for 3D)
+     * @throws IllegalArgumentException if the dimension is not 3
+     */
+    public void applyToParallel(ComplexStorage storage) {
+        storage.transform(this, true);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return Arrays.equals(m, ((AffineTransform3) o).m);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(m);
+    }
+
+    @Override
+    public String toString() {
+        return "AffineTransform3(" + Arrays.toString(Arrays.copyOfRange(m, 0, 4))
+                + ", " + Arrays.toString(Arrays.copyOfRange(m, 4, 8))
+                + ", " + Arrays.toString(Arrays.copyOfRange(m, 8, 12)) + ")";
+    }
+}
@@ -0,0 +1,296 @@
+package pp.muza.complex.transform;
+
+import pp.muza.complex.Complex;
+import pp.muza.complex.bulk.ComplexStorage;
+import pp.muza.complex.impl.Complex2;
+import pp.muza.complex.trig.Trig;
+
+
+/**
+ * A rotation in 2D by a fixed angle.
+ * <p>
+ * The cosine and the sine of the angle are calculated once with the current {@link Trig} provider,
+ * so rotating many complex numbers by the same angle costs four multiplications per number.
+ * The result is exactly the same as {@link Complex#rotate(double)} with the same provider.
+ * The constants {@code ANGLE_*} are the exception: their cosine and sine are calculated with {@link Math},
+ * so they do not depend on the provider that is active when the class is initialized,
+ * use {@link #of(double)} for a rotation with the current provider.
+ * <p>
+ * This class is immutable and thread safe.
+ */
+public final class Rotation {
+
+    /**
+     * Rotation by {@link Complex#ANGLE_0}
+     */
+    public static final Rotation ANGLE_0 = exact(Complex.ANGLE_0);
+    /**
+     * Rotation by {@link Complex#ANGLE_30}
+     */
+    public static final Rotation ANGLE_30 = exact(Complex.ANGLE_30);
+    /**
+     * Rotation by {@link Complex#ANGLE_45}
+     */
+    public static final Rotation ANGLE_45 = exact(Complex.ANGLE_45);
+    /**
+     * Rotation by {@link Complex#ANGLE_60}
+     */
+    public static final Rotation ANGLE_60 = exact(Complex.ANGLE_60);
+    /**
+     * Rotation by {@link Complex#ANGLE_90}
+     */
+    public static final Rotation ANGLE_90 = exact(Complex.ANGLE_90);
+    /**
+     * Rotation by {@link Complex#ANGLE_180}
+     */
+    public static final Rotation ANGLE_180 = exact(Complex.ANGLE_180);
+    /**
+     * Rotation by {@link Complex#ANGLE_270}
+     */
+    public static final Rotation ANGLE_270 = exact(Complex.ANGLE_270);
+
+    /**
+     * The number of points generated by the recurrence before the next point is calculated exactly,
+     * the rounding error of the recurrence grows linearly with the number of steps.
+     */
+    private static final int EXACT_STEP = 64;
+
+    private final double angle;
+    private final double cos;
+    private final double sin;
+
+    private Rotation(double angle) {
+        this(angle, Trig.cos(angle), Trig.sin(angle));
+    }
+
+    private Rotation(double angle, double cos, double sin) {
+        this.angle = angle;
+        this.cos = cos;
+        this.sin = sin;
+    }
+
+    /**
+     * Rotation with the cosine and the sine of {@link Math}
+     */
+    private static Rotation exact(double angle) {
+        return new Rotation(angle, Math.cos(angle), Math.sin(angle));
+    }
+
+    /**
+     * Create a new rotation
+     *
+     * @param angle the angle in radians
+     * @return a new rotation
+     */
+    public static Rotation of(double angle) {
+        return new Rotation(angle);
+    }
+
+    /**
+     * Return the angle
+     *
+     * @return angle in radians
+     */
+    public double getAngle() {
+        return angle;
+    }
+
+    /**
+     * Return the cosine of the angle
+     *
+     * @return cosine
+     */
+    public double getCos() {
+        return cos;
+    }
+
+    /**
+     * Return the sine of the angle
+     *
+     * @return sine
+     */
+    public double getSin() {
+        return sin;
+    }
+
+    /**
+     * Return the rotation by the opposite angle, it has the same cosine and the opposite sine
+     *
+     * @return a new rotation
+     */
+    public Rotation inverse() {
+        return new Rotation(-angle, cos, -sin);
+    }
+
+    /**
+     * Return the rotation by the sum of the angles, the cosine and the sine are calculated from the cached values
+     * by the angle sum formulas, so the result is equal up to rounding to applying both rotations
+     *
+     * @param other the other rotation
+     * @return a new rotation
+     */
+    public Rotation compose(Rotation other) {
+        return new Rotation(angle + other.angle,
+                cos * other.cos - sin * other.sin,
+                sin * other.cos + cos * other.sin);
+    }
+
+    private static void check(Complex complex) {
+        if (complex.getDimension() != 2) {
+            throw new IllegalArgumentException("Rotation is only supported for 2D complex numbers");
+        }
+    }
+
+    /**
+     * Rotate the complex number in place
+     *
+     * @param complex the complex number (only for 2D)
+     * @return the complex number
+     * @throws IllegalArgumentException if the dimension is not 2
+     */
+    public Complex applyTo(Complex complex) {
+        return applyTo(complex, complex);
+    }
+
+    /**
+     * Rotate the complex number and store the result in the destination
+     *
+     * @param complex the complex number (only for 2D)
+     * @param out     the destination (only for 2D), it may be the same object as complex
+     * @return the destination
+     * @throws IllegalArgumentException if the dimension is not 2
+     */
+    public Complex applyTo(Complex complex, Complex out) {
+        check(complex);
+        check(out);
+        double x = complex.getValue(0);
+        double y = complex.getValue(1);
+        out.set(x * cos - y * sin, x * sin + y * cos);
+        return out;
+    }
+
+    /**
+     * Rotate the complex numbers in place
+     *
+     * @param values the complex numbers (only for 2D)
+     * @throws IllegalArgumentException if the dimension is not 2
+     */
+    public void applyTo(Complex[] values) {
+        for (Complex value : values) {
+            applyTo(value, value);
+        }
+    }
+
+    /**
+     * Rotate the complex numbers and store the results in the destinations
+     *
+     * @param values the complex numbers (only for 2D)
+     * @param out    the destinations, at least as many as the complex numbers
+     * @throws IllegalArgumentException if the dimension is not 2
+     */
+    public void applyTo(Complex[] values, Complex[] out) {
+        if (out.length < values.length) {
+            throw new IllegalArgumentException("Output array is too small");
+        }
+        for (int i = 0; i < values.length; i++) {
+            applyTo(values[i], out[i]);
+        }
+    }
+
+    /**
+     * Rotate the complex numbers in place
+     *
+     * @param values the complex numbers (only for 2D)
+     * @throws IllegalArgumentException if the dimension is not 2
+     */
+    public void applyTo(Iterable<? extends Complex> values) {
+        for (Complex value : values) {
+            applyTo(value, value);
+        }
+    }
+
+    /**
+     * Rotate every vector of the storage in place
+     *
+     * @param storage the vectors (only for 2D)
+     * @throws IllegalArgumentException if the dimension is not 2
+     */
+    public void applyTo(ComplexStorage storage) {
+        storage.rotate(this);
+    }
+
+    /**
+     * Create points on a circle: {@code fromPolar(r, start + k * step)} for k from 0 to n - 1.
+     * <p>
+     * The points are generated by rotating the previous point, the exact point is calculated every 64 steps.
+     * The rounding error grows linearly over the steps between two exact points,
+     * so it stays within about 64 units in the last place of r.
+     *
+     * @param r     the radius
+     * @param start the angle of the first point
+     * @param step  the angle between two points
+     * @param n     the number of points
+     * @return new complex numbers
+     */
+    public static Complex[] polarPoints(double r, double start, double step, int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Size must be positive");
+        }
+        Complex[] res = new Complex[n];
+        double cos = Trig.cos(step);
+        double sin = Trig.sin(step);
+        double x = 0.0;
+        double y = 0.0;
+        for (int k = 0; k < n; k++) {
+            if (k % EXACT_STEP == 0) {
+                double phi = start + k * step;
+                x = r * Trig.cos(phi);
+                y = r * Trig.sin(phi);
+            } else {
+                double x1 = x * cos - y * sin;
+                y = x * sin + y * cos;
+                x = x1;
+            }
+            res[k] = new Complex2(x, y);
+        }
+        return res;
+    }
+
+    /**
+     * Create evenly spaced points on a circle, the first point is at the angle zero
+     *
+     * @param r the radius
+     * @param n the number of points
+     * @return new complex numbers
+     */
+    public static Complex[] polarPoints(double r, int n) {
+        return polarPoints(r, Complex.ANGLE_0, n == 0 ? 0.0 : Complex.ANGLE_360 / n, n);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        Rotation rotation = (Rotation) o;
+        return Double.compare(angle, rotation.angle) == 0
+                && Double.compare(cos, rotation.cos) == 0
+                && Double.compare(sin, rotation.sin) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Double.hashCode(angle);
+        result = 31 * result + Double.hashCode(cos);
+        result = 31 * result + Double.hashCode(sin);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "Rotation(" + angle + ")";
+    }
+}
@@ -0,0 +1,36 @@
+package pp.muza.complex.trig;
+
+
+/**
+ * Common part of the approximations.
+ * <p>
+ * The arc cosine is the polynomial approximation 4.4.46 of Abramowitz and Stegun with the error up to 3e-8,
+ * the argument is clamped to [-1, 1]. Angles greater than {@link #LIMIT} by absolute value, infinities and NaN
+ * are passed to {@link Math}.
+ */
+abstract class FastTrig implements TrigProvider {
+
+    /**
+     * The maximal absolute value of the angles reduced by the approximations.
+     */
+    static final double LIMIT = 1e6;
+
+    private static final double A0 = 1.5707963050;
+    private static final double A1 = -0.2145988016;
+    private static final double A2 = 0.0889789874;
+    private static final double A3 = -0.0501743046;
+    private static final double A4 = 0.0308918810;
+    private static final double A5 = -0.0170881256;
+    private static final double A6 = 0.0066700901;
+    private static final double A7 = -0.0012624911;
+
+    @Override
+    public double acos(double a) {
+        if (Double.isNaN(a)) {
+            return a;
+        }
+        double x = Math.min(Math.abs(a), 1.0);
+        double res = Math.sqrt(1.0 - x) * (A0 + x * (A1 + x * (A2 + x * (A3 + x * (A4 + x * (A5 + x * (A6 + x * A7)))))));
+        return a < 0 ? Math.PI - res : res;
+    }
+}
@@ -0,0 +1,89 @@
+package pp.muza.complex.trig;
+
+
+/**
+ * Sine and cosine from Taylor polynomials of the degree 9 and 10 on [-pi/4, pi/4].
+ * <p>
+ * The angle is reduced by the nearest multiple of pi/2, the multiple is subtracted in two parts (Cody and Waite),
+ * so the reduction is exact enough up to {@link #LIMIT}.
+ */
+final class PolynomialTrig extends FastTrig {
+
+    private static final double TWO_OVER_PI = 2 / Math.PI;
+    /**
+     * The first 33 bits of pi/2, the product with an integer up to 2^20 is exact.
+     */
+    private static final double PI_OVER_2_HI = 1.57079632673412561417e+00;
+    /**
+     * The rest of pi/2.
+     */
+    private static final double PI_OVER_2_LO = 6.07710050650619224932e-11;
+
+    private static final double S3 = -1.0 / 6;
+    private static final double S5 = 1.0 / 120;
+    private static final double S7 = -1.0 / 5040;
+    private static final double S9 = 1.0 / 362880;
+    private static final double C2 = -1.0 / 2;
+    private static final double C4 = 1.0 / 24;
+    private static final double C6 = -1.0 / 720;
+    private static final double C8 = 1.0 / 40320;
+    private static final double C10 = -1.0 / 3628800;
+
+    private static double sinPoly(double r) {
+        double r2 = r * r;
+        return r + r * r2 * (S3 + r2 * (S5 + r2 * (S7 + r2 * S9)));
+    }
+
+    private static double cosPoly(double r) {
+        double r2 = r * r;
+        return 1.0 + r2 * (C2 + r2 * (C4 + r2 * (C6 + r2 * (C8 + r2 * C10))));
+    }
+
+    @Override
+    public double sin(double a) {
+        if (!(Math.abs(a) <= LIMIT)) {
+            return Math.sin(a);
+        }
+        double k = Math.rint(a * TWO_OVER_PI);
+        double r = (a - k * PI_OVER_2_HI) - k * PI_OVER_2_LO;
+        switch ((int) k & 3) {
+            case 0:
+                return sinPoly(r);
+            case 1:
+                return cosPoly(r);
+            case 2:
+                return -sinPoly(r);
+            default:
+                return -cosPoly(r);
+        }
+    }
+
+    @Override
+    public double cos(double a) {
+        if (!(Math.abs(a) <= LIMIT)) {
+            return Math.cos(a);
+        }
+        double k = Math.rint(a * TWO_OVER_PI);
+        double r = (a - k * PI_OVER_2_HI) - k * PI_OVER_2_LO;
+        switch ((int) k & 3) {
+            case 0:
+                return cosPoly(r);
+            case 1:
+                return -sinPoly(r);
+            case 2:
+                return -cosPoly(r);
+            default:
+                return sinPoly(r);
+        }
+    }
+
+    @Override
+    public double getMaxError() {
+        return 3e-8;
+    }
+
+    @Override
+    public String toString() {
+        return "POLYNOMIAL";
+    }
+}
@@ -0,0 +1,33 @@
+package pp.muza.complex.trig;
+
+
+/**
+ * The functions of {@link Math}.
+ */
+final class StrictTrig implements TrigProvider {
+
+    @Override
+    public double sin(double a) {
+        return Math.sin(a);
+    }
+
+    @Override
+    public double cos(double a) {
+        return Math.cos(a);
+    }
+
+    @Override
+    public double acos(double a) {
+        return Math.acos(a);
+    }
+
+    @Override
+    public double getMaxError() {
+        return 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return "STRICT";
+    }
+}
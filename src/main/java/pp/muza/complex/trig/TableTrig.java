@@ -0,0 +1,59 @@
+package pp.muza.complex.trig;
+
+
+/**
+ * Sine and cosine from a table of 4096 values per turn with linear interpolation.
+ */
+final class TableTrig extends FastTrig {
+
+    private static final int BITS = 12;
+    private static final int SIZE = 1 << BITS;
+    private static final int MASK = SIZE - 1;
+    private static final double SCALE = SIZE / (2 * Math.PI);
+    /**
+     * Sine of the table angles, one extra value for the interpolation of the last interval.
+     */
+    private static final double[] SIN = new double[SIZE + 1];
+
+    static {
+        for (int i = 0; i <= SIZE; i++) {
+            SIN[i] = Math.sin(i / SCALE);
+        }
+    }
+
+    /**
+     * Sine of the angle given in table units
+     */
+    private static double sinUnits(double t) {
+        double floor = Math.floor(t);
+        int i = (int) ((long) floor & MASK);
+        double f = t - floor;
+        return SIN[i] + (SIN[i + 1] - SIN[i]) * f;
+    }
+
+    @Override
+    public double sin(double a) {
+        if (!(Math.abs(a) <= LIMIT)) {
+            return Math.sin(a);
+        }
+        return sinUnits(a * SCALE);
+    }
+
+    @Override
+    public double cos(double a) {
+        if (!(Math.abs(a) <= LIMIT)) {
+            return Math.cos(a);
+        }
+        return sinUnits(a * SCALE + SIZE / 4.0);
+    }
+
+    @Override
+    public double getMaxError() {
+        return 3e-7;
+    }
+
+    @Override
+    public String toString() {
+        return "TABLE";
+    }
+}
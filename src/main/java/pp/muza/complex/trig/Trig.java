@@ -0,0 +1,82 @@
+package pp.muza.complex.trig;
+
+import java.util.Locale;
+
+
+/**
+ * The trigonometric functions of the library.
+ * <p>
+ * The functions are delegated to the current {@link TrigProvider}, it is {@link TrigProvider#STRICT} by default.
+ * The initial provider can be chosen with the system property {@code pp.muza.complex.trig}
+ * ({@code strict}, {@code table} or {@code polynomial}) and replaced at any time with {@link #setProvider(TrigProvider)}.
+ */
+public final class Trig {
+
+    private static volatile TrigProvider provider = initialProvider();
+
+    private Trig() {
+    }
+
+    private static TrigProvider initialProvider() {
+        String name = System.getProperty("pp.muza.complex.trig", "strict");
+        switch (name.toLowerCase(Locale.ROOT)) {
+            case "table":
+                return TrigProvider.TABLE;
+            case "polynomial":
+                return TrigProvider.POLYNOMIAL;
+            default:
+                return TrigProvider.STRICT;
+        }
+    }
+
+    /**
+     * Return the current provider
+     *
+     * @return provider
+     */
+    public static TrigProvider getProvider() {
+        return provider;
+    }
+
+    /**
+     * Replace the provider, the values already calculated are not changed
+     *
+     * @param provider the new provider
+     */
+    public static void setProvider(TrigProvider provider) {
+        if (provider == null) {
+            throw new IllegalArgumentException("Provider must not be null");
+        }
+        Trig.provider = provider;
+    }
+
+    /**
+     * Return the sine of the angle
+     *
+     * @param a the angle in radians
+     * @return sine
+     */
+    public static double sin(double a) {
+        return provider.sin(a);
+    }
+
+    /**
+     * Return the cosine of the angle
+     *
+     * @param a the angle in radians
+     * @return cosine
+     */
+    public static double cos(double a) {
+        return provider.cos(a);
+    }
+
+    /**
+     * Return the arc cosine of the value
+     *
+     * @param a the value
+     * @return angle in radians in the range [0, pi]
+     */
+    public static double acos(double a) {
+        return provider.acos(a);
+    }
+}
@@ -0,0 +1,56 @@
+package pp.muza.complex.trig;
+
+
+/**
+ * Trigonometric functions used by the rotations, the polar coordinates and the angles.
+ * <p>
+ * Implementations must be thread safe.
+ */
+public interface TrigProvider {
+
+    /**
+     * The functions of {@link Math}, it is the default provider.
+     */
+    TrigProvider STRICT = new StrictTrig();
+    /**
+     * Sine and cosine from a table with linear interpolation, the maximal absolute error is 3e-7,
+     * the arc cosine from a polynomial with the maximal absolute error 3e-8.
+     */
+    TrigProvider TABLE = new TableTrig();
+    /**
+     * Sine and cosine from polynomials after reduction to [-pi/4, pi/4], the maximal absolute error is 2e-9,
+     * the arc cosine from a polynomial with the maximal absolute error 3e-8.
+     */
+    TrigProvider POLYNOMIAL = new PolynomialTrig();
+
+    /**
+     * Return the sine of the angle
+     *
+     * @param a the angle in radians
+     * @return sine
+     */
+    double sin(double a);
+
+    /**
+     * Return the cosine of the angle
+     *
+     * @param a the angle in radians
+     * @return cosine
+     */
+    double cos(double a);
+
+    /**
+     * Return the arc cosine of the value
+     *
+     * @param a the value
+     * @return angle in radians in the range [0, pi]
+     */
+    double acos(double a);
+
+    /**
+     * Return the maximal absolute error of all functions for finite arguments
+     *
+     * @return maximal error, zero for the functions of {@link Math}
+     */
+    double getMaxError();
+}
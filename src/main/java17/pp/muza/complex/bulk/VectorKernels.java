@@ -0,0 +1,146 @@
+package pp.muza.complex.bulk;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+
+/**
+ * Kernels based on the Vector API, the lanes of a vector register hold the same dimension of consecutive vectors.
+ * <p>
+ * The values of a vector are accumulated in the same order as in {@link ScalarKernels} and no fused multiply-add is used,
+ * so the results are exactly the same. The tail of a column that does not fill a register is processed by the scalar code.
+ */
+final class VectorKernels implements Kernels {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    VectorKernels() {
+        if (SPECIES.length() < 2) {
+            throw new UnsupportedOperationException("No vector registers");
+        }
+    }
+
+    private static DoubleVector squareModule(double[][] columns, int dimension, int i) {
+        DoubleVector res = DoubleVector.zero(SPECIES);
+        for (int d = 0; d < dimension; d++) {
+            DoubleVector v = DoubleVector.fromArray(SPECIES, columns[d], i);
+            res = res.add(v.mul(v));
+        }
+        return res;
+    }
+
+    private static DoubleVector squareDistance(double[][] columns, int dimension, int i, double[] values) {
+        DoubleVector res = DoubleVector.zero(SPECIES);
+        for (int d = 0; d < dimension; d++) {
+            DoubleVector v = DoubleVector.fromArray(SPECIES, columns[d], i).sub(values[d]);
+            res = res.add(v.mul(v));
+        }
+        return res;
+    }
+
+    @Override
+    public void squareModule(double[][] columns, int dimension, int size, double[] out) {
+        int bound = SPECIES.loopBound(size);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            squareModule(columns, dimension, i).intoArray(out, i);
+        }
+        for (; i < size; i++) {
+            out[i] = ScalarKernels.squareModule(columns, dimension, i);
+        }
+    }
+
+    @Override
+    public void dot(double[][] columns, int dimension, int size, double[] values, double[] out) {
+        int bound = SPECIES.loopBound(size);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector res = DoubleVector.zero(SPECIES);
+            for (int d = 0; d < dimension; d++) {
+                res = res.add(DoubleVector.fromArray(SPECIES, columns[d], i).mul(values[d]));
+            }
+            res.intoArray(out, i);
+        }
+        for (; i < size; i++) {
+            out[i] = ScalarKernels.dot(columns, dimension, i, values);
+        }
+    }
+
+    @Override
+    public void dot(double[][] columns, double[][] other, int dimension, int size, double[] out) {
+        int bound = SPECIES.loopBound(size);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector res = DoubleVector.zero(SPECIES);
+            for (int d = 0; d < dimension; d++) {
+                DoubleVector v = DoubleVector.fromArray(SPECIES, columns[d], i);
+                res = res.add(v.mul(DoubleVector.fromArray(SPECIES, other[d], i)));
+            }
+            res.intoArray(out, i);
+        }
+        for (; i < size; i++) {
+            out[i] = ScalarKernels.dot(columns, other, dimension, i);
+        }
+    }
+
+    @Override
+    public void squareDistance(double[][] columns, int dimension, int size, double[] values, double[] out) {
+        int bound = SPECIES.loopBound(size);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            squareDistance(columns, dimension, i, values).intoArray(out, i);
+        }
+        for (; i < size; i++) {
+            out[i] = ScalarKernels.squareDistance(columns, dimension, i, values);
+        }
+    }
+
+    @Override
+    public void normalize(double[][] columns, int dimension, int size) {
+        int bound = SPECIES.loopBound(size);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector m = squareModule(columns, dimension, i).sqrt();
+            VectorMask<Double> positive = m.compare(VectorOperators.GT, 0.0);
+            if (positive.anyTrue()) {
+                for (int d = 0; d < dimension; d++) {
+                    DoubleVector.fromArray(SPECIES, columns[d], i).div(m, positive).intoArray(columns[d], i);
+                }
+            }
+        }
+        for (; i < size; i++) {
+            ScalarKernels.normalizeAt(columns, dimension, i);
+        }
+    }
+
+    @Override
+    public int nearest(double[][] columns, int dimension, int size, double[] values) {
+        double best = Double.POSITIVE_INFINITY;
+        int res = -1;
+        int bound = SPECIES.loopBound(size);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector v = squareDistance(columns, dimension, i, values);
+            // the best distance decreases quickly, so the lanes are rarely inspected
+            if (v.compare(VectorOperators.LT, best).anyTrue()) {
+                for (int lane = 0; lane < SPECIES.length(); lane++) {
+                    double distance = v.lane(lane);
+                    if (distance < best) {
+                        best = distance;
+                        res = i + lane;
+                    }
+                }
+            }
+        }
+        for (; i < size; i++) {
+            double distance = ScalarKernels.squareDistance(columns, dimension, i, values);
+            if (distance < best) {
+                best = distance;
+                res = i;
+            }
+        }
+        return res;
+    }
+}
@@ -0,0 +1,142 @@
+package pp.muza.complex;
+
+import org.junit.jupiter.api.Test;
+import pp.muza.complex.bulk.ComplexArray;
+import pp.muza.complex.bulk.ComplexBuffer;
+import pp.muza.complex.impl.BaseComplex;
+import pp.muza.complex.transform.AffineTransform2;
+import pp.muza.complex.transform.AffineTransform3;
+import pp.muza.complex.transform.Rotation;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AffineTransformTest {
+
+    private static final double EPSILON = 1e-12;
+
+    @Test
+    void composedChain2() {
+        double angle = 0.7;
+        AffineTransform2 chain = AffineTransform2.rotation(angle)
+                .then(AffineTransform2.scaling(2))
+                .then(AffineTransform2.translation(1, -3));
+
+        Complex expected = new BaseComplex(3, -4);
+        expected.rotate(angle);
+        expected.scale(2);
+        expected.change(1, -3);
+
+        Complex complex = Complex.of(3, -4);
+        assertSame(chain.applyTo(complex), complex);
+        assertTrue(complex.equals(expected, EPSILON));
+
+        Complex out = Complex.of(0, 0);
+        chain.applyTo(Complex.of(3, -4), out);
+        assertEquals(out, complex);
+
+        assertEquals(AffineTransform2.of(Rotation.ANGLE_30), AffineTransform2.rotation(Complex.ANGLE_30));
+        assertEquals(AffineTransform2.IDENTITY.then(chain), chain);
+        assertEquals(chain.then(AffineTransform2.IDENTITY), chain);
+        assertEquals(chain.getValue(0, 2), 1.0);
+        assertThrows(IndexOutOfBoundsException.class, () -> chain.getValue(2, 0));
+    }
+
+    @Test
+    void inverse2() {
+        AffineTransform2 transform = AffineTransform2.of(2, 1, 5, -1, 3, -2);
+        Complex complex = Complex.of(0.25, -7);
+        transform.applyTo(complex);
+        transform.inverse().applyTo(complex);
+        assertTrue(complex.equals(Complex.of(0.25, -7), EPSILON));
+
+        AffineTransform2 identity = transform.then(transform.inverse());
+        for (int r = 0; r < 2; r++) {
+            for (int c = 0; c < 3; c++) {
+                assertEquals(identity.getValue(r, c), AffineTransform2.IDENTITY.getValue(r, c), EPSILON);
+            }
+        }
+        assertEquals(transform.getDeterminant(), 7.0);
+        assertThrowsExactly(IllegalArgumentException.class, () -> AffineTransform2.scaling(0).inverse());
+    }
+
+    @Test
+    void composedChain3() {
+        AffineTransform3 chain = AffineTransform3.rotationX(0.3)
+                .then(AffineTransform3.rotationZ(-1.1))
+                .then(AffineTransform3.scaling(0.5, 2, 3))
+                .then(AffineTransform3.translation(1, 2, 3));
+        Complex complex = new BaseComplex(1, -2, 4);
+        Complex expected = AffineTransform3.translation(1, 2, 3).applyTo(
+                AffineTransform3.scaling(0.5, 2, 3).applyTo(
+                        AffineTransform3.rotationZ(-1.1).applyTo(
+                                AffineTransform3.rotationX(0.3).applyTo(new BaseComplex(1, -2, 4)))));
+        chain.applyTo(complex);
+        assertTrue(complex.equals(expected, EPSILON));
+
+        Complex rotated = Complex.of(3, -4);
+        rotated.rotate(0.4);
+        Complex z = AffineTransform3.rotationZ(0.4).applyTo(new BaseComplex(3, -4, 5));
+        assertEquals(z.getValue(0), rotated.getValue(0), EPSILON);
+        assertEquals(z.getValue(1), rotated.getValue(1), EPSILON);
+        assertEquals(z.getValue(2), 5.0);
+
+        chain.inverse().applyTo(complex);
+        assertTrue(complex.equals(new BaseComplex(1, -2, 4), EPSILON));
+        assertEquals(AffineTransform3.rotationY(0.9).getDeterminant(), 1.0, EPSILON);
+        assertThrowsExactly(IllegalArgumentException.class, () -> AffineTransform3.scaling(1, 0, 1).inverse());
+        assertThrowsExactly(IllegalArgumentException.class, () -> chain.applyTo(Complex.of(1, 2)));
+        assertThrowsExactly(IllegalArgumentException.class, () -> AffineTransform3.of(1, 2, 3));
+    }
+
+    @Test
+    void batch() {
+        AffineTransform2 transform = AffineTransform2.rotation(1).then(AffineTransform2.translation(-1, 2));
+        int size = 20_000;
+        Random random = new Random(1);
+        Complex[] values = new Complex[size];
+        Complex[] expected = new Complex[size];
+        ComplexArray array = new ComplexArray(size, 2);
+        ComplexBuffer buffer = ComplexBuffer.allocateDirect(size, 2);
+        for (int i = 0; i < size; i++) {
+            values[i] = Complex.of(random.nextDouble(), random.nextDouble());
+            expected[i] = transform.applyTo(values[i], Complex.of(0, 0));
+            array.set(i, values[i]);
+            buffer.set(i, values[i]);
+        }
+        ComplexArray parallel = ComplexArray.of(2, values);
+        int version = array.getVersion();
+        transform.applyTo(array);
+        transform.applyToParallel(parallel);
+        transform.applyToParallel(buffer);
+        transform.applyToParallel(values);
+        assertEquals(array.getVersion(), version + 1);
+        for (int i = 0; i < size; i++) {
+            assertEquals(array.view(i), expected[i]);
+            assertEquals(parallel.view(i), expected[i]);
+            assertEquals(buffer.view(i), expected[i]);
+            assertEquals(values[i], expected[i]);
+        }
+        assertThrowsExactly(IllegalArgumentException.class, () -> transform.applyTo(new ComplexArray(1, 3)));
+        assertThrowsExactly(IllegalArgumentException.class, () -> AffineTransform3.IDENTITY.applyTo(new ComplexArray(1, 2)));
+    }
+
+    @Test
+    void batch3() {
+        AffineTransform3 transform = AffineTransform3.rotationY(2).then(AffineTransform3.translation(1, 0, -1));
+        Complex[] values = {new BaseComplex(1, 2, 3), new BaseComplex(-1, 0, 0.5)};
+        ComplexArray array = ComplexArray.of(3, values);
+        ComplexBuffer buffer = ComplexBuffer.allocateDirect(2, 3);
+        buffer.set(0, values[0]);
+        buffer.set(1, values[1]);
+        Complex[] out = {new BaseComplex(3), new BaseComplex(3)};
+        transform.applyTo(values, out);
+        transform.applyTo(array);
+        transform.applyToParallel(buffer);
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(array.view(i), out[i]);
+            assertEquals(buffer.view(i), out[i]);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package pp.muza.complex;
+
+import org.junit.jupiter.api.Test;
+import pp.muza.complex.bulk.ComplexArray;
+import pp.muza.complex.impl.BaseComplex;
+import pp.muza.complex.transform.AffineTransform3;
+import pp.muza.complex.transform.Quaternion;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class AllocationFreeTest {
+
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 10_000;
+
+    /**
+     * The bean with the allocation counters, null on a virtual machine without them.
+     */
+    private static final com.sun.management.ThreadMXBean THREADS = allocationCounters();
+
+    private static com.sun.management.ThreadMXBean allocationCounters() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        return threads instanceof com.sun.management.ThreadMXBean ? (com.sun.management.ThreadMXBean) threads : null;
+    }
+
+    private static long allocatedBytes() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Return the number of bytes allocated by the current thread in {@link #ITERATIONS} calls of the action,
+     * it is the total, so an occasional allocation is not rounded away.
+     */
+    private static long totalAllocatedBytes(Runnable action) {
+        for (int i = 0; i < WARMUP; i++) {
+            action.run();
+        }
+        long before = allocatedBytes();
+        long overhead = allocatedBytes() - before;
+        before = allocatedBytes();
+        for (int i = 0; i < ITERATIONS; i++) {
+            action.run();
+        }
+        return allocatedBytes() - before - overhead;
+    }
+
+    @Test
+    void destinationPassing() {
+        assumeAllocationCounters();
+        Complex a = Complex.of(1, 2);
+        Complex b = Complex.of(3, -4);
+        Complex out = Complex.of(0, 0);
+        assertEquals(totalAllocatedBytes(() -> Complex.add(a, b, out)), 0L);
+        assertEquals(totalAllocatedBytes(() -> Complex.sub(a, b, out)), 0L);
+        assertEquals(totalAllocatedBytes(() -> Complex.scale(a, 2.0, out)), 0L);
+        assertEquals(totalAllocatedBytes(() -> Complex.rotate(a, Complex.ANGLE_30, out)), 0L);
+        assertEquals(totalAllocatedBytes(() -> Complex.normalize(a, out)), 0L);
+        assertEquals(totalAllocatedBytes(() -> Complex.mul(a, b, out)), 0L);
+        assertEquals(totalAllocatedBytes(() -> Complex.div(a, b, out)), 0L);
+        assertEquals(totalAllocatedBytes(() -> Complex.conj(a, out)), 0L);
+        assertEquals(totalAllocatedBytes(() -> Complex.exp(a, out)), 0L);
+        assertEquals(totalAllocatedBytes(() -> Complex.log(a, out)), 0L);
+        assertEquals(totalAllocatedBytes(() -> Complex.pow(a, 5, out)), 0L);
+        assertEquals(totalAllocatedBytes(() -> Complex.pow(a, b, out)), 0L);
+
+        Complex a3 = new BaseComplex(1, 2, 3);
+        Complex b3 = new BaseComplex(3, -4, 5);
+        Complex out3 = new BaseComplex(3);
+        assertEquals(totalAllocatedBytes(() -> Complex.multiple(a3, b3, out3)), 0L);
+        assertEquals(totalAllocatedBytes(() -> Complex.add(a3, b3, out3)), 0L);
+
+        AffineTransform3 transform = AffineTransform3.rotationX(0.3).then(AffineTransform3.scaling(1, 2, 3));
+        Quaternion quaternion = Quaternion.fromAxisAngle(1, 2, 3, 0.7);
+        assertEquals(totalAllocatedBytes(() -> transform.applyTo(a3, out3)), 0L);
+        assertEquals(totalAllocatedBytes(() -> quaternion.applyTo(a3, out3)), 0L);
+    }
+
+    @Test
+    void storageViewDestination() {
+        assumeAllocationCounters();
+        Complex a = Complex.of(1, 2);
+        Complex b = Complex.of(3, -4);
+        Complex out = new ComplexArray(1, 2).view(0);
+        assertEquals(totalAllocatedBytes(() -> Complex.mul(a, b, out)), 0L);
+        assertEquals(totalAllocatedBytes(() -> Complex.div(a, b, out)), 0L);
+        assertEquals(totalAllocatedBytes(() -> Complex.exp(a, out)), 0L);
+        assertEquals(totalAllocatedBytes(() -> out.rotate(Complex.ANGLE_30)), 0L);
+    }
+
+    @Test
+    void scalarResults() {
+        assumeAllocationCounters();
+        Complex a = new BaseComplex(1, 2, 3, 4);
+        Complex b = new BaseComplex(4, 3, 2, 1);
+        assertEquals(totalAllocatedBytes(() -> Complex.distance(a, b)), 0L);
+        assertEquals(totalAllocatedBytes(() -> Complex.squareDistance(a, b)), 0L);
+        assertEquals(totalAllocatedBytes(() -> Complex.angle(a, b)), 0L);
+    }
+
+    @Test
+    void results() {
+        Complex a = Complex.of(1, 2);
+        Complex b = Complex.of(3, -4);
+        Complex out = Complex.of(0, 0);
+        assertEquals(Complex.add(a, b, out), Complex.add(a, b));
+        assertEquals(Complex.sub(a, b, out), Complex.sub(a, b));
+        assertEquals(Complex.scale(a, 3, out), Complex.scale(a, 3));
+        assertEquals(Complex.rotate(a, 1, out), Complex.rotate(a, 1));
+        assertEquals(Complex.normalize(a, out), Complex.normalize(a));
+        assertEquals(Complex.multiple(a, b, new BaseComplex(1)), Complex.multiple(a, b));
+        assertEquals(Complex.squareDistance(a, b), 40.0);
+        assertEquals(Complex.distance(Complex.of(1, 1, 1), Complex.of(1, 1)), 1.0);
+
+        Complex c = Complex.of(1, 2);
+        Complex.sub(a, c, c);
+        assertTrue(c.isZero());
+        Complex.sub(b, b, b);
+        assertTrue(b.isZero());
+        Complex d = Complex.of(1, 2);
+        Complex.add(d, d, d);
+        assertEquals(d, Complex.of(2, 4));
+
+        assertThrowsExactly(IllegalArgumentException.class, () -> Complex.add(a, a, new BaseComplex(3)));
+        assertThrowsExactly(IllegalArgumentException.class, () -> Complex.multiple(a, b, Complex.of(0, 0)));
+    }
+
+    private static void assumeAllocationCounters() {
+        assumeTrue(THREADS != null && THREADS.isThreadAllocatedMemorySupported(),
+                "The virtual machine does not count the allocated bytes of a thread");
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+        assumeTrue(THREADS.isThreadAllocatedMemoryEnabled(), "The allocation counters are disabled");
+    }
+}
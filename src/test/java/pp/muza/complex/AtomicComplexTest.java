@@ -0,0 +1,155 @@
+package pp.muza.complex;
+
+import org.junit.jupiter.api.Test;
+import pp.muza.complex.concurrent.AtomicComplex;
+import pp.muza.complex.impl.BaseComplex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AtomicComplexTest {
+
+    @Test
+    void version() {
+        AtomicComplex complex = new AtomicComplex(1, 2);
+        assertEquals(complex.getVersion(), 0);
+        complex.change(1, 1);
+        complex.setValue(0, 5);
+        assertEquals(complex.getVersion(), 2);
+        assertEquals(complex, Complex.of(5, 3));
+        complex.setNull();
+        assertTrue(complex.isNull());
+        complex.scale(2);
+        assertFalse(complex.isNull());
+
+        complex.set(1, 2);
+        int version = complex.getVersion();
+        complex.mul(Complex.of(0, 1));
+        complex.conj();
+        assertEquals(complex.getVersion(), version + 2);
+        assertEquals(complex, Complex.of(-2, -1));
+        complex.mul(complex);
+        assertEquals(complex, Complex.of(3, 4));
+    }
+
+    @Test
+    void compareAndSet() {
+        AtomicComplex complex = new AtomicComplex(1, 2);
+        assertFalse(complex.compareAndSet(Complex.of(1, 3), Complex.of(0, 0)));
+        assertEquals(complex.getVersion(), 0);
+        assertTrue(complex.compareAndSet(Complex.of(1, 2), Complex.of(3, 4)));
+        assertEquals(complex.getVersion(), 1);
+        assertEquals(complex.squareModule(), 25.0);
+
+        Complex res = complex.updateAndGet(c -> Complex.scale(c, 2));
+        assertEquals(res, Complex.of(6, 8));
+        assertEquals(complex, Complex.of(6, 8));
+    }
+
+    @Test
+    void failingArgument() {
+        AtomicComplex complex = new AtomicComplex(1, 2);
+        Complex broken = new BaseComplex(3, 4) {
+            @Override
+            public double getValue(int index) {
+                throw new IllegalStateException("broken");
+            }
+        };
+        assertThrowsExactly(IllegalStateException.class, () -> complex.set(broken));
+        assertThrowsExactly(IllegalStateException.class, () -> complex.change(broken));
+        assertThrowsExactly(IllegalStateException.class, () -> complex.dec(broken));
+        assertThrowsExactly(IllegalStateException.class, () -> complex.compareAndSet(broken, Complex.of(0, 0)));
+        assertThrowsExactly(IllegalStateException.class, () -> complex.compareAndSet(Complex.of(1, 2), broken));
+        assertThrowsExactly(IllegalStateException.class, () -> complex.updateAndGet(c -> broken));
+        // the lock is not held, the value and the version are not changed
+        assertEquals(complex, Complex.of(1, 2));
+        assertEquals(complex.getVersion(), 0);
+        complex.change(complex);
+        assertEquals(complex, Complex.of(2, 4));
+    }
+
+    @Test
+    void concurrentUpdates() throws InterruptedException {
+        AtomicComplex complex = new AtomicComplex(0, 0);
+        int threads = 4;
+        int iterations = 10_000;
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                for (int i = 0; i < iterations; i++) {
+                    complex.updateAndGet(c -> Complex.add(c, Complex.of(1, -1)));
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        assertEquals(complex, Complex.of(threads * iterations, -threads * iterations));
+    }
+
+    @Test
+    void consistentReads() throws InterruptedException {
+        AtomicComplex complex = new AtomicComplex(0, 0, 0);
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicBoolean consistent = new AtomicBoolean(true);
+        Thread reader = new Thread(() -> {
+            while (running.get()) {
+                double[] values = complex.get();
+                if (values[0] + values[1] + values[2] != 0.0) {
+                    consistent.set(false);
+                }
+            }
+        });
+        reader.start();
+        for (int i = 0; i < 200_000; i++) {
+            complex.set(i, -2.0 * i, i);
+        }
+        running.set(false);
+        reader.join();
+        assertTrue(consistent.get());
+    }
+
+    @Test
+    void concurrentArithmetic() throws InterruptedException {
+        AtomicComplex complex = new AtomicComplex(1, 0);
+        Complex i = Complex.of(0, 1);
+        int threads = 3;
+        int iterations = 10_001;
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicBoolean consistent = new AtomicBoolean(true);
+        Thread reader = new Thread(() -> {
+            while (running.get()) {
+                // a torn value of a multiplication by i, as (y, y) or (-x, x), is not on the unit circle
+                double[] values = complex.get();
+                if (Math.abs(values[0] * values[0] + values[1] * values[1] - 1.0) > 1e-12) {
+                    consistent.set(false);
+                }
+            }
+        });
+        reader.start();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                for (int k = 0; k < iterations; k++) {
+                    complex.mul(i);
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        running.set(false);
+        reader.join();
+        assertTrue(consistent.get());
+        // no multiplication is lost: i^30003 = i^3 = -i
+        assertEquals(complex.getVersion(), threads * iterations);
+        assertTrue(complex.equals(Complex.of(0, -1), 0.0));
+    }
+}
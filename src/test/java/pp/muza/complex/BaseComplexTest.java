@@ -70,6 +70,13 @@ class BaseComplexTest {
         complex.change(1, 2, 3, 4, 5, 6);
         Complex complex1 = new BaseComplex(2, 4, 6, 8, 10, 12);
         assertEquals(complex, complex1);
+
+        // three values, the other values are zero
+        int version = complex.getVersion();
+        complex.set(1.0, 2.0, 3.0);
+        assertEquals(complex, new BaseComplex(1, 2, 3, 0, 0, 0));
+        assertEquals(complex.getVersion(), version + 1);
+        assertThrowsExactly(IllegalArgumentException.class, () -> new BaseComplex(1, 2).set(1.0, 2.0, 3.0));
     }
 
     @Test
@@ -78,6 +85,13 @@ class BaseComplexTest {
         complex.scale(2);
         Complex complex1 = new BaseComplex(2, 4, 6, 8, 10, 12);
         assertEquals(complex, complex1);
+
+        // three values, the other values are zero
+        int version = complex.getVersion();
+        complex.set(1.0, 2.0, 3.0);
+        assertEquals(complex, new BaseComplex(1, 2, 3, 0, 0, 0));
+        assertEquals(complex.getVersion(), version + 1);
+        assertThrowsExactly(IllegalArgumentException.class, () -> new BaseComplex(1, 2).set(1.0, 2.0, 3.0));
     }
 
     @Test
@@ -108,6 +122,13 @@ class BaseComplexTest {
         complex.setValue(5, 12);
         Complex complex1 = new BaseComplex(2, 4, 6, 8, 10, 12);
         assertEquals(complex, complex1);
+
+        // three values, the other values are zero
+        int version = complex.getVersion();
+        complex.set(1.0, 2.0, 3.0);
+        assertEquals(complex, new BaseComplex(1, 2, 3, 0, 0, 0));
+        assertEquals(complex.getVersion(), version + 1);
+        assertThrowsExactly(IllegalArgumentException.class, () -> new BaseComplex(1, 2).set(1.0, 2.0, 3.0));
     }
 
     @Test
@@ -129,6 +150,13 @@ class BaseComplexTest {
         complex.set(2, 4, 6, 8, 10, 12);
         Complex complex1 = new BaseComplex(2, 4, 6, 8, 10, 12);
         assertEquals(complex, complex1);
+
+        // three values, the other values are zero
+        int version = complex.getVersion();
+        complex.set(1.0, 2.0, 3.0);
+        assertEquals(complex, new BaseComplex(1, 2, 3, 0, 0, 0));
+        assertEquals(complex.getVersion(), version + 1);
+        assertThrowsExactly(IllegalArgumentException.class, () -> new BaseComplex(1, 2).set(1.0, 2.0, 3.0));
     }
 
     @Test
@@ -0,0 +1,61 @@
+package pp.muza.complex;
+
+import org.junit.jupiter.api.Test;
+import pp.muza.complex.concurrent.ComplexAccumulator;
+import pp.muza.complex.impl.BaseComplex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComplexAccumulatorTest {
+
+    @Test
+    void add() {
+        ComplexAccumulator accumulator = new ComplexAccumulator(3);
+        accumulator.add(1, 2, 3);
+        accumulator.add(Complex.of(1, 1));
+        assertEquals(accumulator.sum(), Complex.of(2, 3, 3));
+        assertThrowsExactly(IllegalArgumentException.class, () -> accumulator.add(1, 2, 3, 4));
+
+        assertEquals(accumulator.sumThenReset(), Complex.of(2, 3, 3));
+        assertTrue(accumulator.sum().isZero());
+
+        accumulator.add(1, 1, 1);
+        accumulator.reset();
+        assertTrue(accumulator.sum(new BaseComplex(3)).isZero());
+    }
+
+    @Test
+    void concurrentAdd() throws InterruptedException {
+        int threads = 8;
+        int iterations = 20_000;
+        ComplexAccumulator accumulator = new ComplexAccumulator(4);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                Complex delta = new BaseComplex(1, 2, 3, 4);
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < iterations; i++) {
+                    accumulator.add(delta);
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        double n = threads * iterations;
+        assertEquals(accumulator.sum(), new BaseComplex(n, 2 * n, 3 * n, 4 * n));
+    }
+}
@@ -0,0 +1,152 @@
+package pp.muza.complex;
+
+import org.junit.jupiter.api.Test;
+import pp.muza.complex.impl.BaseComplex;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComplexArithmeticTest {
+
+    private static final double EPSILON = 1e-12;
+
+    @Test
+    void mulAndDiv() {
+        Complex a = Complex.of(1, 2);
+        Complex b = Complex.of(3, -4);
+        assertEquals(Complex.mul(a, b), Complex.of(11, 2));
+        assertEquals(Complex.div(Complex.of(11, 2), b), Complex.of(1, 2));
+        assertEquals(Complex.mul(Complex.of(0, 1), Complex.of(0, 1)), Complex.of(-1, 0));
+        assertEquals(Complex.div(Complex.ONE, Complex.of(0, 2)), Complex.of(0, -0.5));
+
+        Complex c = Complex.of(1, 2);
+        int version = c.getVersion();
+        c.mul(b);
+        assertEquals(c, Complex.of(11, 2));
+        c.div(b);
+        assertEquals(c, a);
+        // every in-place operation is one change
+        assertEquals(c.getVersion(), version + 2);
+
+        Complex d = Complex.of(1, 2);
+        Complex.mul(d, d, d);
+        assertEquals(d, Complex.of(-3, 4));
+        Complex.div(d, d, d);
+        assertEquals(d, Complex.ONE);
+    }
+
+    @Test
+    void mulAndDivDoNotOverflow() {
+        double big = 1e300;
+        assertTrue(Complex.mul(Complex.of(big, big), Complex.of(1e-300, -1e-300)).equals(Complex.of(2, 0), EPSILON));
+        assertEquals(Complex.mul(Complex.of(big, big), Complex.of(big, big)), Complex.of(0, Double.POSITIVE_INFINITY));
+        assertTrue(Complex.div(Complex.of(big, big), Complex.of(big, -big)).equals(Complex.of(0, 1), EPSILON));
+        assertTrue(Complex.div(Complex.of(1e-300, 2e-300), Complex.of(3e-300, -4e-300)).equals(Complex.of(-0.2, 0.4), EPSILON));
+        assertTrue(Complex.div(Complex.ONE, Complex.of(1e-300, 1e-300)).equals(Complex.of(0.5e300, -0.5e300), 1e288));
+        // dividends near the largest double
+        assertTrue(Complex.div(Complex.of(Double.MAX_VALUE, 0), Complex.of(1.5, 0))
+                .equals(Complex.of(Double.MAX_VALUE / 1.5, 0), 1e293));
+        assertTrue(Complex.div(Complex.of(Double.MAX_VALUE, Double.MAX_VALUE), Complex.of(2, 2))
+                .equals(Complex.of(Double.MAX_VALUE / 2, 0), 1e293));
+        // subnormal divisors
+        assertEquals(Complex.div(Complex.of(0x1p-1000, 0), Complex.of(Double.MIN_VALUE, 0)), Complex.of(0x1p74, 0));
+        assertEquals(Complex.div(Complex.of(0, Double.MIN_VALUE), Complex.of(Double.MIN_VALUE, Double.MIN_VALUE)),
+                Complex.of(0.5, 0.5));
+        assertEquals(Complex.div(Complex.of(0x1p-100, 0x1p-101), Complex.of(0x1p-1070, 0)), Complex.of(0x1p970, 0x1p969));
+        // zero divisors
+        assertEquals(Complex.div(Complex.ONE, Complex.ZERO), Complex.of(Double.POSITIVE_INFINITY, 0));
+        assertEquals(Complex.div(Complex.of(-1, 2), Complex.of(-0.0, 0)),
+                Complex.of(Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY));
+        assertTrue(Complex.div(Complex.ZERO, Complex.ZERO).isNaN());
+        assertTrue(Complex.div(Complex.of(Double.NaN, 1), Complex.ZERO).isNaN());
+        // infinite divisors
+        assertTrue(Complex.div(Complex.of(1, 2), Complex.of(Double.POSITIVE_INFINITY, 0)).equals(Complex.of(0, 0), 0.0));
+        assertTrue(Complex.div(Complex.of(1, 2), Complex.of(3, Double.NEGATIVE_INFINITY)).equals(Complex.of(0, 0), 0.0));
+        assertTrue(Complex.div(Complex.of(Double.POSITIVE_INFINITY, 0), Complex.of(Double.POSITIVE_INFINITY, 0)).isNaN());
+    }
+
+    @Test
+    void conjExpAndLog() {
+        assertEquals(Complex.conj(Complex.of(1, 2)), Complex.of(1, -2));
+        assertTrue(Complex.exp(Complex.of(0, Math.PI)).equals(Complex.of(-1, 0), EPSILON));
+        assertTrue(Complex.exp(Complex.of(1, Math.PI / 2)).equals(Complex.of(0, Math.E), EPSILON));
+        assertEquals(Complex.exp(Complex.of(1000, 0)), Complex.of(Double.POSITIVE_INFINITY, 0));
+        assertTrue(Complex.log(Complex.of(-1, 0)).equals(Complex.of(0, Math.PI), EPSILON));
+        assertTrue(Complex.log(Complex.of(1e300, 1e300)).equals(Complex.of(Math.log(1e300) + 0.5 * Math.log(2), Math.PI / 4), EPSILON));
+        assertTrue(Complex.log(Complex.of(1e-320, 0)).equals(Complex.of(Math.log(1e-320), 0), EPSILON));
+
+        Complex z = Complex.of(0.5, -2);
+        Complex w = z.copy();
+        w.log();
+        w.exp();
+        assertTrue(w.equals(z, EPSILON));
+        w.conj();
+        assertEquals(w.getValue(1), -z.getValue(1), EPSILON);
+    }
+
+    @Test
+    void pow() {
+        Complex i = Complex.of(0, 1);
+        assertEquals(Complex.pow(i, 2), Complex.of(-1, 0));
+        assertEquals(Complex.pow(Complex.of(1, 1), 8), Complex.of(16, 0));
+        assertEquals(Complex.pow(Complex.of(3, 4), 0), Complex.ONE);
+        assertEquals(Complex.pow(Complex.of(0, 2), -2), Complex.of(-0.25, -0.0));
+        assertTrue(Complex.pow(Complex.of(-4, 0), 0.5).equals(Complex.of(0, 2), EPSILON));
+        assertTrue(Complex.pow(Complex.of(1, 1), 100).equals(Complex.of(-Math.pow(2, 50), 0), Math.pow(2, 50) * EPSILON));
+
+        // real bases and values near the limits of double
+        assertEquals(Complex.pow(Complex.of(1e-200, 0), -2), Complex.of(Double.POSITIVE_INFINITY, 0));
+        assertEquals(Complex.pow(Complex.of(1e155, 0), 2), Complex.of(Double.POSITIVE_INFINITY, 0));
+        assertEquals(Complex.pow(Complex.of(0, 0), -1), Complex.of(Double.POSITIVE_INFINITY, 0));
+        assertEquals(Complex.pow(Complex.of(-2, 0), -3), Complex.of(-0.125, 0));
+        assertEquals(Complex.pow(Complex.of(1e155, 1e155), 2), Complex.of(0, Double.POSITIVE_INFINITY));
+        assertEquals(Complex.pow(Complex.of(1e-200, 1e-200), -2), Complex.of(0, Double.NEGATIVE_INFINITY));
+        assertTrue(Complex.pow(Complex.of(1e100, 1e100), 3).equals(Complex.of(-2e300, 2e300), 2e300 * EPSILON));
+        assertTrue(Complex.pow(Complex.of(1e-100, -1e-100), -3).equals(Complex.of(-0.25e300, 0.25e300), 0.25e300 * EPSILON));
+        assertEquals(Complex.pow(Complex.of(0x1p-1074, 0x1p-1074), 2), Complex.of(0, 0));
+        assertEquals(Complex.pow(Complex.of(0x1p-510, 0x1p-510), -2), Complex.of(0, -0x1p1019));
+
+        // i^i = exp(-pi / 2)
+        assertTrue(Complex.pow(i, i).equals(Complex.of(Math.exp(-Math.PI / 2), 0), EPSILON));
+        assertTrue(Complex.pow(Complex.of(2, 0), Complex.of(3, 0)).equals(Complex.of(8, 0), EPSILON));
+        assertEquals(Complex.pow(Complex.ZERO, Complex.ZERO), Complex.ONE);
+        assertTrue(Complex.pow(Complex.ZERO, i).isNaN());
+        assertEquals(Complex.pow(Complex.ZERO, Complex.of(2, 1)), Complex.of(0, 0));
+        assertEquals(Complex.pow(Complex.ZERO, Complex.of(-2, 1)), Complex.of(Double.POSITIVE_INFINITY, 0));
+        // a real exponent gives the same as the real overload
+        for (double p : new double[]{-1, -0.5, 0, 0.5, 2}) {
+            assertEquals(Complex.pow(Complex.ZERO, Complex.of(p, 0)), Complex.pow(Complex.ZERO, p));
+        }
+        assertEquals(Complex.pow(Complex.ZERO, Complex.of(-1, 0)), Complex.of(Double.POSITIVE_INFINITY, 0));
+        assertEquals(Complex.pow(Complex.ZERO, -0.5), Complex.of(Double.POSITIVE_INFINITY, 0));
+
+        Complex z = Complex.of(1, 2);
+        z.pow(3);
+        assertEquals(z, Complex.of(-11, -2));
+        z.pow(Complex.of(1, 0));
+        assertTrue(z.equals(Complex.of(-11, -2), EPSILON));
+    }
+
+    @Test
+    void hornerDoesNotAllocateIntermediates() {
+        // p(z) = z^3 - 2z + 5 evaluated at 1 + i
+        Complex[] coefficients = {Complex.of(1, 0), Complex.of(0, 0), Complex.of(-2, 0), Complex.of(5, 0)};
+        Complex z = Complex.of(1, 1);
+        Complex acc = Complex.of(0, 0);
+        for (Complex c : coefficients) {
+            acc.mul(z);
+            acc.change(c);
+        }
+        assertEquals(acc, Complex.of(1, 0));
+    }
+
+    @Test
+    void onlyFor2D() {
+        Complex a = Complex.of(1, 2);
+        Complex a3 = new BaseComplex(1, 2, 3);
+        assertThrowsExactly(IllegalArgumentException.class, () -> Complex.mul(a3, a));
+        assertThrowsExactly(IllegalArgumentException.class, () -> Complex.div(a, a, a3));
+        assertThrowsExactly(IllegalArgumentException.class, () -> Complex.conj(a3));
+        assertThrowsExactly(IllegalArgumentException.class, a3::exp);
+        assertThrowsExactly(UnsupportedOperationException.class, () -> Complex.ONE.mul(a));
+    }
+}
@@ -0,0 +1,194 @@
+package pp.muza.complex;
+
+import org.junit.jupiter.api.Test;
+import pp.muza.complex.bulk.ComplexArray;
+import pp.muza.complex.bulk.ComplexBuffer;
+import pp.muza.complex.bulk.ComplexStorage;
+import pp.muza.complex.bulk.FloatComplexArray;
+import pp.muza.complex.impl.BaseComplex;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComplexArrayTest {
+
+    private static ComplexArray sample() {
+        return ComplexArray.of(3, new BaseComplex(1, 2, 3), new BaseComplex(0, 0, 0), new BaseComplex(-4, 5, 6));
+    }
+
+    @Test
+    void getAndSet() {
+        ComplexArray array = sample();
+        assertEquals(array.size(), 3);
+        assertEquals(array.getDimension(), 3);
+        assertArrayEquals(array.get(2), new double[]{-4, 5, 6});
+        array.set(1, 7, 8);
+        assertArrayEquals(array.get(1), new double[]{7, 8, 0});
+        assertEquals(array.getValue(1, 5), 0.0);
+        assertThrowsExactly(IllegalArgumentException.class, () -> array.set(0, 1, 2, 3, 4));
+    }
+
+    @Test
+    void change() {
+        ComplexArray array = sample();
+        array.change(Complex.of(1, 1, 1));
+        assertArrayEquals(array.get(0), new double[]{2, 3, 4});
+        array.dec(sample());
+        assertArrayEquals(array.get(2), new double[]{1, 1, 1});
+        array.change(0, 1, 2, 3);
+        assertArrayEquals(array.get(0), new double[]{2, 3, 4});
+        array.dec(0, Complex.of(1, 1));
+        assertArrayEquals(array.get(0), new double[]{1, 2, 4});
+    }
+
+    @Test
+    void scale() {
+        ComplexArray array = sample();
+        array.scale(2);
+        assertArrayEquals(array.get(2), new double[]{-8, 10, 12});
+        array.scale(0, 0.5);
+        assertArrayEquals(array.get(0), new double[]{1, 2, 3});
+    }
+
+    @Test
+    void normalize() {
+        ComplexArray array = sample();
+        array.normalize();
+        for (int i = 0; i < array.size(); i++) {
+            Complex expected = new BaseComplex(sample().get(i));
+            expected.normalize();
+            assertArrayEquals(array.get(i), expected.get());
+        }
+        assertTrue(array.view(1).isZero());
+    }
+
+    @Test
+    void squareModuleAndDot() {
+        ComplexArray array = sample();
+        double[] out = new double[array.size()];
+        array.squareModule(out);
+        assertArrayEquals(out, new double[]{14, 0, 77});
+        assertEquals(array.squareModule(2), 77);
+
+        Complex complex = Complex.of(1, 2);
+        array.dot(complex, out);
+        assertArrayEquals(out, new double[]{5, 0, 6});
+        assertEquals(array.dot(0, complex), Complex.dot(new BaseComplex(1, 2, 3), complex));
+
+        array.dot(sample(), out);
+        assertArrayEquals(out, new double[]{14, 0, 77});
+    }
+
+    @Test
+    void view() {
+        ComplexArray array = sample();
+        Complex view = array.view(0);
+        assertEquals(view, new BaseComplex(1, 2, 3));
+        assertEquals(view.hashCode(), new BaseComplex(1, 2, 3).hashCode());
+
+        int version = array.getVersion();
+        view.change(1, 1, 1);
+        assertArrayEquals(array.get(0), new double[]{2, 3, 4});
+        assertTrue(array.getVersion() > version);
+
+        view.setNull();
+        assertTrue(view.isNull());
+        assertTrue(array.view(0).isZero());
+        array.change(0, 1, 0, 0);
+        assertFalse(view.isNull());
+        assertTrue(view.isNormalized());
+
+        Complex copy = view.copy();
+        view.scale(3);
+        assertArrayEquals(copy.get(), new double[]{1, 0, 0});
+        assertThrowsExactly(IndexOutOfBoundsException.class, () -> array.view(3));
+    }
+
+    @Test
+    void viewWritesInOneChange() {
+        ComplexStorage[] storages = {sample(), ComplexBuffer.allocateDirect(3, 3), new FloatComplexArray(3, 3)};
+        for (ComplexStorage storage : storages) {
+            Complex view = storage.view(2);
+            int version = storage.getVersion();
+            view.set(1, 2);
+            assertEquals(storage.getVersion(), version + 1);
+            assertArrayEquals(storage.get(2), new double[]{1, 2, 0});
+        }
+        storages = new ComplexStorage[]{new ComplexArray(1, 2), ComplexBuffer.allocateDirect(1, 2), new FloatComplexArray(1, 2)};
+        for (ComplexStorage storage : storages) {
+            int version = storage.getVersion();
+            Complex.mul(Complex.of(1, 2), Complex.of(0, 1), storage.view(0));
+            assertEquals(storage.getVersion(), version + 1);
+            assertArrayEquals(storage.get(0), new double[]{-2, 1});
+        }
+        assertThrowsExactly(IllegalArgumentException.class, () -> new ComplexArray(1, 1).set(0, 1.0, 2.0));
+    }
+
+    @Test
+    void squareDistanceAndNearest() {
+        ComplexArray array = sample();
+        double[] out = new double[array.size()];
+        Complex complex = Complex.of(1, 2);
+        array.squareDistance(complex, out);
+        assertArrayEquals(out, new double[]{9, 5, 70});
+        assertEquals(array.squareDistance(2, complex), Complex.squareDistance(new BaseComplex(-4, 5, 6), complex));
+        assertEquals(array.nearest(complex), 1);
+        assertEquals(array.nearest(Complex.of(-4, 5, 7)), 2);
+        assertEquals(new ComplexArray(0, 3).nearest(complex), -1);
+        assertThrowsExactly(IllegalArgumentException.class, () -> new ComplexArray(4, 2).nearest(Complex.of(1, 2, 3)));
+    }
+
+    /**
+     * The bulk loops must give exactly the same results as the operations on single vectors,
+     * the sizes are not multiples of the vector register length.
+     */
+    @Test
+    void bulkSameAsSingle() {
+        Random random = new Random(42);
+        for (int dimension : new int[]{1, 2, 3, 5}) {
+            for (int size : new int[]{1, 7, 37, 1000}) {
+                ComplexArray array = new ComplexArray(size, dimension);
+                Complex[] vectors = new Complex[size];
+                for (int i = 0; i < size; i++) {
+                    double[] values = new double[dimension];
+                    for (int d = 0; d < dimension; d++) {
+                        values[d] = random.nextGaussian();
+                    }
+                    array.set(i, values);
+                    vectors[i] = new BaseComplex(values);
+                }
+                array.set(size / 2, new double[dimension]);
+                vectors[size / 2] = new BaseComplex(new double[dimension]);
+                double[] q = new double[dimension];
+                for (int d = 0; d < dimension; d++) {
+                    q[d] = random.nextGaussian();
+                }
+                Complex query = new BaseComplex(q);
+
+                double[] squareModule = new double[size];
+                double[] dot = new double[size];
+                double[] squareDistance = new double[size];
+                array.squareModule(squareModule);
+                array.dot(query, dot);
+                array.squareDistance(query, squareDistance);
+                int nearest = 0;
+                for (int i = 0; i < size; i++) {
+                    assertEquals(squareModule[i], vectors[i].squareModule());
+                    assertEquals(dot[i], Complex.dot(vectors[i], query));
+                    assertEquals(squareDistance[i], Complex.squareDistance(vectors[i], query));
+                    if (squareDistance[i] < squareDistance[nearest]) {
+                        nearest = i;
+                    }
+                }
+                assertEquals(array.nearest(query), nearest);
+
+                array.normalize();
+                for (int i = 0; i < size; i++) {
+                    vectors[i].normalize();
+                    assertArrayEquals(array.get(i), vectors[i].get());
+                }
+            }
+        }
+    }
+}
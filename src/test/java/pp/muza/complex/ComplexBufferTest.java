@@ -0,0 +1,105 @@
+package pp.muza.complex;
+
+import org.junit.jupiter.api.Test;
+import pp.muza.complex.bulk.ComplexArray;
+import pp.muza.complex.bulk.ComplexBuffer;
+import pp.muza.complex.bulk.ComplexStorage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComplexBufferTest {
+
+    private static void fill(ComplexStorage storage) {
+        for (int i = 0; i < storage.size(); i++) {
+            storage.setValue(i, 0, i);
+            storage.setValue(i, 1, -2.0 * i);
+            if (storage.getDimension() > 2) {
+                storage.setValue(i, 2, i % 3);
+            }
+        }
+    }
+
+    @Test
+    void sameAsComplexArray() {
+        ComplexBuffer buffer = ComplexBuffer.allocateDirect(10, 3);
+        ComplexArray array = new ComplexArray(10, 3);
+        fill(buffer);
+        fill(array);
+        Complex delta = Complex.of(0.5, 1, -1);
+
+        buffer.change(delta);
+        array.change(delta);
+        buffer.dec(3, 1, 1, 1);
+        array.dec(3, 1, 1, 1);
+        buffer.scale(1.5);
+        array.scale(1.5);
+        buffer.normalize(5);
+        array.normalize(5);
+        for (int i = 0; i < buffer.size(); i++) {
+            assertArrayEquals(buffer.get(i), array.get(i));
+        }
+
+        double[] expected = new double[10];
+        double[] actual = new double[10];
+        buffer.squareModule(actual);
+        array.squareModule(expected);
+        assertArrayEquals(actual, expected);
+        buffer.dot(delta, actual);
+        array.dot(delta, expected);
+        assertArrayEquals(actual, expected);
+
+        buffer.normalize();
+        array.normalize();
+        for (int i = 0; i < buffer.size(); i++) {
+            assertEquals(buffer.view(i), array.view(i));
+        }
+    }
+
+    @Test
+    void view() {
+        ComplexBuffer buffer = ComplexBuffer.allocateDirect(2, 2);
+        Complex view = buffer.view(1);
+        view.set(3, 4);
+        assertEquals(buffer.squareModule(1), 25.0);
+        view.rotate(Complex.ANGLE_90);
+        assertTrue(buffer.copy(1).equals(Complex.of(-4, 3), 1e-15));
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.getValue(2, 0));
+    }
+
+    @Test
+    void mappedFile() throws IOException {
+        Path file = Files.createTempFile("complex", ".bin");
+        try {
+            ComplexBuffer buffer = ComplexBuffer.create(file, 4, 2);
+            fill(buffer);
+            buffer.force();
+            assertEquals(Files.size(file), 4 * 2 * Double.BYTES);
+
+            ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+            assertEquals(bytes.getDouble(2 * 2 * Double.BYTES), 2.0);
+            assertEquals(bytes.getDouble(2 * 2 * Double.BYTES + Double.BYTES), -4.0);
+
+            ComplexBuffer mapped = ComplexBuffer.map(file, 2, FileChannel.MapMode.READ_ONLY);
+            assertEquals(mapped.size(), 4);
+            assertEquals(mapped.view(3), Complex.of(3, -6));
+
+            // the changes of a private mapping are not written to the file
+            byte[] content = Files.readAllBytes(file);
+            ComplexBuffer copy = ComplexBuffer.map(file, 2, FileChannel.MapMode.PRIVATE);
+            copy.set(3, 7, 8);
+            copy.force();
+            assertEquals(copy.view(3), Complex.of(7, 8));
+            assertArrayEquals(Files.readAllBytes(file), content);
+            assertEquals(ComplexBuffer.map(file, 2, FileChannel.MapMode.READ_ONLY).view(3), Complex.of(3, -6));
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package pp.muza.complex;
+
+import org.junit.jupiter.api.Test;
+import pp.muza.complex.concurrent.ComplexCollectors;
+import pp.muza.complex.concurrent.ComplexReductions;
+import pp.muza.complex.concurrent.ComplexSummaryStatistics;
+import pp.muza.complex.impl.BoundingBox;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComplexCollectorsTest {
+
+    @Test
+    void sameAsReductions() {
+        List<Complex> values = ComplexReductionsTest.values(100_000);
+        ComplexReductions reductions = ComplexReductions.getDefault();
+        Complex sum = reductions.sum(values);
+        BoundingBox box = reductions.boundingBox(values);
+        for (boolean parallel : new boolean[]{false, true}) {
+            Stream<Complex> stream = parallel ? values.parallelStream() : values.stream();
+            assertEquals(stream.collect(ComplexCollectors.sum()), sum);
+            stream = parallel ? values.parallelStream() : values.stream();
+            assertTrue(stream.collect(ComplexCollectors.centroid()).equals(reductions.centroid(values), 1e-9));
+            stream = parallel ? values.parallelStream() : values.stream();
+            assertEquals(stream.collect(ComplexCollectors.boundingBox()), box);
+        }
+    }
+
+    @Test
+    void weightedMean() {
+        List<Complex> values = List.of(Complex.of(0, 0), Complex.of(4, 8), Complex.of(2, 2));
+        Complex mean = values.stream().collect(ComplexCollectors.weightedMean(c -> c.getValue(0)));
+        // (4 * (4, 8) + 2 * (2, 2)) / 6
+        assertTrue(mean.equals(Complex.of(20.0 / 6, 36.0 / 6), 1e-12));
+        assertEquals(values.stream().collect(ComplexCollectors.weightedMean(c -> 1.0)),
+                values.stream().collect(ComplexCollectors.centroid()));
+        assertThrowsExactly(IllegalArgumentException.class,
+                () -> values.stream().collect(ComplexCollectors.weightedMean(c -> 0.0)));
+    }
+
+    @Test
+    void mixedDimensions() {
+        List<Complex> values = List.of(Complex.of(1, 2), Complex.of(-1, 0, 3), Complex.of(5, 1));
+        assertEquals(values.stream().collect(ComplexCollectors.sum()), Complex.of(5, 3, 3));
+        BoundingBox box = values.stream().collect(ComplexCollectors.boundingBox());
+        assertEquals(box, new BoundingBox(new double[]{-1, 0, 0}, new double[]{5, 2, 3}));
+        ComplexSummaryStatistics statistics = values.stream().collect(ComplexCollectors.summarizing());
+        assertEquals(statistics.getDimension(), 3);
+        assertEquals(statistics.getMean(), Complex.of(5.0 / 3, 1, 1));
+        assertEquals(statistics.getVariance(2), 2.0);
+    }
+
+    @Test
+    void empty() {
+        List<Complex> values = Collections.emptyList();
+        assertThrowsExactly(IllegalArgumentException.class, () -> values.stream().collect(ComplexCollectors.sum()));
+        assertThrowsExactly(IllegalArgumentException.class, () -> values.stream().collect(ComplexCollectors.centroid()));
+        assertThrowsExactly(IllegalArgumentException.class, () -> values.stream().collect(ComplexCollectors.boundingBox()));
+        ComplexSummaryStatistics statistics = values.stream().collect(ComplexCollectors.summarizing());
+        assertEquals(statistics.getCount(), 0L);
+        assertEquals(statistics.getMinModule(), Double.POSITIVE_INFINITY);
+        assertEquals(statistics.getMaxModule(), Double.NEGATIVE_INFINITY);
+        assertThrowsExactly(IllegalArgumentException.class, statistics::getMean);
+    }
+
+    @Test
+    void statistics() {
+        List<Complex> values = ComplexReductionsTest.values(50_000);
+        double[] sum = new double[3];
+        double minModule = Double.POSITIVE_INFINITY;
+        double maxModule = 0.0;
+        for (Complex value : values) {
+            for (int d = 0; d < 3; d++) {
+                sum[d] += value.getValue(d);
+            }
+            minModule = Math.min(minModule, Math.sqrt(value.squareModule()));
+            maxModule = Math.max(maxModule, Math.sqrt(value.squareModule()));
+        }
+        double[] variance = new double[3];
+        for (Complex value : values) {
+            for (int d = 0; d < 3; d++) {
+                double v = value.getValue(d) - sum[d] / values.size();
+                variance[d] += v * v / values.size();
+            }
+        }
+
+        ComplexSummaryStatistics sequential = values.stream().collect(ComplexCollectors.summarizing());
+        ComplexSummaryStatistics parallel = values.parallelStream().collect(ComplexCollectors.summarizing());
+        for (ComplexSummaryStatistics statistics : new ComplexSummaryStatistics[]{sequential, parallel}) {
+            assertEquals(statistics.getCount(), (long) values.size());
+            assertEquals(statistics.getSum(), Complex.of(sum));
+            assertTrue(statistics.getMean().equals(Complex.scale(Complex.of(sum), 1.0 / values.size()), 1e-9));
+            assertTrue(statistics.getVariance().equals(Complex.of(variance), 1e-6));
+            assertEquals(statistics.getVariance(7), 0.0);
+            assertEquals(statistics.getMinModule(), minModule);
+            assertEquals(statistics.getMaxModule(), maxModule);
+        }
+
+        ComplexSummaryStatistics merged = new ComplexSummaryStatistics();
+        values.subList(0, 100).forEach(merged);
+        ComplexSummaryStatistics rest = new ComplexSummaryStatistics();
+        values.subList(100, values.size()).forEach(rest);
+        merged.combine(rest);
+        merged.combine(new ComplexSummaryStatistics());
+        assertTrue(merged.getVariance().equals(sequential.getVariance(), 1e-6));
+    }
+}
@@ -0,0 +1,82 @@
+package pp.muza.complex;
+
+import org.junit.jupiter.api.Test;
+import pp.muza.complex.bulk.ComplexArray;
+import pp.muza.complex.concurrent.ComplexReductions;
+import pp.muza.complex.impl.BoundingBox;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComplexReductionsTest {
+
+    /**
+     * Integer values, so the sums are exact in any order, they are also the inputs of {@link ComplexCollectorsTest}.
+     */
+    static List<Complex> values(int size) {
+        Random random = new Random(42);
+        List<Complex> res = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            res.add(Complex.of(random.nextInt(2001) - 1000, random.nextInt(2001) - 1000, random.nextInt(100)));
+        }
+        return res;
+    }
+
+    @Test
+    void sameAsSequential() {
+        List<Complex> values = values(10_000);
+        Complex sum = Complex.of(0, 0, 0);
+        double squareModule = 0.0;
+        double maxModule = 0.0;
+        for (Complex value : values) {
+            sum.change(value);
+            squareModule += value.squareModule();
+            maxModule = Math.max(maxModule, Math.sqrt(value.squareModule()));
+        }
+
+        ComplexReductions sequential = new ComplexReductions(Integer.MAX_VALUE);
+        ComplexReductions parallel = new ComplexReductions(100);
+        ComplexArray array = ComplexArray.of(3, values);
+        Complex[] arrayValues = values.toArray(new Complex[0]);
+        for (ComplexReductions reductions : new ComplexReductions[]{sequential, parallel}) {
+            assertEquals(reductions.sum(values), sum);
+            assertEquals(reductions.sum(arrayValues), sum);
+            assertEquals(reductions.sum(array), sum);
+            assertEquals(reductions.sum(new HashSet<>(values)).getDimension(), 3);
+            assertEquals(reductions.squareModule(values), squareModule);
+            assertEquals(reductions.squareModule(array), squareModule);
+            assertEquals(reductions.maxModule(arrayValues), maxModule);
+            assertEquals(reductions.maxModule(array), maxModule);
+            assertTrue(reductions.centroid(values).equals(Complex.scale(sum, 1.0 / values.size()), 1e-12));
+            assertEquals(reductions.boundingBox(array), sequential.boundingBox(values));
+        }
+    }
+
+    @Test
+    void boundingBox() {
+        List<Complex> values = Arrays.asList(Complex.of(1, 2), Complex.of(-3, 5, 1), Complex.of(0, -1));
+        BoundingBox box = ComplexReductions.getDefault().boundingBox(values);
+        assertEquals(box.getDimension(), 3);
+        assertEquals(box.getMin(), Complex.of(-3, -1, 0));
+        assertEquals(box.getMax(), Complex.of(1, 5, 1));
+        assertTrue(box.contains(Complex.of(0, 0)));
+        assertFalse(box.contains(Complex.of(0, 0, 2)));
+        assertEquals(box.getCenter(), Complex.of(-1, 2, 0.5));
+        assertEquals(box.union(BoundingBox.of(Complex.of(2, 2))).getMax(), Complex.of(2, 5, 1));
+    }
+
+    @Test
+    void empty() {
+        ComplexReductions reductions = ComplexReductions.getDefault();
+        assertEquals(reductions.maxModule(new Complex[0]), 0.0);
+        assertEquals(reductions.squareModule(new ArrayList<>()), 0.0);
+        assertThrowsExactly(IllegalArgumentException.class, () -> reductions.sum(new Complex[0]));
+        assertThrowsExactly(IllegalArgumentException.class, () -> reductions.centroid(new ComplexArray(0, 2)));
+        assertThrowsExactly(IllegalArgumentException.class, () -> new ComplexReductions(0));
+    }
+}
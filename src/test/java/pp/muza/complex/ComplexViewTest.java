@@ -0,0 +1,114 @@
+package pp.muza.complex;
+
+import org.junit.jupiter.api.Test;
+import pp.muza.complex.impl.BaseComplex;
+import pp.muza.complex.impl.ComplexView;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComplexViewTest {
+
+    @Test
+    void readsAndWritesInPlace() {
+        double[] buffer = {9, 3, 4, 1, 2, 9};
+        ComplexView view = new ComplexView(buffer, 1, 2);
+        assertEquals(view, Complex.of(3, 4));
+        assertEquals(view.hashCode(), new BaseComplex(3, 4).hashCode());
+        assertEquals(view.squareModule(), 25.0);
+        assertEquals(view.getValue(2), 0.0);
+
+        view.scale(2);
+        assertArrayEquals(buffer, new double[]{9, 6, 8, 1, 2, 9});
+        view.set(1);
+        assertArrayEquals(buffer, new double[]{9, 1, 0, 1, 2, 9});
+        view.rotate(Complex.ANGLE_90);
+        assertTrue(view.equals(Complex.of(0, 1), 1e-15));
+        view.setValue(0, 5);
+        assertEquals(buffer[1], 5.0);
+        assertThrowsExactly(IllegalArgumentException.class, () -> view.setValue(2, 1));
+        assertThrowsExactly(IllegalArgumentException.class, () -> view.set(1, 2, 3));
+    }
+
+    @Test
+    void moveTo() {
+        double[] buffer = {3, 4, 0, 0, 1, 0};
+        ComplexView view = new ComplexView(buffer, 0, 2);
+        assertFalse(view.isNormalized());
+        int version = view.getVersion();
+
+        view.moveTo(4);
+        assertEquals(view.getOffset(), 4);
+        assertTrue(view.getVersion() > version);
+        assertTrue(view.isNormalized());
+        assertEquals(view.squareModule(), 1.0);
+
+        view.moveTo(2);
+        view.setNull();
+        assertTrue(view.isNull());
+        view.moveTo(2);
+        assertFalse(view.isNull());
+        assertTrue(view.isZero());
+
+        double[] other = {1, 1};
+        view.moveTo(other, 0);
+        assertSame(view.getBacking(), other);
+        assertEquals(view.squareModule(), 2.0);
+
+        assertThrowsExactly(IndexOutOfBoundsException.class, () -> view.moveTo(1));
+        assertThrowsExactly(IndexOutOfBoundsException.class, () -> view.moveTo(-1));
+        assertThrowsExactly(IndexOutOfBoundsException.class, () -> new ComplexView(buffer, 5, 2));
+    }
+
+    @Test
+    void bookkeeping() {
+        double[] buffer = new double[3];
+        ComplexView view = new ComplexView(buffer, 0, 3);
+        view.set(0, 3, 4);
+        view.normalize();
+        assertTrue(view.isNormalized());
+        assertArrayEquals(buffer, new double[]{0, 0.6, 0.8});
+
+        view.setUnassigned();
+        assertTrue(view.isUnassigned());
+        assertTrue(Double.isNaN(buffer[2]));
+        view.change(1, 1, 1);
+        assertTrue(view.isNaN());
+
+        view.setNull();
+        Complex copy = view.copy();
+        view.change(1, 2, 3);
+        assertEquals(copy, Complex.of(0, 0, 0));
+        assertFalse(copy instanceof ComplexView);
+        assertEquals(view.toString(), "(1.0, 2.0, 3.0)");
+    }
+
+    @Test
+    void staticHelpers() {
+        double[] buffer = {1, 2, 3, 4, 0, 0};
+        ComplexView a = new ComplexView(buffer, 0, 2);
+        ComplexView b = new ComplexView(buffer, 2, 2);
+        ComplexView out = new ComplexView(buffer, 4, 2);
+        Complex.add(a, b, out);
+        assertArrayEquals(buffer, new double[]{1, 2, 3, 4, 4, 6});
+        Complex.mul(a, b, out);
+        assertEquals(out, Complex.of(-5, 10));
+        assertEquals(Complex.dot(a, b), 11.0);
+    }
+
+    @Test
+    void overlappingViews() {
+        double[] buffer = {1, 2, 3};
+        new ComplexView(buffer, 1, 2).set(new ComplexView(buffer, 0, 2));
+        assertArrayEquals(buffer, new double[]{1, 1, 2});
+        new ComplexView(buffer, 0, 2).set(new ComplexView(buffer, 1, 2));
+        assertArrayEquals(buffer, new double[]{1, 2, 2});
+
+        buffer = new double[]{1, 2, 3};
+        new ComplexView(buffer, 1, 2).change(new ComplexView(buffer, 0, 2));
+        assertArrayEquals(buffer, new double[]{1, 3, 5});
+        new ComplexView(buffer, 0, 2).dec(new ComplexView(buffer, 1, 2));
+        assertArrayEquals(buffer, new double[]{-2, -2, 5});
+        new ComplexView(buffer, 1, 2).dec(new ComplexView(buffer, 0, 2));
+        assertArrayEquals(buffer, new double[]{-2, 0, 7});
+    }
+}
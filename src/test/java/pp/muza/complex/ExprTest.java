@@ -0,0 +1,124 @@
+package pp.muza.complex;
+
+import org.junit.jupiter.api.Test;
+import pp.muza.complex.bulk.ComplexArray;
+import pp.muza.complex.bulk.ComplexBuffer;
+import pp.muza.complex.expr.Expr;
+import pp.muza.complex.expr.Program;
+import pp.muza.complex.impl.BaseComplex;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExprTest {
+
+    private static final Expr A = Expr.input(0);
+    private static final Expr B = Expr.input(1);
+    private static final Expr C = Expr.input(2);
+
+    @Test
+    void sameAsStaticMethods() {
+        Complex a = Complex.of(1, 2);
+        Complex b = Complex.of(3, -4);
+        Complex c = Complex.of(0.5, 0.25);
+        Program program = Expr.add(Expr.scale(A, 2), Expr.sub(B, C)).compile(2);
+        assertEquals(program.getInputCount(), 3);
+        assertEquals(program.getInstructionCount(), 3);
+
+        Complex out = Complex.of(0, 0);
+        assertSame(program.evaluate(out, a, b, c), out);
+        assertEquals(out, Complex.add(Complex.scale(a, 2), Complex.sub(b, c)));
+
+        Expr complex = Expr.rotate(Expr.div(Expr.mul(A, Expr.conj(B)), Expr.constant(Complex.of(0, 2))), 0.3);
+        Complex expected = Complex.rotate(Complex.div(Complex.mul(a, Complex.conj(b)), Complex.of(0, 2)), 0.3);
+        assertEquals(complex.compile(2).evaluate(Complex.of(0, 0), a, b), expected);
+
+        // the destination may be an input
+        program.evaluate(a, a, b, c);
+        assertEquals(a, out);
+        assertEquals(B.compile(2).evaluate(Complex.of(0, 0), a, b), b);
+    }
+
+    @Test
+    void commonSubexpressions() {
+        Expr sum = Expr.add(A, B);
+        Expr squared = Expr.mul(Expr.add(A, B), Expr.add(A, B));
+        Expr expr = Expr.sub(squared, Expr.scale(sum, 2));
+        assertEquals(Expr.add(A, B), sum);
+        assertEquals(Expr.add(A, B).hashCode(), sum.hashCode());
+        assertNotEquals(Expr.add(B, A), sum);
+
+        Program program = expr.compile(2);
+        // add, mul, scale, sub
+        assertEquals(program.getInstructionCount(), 4);
+        Complex a = Complex.of(1, 1);
+        Complex b = Complex.of(2, -3);
+        Complex s = Complex.add(a, b);
+        assertEquals(program.evaluate(Complex.of(0, 0), a, b), Complex.sub(Complex.mul(s, s), Complex.scale(s, 2)));
+        assertEquals(expr.toString(), "sub(mul(add(x0, x1), add(x0, x1)), scale(add(x0, x1), 2.0))");
+        // the same object in several places is printed once
+        assertEquals(Expr.sub(Expr.mul(sum, sum), Expr.scale(sum, 2)).toString(),
+                "sub(mul(t0, t0), scale(t0, 2.0)) where t0 = add(x0, x1)");
+    }
+
+    @Test
+    void deepExpressions() {
+        Expr chain = A;
+        for (int i = 0; i < 20_000; i++) {
+            chain = Expr.add(chain, B);
+        }
+        Program program = chain.compile(2);
+        assertEquals(program.getInputCount(), 2);
+        assertEquals(program.getInstructionCount(), 20_000);
+        assertEquals(program.evaluate(Complex.of(0, 0), Complex.of(1, 0), Complex.of(0, 1)), Complex.of(1, 20_000));
+        String text = chain.toString();
+        assertTrue(text.startsWith("add(add(add("));
+        assertTrue(text.endsWith("x1), x1)"));
+
+        // separately built trees with 2^200 paths are compared node by node
+        Expr x = A;
+        Expr y = Expr.input(0);
+        for (int i = 0; i < 200; i++) {
+            x = Expr.add(x, x);
+            y = Expr.add(y, y);
+        }
+        assertEquals(x, y);
+        assertNotEquals(Expr.add(x, A), Expr.add(y, B));
+        assertEquals(x.compile(2).getInstructionCount(), 200);
+        assertTrue(x.toString().startsWith("add(t198, t198) where t0 = add(x0, x0), t1 = add(t0, t0)"));
+    }
+
+    @Test
+    void elementWise() {
+        int size = 100;
+        ComplexArray xs = new ComplexArray(size, 3);
+        ComplexBuffer ys = ComplexBuffer.allocateDirect(size, 3);
+        for (int i = 0; i < size; i++) {
+            xs.set(i, i, -i, 0.5 * i);
+            ys.set(i, 1, 2, i);
+        }
+        Expr offset = Expr.constant(new BaseComplex(1, 1, 1));
+        Program program = Expr.add(Expr.sub(A, Expr.scale(B, 3)), offset).compile(3);
+        ComplexArray out = new ComplexArray(size, 3);
+        program.evaluate(out, xs, ys);
+        for (int i = 0; i < size; i++) {
+            Complex expected = Complex.add(Complex.sub(xs.view(i), Complex.scale(ys.view(i), 3)), new BaseComplex(1, 1, 1));
+            assertEquals(out.view(i), expected);
+        }
+        program.evaluate(xs, xs, ys);
+        for (int i = 0; i < size; i++) {
+            assertEquals(xs.view(i), out.view(i));
+        }
+        assertThrowsExactly(IllegalArgumentException.class, () -> program.evaluate(out, xs, new ComplexArray(size + 1, 3)));
+        assertThrowsExactly(IllegalArgumentException.class, () -> program.evaluate(out, xs));
+    }
+
+    @Test
+    void illegalDimensions() {
+        assertThrowsExactly(IllegalArgumentException.class, () -> Expr.mul(A, B).compile(3));
+        assertThrowsExactly(IllegalArgumentException.class, () -> Expr.add(A, Expr.constant(Complex.of(1, 2))).compile(3));
+        Program program = Expr.add(A, B).compile(2);
+        assertThrowsExactly(IllegalArgumentException.class,
+                () -> program.evaluate(Complex.of(0, 0), Complex.of(1, 2), new BaseComplex(1, 2, 3)));
+        assertThrowsExactly(IllegalArgumentException.class, () -> Expr.input(-1));
+    }
+}
@@ -0,0 +1,220 @@
+package pp.muza.complex;
+
+import org.junit.jupiter.api.Test;
+import pp.muza.complex.fft.Fft;
+
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FftTest {
+
+    private static final int[] SIZES = {1, 2, 3, 4, 5, 8, 12, 16, 17, 64, 100, 1024};
+
+    private static double[][] dft(double[] re, double[] im) {
+        int n = re.length;
+        double[][] res = new double[2][n];
+        for (int k = 0; k < n; k++) {
+            for (int j = 0; j < n; j++) {
+                double angle = -2 * Math.PI * ((long) j * k % n) / n;
+                res[0][k] += re[j] * Math.cos(angle) - im[j] * Math.sin(angle);
+                res[1][k] += re[j] * Math.sin(angle) + im[j] * Math.cos(angle);
+            }
+        }
+        return res;
+    }
+
+    private static double[] random(Random random, int n) {
+        double[] res = new double[n];
+        for (int i = 0; i < n; i++) {
+            res[i] = random.nextDouble() * 2 - 1;
+        }
+        return res;
+    }
+
+    private static void assertClose(double[] actual, double[] expected, int length, double epsilon) {
+        for (int i = 0; i < length; i++) {
+            assertEquals(actual[i], expected[i], epsilon);
+        }
+    }
+
+    @Test
+    void sameAsDft() {
+        Random random = new Random(42);
+        for (int n : SIZES) {
+            double[] re = random(random, n);
+            double[] im = random(random, n);
+            double[][] expected = dft(re, im);
+            double[] interleaved = new double[2 * n];
+            for (int i = 0; i < n; i++) {
+                interleaved[2 * i] = re[i];
+                interleaved[2 * i + 1] = im[i];
+            }
+            Fft fft = Fft.of(n);
+            assertEquals(fft.size(), n);
+            assertSame(Fft.of(n), fft);
+
+            double[] xr = re.clone();
+            double[] xi = im.clone();
+            fft.forward(xr, xi);
+            assertClose(xr, expected[0], n, 1e-9);
+            assertClose(xi, expected[1], n, 1e-9);
+            fft.inverse(xr, xi);
+            assertClose(xr, re, n, 1e-12);
+            assertClose(xi, im, n, 1e-12);
+
+            fft.forward(interleaved);
+            for (int i = 0; i < n; i++) {
+                assertEquals(interleaved[2 * i], expected[0][i], 1e-9);
+                assertEquals(interleaved[2 * i + 1], expected[1][i], 1e-9);
+            }
+        }
+    }
+
+    @Test
+    void realInput() {
+        Random random = new Random(42);
+        for (int n : SIZES) {
+            double[] samples = random(random, n);
+            double[][] expected = dft(samples, new double[n]);
+            double[] re = new double[n / 2 + 1];
+            double[] im = new double[n / 2 + 1];
+            Fft fft = Fft.of(n);
+            fft.realForward(samples, re, im);
+            assertClose(re, expected[0], n / 2 + 1, 1e-9);
+            assertClose(im, expected[1], n / 2 + 1, 1e-9);
+
+            double[] back = new double[n];
+            fft.realInverse(re, im, back);
+            assertClose(back, samples, n, 1e-12);
+        }
+    }
+
+    @Test
+    void complexValues() {
+        Complex[] values = {Complex.of(1, 0), Complex.of(0, 0), Complex.of(0, 0), Complex.of(0, 0)};
+        Fft.of(4).forward(values);
+        for (Complex value : values) {
+            assertEquals(value, Complex.of(1, 0));
+        }
+        Fft.of(4).inverse(values);
+        assertEquals(values[0], Complex.of(1, 0));
+        assertTrue(values[1].isZero());
+
+        Complex[] converted = Fft.toComplex(new double[]{1, 2}, new double[]{3, 4});
+        assertEquals(converted[1], Complex.of(2, 4));
+        assertThrowsExactly(IllegalArgumentException.class, () -> Fft.of(0));
+        assertThrowsExactly(IllegalArgumentException.class, () -> Fft.of(8).forward(new double[8]));
+        Complex[] small = {Complex.of(1, 0), Complex.of(0, 0), Complex.of(0, 0)};
+        assertThrowsExactly(IllegalArgumentException.class, () -> Fft.of(4).forward(small));
+        assertThrowsExactly(IllegalArgumentException.class, () -> Fft.of(4).inverse(small));
+        assertEquals(small[0], Complex.of(1, 0));
+    }
+
+    @Test
+    void splitArrays() {
+        Complex[] values = {Complex.of(1, 2), Complex.of(3, 4)};
+        double[] re = new double[2];
+        double[] im = new double[2];
+        Fft.split(values, re, im);
+        assertArrayEquals(re, new double[]{1, 3});
+        assertArrayEquals(im, new double[]{2, 4});
+        Fft.set(im, re, values);
+        assertEquals(values[1], Complex.of(4, 3));
+
+        assertThrowsExactly(IllegalArgumentException.class, () -> Fft.split(values, new double[1], new double[2]));
+        assertThrowsExactly(IllegalArgumentException.class, () -> Fft.split(values, new double[2], new double[1]));
+        assertThrowsExactly(IllegalArgumentException.class,
+                () -> Fft.split(new Complex[]{Complex.of(1, 2, 3)}, new double[1], new double[1]));
+        assertThrowsExactly(IllegalArgumentException.class, () -> Fft.set(new double[2], new double[1], values));
+        assertThrowsExactly(IllegalArgumentException.class, () -> Fft.set(new double[3], new double[3], values));
+        Complex[] threeD = {Complex.of(1, 2, 3)};
+        assertThrowsExactly(IllegalArgumentException.class, () -> Fft.set(new double[1], new double[1], threeD));
+        assertEquals(threeD[0], Complex.of(1, 2, 3));
+        assertThrowsExactly(IllegalArgumentException.class, () -> Fft.toComplex(new double[2], new double[1]));
+    }
+
+    @Test
+    void cache() {
+        Fft fft = Fft.of(48);
+        assertSame(Fft.of(48), fft);
+        Fft.clearCache();
+        Fft other = Fft.of(48);
+        assertNotSame(other, fft);
+        assertSame(Fft.of(48), other);
+        for (int n = 1; n <= 2 * Fft.CACHE_SIZE; n++) {
+            Fft.of(n);
+        }
+        // the cache is full, the sizes that are not cached are created again
+        assertNotSame(Fft.of(3 * Fft.CACHE_SIZE), Fft.of(3 * Fft.CACHE_SIZE));
+        Fft.clearCache();
+    }
+
+    @Test
+    void parallel() {
+        int n = 1 << 17;
+        double[] re = new double[n];
+        double[] im = new double[n];
+        for (int j = 0; j < n; j++) {
+            re[j] = Math.cos(2 * Math.PI * 5 * j / n);
+        }
+        double[] samples = re.clone();
+        Fft fft = Fft.of(n);
+        fft.forward(re, im);
+        for (int k = 0; k < n; k++) {
+            assertEquals(re[k], k == 5 || k == n - 5 ? n / 2.0 : 0.0, 1e-6);
+            assertEquals(im[k], 0.0, 1e-6);
+        }
+        fft.inverse(re, im);
+        assertClose(re, samples, n, 1e-12);
+    }
+
+    @Test
+    void parallelSameAsDft() {
+        // the threshold of the parallel stages
+        int n = 1 << 16;
+        Random random = new Random(42);
+        double[] re = random(random, n);
+        double[] im = random(random, n);
+        double[] xr = re.clone();
+        double[] xi = im.clone();
+        Fft.of(n).forward(xr, xi);
+        for (int i = 0; i < 16; i++) {
+            int k = i == 0 ? 0 : random.nextInt(n);
+            double sr = 0.0;
+            double si = 0.0;
+            for (int j = 0; j < n; j++) {
+                double angle = -2 * Math.PI * ((long) j * k % n) / n;
+                sr += re[j] * Math.cos(angle) - im[j] * Math.sin(angle);
+                si += re[j] * Math.sin(angle) + im[j] * Math.cos(angle);
+            }
+            assertEquals(xr[k], sr, 1e-8);
+            assertEquals(xi[k], si, 1e-8);
+        }
+    }
+
+    @Test
+    void parallelSameAsSequential() throws ExecutionException, InterruptedException {
+        int n = 1 << 17;
+        Random random = new Random(42);
+        double[] re = random(random, n);
+        double[] im = random(random, n);
+        Fft fft = Fft.of(n);
+        double[] pr = re.clone();
+        double[] pi = im.clone();
+        fft.forward(pr, pi);
+        // the stages run in the pool of the caller, one thread calculates them one chunk after another
+        double[] sr = re.clone();
+        double[] si = im.clone();
+        ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            pool.submit(() -> fft.forward(sr, si)).get();
+        } finally {
+            pool.shutdown();
+        }
+        assertArrayEquals(pr, sr);
+        assertArrayEquals(pi, si);
+    }
+}
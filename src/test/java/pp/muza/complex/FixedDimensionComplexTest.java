@@ -0,0 +1,83 @@
+package pp.muza.complex;
+
+import org.junit.jupiter.api.Test;
+import pp.muza.complex.impl.BaseComplex;
+import pp.muza.complex.impl.Complex2;
+import pp.muza.complex.impl.Complex3;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FixedDimensionComplexTest {
+
+    @Test
+    void factories() {
+        assertEquals(Complex.of(1, 2).getClass(), Complex2.class);
+        assertEquals(Complex.of(1, 2, 3).getClass(), Complex3.class);
+        assertEquals(Complex.of(new double[]{1, 2}).getClass(), Complex2.class);
+        assertEquals(Complex.of(new BaseComplex(1, 2, 3)).getClass(), Complex3.class);
+        assertEquals(Complex.fromPolar(1, Complex.ANGLE_90).getClass(), Complex2.class);
+        assertEquals(Complex.of(1, 2, 3, 4).getClass(), BaseComplex.class);
+    }
+
+    @Test
+    void sameAsBaseComplex() {
+        Complex[] fixed = {new Complex2(3, -4), new Complex3(1, -2, 2)};
+        Complex[] base = {new BaseComplex(3, -4), new BaseComplex(1, -2, 2)};
+        for (int i = 0; i < fixed.length; i++) {
+            Complex a = fixed[i];
+            Complex b = base[i];
+            assertEquals(a, b);
+            assertEquals(b, a);
+            assertEquals(a.hashCode(), b.hashCode());
+            assertEquals(a.toString(), b.toString());
+            assertEquals(a.squareModule(), b.squareModule());
+            assertEquals(a.getValue(5), 0.0);
+            assertThrowsExactly(IllegalArgumentException.class, () -> a.getValue(-1));
+            assertThrowsExactly(IllegalArgumentException.class, () -> a.setValue(3, 1.0));
+
+            a.change(b);
+            b.change(b.copy());
+            assertEquals(a, b);
+            a.scale(0.5);
+            b.scale(0.5);
+            assertEquals(a, b);
+            a.dec(1, 1, 1);
+            b.dec(1, 1, 1);
+            assertEquals(a, b);
+            a.normalize();
+            b.normalize();
+            assertArrayEquals(a.get(), b.get());
+            assertTrue(a.isNormalized());
+
+            a.setUnassigned();
+            assertTrue(a.isUnassigned());
+            a.setNull();
+            assertTrue(a.isNull());
+            assertTrue(a.isZero());
+            a.set(1);
+            assertFalse(a.isNull());
+            assertEquals(a.getValue(0), 1.0);
+            assertEquals(a.getValue(1), 0.0);
+            assertThrowsExactly(IllegalArgumentException.class, () -> a.set(1, 2, 3, 4));
+        }
+    }
+
+    @Test
+    void version() {
+        Complex complex = new Complex2(1, 2);
+        int version = complex.getVersion();
+        complex.setValue(Complex.X, 3);
+        assertEquals(complex.getVersion(), version + 1);
+        Complex copy = complex.copy();
+        assertEquals(copy, complex);
+        assertNotSame(copy, complex);
+    }
+
+    @Test
+    void rotate() {
+        Complex complex = new Complex2(1, 0);
+        complex.rotate(Complex.ANGLE_90);
+        assertTrue(complex.equals(new BaseComplex(0, 1), 1e-15));
+        assertThrowsExactly(IllegalArgumentException.class, () -> new Complex3(1, 0, 0).rotate(Complex.ANGLE_90));
+    }
+}
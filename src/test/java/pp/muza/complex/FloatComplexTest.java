@@ -0,0 +1,125 @@
+package pp.muza.complex;
+
+import org.junit.jupiter.api.Test;
+import pp.muza.complex.bulk.ComplexArray;
+import pp.muza.complex.bulk.FloatComplexArray;
+import pp.muza.complex.impl.BaseComplex;
+import pp.muza.complex.impl.FloatComplex;
+import pp.muza.complex.transform.AffineTransform2;
+import pp.muza.complex.transform.Rotation;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FloatComplexTest {
+
+    @Test
+    void valuesAreRounded() {
+        FloatComplex complex = new FloatComplex(0.1, 2);
+        assertEquals(complex.getValue(0), (double) 0.1f);
+        assertEquals(complex.getValue(1), 2.0);
+        assertEquals(complex.getValue(5), 0.0);
+        assertEquals(complex.toString(), "(0.1, 2.0)");
+        complex.setValue(1, 1e-50);
+        assertEquals(complex.getValue(1), 0.0);
+        assertThrowsExactly(IllegalArgumentException.class, () -> complex.set(1, 2, 3));
+    }
+
+    @Test
+    void sameAsDouble() {
+        FloatComplex complex = new FloatComplex(3, 4);
+        BaseComplex expected = new BaseComplex(3, 4);
+        assertEquals(complex, expected);
+        assertEquals(complex.hashCode(), expected.hashCode());
+        assertEquals(complex.squareModule(), 25.0);
+
+        complex.change(1, 1);
+        complex.scale(0.5);
+        complex.dec(Complex.of(1, 1));
+        assertEquals(complex, Complex.of(1, 1.5));
+        complex.rotate(Complex.ANGLE_90);
+        assertTrue(complex.equals(Complex.of(-1.5, 1), 1e-6));
+
+        assertFalse(complex.isNormalized());
+        complex.normalize();
+        assertTrue(complex.isNormalized());
+        assertTrue(complex.equals(Complex.of(-1.5 / Math.sqrt(3.25), 1 / Math.sqrt(3.25)), 1e-7));
+        Complex copy = complex.copy();
+        assertTrue(copy instanceof FloatComplex);
+        assertEquals(copy, complex);
+    }
+
+    @Test
+    void squareModuleIsWidened() {
+        // the square of 1e20 overflows float
+        FloatComplex complex = new FloatComplex(1e20, 1e20);
+        assertEquals(complex.squareModule(), 2.0 * (double) 1e20f * (double) 1e20f);
+        assertFalse(complex.isInfinity());
+        complex.normalize();
+        assertTrue(complex.equals(Complex.of(Math.sqrt(0.5), Math.sqrt(0.5)), 1e-7));
+    }
+
+    @Test
+    void nullAndUnassigned() {
+        FloatComplex complex = new FloatComplex(2);
+        complex.setNull();
+        assertTrue(complex.isNull());
+        assertTrue(complex.isZero());
+        complex.setUnassigned();
+        assertTrue(complex.isUnassigned());
+        assertTrue(complex.isNaN());
+        complex.set(1, 2);
+        assertFalse(complex.isUnassigned());
+        assertFalse(complex.isNull());
+    }
+
+    @Test
+    void array() {
+        Random random = new Random(42);
+        int size = 100;
+        FloatComplexArray array = new FloatComplexArray(size, 3);
+        ComplexArray expected = new ComplexArray(size, 3);
+        for (int i = 0; i < size; i++) {
+            array.set(i, random.nextDouble(), random.nextDouble(), random.nextDouble());
+            expected.set(i, array.get(i));
+        }
+        Complex query = Complex.of(0.5, 0.25, 0.125);
+        double[] out = new double[size];
+        double[] res = new double[size];
+
+        array.dot(query, out);
+        expected.dot(query, res);
+        assertArrayEquals(out, res);
+        array.squareDistance(query, out);
+        expected.squareDistance(query, res);
+        assertArrayEquals(out, res);
+        array.squareModule(out);
+        expected.squareModule(res);
+        assertArrayEquals(out, res);
+        assertEquals(array.nearest(query), expected.nearest(query));
+        assertEquals(array.view(7), expected.view(7));
+
+        array.normalize();
+        expected.normalize();
+        for (int i = 0; i < size; i++) {
+            assertTrue(array.view(i).equals(expected.view(i), 1e-7));
+            assertEquals(array.squareModule(i), 1.0, 1e-6);
+        }
+        assertThrowsExactly(IllegalArgumentException.class, () -> array.squareModule(new double[size - 1]));
+    }
+
+    @Test
+    void arrayTransform() {
+        FloatComplexArray array = FloatComplexArray.of(2, Complex.of(1, 0), Complex.of(0, 2));
+        array.rotate(Rotation.of(Complex.ANGLE_90));
+        assertTrue(array.view(0).equals(Complex.of(0, 1), 1e-7));
+        assertTrue(array.view(1).equals(Complex.of(-2, 0), 1e-7));
+        array.transform(AffineTransform2.translation(1, 1), false);
+        assertTrue(array.view(1).equals(Complex.of(-1, 1), 1e-7));
+        int version = array.getVersion();
+        array.change(0, 1, 1);
+        assertEquals(array.getVersion(), version + 1);
+        assertArrayEquals(array.get(0), new double[]{2, 3}, 1e-7);
+    }
+}
@@ -0,0 +1,61 @@
+package pp.muza.complex;
+
+import org.junit.jupiter.api.Test;
+import pp.muza.complex.impl.BaseComplex;
+import pp.muza.complex.impl.ImmutableComplex;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImmutableComplexTest {
+
+    @Test
+    void constants() {
+        assertEquals(Complex.ZERO.getClass(), ImmutableComplex.class);
+        assertEquals(Complex.UP_LEFT.getClass(), ImmutableComplex.class);
+        assertTrue(Complex.UP.isNormalized());
+        assertTrue(Complex.UP_LEFT.isNormalized());
+        assertFalse(Complex.ZERO.isNormalized());
+        assertEquals(Complex.ZERO.squareModule(), 0.0);
+        assertEquals(Complex.ZERO, Complex.of(0, 0));
+        assertEquals(Complex.ZERO.hashCode(), Complex.of(0, 0).hashCode());
+    }
+
+    @Test
+    void immutable() {
+        Complex complex = Complex.immutableOf(3, 4);
+        assertThrowsExactly(UnsupportedOperationException.class, () -> complex.change(1, 1));
+        assertThrowsExactly(UnsupportedOperationException.class, () -> complex.setValue(0, 1));
+        assertThrowsExactly(UnsupportedOperationException.class, () -> complex.scale(2));
+        assertThrowsExactly(UnsupportedOperationException.class, complex::normalize);
+        assertThrowsExactly(UnsupportedOperationException.class, complex::setNull);
+        Complex.UP.normalize();
+
+        double[] values = complex.get();
+        values[0] = 10;
+        assertEquals(complex.getValue(0), 3.0);
+        assertEquals(complex.squareModule(), 25.0);
+        assertEquals(complex.getVersion(), 0);
+    }
+
+    @Test
+    void copy() {
+        Complex complex = Complex.immutableOf(1, 2, 3);
+        assertSame(complex.copy(), complex);
+        assertSame(Complex.immutableOf(complex), complex);
+
+        Complex mutable = Complex.of(complex);
+        mutable.change(1, 1, 1);
+        assertEquals(mutable, new BaseComplex(2, 3, 4));
+        assertEquals(complex, new BaseComplex(1, 2, 3));
+    }
+
+    @Test
+    void staticHelpers() {
+        assertEquals(Complex.add(Complex.UP, Complex.RIGHT), Complex.of(1, 1));
+        assertEquals(Complex.sub(Complex.UP, Complex.RIGHT), Complex.of(-1, 1));
+        assertEquals(Complex.scale(Complex.LEFT, 2), Complex.of(-2, 0));
+        assertTrue(Complex.rotate(Complex.RIGHT, Complex.ANGLE_90).equals(Complex.UP, 1e-15));
+        assertEquals(Complex.normalize(Complex.immutableOf(0, 2)), Complex.UP);
+        assertEquals(Complex.UP, Complex.of(0, 1));
+    }
+}
@@ -0,0 +1,89 @@
+package pp.muza.complex;
+
+import org.junit.jupiter.api.Test;
+import pp.muza.complex.bulk.ComplexArray;
+import pp.muza.complex.impl.BaseComplex;
+import pp.muza.complex.index.KdTree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KdTreeTest {
+
+    private static Complex random(Random random, int dimension) {
+        double[] values = new double[dimension];
+        for (int d = 0; d < dimension; d++) {
+            // a coarse grid, so there are duplicates and equal distances
+            values[d] = random.nextInt(50) / 10.0;
+        }
+        return Complex.of(values);
+    }
+
+    private static int[] bruteForce(List<Complex> points, Complex query, int k) {
+        return IntStream.range(0, points.size()).boxed()
+                .sorted(Comparator.<Integer>comparingDouble(i -> Complex.squareDistance(points.get(i), query))
+                        .thenComparingInt(i -> i))
+                .limit(k)
+                .mapToInt(i -> i)
+                .toArray();
+    }
+
+    @Test
+    void sameAsLinearScan() {
+        Random random = new Random(42);
+        for (int dimension : new int[]{1, 2, 3, 5}) {
+            for (int size : new int[]{0, 1, 5, 100, 20_000}) {
+                List<Complex> points = new ArrayList<>();
+                for (int i = 0; i < size; i++) {
+                    points.add(random(random, dimension));
+                }
+                KdTree tree = KdTree.of(points);
+                assertEquals(tree.size(), size);
+                for (int q = 0; q < 20; q++) {
+                    Complex query = random(random, dimension);
+                    for (int k : new int[]{1, 3, 10}) {
+                        assertArrayEquals(tree.nearest(query, k), bruteForce(points, query, k));
+                    }
+                    double radius = random.nextDouble();
+                    int[] expected = IntStream.range(0, size)
+                            .filter(i -> Complex.squareDistance(points.get(i), query) <= radius * radius)
+                            .toArray();
+                    assertArrayEquals(tree.withinRadius(query, radius), expected);
+                }
+            }
+        }
+    }
+
+    @Test
+    void queries() {
+        List<Complex> points = Arrays.asList(Complex.of(0, 0, 0), Complex.of(1, 0, 0), Complex.of(0, 2, 0), Complex.of(5, 5, 5));
+        KdTree tree = KdTree.of(points);
+        assertEquals(tree.getDimension(), 3);
+        assertEquals(tree.nearest(Complex.of(4, 4)), 2);
+        assertArrayEquals(tree.nearest(Complex.of(0, 0), 10), new int[]{0, 1, 2, 3});
+        assertArrayEquals(tree.withinRadius(Complex.of(0, 0), 1), new int[]{0, 1});
+        assertArrayEquals(tree.withinRadius(Complex.of(0, 0), 0), new int[]{0});
+        assertThrowsExactly(IllegalArgumentException.class, () -> tree.withinRadius(Complex.of(0, 0), -1));
+        assertThrowsExactly(IllegalArgumentException.class, () -> tree.withinRadius(Complex.of(0, 0), Double.NaN));
+        assertThrowsExactly(IllegalArgumentException.class, () -> tree.withinRadius(ComplexArray.of(3, Complex.of(0, 0, 0)), -1));
+        assertEquals(KdTree.of().nearest(Complex.of(0, 0)), -1);
+        assertThrowsExactly(IllegalArgumentException.class, () -> KdTree.of(new BaseComplex(0), new BaseComplex(0)));
+        assertThrowsExactly(IllegalArgumentException.class, () -> KdTree.of(new ComplexArray(20, 0)));
+        assertThrowsExactly(IllegalArgumentException.class, () -> KdTree.of(Complex.of(1, 2)).nearest(Complex.of(1, 2, 3)));
+
+        ComplexArray queries = ComplexArray.of(3, Complex.of(5, 5, 4), Complex.of(0, 1.5, 0));
+        int[][] nearest = tree.nearest(queries, 2);
+        assertArrayEquals(nearest[0], new int[]{3, 2});
+        assertArrayEquals(nearest[1], new int[]{2, 0});
+        int[][] within = tree.withinRadius(queries, 1.5);
+        assertArrayEquals(within[0], new int[]{3});
+        assertArrayEquals(within[1], new int[]{0, 2});
+        assertArrayEquals(KdTree.of(queries).nearest(Complex.of(0, 0), 1), new int[]{1});
+    }
+}
@@ -0,0 +1,60 @@
+package pp.muza.complex;
+
+import org.junit.jupiter.api.Test;
+import pp.muza.complex.impl.MemoizedComplex;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemoizedComplexTest {
+
+    @Test
+    void cachedUntilChanged() {
+        MemoizedComplex complex = new MemoizedComplex(3, 4);
+        assertEquals(complex.module(), 5.0);
+        assertEquals(complex.module(), 5.0);
+        assertEquals(complex.argument(), Math.atan2(4, 3));
+        assertEquals(complex.argument(), Math.atan2(4, 3));
+        Complex direction = complex.direction();
+        assertEquals(direction, Complex.of(0.6, 0.8));
+        assertSame(complex.direction(), direction);
+        assertEquals(complex.getMissCount(), 3L);
+        assertEquals(complex.getHitCount(), 3L);
+
+        complex.change(3, 4);
+        assertEquals(complex.module(), 10.0);
+        assertEquals(complex.argument(), Math.atan2(8, 6));
+        assertNotSame(complex.direction(), direction);
+        assertEquals(complex.getMissCount(), 6L);
+
+        complex.setValue(1, 0);
+        assertEquals(complex.module(), 6.0);
+        complex.scale(-1);
+        // the scaled zero is -0.0
+        assertEquals(complex.argument(), -Math.PI);
+        complex.rotate(Complex.ANGLE_90);
+        assertTrue(complex.direction().equals(Complex.of(0, -1), 1e-15));
+        assertEquals(complex.getMissCount(), 9L);
+
+        complex.resetCounters();
+        assertEquals(complex.getHitCount(), 0L);
+        assertEquals(complex.getMissCount(), 0L);
+        complex.module();
+        assertEquals(complex.getMissCount(), 1L);
+    }
+
+    @Test
+    void copyAndDimensions() {
+        MemoizedComplex complex = new MemoizedComplex(1, 2, 2);
+        assertEquals(complex.module(), 3.0);
+        Complex copy = complex.copy();
+        assertTrue(copy instanceof MemoizedComplex);
+        assertEquals(copy, complex);
+        assertEquals(((MemoizedComplex) copy).getMissCount(), 0L);
+        assertEquals(complex.direction(), Complex.of(1.0 / 3, 2.0 / 3, 2.0 / 3));
+        assertThrowsExactly(IllegalArgumentException.class, complex::argument);
+
+        MemoizedComplex zero = new MemoizedComplex(2);
+        assertTrue(zero.direction().isZero());
+        assertThrows(UnsupportedOperationException.class, () -> zero.direction().scale(2));
+    }
+}
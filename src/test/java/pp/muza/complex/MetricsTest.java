@@ -0,0 +1,116 @@
+package pp.muza.complex;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIfSystemProperty;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import pp.muza.complex.bulk.ComplexArray;
+import pp.muza.complex.bulk.ComplexBuffer;
+import pp.muza.complex.bulk.ComplexStorage;
+import pp.muza.complex.impl.BaseComplex;
+import pp.muza.complex.metrics.CounterRegistry;
+import pp.muza.complex.metrics.Metrics;
+import pp.muza.complex.metrics.MetricsRegistry;
+import pp.muza.complex.metrics.Operation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsTest {
+
+    private MetricsRegistry previous;
+    private CounterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        previous = Metrics.getRegistry();
+        registry = new CounterRegistry();
+        Metrics.setRegistry(registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Metrics.setRegistry(previous);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = Metrics.PROPERTY, matches = "true")
+    void squareModuleCache() {
+        Complex complex = new BaseComplex(3, 4);
+        registry.reset();
+        complex.squareModule();
+        complex.squareModule();
+        complex.squareModule();
+        complex.change(1, 1);
+        complex.squareModule();
+        assertEquals(registry.getCount(Operation.SQUARE_MODULE_MISS), 2L);
+        assertEquals(registry.getCount(Operation.SQUARE_MODULE_HIT), 2L);
+        assertEquals(registry.getCount(Operation.ON_CHANGE), 1L);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = Metrics.PROPERTY, matches = "true")
+    void operationsAndCopies() {
+        Complex a = new BaseComplex(1, 2);
+        Complex b = new BaseComplex(3, 4);
+        Complex out = new BaseComplex(2);
+        Complex.add(a, b, out);
+        Complex.add(a, b, out);
+        Complex.mul(a, b, out);
+        a.copy();
+        assertEquals(registry.getCount(Operation.ADD), 2L);
+        assertEquals(registry.getCount(Operation.ARITHMETIC), 1L);
+        assertEquals(registry.getCount(Operation.COPY), 1L);
+        assertEquals(registry.getCount(Operation.SUB), 0L);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = Metrics.PROPERTY, matches = "true")
+    void bulkOperations() {
+        ComplexStorage[] storages = {new ComplexArray(100, 2), ComplexBuffer.allocateDirect(100, 2)};
+        for (ComplexStorage storage : storages) {
+            storage.scale(2.0);
+            storage.normalize();
+            storage.squareModule(new double[100]);
+            storage.nearest(Complex.of(1, 0));
+        }
+        assertEquals(registry.getCount(Operation.BULK_SCALE), 2L);
+        assertEquals(registry.getCount(Operation.BULK_NORMALIZE), 2L);
+        assertEquals(registry.getCount(Operation.BULK_SQUARE_MODULE), 2L);
+        assertEquals(registry.getCount(Operation.BULK_NEAREST), 2L);
+        assertTrue(registry.getNanos(Operation.BULK_SCALE) >= 0L);
+        assertEquals(registry.getNanos(Operation.ADD), 0L);
+    }
+
+    @Test
+    @DisabledIfSystemProperty(named = Metrics.PROPERTY, matches = "true")
+    void disabled() {
+        assertFalse(Metrics.ENABLED);
+        Complex complex = new BaseComplex(3, 4);
+        complex.squareModule();
+        complex.change(1, 1);
+        Complex.add(complex, complex, new BaseComplex(2));
+        new ComplexArray(100, 2).scale(2.0);
+        for (Operation operation : Operation.values()) {
+            assertEquals(registry.getCount(operation), 0L);
+        }
+    }
+
+    @Test
+    void hitRate() {
+        CounterRegistry counters = new CounterRegistry();
+        assertTrue(Double.isNaN(counters.getHitRate(Operation.NORMALIZED_HIT, Operation.NORMALIZED_MISS)));
+        counters.increment(Operation.NORMALIZED_HIT);
+        counters.increment(Operation.NORMALIZED_HIT);
+        counters.increment(Operation.NORMALIZED_HIT);
+        counters.increment(Operation.NORMALIZED_MISS);
+        assertEquals(counters.getHitRate(Operation.NORMALIZED_HIT, Operation.NORMALIZED_MISS), 0.75);
+        counters.reset();
+        assertEquals(counters.getCount(Operation.NORMALIZED_HIT), 0L);
+    }
+
+    @Test
+    void nullRegistry() {
+        assertThrows(IllegalArgumentException.class, () -> Metrics.setRegistry(null));
+    }
+}
@@ -0,0 +1,133 @@
+package pp.muza.complex;
+
+import org.junit.jupiter.api.Test;
+import pp.muza.complex.bulk.ComplexArray;
+import pp.muza.complex.bulk.ComplexBuffer;
+import pp.muza.complex.io.Npy;
+import pp.muza.complex.io.NpyWriter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NpyTest {
+
+    private static Path file(String header, ByteOrder order, double... values) throws IOException {
+        byte[] text = (header + "\n").getBytes(StandardCharsets.ISO_8859_1);
+        boolean f4 = header.contains("f4");
+        ByteBuffer bytes = ByteBuffer.allocate(10 + text.length + values.length * (f4 ? 4 : 8));
+        bytes.order(ByteOrder.LITTLE_ENDIAN);
+        bytes.put(new byte[]{(byte) 0x93, 'N', 'U', 'M', 'P', 'Y', 1, 0});
+        bytes.putShort((short) text.length);
+        bytes.put(text);
+        bytes.order(order);
+        for (double v : values) {
+            if (f4) {
+                bytes.putFloat((float) v);
+            } else {
+                bytes.putDouble(v);
+            }
+        }
+        Path file = Files.createTempFile("complex", ".npy");
+        Files.write(file, bytes.array());
+        return file;
+    }
+
+    @Test
+    void writeAndMap() throws IOException {
+        Path file = Files.createTempFile("complex", ".npy");
+        try {
+            ComplexArray array = new ComplexArray(1000, 3);
+            for (int i = 0; i < array.size(); i++) {
+                array.set(i, i, -i, 0.5 * i);
+            }
+            Npy.write(file, array);
+            assertEquals(Files.size(file) % 64, 0L);
+
+            ComplexBuffer mapped = Npy.map(file);
+            assertEquals(mapped.size(), 1000);
+            assertEquals(mapped.getDimension(), 3);
+            for (int i = 0; i < array.size(); i++) {
+                assertArrayEquals(mapped.get(i), array.get(i));
+            }
+
+            // the changes of a private mapping are not written to the file
+            byte[] content = Files.readAllBytes(file);
+            ComplexBuffer copy = Npy.map(file, FileChannel.MapMode.PRIVATE);
+            copy.set(5, 1, 2, 3);
+            assertArrayEquals(copy.get(5), new double[]{1, 2, 3});
+            assertArrayEquals(Files.readAllBytes(file), content);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void writeComplexNumbers() throws IOException {
+        Path file = Files.createTempFile("complex", ".npy");
+        try {
+            List<Complex> values = Arrays.asList(Complex.of(1, 2), Complex.of(3, 4));
+            Npy.write(file, 3, values);
+            ComplexBuffer mapped = Npy.map(file);
+            assertEquals(mapped.size(), 2);
+            assertArrayEquals(mapped.get(1), new double[]{3, 4, 0});
+
+            try (NpyWriter writer = new NpyWriter(file, 2, ComplexBuffer.Type.FLOAT32)) {
+                writer.write(0.25, 0.5);
+                writer.writeAll(values);
+                assertEquals(writer.getCount(), 3L);
+            }
+            mapped = Npy.map(file);
+            assertEquals(mapped.getType(), ComplexBuffer.Type.FLOAT32);
+            assertEquals(mapped.view(0), Complex.of(0.25, 0.5));
+            assertEquals(mapped.view(2), Complex.of(3, 4));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void readFloatAndBigEndian() throws IOException {
+        Path f4 = file("{'descr': '<f4', 'fortran_order': False, 'shape': (2, 2), }", ByteOrder.LITTLE_ENDIAN,
+                1.5, 2, 3, 4);
+        Path be = file("{'descr': '>f8', 'fortran_order': False, 'shape': (3,), }", ByteOrder.BIG_ENDIAN,
+                1, 2, 3);
+        try {
+            ComplexBuffer floats = Npy.map(f4);
+            assertEquals(floats.view(0), Complex.of(1.5, 2));
+            assertEquals(floats.view(1), Complex.of(3, 4));
+
+            ComplexBuffer doubles = Npy.map(be);
+            assertEquals(doubles.size(), 3);
+            assertEquals(doubles.getDimension(), 1);
+            assertEquals(doubles.getValue(2, 0), 3.0);
+        } finally {
+            Files.delete(f4);
+            Files.delete(be);
+        }
+    }
+
+    @Test
+    void unsupportedFiles() throws IOException {
+        Path fortran = file("{'descr': '<f8', 'fortran_order': True, 'shape': (1, 2), }", ByteOrder.LITTLE_ENDIAN, 1, 2);
+        Path integers = file("{'descr': '<i4', 'fortran_order': False, 'shape': (1, 2), }", ByteOrder.LITTLE_ENDIAN, 1);
+        Path shortFile = file("{'descr': '<f8', 'fortran_order': False, 'shape': (2, 2), }", ByteOrder.LITTLE_ENDIAN, 1, 2);
+        try {
+            assertThrows(IOException.class, () -> Npy.map(fortran));
+            assertThrows(IOException.class, () -> Npy.map(integers));
+            assertThrows(IOException.class, () -> Npy.map(shortFile));
+        } finally {
+            Files.delete(fortran);
+            Files.delete(integers);
+            Files.delete(shortFile);
+        }
+    }
+}
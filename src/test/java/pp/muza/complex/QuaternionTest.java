@@ -0,0 +1,116 @@
+package pp.muza.complex;
+
+import org.junit.jupiter.api.Test;
+import pp.muza.complex.bulk.ComplexArray;
+import pp.muza.complex.bulk.ComplexBuffer;
+import pp.muza.complex.impl.BaseComplex;
+import pp.muza.complex.transform.AffineTransform3;
+import pp.muza.complex.transform.Quaternion;
+import pp.muza.complex.trig.Trig;
+import pp.muza.complex.trig.TrigProvider;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuaternionTest {
+
+    private static final double EPSILON = 1e-12;
+
+    @Test
+    void axisAngle() {
+        Quaternion q = Quaternion.fromAxisAngle(0, 0, 1, Complex.ANGLE_90);
+        Complex complex = new BaseComplex(1, 0, 0);
+        assertSame(q.applyTo(complex), complex);
+        assertTrue(complex.equals(new BaseComplex(0, 1, 0), EPSILON));
+        assertEquals(q.getAngle(), Complex.ANGLE_90, EPSILON);
+
+        Quaternion x = Quaternion.fromAxisAngle(new BaseComplex(2, 0, 0), 0.8);
+        Complex out = new BaseComplex(3);
+        x.applyTo(new BaseComplex(1, 2, 3), out);
+        assertTrue(out.equals(AffineTransform3.rotationX(0.8).applyTo(new BaseComplex(1, 2, 3)), EPSILON));
+
+        assertThrowsExactly(IllegalArgumentException.class, () -> Quaternion.fromAxisAngle(0, 0, 0, 1));
+        assertThrowsExactly(IllegalArgumentException.class, () -> Quaternion.of(0, 0, 0, 0));
+        assertThrowsExactly(IllegalArgumentException.class, () -> q.applyTo(Complex.of(1, 2)));
+        assertThrowsExactly(IllegalArgumentException.class, () -> Quaternion.fromAxisAngle(Complex.of(1, 2), 1));
+    }
+
+    @Test
+    void unitWithApproximateTrig() {
+        TrigProvider provider = Trig.getProvider();
+        Trig.setProvider(TrigProvider.TABLE);
+        try {
+            Quaternion q = Quaternion.fromAxisAngle(1, 2, 3, 0.7);
+            assertEquals(q.dot(q), 1.0, 1e-15);
+            Complex complex = new BaseComplex(3, -4, 12);
+            q.applyTo(complex);
+            assertEquals(complex.squareModule(), 169.0, 1e-12);
+        } finally {
+            Trig.setProvider(provider);
+        }
+    }
+
+    @Test
+    void compose() {
+        Quaternion a = Quaternion.fromAxisAngle(1, 2, 3, 0.5);
+        Quaternion b = Quaternion.fromAxisAngle(-1, 0, 2, 1.7);
+        Complex v = new BaseComplex(0.3, -2, 5);
+        Complex expected = b.applyTo(a.applyTo(v.copy()));
+        assertTrue(a.then(b).applyTo(v.copy()).equals(expected, EPSILON));
+
+        Complex matrix = a.toAffineTransform().then(b.toAffineTransform()).applyTo(v.copy());
+        assertTrue(matrix.equals(expected, EPSILON));
+
+        assertTrue(a.then(a.inverse()).applyTo(v.copy()).equals(v, EPSILON));
+        assertEquals(Quaternion.IDENTITY.then(a), a);
+        assertEquals(a.normalize().dot(a), 1.0, EPSILON);
+        assertEquals(a.toAffineTransform().getDeterminant(), 1.0, EPSILON);
+    }
+
+    @Test
+    void slerp() {
+        Quaternion a = Quaternion.fromAxisAngle(0, 0, 1, 0.2);
+        Quaternion b = Quaternion.fromAxisAngle(0, 0, 1, 1.4);
+        assertEquals(a.slerp(b, 0).dot(a), 1.0, EPSILON);
+        assertEquals(a.slerp(b, 1).dot(b), 1.0, EPSILON);
+        assertEquals(a.slerp(b, 0.5).getAngle(), 0.8, EPSILON);
+        assertEquals(a.slerp(b, 0.25).getAngle(), 0.5, EPSILON);
+
+        // -b is the same rotation, the interpolation still takes the short arc
+        Quaternion minusB = Quaternion.of(-b.getW(), -b.getX(), -b.getY(), -b.getZ());
+        Complex v = new BaseComplex(1, 0, 0);
+        assertTrue(a.slerp(minusB, 0.5).applyTo(v.copy()).equals(a.slerp(b, 0.5).applyTo(v.copy()), EPSILON));
+
+        Quaternion near = Quaternion.fromAxisAngle(0, 0, 1, 0.2 + 1e-6);
+        assertEquals(a.slerp(near, 0.5).getAngle(), 0.2 + 0.5e-6, EPSILON);
+    }
+
+    @Test
+    void batch() {
+        Quaternion q = Quaternion.fromAxisAngle(1, 1, 1, 2.1);
+        Complex[] values = {new BaseComplex(1, 2, 3), new BaseComplex(-1, 0, 0.5), new BaseComplex(0, 0, 0)};
+        Complex[] expected = new Complex[values.length];
+        for (int i = 0; i < values.length; i++) {
+            expected[i] = q.applyTo(values[i], new BaseComplex(3));
+        }
+        ComplexArray array = ComplexArray.of(3, values);
+        ComplexBuffer buffer = ComplexBuffer.allocateDirect(values.length, 3);
+        for (int i = 0; i < values.length; i++) {
+            buffer.set(i, values[i]);
+        }
+        Complex[] out = {new BaseComplex(3), new BaseComplex(3), new BaseComplex(3)};
+        q.applyTo(values, out);
+        q.applyTo(array);
+        q.applyToParallel(buffer);
+        q.applyTo(Arrays.asList(values));
+        for (int i = 0; i < values.length; i++) {
+            assertTrue(out[i].equals(expected[i], EPSILON));
+            assertTrue(values[i].equals(expected[i], EPSILON));
+            assertTrue(array.view(i).equals(expected[i], EPSILON));
+            assertTrue(buffer.view(i).equals(expected[i], EPSILON));
+        }
+        q.inverse().applyToParallel(values);
+        assertTrue(values[0].equals(new BaseComplex(1, 2, 3), EPSILON));
+    }
+}
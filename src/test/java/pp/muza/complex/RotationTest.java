@@ -0,0 +1,106 @@
+package pp.muza.complex;
+
+import org.junit.jupiter.api.Test;
+import pp.muza.complex.bulk.ComplexArray;
+import pp.muza.complex.bulk.ComplexBuffer;
+import pp.muza.complex.impl.BaseComplex;
+import pp.muza.complex.transform.Rotation;
+import pp.muza.complex.trig.Trig;
+import pp.muza.complex.trig.TrigProvider;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RotationTest {
+
+    @Test
+    void sameAsRotate() {
+        for (double angle : new double[]{0.1, -2, Complex.ANGLE_30, Complex.ANGLE_90, 7}) {
+            Rotation rotation = Rotation.of(angle);
+            Complex expected = new BaseComplex(3, -4);
+            expected.rotate(angle);
+
+            Complex complex = Complex.of(3, -4);
+            assertSame(rotation.applyTo(complex), complex);
+            assertEquals(complex, expected);
+
+            Complex out = new BaseComplex(0, 0);
+            assertSame(rotation.applyTo(Complex.of(3, -4), out), out);
+            assertEquals(out, expected);
+        }
+        Complex complex = Complex.of(1, 0);
+        Rotation.ANGLE_45.applyTo(complex);
+        assertEquals(complex, Complex.UP_RIGHT);
+        assertThrowsExactly(IllegalArgumentException.class, () -> Rotation.ANGLE_90.applyTo(Complex.of(1, 2, 3)));
+        assertThrowsExactly(IllegalArgumentException.class, () -> Rotation.ANGLE_90.applyTo(Complex.of(1, 2), Complex.of(1, 2, 3)));
+    }
+
+    @Test
+    void batch() {
+        Complex[] values = {Complex.of(1, 2), Complex.of(-3, 0.5)};
+        Complex[] out = {Complex.of(0, 0), Complex.of(0, 0)};
+        Rotation.ANGLE_60.applyTo(values, out);
+        Rotation.ANGLE_60.applyTo(Arrays.asList(values));
+        assertArrayEquals(out, values);
+
+        ComplexArray array = ComplexArray.of(2, Complex.of(1, 2), Complex.of(-3, 0.5));
+        ComplexBuffer buffer = ComplexBuffer.allocateDirect(2, 2);
+        buffer.set(0, 1, 2);
+        buffer.set(1, -3, 0.5);
+        int version = array.getVersion();
+        Rotation.ANGLE_60.applyTo(array);
+        Rotation.ANGLE_60.applyTo(buffer);
+        assertTrue(array.getVersion() > version);
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(array.view(i), values[i]);
+            assertEquals(buffer.view(i), values[i]);
+        }
+        assertThrowsExactly(IllegalArgumentException.class, () -> Rotation.ANGLE_90.applyTo(new ComplexArray(1, 3)));
+    }
+
+    @Test
+    void compose() {
+        Rotation rotation = Rotation.ANGLE_30.compose(Rotation.ANGLE_60);
+        assertEquals(rotation.getAngle(), Complex.ANGLE_30 + Complex.ANGLE_60);
+        assertEquals(rotation.inverse().getSin(), -rotation.getSin());
+        assertEquals(rotation.inverse().getCos(), rotation.getCos());
+        assertEquals(rotation.inverse().getAngle(), -rotation.getAngle());
+        assertTrue(Math.abs(rotation.getCos() - Math.cos(Complex.ANGLE_90)) < 1e-15);
+        assertTrue(Math.abs(rotation.getSin() - Math.sin(Complex.ANGLE_90)) < 1e-15);
+        assertEquals(Rotation.of(Complex.ANGLE_90), Rotation.ANGLE_90);
+        assertEquals(Rotation.of(Complex.ANGLE_90).hashCode(), Rotation.ANGLE_90.hashCode());
+    }
+
+    @Test
+    void constantsDoNotDependOnProvider() {
+        TrigProvider provider = Trig.getProvider();
+        Trig.setProvider(TrigProvider.TABLE);
+        try {
+            assertEquals(Rotation.ANGLE_30.getCos(), Math.cos(Complex.ANGLE_30));
+            assertEquals(Rotation.ANGLE_30.getSin(), Math.sin(Complex.ANGLE_30));
+            assertEquals(Rotation.ANGLE_270.getCos(), Math.cos(Complex.ANGLE_270));
+            assertEquals(Rotation.ANGLE_270.getSin(), Math.sin(Complex.ANGLE_270));
+            // the same angle with other cosine and sine is another rotation
+            assertNotEquals(Rotation.of(Complex.ANGLE_30), Rotation.ANGLE_30);
+        } finally {
+            Trig.setProvider(provider);
+        }
+    }
+
+    @Test
+    void polarPoints() {
+        Complex[] points = Rotation.polarPoints(2.5, 1000);
+        assertEquals(points.length, 1000);
+        for (int k = 0; k < points.length; k++) {
+            assertTrue(points[k].equals(Complex.fromPolar(2.5, k * Complex.ANGLE_360 / 1000), 1e-14));
+        }
+        assertEquals(points[0], Complex.fromPolar(2.5, 0));
+
+        points = Rotation.polarPoints(1, 0.5, -0.01, 300);
+        for (int k = 0; k < points.length; k++) {
+            assertTrue(points[k].equals(Complex.fromPolar(1, 0.5 - 0.01 * k), 1e-14));
+        }
+        assertEquals(Rotation.polarPoints(1, 0).length, 0);
+    }
+}
@@ -0,0 +1,85 @@
+package pp.muza.complex;
+
+import org.junit.jupiter.api.Test;
+import pp.muza.complex.bulk.ComplexArray;
+import pp.muza.complex.bulk.ComplexBuffer;
+import pp.muza.complex.bulk.ComplexStorage;
+import pp.muza.complex.concurrent.ComplexCollectors;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StorageSpliteratorTest {
+
+    private static ComplexStorage[] storages(int size) {
+        Random random = new Random(42);
+        ComplexArray array = new ComplexArray(size, 2);
+        ComplexBuffer buffer = ComplexBuffer.allocateDirect(size, 2);
+        for (int i = 0; i < size; i++) {
+            array.set(i, random.nextInt(100), random.nextInt(100));
+            buffer.set(i, array.view(i));
+        }
+        return new ComplexStorage[]{array, buffer};
+    }
+
+    @Test
+    void traversal() {
+        for (ComplexStorage storage : storages(1000)) {
+            List<Complex> seen = new ArrayList<>();
+            storage.stream().forEach(seen::add);
+            // the elements are one reusable view
+            assertEquals(seen.stream().distinct().count(), 1L);
+            assertSame(seen.get(0), seen.get(999));
+
+            List<Complex> copies = storage.stream().map(Complex::copy).collect(Collectors.toList());
+            assertEquals(copies.size(), 1000);
+            for (int i = 0; i < 1000; i++) {
+                assertEquals(copies.get(i), storage.copy(i));
+            }
+            assertEquals(storage.parallelStream().collect(ComplexCollectors.sum()),
+                    copies.stream().collect(ComplexCollectors.sum()));
+            assertEquals(storage.parallelStream().mapToDouble(Complex::squareModule).sum(),
+                    copies.stream().mapToDouble(Complex::squareModule).sum());
+        }
+    }
+
+    @Test
+    void split() {
+        ComplexStorage storage = storages(1001)[0];
+        Spliterator<Complex> spliterator = storage.spliterator();
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+        assertEquals(spliterator.getExactSizeIfKnown(), 1001L);
+        Spliterator<Complex> prefix = spliterator.trySplit();
+        assertEquals(prefix.estimateSize(), 500L);
+        assertEquals(spliterator.estimateSize(), 501L);
+
+        double[] first = new double[2];
+        assertTrue(prefix.tryAdvance(c -> first[0] = c.getValue(0)));
+        assertEquals(first[0], storage.getValue(0, 0));
+        assertTrue(spliterator.tryAdvance(c -> first[1] = c.getValue(0)));
+        assertEquals(first[1], storage.getValue(500, 0));
+
+        Spliterator<Complex> single = storages(1)[0].spliterator();
+        assertNull(single.trySplit());
+        assertTrue(single.tryAdvance(c -> { }));
+        assertFalse(single.tryAdvance(c -> { }));
+    }
+
+    @Test
+    void writeThrough() {
+        ComplexStorage storage = storages(100)[1];
+        double[] squareModule = new double[100];
+        storage.squareModule(squareModule);
+        storage.stream().forEach(c -> c.normalize());
+        for (int i = 0; i < 100; i++) {
+            if (squareModule[i] > 0.0) {
+                assertEquals(storage.squareModule(i), 1.0, 1e-12);
+            }
+        }
+    }
+}
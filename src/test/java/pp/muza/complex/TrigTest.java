@@ -0,0 +1,68 @@
+package pp.muza.complex;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import pp.muza.complex.impl.BaseComplex;
+import pp.muza.complex.trig.Trig;
+import pp.muza.complex.trig.TrigProvider;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrigTest {
+
+    private static final TrigProvider[] APPROXIMATIONS = {TrigProvider.TABLE, TrigProvider.POLYNOMIAL};
+
+    @AfterEach
+    void tearDown() {
+        Trig.setProvider(TrigProvider.STRICT);
+    }
+
+    @Test
+    void maxError() {
+        Random random = new Random(42);
+        for (TrigProvider provider : APPROXIMATIONS) {
+            double error = provider.getMaxError();
+            for (int i = 0; i < 200_000; i++) {
+                double a = i < 100_000 ? (random.nextDouble() - 0.5) * 4 * Math.PI : (random.nextDouble() - 0.5) * 2e6;
+                assertEquals(provider.sin(a), Math.sin(a), error);
+                assertEquals(provider.cos(a), Math.cos(a), error);
+                double x = random.nextDouble() * 2 - 1;
+                assertEquals(provider.acos(x), Math.acos(x), 3e-8);
+            }
+            assertEquals(provider.acos(1.0), 0.0, 3e-8);
+            assertEquals(provider.acos(-1.0), Math.PI, 3e-8);
+            assertEquals(provider.acos(1.0 + 1e-15), 0.0, 3e-8);
+            assertEquals(provider.sin(1e300), Math.sin(1e300));
+            assertTrue(Double.isNaN(provider.sin(Double.NaN)));
+            assertTrue(Double.isNaN(provider.cos(Double.POSITIVE_INFINITY)));
+            assertTrue(Double.isNaN(provider.acos(Double.NaN)));
+        }
+    }
+
+    @Test
+    void strict() {
+        assertSame(Trig.getProvider(), TrigProvider.STRICT);
+        assertEquals(TrigProvider.STRICT.getMaxError(), 0.0);
+        Complex complex = Complex.of(1, 2);
+        complex.rotate(0.3);
+        assertEquals(complex.getValue(0), Math.cos(0.3) - 2 * Math.sin(0.3));
+        assertEquals(Complex.fromPolar(2, 0.3).getValue(1), 2 * Math.sin(0.3));
+    }
+
+    @Test
+    void selectedProvider() {
+        Trig.setProvider(TrigProvider.TABLE);
+        Complex complex = new BaseComplex(1, 0);
+        complex.rotate(Complex.ANGLE_30);
+        assertEquals(complex.getValue(0), TrigProvider.TABLE.cos(Complex.ANGLE_30));
+        assertEquals(Complex.fromPolar(1, 1).getValue(0), TrigProvider.TABLE.cos(1));
+        assertEquals(Complex.angle(Complex.of(1, 0), Complex.of(0, 2)), TrigProvider.TABLE.acos(0));
+        assertThrowsExactly(IllegalArgumentException.class, () -> Trig.setProvider(null));
+
+        // the complex arithmetic does not follow the provider
+        assertEquals(Complex.exp(Complex.of(0, 1)), Complex.of(Math.cos(1), Math.sin(1)));
+        assertEquals(Complex.pow(Complex.of(0, 1), 0.5), Complex.of(Math.cos(Math.PI / 4), Math.sin(Math.PI / 4)));
+    }
+}